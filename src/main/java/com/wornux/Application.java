@@ -1,6 +1,7 @@
 package com.wornux;
 
 import com.vaadin.flow.component.page.AppShellConfigurator;
+import com.vaadin.flow.component.page.Push;
 import com.vaadin.flow.server.AppShellSettings;
 import com.vaadin.flow.theme.Theme;
 import com.wornux.security.auditable.AuditorAwareImpl;
@@ -10,9 +11,12 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@Push
 @Theme("zoolan-vetmgmt")
+@EnableScheduling
 @EnableJpaAuditing(auditorAwareRef = "auditorAware")
 public class Application implements AppShellConfigurator {
 
@@ -13,6 +13,8 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import java.io.Serializable;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import lombok.*;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.envers.Audited;
@@ -82,10 +84,35 @@ public class Appointment extends Auditable implements Serializable {
 
   @Embedded @Valid @Nullable private AppointmentClientInfo guestClientInfo;
 
+  /**
+   * Regla {@code RRULE} de una serie (ver {@code RecurrenceRule}); {@code null} en citas sueltas.
+   * La fila guarda la primera ocurrencia y las demás se calculan al leer.
+   */
+  @Column(name = "recurrence_rule", length = 255)
+  @Size(max = 255, message = "La regla de repetición no puede exceder {max} caracteres")
+  @Nullable
+  private String recurrenceRule;
+
+  /** Fin de la última ocurrencia de la serie, o {@code null} si no termina. */
+  @Column(name = "recurrence_end")
+  @Nullable
+  private LocalDateTime recurrenceEnd;
+
+  @ElementCollection
+  @CollectionTable(
+      name = "appointment_recurrence_exceptions",
+      joinColumns = @JoinColumn(name = "appointment_id"))
+  @Builder.Default
+  private List<RecurrenceException> recurrenceExceptions = new ArrayList<>();
+
   public String getAppointmentTitle() {
     return getClientDisplayName() + " - " + offeringType.getDisplay();
   }
 
+  public boolean isRecurring() {
+    return recurrenceRule != null;
+  }
+
   public boolean isCompleted() {
     return status == AppointmentStatus.COMPLETADA;
   }
@@ -78,7 +78,8 @@ public class Client extends User {
   @Builder.Default
   private Double creditLimit = 0.0;
 
-  @Column(name = "current_balance")
+  /** Saldo de las facturas abiertas; lo mantiene PaymentAllocationService, no se edita aquí. */
+  @Column(name = "current_balance", updatable = false)
   @Builder.Default
   private Double currentBalance = 0.0;
 
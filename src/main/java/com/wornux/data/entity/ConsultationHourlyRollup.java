@@ -0,0 +1,49 @@
+package com.wornux.data.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import java.time.Instant;
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/** Active consultations of one hour of one day, kept by the dashboard rollup maintainer. */
+@Entity
+@Table(name = "consultation_hourly_rollup")
+@IdClass(ConsultationHourlyRollup.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+public class ConsultationHourlyRollup {
+
+  @Id
+  @Column(name = "day")
+  private LocalDate day;
+
+  @Id
+  @Column(name = "hour_of_day")
+  private Integer hourOfDay;
+
+  @Column(name = "consultation_count", nullable = false)
+  private Long consultationCount;
+
+  @Column(name = "refreshed_at", nullable = false)
+  private Instant refreshedAt;
+
+  @Getter
+  @Setter
+  @NoArgsConstructor
+  @AllArgsConstructor
+  @EqualsAndHashCode
+  public static class Key implements Serializable {
+    private LocalDate day;
+    private Integer hourOfDay;
+  }
+}
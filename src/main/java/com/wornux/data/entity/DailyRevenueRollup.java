@@ -0,0 +1,34 @@
+package com.wornux.data.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/** Invoiced revenue of one day, kept by the dashboard rollup maintainer. */
+@Entity
+@Table(name = "daily_revenue_rollup")
+@Getter
+@Setter
+@NoArgsConstructor
+public class DailyRevenueRollup {
+
+  @Id
+  @Column(name = "day")
+  private LocalDate day;
+
+  @Column(name = "revenue", nullable = false)
+  private BigDecimal revenue;
+
+  @Column(name = "invoice_count", nullable = false)
+  private Long invoiceCount;
+
+  @Column(name = "refreshed_at", nullable = false)
+  private Instant refreshedAt;
+}
@@ -84,6 +84,13 @@ public class Invoice extends Auditable implements Serializable {
   @Builder.Default
   private Set<PaymentDetail> paymentDetails = new HashSet<>();
 
+  /** Number handed out by the series allocator when the invoice is first saved. */
+  @Column(name = "invoice_number", length = 30, updatable = false)
+  private String invoiceNumber;
+
+  @Column(name = "number_series", length = 20, updatable = false)
+  private String numberSeries;
+
   @NotNull private LocalDate issuedDate;
   @NotNull private LocalDate paymentDate;
 
@@ -124,6 +131,19 @@ public class Invoice extends Auditable implements Serializable {
     }
   }
 
+  /**
+   * Suma a lo pagado un monto asignado por un pago. Pagada por completo pasa a {@code PAID}; si no,
+   * una factura vencida sigue {@code OVERDUE} y las demás quedan {@code PARTIAL}.
+   */
+  public void applyPayment(BigDecimal amount) {
+    this.paidToDate = this.paidToDate.add(amount);
+    if (this.paidToDate.compareTo(this.total) >= 0) {
+      this.status = InvoiceStatus.PAID;
+    } else if (this.status != InvoiceStatus.OVERDUE) {
+      this.status = InvoiceStatus.PARTIAL;
+    }
+  }
+
   public void markAsOverdue() {
     if (this.status != InvoiceStatus.PENDING) {
       throw new IllegalStateException(
@@ -135,14 +155,13 @@ public class Invoice extends Auditable implements Serializable {
     this.status = InvoiceStatus.OVERDUE;
   }
 
+  /** Lo aplicado a la factura; {@code paidToDate} se mantiene al asignar pagos. */
   public BigDecimal getTotalPaid() {
-    return paymentDetails.stream()
-        .map(PaymentDetail::getAmount)
-        .reduce(BigDecimal.ZERO, BigDecimal::add);
+    return paidToDate;
   }
 
   public BigDecimal getOutstandingBalance() {
-    return this.total.subtract(getTotalPaid());
+    return this.total.subtract(paidToDate);
   }
 
   @Override
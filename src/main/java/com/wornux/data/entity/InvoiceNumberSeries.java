@@ -0,0 +1,45 @@
+package com.wornux.data.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/** Counter of one invoice number series, e.g. internal invoices or an NCF sequence. */
+@Entity
+@Table(name = "invoice_number_series")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class InvoiceNumberSeries {
+
+  @Id
+  @Column(name = "series", length = 20)
+  private String series;
+
+  @Column(name = "prefix", nullable = false, length = 10)
+  private String prefix;
+
+  /** Zero-padded width of the numeric part; 0 for no padding. */
+  @Column(name = "digits", nullable = false)
+  private Integer digits;
+
+  @Column(name = "next_value", nullable = false)
+  private Long nextValue;
+
+  /** Whether every number must be used, as fiscal (NCF) series require. */
+  @Column(name = "gapless", nullable = false)
+  private Boolean gapless;
+
+  @Column(name = "description", length = 100)
+  private String description;
+
+  public String format(long value) {
+    return digits > 0 ? prefix + String.format("%0" + digits + "d", value) : prefix + value;
+  }
+}
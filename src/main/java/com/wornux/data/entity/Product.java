@@ -51,8 +51,12 @@ public class Product {
   @Column(name = "accounting_stock", nullable = false)
   private int accountingStock;
 
+  /**
+   * Set when the product is created; afterwards it only moves through {@code StockLedger}, so a
+   * save of a stale entity cannot undo the stock moves committed since it was read.
+   */
   @Min(0)
-  @Column(name = "available_stock", nullable = false)
+  @Column(name = "available_stock", nullable = false, updatable = false)
   private int availableStock;
 
   @Min(0)
@@ -0,0 +1,42 @@
+package com.wornux.data.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+import lombok.*;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Embeddable exception to one occurrence of a recurring appointment: the occurrence is either
+ * cancelled or moved to other times.
+ */
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode
+public class RecurrenceException {
+
+  /** Start the occurrence has according to the rule; identifies it within the series. */
+  @Column(name = "original_start", nullable = false)
+  @NotNull
+  private LocalDateTime originalStart;
+
+  @Column(name = "cancelled", nullable = false)
+  @Builder.Default
+  private boolean cancelled = false;
+
+  @Column(name = "start_appointment_date")
+  @Nullable
+  private LocalDateTime startAppointmentDate;
+
+  @Column(name = "end_appointment_date")
+  @Nullable
+  private LocalDateTime endAppointmentDate;
+
+  public boolean isRescheduled() {
+    return !cancelled && startAppointmentDate != null && endAppointmentDate != null;
+  }
+}
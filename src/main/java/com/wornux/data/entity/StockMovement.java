@@ -0,0 +1,57 @@
+package com.wornux.data.entity;
+
+import com.wornux.data.enums.StockMovementType;
+import com.wornux.data.enums.StorageRecordType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * One change of a product's available stock. Movements are append-only; old ones are folded into
+ * {@link StockSnapshot}s.
+ */
+@Entity
+@Table(name = "stock_movements")
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockMovement {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @Column(name = "id")
+  private Long id;
+
+  @Column(name = "product_id", nullable = false)
+  private Long productId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "movement_type", nullable = false, length = 30)
+  private StockMovementType movementType;
+
+  /** Signed quantity, negative when stock leaves. */
+  @Column(name = "quantity", nullable = false)
+  private Integer quantity;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "source_type", nullable = false, length = 30)
+  private StorageRecordType sourceType;
+
+  @Column(name = "source_id")
+  private Long sourceId;
+
+  @Builder.Default
+  @Column(name = "created_at", nullable = false)
+  private Instant createdAt = Instant.now();
+}
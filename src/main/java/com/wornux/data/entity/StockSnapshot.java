@@ -0,0 +1,35 @@
+package com.wornux.data.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/** Net stock movement of one product up to its last compacted {@link StockMovement}. */
+@Entity
+@Table(name = "stock_snapshots")
+@Getter
+@Setter
+@NoArgsConstructor
+public class StockSnapshot {
+
+  @Id
+  @Column(name = "product_id")
+  private Long productId;
+
+  @Column(name = "net_quantity", nullable = false)
+  private Long netQuantity;
+
+  @Column(name = "movement_count", nullable = false)
+  private Long movementCount;
+
+  @Column(name = "last_movement_id", nullable = false)
+  private Long lastMovementId;
+
+  @Column(name = "compacted_at", nullable = false)
+  private Instant compactedAt;
+}
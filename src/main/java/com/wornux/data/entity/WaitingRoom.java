@@ -8,7 +8,10 @@ import jakarta.validation.constraints.NotNull;
 import java.time.LocalDateTime;
 import java.util.Objects;
 import lombok.*;
+import org.hibernate.annotations.Generated;
 import org.hibernate.envers.Audited;
+import org.hibernate.envers.NotAudited;
+import org.hibernate.generator.EventType;
 import org.hibernate.proxy.HibernateProxy;
 
 @Entity
@@ -52,6 +55,18 @@ public class WaitingRoom {
   @NotNull
   private Priority priority = Priority.NORMAL;
 
+  /** Numeric value of {@link #priority}, computed by the database so history can be paged by it. */
+  @NotAudited
+  @Generated(event = {EventType.INSERT, EventType.UPDATE})
+  @Column(
+      name = "priority_rank",
+      insertable = false,
+      updatable = false,
+      columnDefinition =
+          "integer generated always as (case priority when 'EMERGENCIA' then 3"
+              + " when 'URGENTE' then 2 else 1 end) stored")
+  private Integer priorityRank;
+
   @Column(name = "notes")
   private String notes;
 
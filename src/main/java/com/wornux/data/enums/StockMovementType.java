@@ -0,0 +1,8 @@
+package com.wornux.data.enums;
+
+public enum StockMovementType {
+  RECEIPT,
+  CONSUMPTION,
+  RELEASE,
+  ADJUSTMENT
+}
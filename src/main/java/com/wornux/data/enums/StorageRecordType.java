@@ -6,5 +6,6 @@ public enum StorageRecordType {
   PROPERTY,
   USER_PROFILE,
   TENANT_PROFILE,
-  TENANT_WORKSPACE
+  TENANT_WORKSPACE,
+  PRODUCT
 }
@@ -1,8 +1,15 @@
 package com.wornux.data.repository;
 
 import com.wornux.data.entity.Appointment;
+import com.wornux.data.entity.AppointmentClientInfo;
+import com.wornux.data.entity.RecurrenceException;
+import com.wornux.data.enums.AppointmentStatus;
+import com.wornux.data.enums.OfferingType;
+import com.wornux.data.enums.PetType;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
@@ -13,6 +20,35 @@ import org.springframework.stereotype.Repository;
 public interface AppointmentRepository
     extends JpaRepository<Appointment, Long>, JpaSpecificationExecutor<Appointment> {
 
+  /** Columns of an {@link AppointmentRow}, with the client, pet and employee left joined. */
+  String ROW_COLUMNS =
+      "SELECT a.id AS eventId, a.startAppointmentDate AS startAppointmentDate, "
+          + "a.endAppointmentDate AS endAppointmentDate, a.offeringType AS offeringType, "
+          + "a.status AS status, a.reason AS reason, a.notes AS notes, "
+          + "a.recurrenceRule AS recurrenceRule, a.createdBy AS createdBy, "
+          + "a.lastModifiedBy AS updatedBy, c.id AS clientId, c.firstName AS clientFirstName, "
+          + "c.lastName AS clientLastName, c.phoneNumber AS clientPhone, p.name AS petName, "
+          + "p.breed AS petBreed, e.id AS employeeId, e.firstName AS employeeFirstName, "
+          + "e.lastName AS employeeLastName, a.guestClientInfo.name AS guestName, "
+          + "a.guestClientInfo.phone AS guestPhone, a.guestClientInfo.email AS guestEmail, "
+          + "a.guestClientInfo.petType AS guestPetType, a.guestClientInfo.breed AS guestBreed";
+
+  String ROW_JOINS =
+      " FROM Appointment a LEFT JOIN a.client c LEFT JOIN a.pet p LEFT JOIN a.assignedEmployee e";
+
+  /** {@link #ROW_COLUMNS} plus the exceptions of series, one row per exception. */
+  String ROW_WITH_EXCEPTIONS =
+      ROW_COLUMNS
+          + ", x.originalStart AS exceptionOriginalStart, x.cancelled AS exceptionCancelled, "
+          + "x.startAppointmentDate AS exceptionStart, x.endAppointmentDate AS exceptionEnd"
+          + ROW_JOINS
+          + " LEFT JOIN a.recurrenceExceptions x";
+
+  /**
+   * Rows that start in {@code [start, end]}: single appointments and the first occurrence of each
+   * series. Series are one row however many occurrences they have, so this stays as cheap as the
+   * number of appointments created; use {@link #findSeriesOverlapping} to expand the rest.
+   */
   List<Appointment> findByStartAppointmentDateBetween(LocalDateTime start, LocalDateTime end);
 
   @Query("SELECT a FROM Appointment a WHERE DATE(a.startAppointmentDate) = DATE(:date)")
@@ -20,6 +56,10 @@ public interface AppointmentRepository
 
   List<Appointment> findByClientIdOrderByStartAppointmentDateDesc(Long clientId);
 
+  /** Rows of the appointments of a client, latest first; a series is the row of its first one. */
+  @Query(ROW_COLUMNS + ROW_JOINS + " WHERE c.id = :clientId ORDER BY a.startAppointmentDate DESC")
+  List<AppointmentRow> findRowsByClientId(@Param("clientId") Long clientId);
+
   List<Appointment> findByPetIdOrderByStartAppointmentDateDesc(Long petId);
 
   List<Appointment> findByAssignedEmployeeIdAndStartAppointmentDateBetween(
@@ -35,4 +75,228 @@ public interface AppointmentRepository
           + " a.status NOT IN ('CANCELADA', 'COMPLETADA') ORDER BY a.startAppointmentDate")
   List<Appointment> findUpcomingAppointments(
       @Param("now") LocalDateTime now, @Param("tomorrow") LocalDateTime tomorrow);
+
+  /**
+   * Recurring appointments with an occurrence that may overlap {@code [from, to)}, with their
+   * client, pet, employee and exceptions, by id. Their occurrences are expanded with {@code
+   * AppointmentSeries}.
+   */
+  @Query(
+      "SELECT DISTINCT a FROM Appointment a LEFT JOIN FETCH a.client LEFT JOIN FETCH a.pet "
+          + "LEFT JOIN FETCH a.assignedEmployee LEFT JOIN FETCH a.recurrenceExceptions "
+          + "WHERE a.recurrenceRule IS NOT NULL AND a.startAppointmentDate < :to "
+          + "AND (a.recurrenceEnd IS NULL OR a.recurrenceEnd > :from) ORDER BY a.id")
+  List<Appointment> findSeriesOverlapping(
+      @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+  @Query(
+      "SELECT a FROM Appointment a LEFT JOIN FETCH a.client LEFT JOIN FETCH a.pet "
+          + "LEFT JOIN FETCH a.assignedEmployee LEFT JOIN FETCH a.recurrenceExceptions "
+          + "WHERE a.id = :id")
+  Optional<Appointment> findByIdWithDetails(@Param("id") Long id);
+
+  /**
+   * Rows of the single appointments that overlap {@code [from, to)} and of the series with an
+   * occurrence that may overlap it, in start order, in a single statement. A series has one row per
+   * exception (at least one), all next to each other; expand them with {@code AppointmentSeries}.
+   */
+  @Query(
+      ROW_WITH_EXCEPTIONS
+          + " WHERE a.startAppointmentDate < :to AND ((a.recurrenceRule IS NULL "
+          + "AND a.endAppointmentDate > :from) OR (a.recurrenceRule IS NOT NULL "
+          + "AND (a.recurrenceEnd IS NULL OR a.recurrenceEnd > :from))) "
+          + "ORDER BY a.startAppointmentDate, a.id")
+  List<AppointmentRow> findRowsOverlapping(
+      @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+  /** Rows of an appointment as {@link #findRowsOverlapping} reads them; empty if it is gone. */
+  @Query(ROW_WITH_EXCEPTIONS + " WHERE a.id = :id")
+  List<AppointmentRow> findRowsById(@Param("id") Long id);
+
+  /**
+   * Locks the employee's row until the transaction ends, so saves that book the same employee run
+   * their conflict check one at a time. {@code NO KEY UPDATE} still lets appointments reference the
+   * employee meanwhile.
+   */
+  @Query(
+      value = "SELECT employee_id FROM employee WHERE employee_id = :employeeId FOR NO KEY UPDATE",
+      nativeQuery = true)
+  Optional<Long> lockEmployeeSchedule(@Param("employeeId") Long employeeId);
+
+  /**
+   * Ids of the single appointments of an employee that overlap {@code [from, to)} and are in one of
+   * the given statuses, except {@code excludedId}.
+   */
+  @Query(
+      "SELECT a.id FROM Appointment a WHERE a.assignedEmployee.id = :employeeId "
+          + "AND a.startAppointmentDate < :to AND a.endAppointmentDate > :from "
+          + "AND a.recurrenceRule IS NULL "
+          + "AND a.status IN :statuses AND a.id <> :excludedId ORDER BY a.startAppointmentDate")
+  List<Long> findEmployeeOverlaps(
+      @Param("employeeId") Long employeeId,
+      @Param("from") LocalDateTime from,
+      @Param("to") LocalDateTime to,
+      @Param("statuses") Collection<AppointmentStatus> statuses,
+      @Param("excludedId") Long excludedId);
+
+  /**
+   * Single appointments of an employee that overlap {@code [from, to)} and are in one of the given
+   * statuses, except {@code excludedId}, in start order.
+   */
+  @Query(
+      "SELECT a FROM Appointment a WHERE a.assignedEmployee.id = :employeeId "
+          + "AND a.startAppointmentDate < :to AND a.endAppointmentDate > :from "
+          + "AND a.recurrenceRule IS NULL "
+          + "AND a.status IN :statuses AND a.id <> :excludedId ORDER BY a.startAppointmentDate")
+  List<Appointment> findEmployeeAppointmentsOverlapping(
+      @Param("employeeId") Long employeeId,
+      @Param("from") LocalDateTime from,
+      @Param("to") LocalDateTime to,
+      @Param("statuses") Collection<AppointmentStatus> statuses,
+      @Param("excludedId") Long excludedId);
+
+  /**
+   * Recurring appointments of an employee in one of the given statuses with an occurrence that may
+   * overlap {@code [from, to)}, except {@code excludedId}, with their exceptions.
+   */
+  @Query(
+      "SELECT DISTINCT a FROM Appointment a LEFT JOIN FETCH a.recurrenceExceptions "
+          + "WHERE a.assignedEmployee.id = :employeeId AND a.recurrenceRule IS NOT NULL "
+          + "AND a.startAppointmentDate < :to "
+          + "AND (a.recurrenceEnd IS NULL OR a.recurrenceEnd > :from) "
+          + "AND a.status IN :statuses AND a.id <> :excludedId")
+  List<Appointment> findEmployeeSeriesOverlapping(
+      @Param("employeeId") Long employeeId,
+      @Param("from") LocalDateTime from,
+      @Param("to") LocalDateTime to,
+      @Param("statuses") Collection<AppointmentStatus> statuses,
+      @Param("excludedId") Long excludedId);
+
+  /**
+   * The columns an {@code AppointmentResponseDto} is built from, read in one statement instead of
+   * the appointment with its client, pet and employee. Derived values follow those of {@link
+   * Appointment}. The exception columns are only read by the queries that join them, and are null
+   * when the row has no exception.
+   */
+  interface AppointmentRow {
+    Long getEventId();
+
+    LocalDateTime getStartAppointmentDate();
+
+    LocalDateTime getEndAppointmentDate();
+
+    OfferingType getOfferingType();
+
+    AppointmentStatus getStatus();
+
+    String getReason();
+
+    String getNotes();
+
+    String getRecurrenceRule();
+
+    String getCreatedBy();
+
+    String getUpdatedBy();
+
+    Long getClientId();
+
+    String getClientFirstName();
+
+    String getClientLastName();
+
+    String getClientPhone();
+
+    String getPetName();
+
+    String getPetBreed();
+
+    Long getEmployeeId();
+
+    String getEmployeeFirstName();
+
+    String getEmployeeLastName();
+
+    String getGuestName();
+
+    String getGuestPhone();
+
+    String getGuestEmail();
+
+    PetType getGuestPetType();
+
+    String getGuestBreed();
+
+    LocalDateTime getExceptionOriginalStart();
+
+    Boolean getExceptionCancelled();
+
+    LocalDateTime getExceptionStart();
+
+    LocalDateTime getExceptionEnd();
+
+    default String getAppointmentTitle() {
+      return getClientDisplayName() + " - " + getOfferingType().getDisplay();
+    }
+
+    default String getClientDisplayName() {
+      if (hasRegisteredClient()) {
+        return getClientFirstName() + " " + getClientLastName();
+      } else if (getGuestName() != null) {
+        return getGuestName();
+      }
+      return "Cliente sin especificar";
+    }
+
+    default String getClientContactPhone() {
+      return hasRegisteredClient() ? getClientPhone() : getGuestPhone();
+    }
+
+    default String getEmployeeDisplayName() {
+      if (getEmployeeId() != null) {
+        return getEmployeeFirstName() + " " + getEmployeeLastName();
+      }
+      return "Empleado no asignado";
+    }
+
+    default AppointmentClientInfo getGuestClientInfo() {
+      if (getGuestName() == null
+          && getGuestPhone() == null
+          && getGuestEmail() == null
+          && getGuestPetType() == null
+          && getGuestBreed() == null) {
+        return null;
+      }
+      return new AppointmentClientInfo(
+          getGuestName(), getGuestPhone(), getGuestPetType(), getGuestBreed(), getGuestEmail());
+    }
+
+    default boolean isCompleted() {
+      return getStatus() == AppointmentStatus.COMPLETADA;
+    }
+
+    default boolean isCancelled() {
+      return getStatus() == AppointmentStatus.CANCELADA;
+    }
+
+    default boolean hasRegisteredClient() {
+      return getClientId() != null;
+    }
+
+    default boolean requiresVeterinarian() {
+      return getOfferingType().getDescription().equals("MEDICAL");
+    }
+
+    /** The exception this row carries, or {@code null}. */
+    default RecurrenceException getRecurrenceException() {
+      if (getExceptionOriginalStart() == null) {
+        return null;
+      }
+      return new RecurrenceException(
+          getExceptionOriginalStart(),
+          Boolean.TRUE.equals(getExceptionCancelled()),
+          getExceptionStart(),
+          getExceptionEnd());
+    }
+  }
 }
@@ -2,6 +2,7 @@ package com.wornux.data.repository;
 
 import com.wornux.data.entity.Client;
 import com.wornux.data.enums.ClientRating;
+import com.wornux.data.enums.InvoiceStatus;
 import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
@@ -10,6 +11,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -58,4 +60,54 @@ public interface ClientRepository
 
   @Query("SELECT COUNT(c) FROM Client c WHERE c.active = true")
   Long countActiveClients();
+
+  /** Current open balance and credit limit of a client. */
+  @Query("SELECT c.currentBalance, c.creditLimit FROM Client c WHERE c.id = :clientId")
+  List<Object[]> findBalanceAndCreditLimit(@Param("clientId") Long clientId);
+
+  /**
+   * Outstanding balance of the open invoices and credit limit of every active client, as (client
+   * id, balance, credit limit) rows.
+   */
+  @Query(
+      "SELECT c.id, COALESCE(SUM(i.total - i.paidToDate), 0), c.creditLimit FROM Client c "
+          + "LEFT JOIN Invoice i ON i.client = c AND i.active = true AND i.status IN :statuses "
+          + "WHERE c.active = true GROUP BY c.id, c.creditLimit")
+  List<Object[]> findCreditExposures(@Param("statuses") Collection<InvoiceStatus> statuses);
+
+  /** Same row as {@link #findCreditExposures} for one client, active or not. */
+  @Query(
+      "SELECT c.id, COALESCE(SUM(i.total - i.paidToDate), 0), c.creditLimit FROM Client c "
+          + "LEFT JOIN Invoice i ON i.client = c AND i.active = true AND i.status IN :statuses "
+          + "WHERE c.id = :clientId GROUP BY c.id, c.creditLimit")
+  List<Object[]> findCreditExposure(
+      @Param("clientId") Long clientId, @Param("statuses") Collection<InvoiceStatus> statuses);
+
+  /**
+   * Recomputes {@code current_balance} of the given clients from the outstanding balance of their
+   * open invoices.
+   */
+  @Modifying
+  @Query(
+      value =
+          "UPDATE client c SET current_balance = COALESCE((SELECT SUM(i.total - i.paid_to_date) "
+              + "FROM invoices i WHERE i.client = c.client_id AND i.active "
+              + "AND i.status IN ('SENT', 'PENDING', 'PARTIAL', 'OVERDUE')), 0) "
+              + "WHERE c.client_id IN :clientIds",
+      nativeQuery = true)
+  int refreshOpenBalances(@Param("clientIds") Collection<Long> clientIds);
+
+  /** Recomputes {@code current_balance} of every client whose stored value drifted. */
+  @Modifying
+  @Query(
+      value =
+          "UPDATE client c SET current_balance = b.balance "
+              + "FROM (SELECT c2.client_id, COALESCE(SUM(i.total - i.paid_to_date), 0) AS balance "
+              + "FROM client c2 LEFT JOIN invoices i ON i.client = c2.client_id AND i.active "
+              + "AND i.status IN ('SENT', 'PENDING', 'PARTIAL', 'OVERDUE') "
+              + "GROUP BY c2.client_id) b "
+              + "WHERE c.client_id = b.client_id "
+              + "AND c.current_balance IS DISTINCT FROM CAST(b.balance AS float8)",
+      nativeQuery = true)
+  int reconcileOpenBalances();
 }
@@ -0,0 +1,55 @@
+package com.wornux.data.repository;
+
+import com.wornux.data.entity.ConsultationHourlyRollup;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ConsultationHourlyRollupRepository
+    extends JpaRepository<ConsultationHourlyRollup, ConsultationHourlyRollup.Key> {
+
+  @Query(
+      "SELECT r.day, SUM(r.consultationCount) FROM ConsultationHourlyRollup r "
+          + "WHERE r.day >= :fromDay AND r.day <= :toDay GROUP BY r.day ORDER BY r.day")
+  List<Object[]> sumByDay(@Param("fromDay") LocalDate fromDay, @Param("toDay") LocalDate toDay);
+
+  @Query(
+      "SELECT r.hourOfDay, SUM(r.consultationCount) FROM ConsultationHourlyRollup r "
+          + "WHERE r.day >= :fromDay AND r.day <= :toDay "
+          + "GROUP BY r.hourOfDay ORDER BY r.hourOfDay")
+  List<Object[]> sumByHour(@Param("fromDay") LocalDate fromDay, @Param("toDay") LocalDate toDay);
+
+  @Modifying
+  @Query(
+      value = "DELETE FROM consultation_hourly_rollup WHERE day >= :fromDay AND day < :toDay",
+      nativeQuery = true)
+  int deleteDays(@Param("fromDay") LocalDate fromDay, @Param("toDay") LocalDate toDay);
+
+  /** Recomputes the rollup rows of every hour with active consultations in {@code [from, to)}. */
+  @Modifying
+  @Query(
+      value =
+          """
+  INSERT INTO consultation_hourly_rollup (day, hour_of_day, consultation_count, refreshed_at)
+  SELECT CAST(c.consultation_date AS date),
+         CAST(EXTRACT(HOUR FROM c.consultation_date) AS integer),
+         COUNT(*),
+         now()
+    FROM consultations c
+   WHERE c.active = true
+     AND c.consultation_date >= :from
+     AND c.consultation_date < :to
+   GROUP BY 1, 2
+  ON CONFLICT (day, hour_of_day) DO UPDATE
+     SET consultation_count = EXCLUDED.consultation_count,
+         refreshed_at = EXCLUDED.refreshed_at
+""",
+      nativeQuery = true)
+  int upsertFromConsultations(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
@@ -0,0 +1,45 @@
+package com.wornux.data.repository;
+
+import com.wornux.data.entity.DailyRevenueRollup;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DailyRevenueRollupRepository extends JpaRepository<DailyRevenueRollup, LocalDate> {
+
+  List<DailyRevenueRollup> findByDayBetweenOrderByDayAsc(LocalDate from, LocalDate to);
+
+  @Modifying
+  @Query(
+      value = "DELETE FROM daily_revenue_rollup WHERE day >= :fromDay AND day < :toDay",
+      nativeQuery = true)
+  int deleteDays(@Param("fromDay") LocalDate fromDay, @Param("toDay") LocalDate toDay);
+
+  /**
+   * Recomputes the rollup rows of every day touched by invoices created in {@code [from, to)}. The
+   * range predicate on created_date can use its index, unlike {@code DATE(created_date)}.
+   */
+  @Modifying
+  @Query(
+      value =
+          """
+  INSERT INTO daily_revenue_rollup (day, revenue, invoice_count, refreshed_at)
+  SELECT CAST(i.created_date AS date), SUM(i.total), COUNT(*), now()
+    FROM invoices i
+   WHERE i.created_date >= :from
+     AND i.created_date < :to
+   GROUP BY CAST(i.created_date AS date)
+  ON CONFLICT (day) DO UPDATE
+     SET revenue = EXCLUDED.revenue,
+         invoice_count = EXCLUDED.invoice_count,
+         refreshed_at = EXCLUDED.refreshed_at
+""",
+      nativeQuery = true)
+  int upsertFromInvoices(@Param("from") Instant from, @Param("to") Instant to);
+}
@@ -89,4 +89,11 @@ public interface EmployeeRepository
   List<Employee> findEmployeesWorkingOnDay(@Param("dayOfWeek") DayOfWeek dayOfWeek);
 
   List<Employee> findByEmployeeRoleAndAvailable(EmployeeRole role, boolean available);
+
+  /** Active, available employees of a role with their weekly schedule, in id order. */
+  @Query(
+      "SELECT DISTINCT e FROM Employee e LEFT JOIN FETCH e.workScheduleDays "
+          + "WHERE e.employeeRole = :role AND e.available = true AND e.active = true "
+          + "ORDER BY e.id")
+  List<Employee> findSchedulableByRole(@Param("role") EmployeeRole role);
 }
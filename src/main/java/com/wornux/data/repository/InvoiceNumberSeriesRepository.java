@@ -0,0 +1,30 @@
+package com.wornux.data.repository;
+
+import com.wornux.data.entity.InvoiceNumberSeries;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface InvoiceNumberSeriesRepository extends JpaRepository<InvoiceNumberSeries, String> {
+
+  /**
+   * Advances the counter of a series by {@code count} and returns the first reserved value. The
+   * update locks the series row until the calling transaction ends.
+   */
+  @Query(
+      value =
+          """
+  WITH reserved AS (
+      UPDATE invoice_number_series
+         SET next_value = next_value + :count
+       WHERE series = :series
+      RETURNING next_value - :count AS first_value
+  )
+  SELECT first_value FROM reserved
+""",
+      nativeQuery = true)
+  Optional<Long> reserve(@Param("series") String series, @Param("count") int count);
+}
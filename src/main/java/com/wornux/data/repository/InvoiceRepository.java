@@ -2,16 +2,26 @@ package com.wornux.data.repository;
 
 import com.wornux.data.entity.Consultation;
 import com.wornux.data.entity.Invoice;
+import com.wornux.data.enums.InvoiceStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 public interface InvoiceRepository
@@ -21,6 +31,10 @@ public interface InvoiceRepository
   @Query("SELECT i FROM Invoice i WHERE i.code = :code")
   Optional<Invoice> findByCodeWithServicesAndProducts(@Param("code") Long code);
 
+  @EntityGraph(attributePaths = {"client", "products.product", "offerings.offering"})
+  @Query("SELECT i FROM Invoice i WHERE i.code IN :codes ORDER BY i.code")
+  List<Invoice> findAllByCodeWithServicesAndProducts(@Param("codes") Collection<Long> codes);
+
   @EntityGraph(attributePaths = {"client", "products.product", "offerings.offering"})
   @Query("SELECT i FROM Invoice i WHERE i.consultation = :consultation AND i.active = true")
   Optional<Invoice> findByConsultation(@Param("consultation") Consultation consultation);
@@ -52,9 +66,116 @@ public interface InvoiceRepository
   @Query("SELECT COALESCE(SUM(i.total - i.paidToDate), 0) FROM Invoice i WHERE i.status = 'OVERDUE' AND i.active = true")
   BigDecimal findTotalOverdueAmount();
 
-  @Query("SELECT COALESCE(SUM(i.total - i.paidToDate), 0) FROM Invoice i WHERE i.paymentDate <= :targetDate AND i.status IN ('PENDING', 'PARTIAL') AND i.active = true")
-  BigDecimal findTotalAmountDueByDate(@Param("targetDate") LocalDate targetDate);
+  /**
+   * Locks the next {@code limit} pending invoices whose payment date is before {@code today},
+   * skipping rows other transactions hold.
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+  @Query(
+      "SELECT i.code FROM Invoice i WHERE i.status = 'PENDING' AND i.active = true "
+          + "AND i.paymentDate < :today AND i.code > :afterCode ORDER BY i.code")
+  List<Long> lockOverdueCandidates(
+      @Param("today") LocalDate today, @Param("afterCode") Long afterCode, Limit limit);
+
+  /**
+   * Code and outstanding balance of the open invoices of a client, oldest due first, locked until
+   * the transaction ends.
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query(
+      "SELECT i.code, i.total - i.paidToDate FROM Invoice i "
+          + "WHERE i.client.id = :clientId AND i.active = true AND i.status IN :statuses "
+          + "ORDER BY i.paymentDate, i.code")
+  List<Object[]> lockOpenBalances(
+      @Param("clientId") Long clientId, @Param("statuses") Collection<InvoiceStatus> statuses);
+
+  /**
+   * Code, client, status, outstanding balance and active flag of the given invoices, locked until
+   * the transaction ends.
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query(
+      "SELECT i.code, i.client.id, i.status, i.total - i.paidToDate, i.active FROM Invoice i "
+          + "WHERE i.code IN :codes ORDER BY i.code")
+  List<Object[]> lockBalances(@Param("codes") Collection<Long> codes);
+
+  /**
+   * Overdue balance, balance due by {@code dueBy} and average days from issue to payment of the
+   * active invoices, in a single row.
+   */
+  @Query(
+      "SELECT "
+          + "COALESCE(SUM(CASE WHEN i.status = 'OVERDUE' THEN i.total - i.paidToDate END), 0), "
+          + "COALESCE(SUM(CASE WHEN i.status IN ('PENDING', 'PARTIAL') AND i.paymentDate <= :dueBy "
+          + "THEN i.total - i.paidToDate END), 0), "
+          + "AVG(CASE WHEN i.status = 'PAID' AND i.paymentDate >= i.issuedDate "
+          + "THEN (i.paymentDate - i.issuedDate) BY DAY END) "
+          + "FROM Invoice i WHERE i.active = true")
+  List<Object[]> aggregateMetrics(@Param("dueBy") LocalDate dueBy);
+
+  /** The same figures as {@link #aggregateMetrics}, one row per month of issue. */
+  @Query(
+      "SELECT YEAR(i.issuedDate), MONTH(i.issuedDate), "
+          + "COALESCE(SUM(CASE WHEN i.status = 'OVERDUE' THEN i.total - i.paidToDate END), 0), "
+          + "COALESCE(SUM(CASE WHEN i.status IN ('PENDING', 'PARTIAL') AND i.paymentDate <= :dueBy "
+          + "THEN i.total - i.paidToDate END), 0), "
+          + "AVG(CASE WHEN i.status = 'PAID' AND i.paymentDate >= i.issuedDate "
+          + "THEN (i.paymentDate - i.issuedDate) BY DAY END) "
+          + "FROM Invoice i WHERE i.active = true AND i.issuedDate >= :from AND i.issuedDate < :to "
+          + "GROUP BY YEAR(i.issuedDate), MONTH(i.issuedDate) "
+          + "ORDER BY YEAR(i.issuedDate), MONTH(i.issuedDate)")
+  List<Object[]> aggregateMetricsByMonth(
+      @Param("dueBy") LocalDate dueBy, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+  @Query(
+      "SELECT COUNT(i), COALESCE(SUM(i.total), 0) FROM Invoice i "
+          + "WHERE i.issuedDate = :date AND i.active = true")
+  List<Object[]> summarizeIssuedOn(@Param("date") LocalDate date);
+
+  /**
+   * Statement entries of a client between two dates, in date order: one debit per issued invoice
+   * and one credit per successful payment applied to them. Rows are (date, kind, reference,
+   * description, debit, credit) and are fetched from a forward-only cursor, so the stream must be
+   * consumed inside the calling transaction and closed.
+   */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+  @Query(
+      value =
+          "SELECT e.entry_date, e.kind, e.reference, e.description, e.debit, e.credit FROM ("
+              + "SELECT i.issued_date AS entry_date, 0 AS kind_order, 'FACTURA' AS kind, "
+              + "i.invoice_number AS reference, i.notes AS description, "
+              + "i.total AS debit, 0 AS credit, i.code AS seq "
+              + "FROM invoices i WHERE i.client = :clientId AND i.active "
+              + "AND i.status NOT IN ('DRAFT', 'UNSENT', 'CANCELLED') "
+              + "AND i.issued_date BETWEEN :from AND :to "
+              + "UNION ALL "
+              + "SELECT p.payment_date, 1, 'PAGO', "
+              + "COALESCE(p.reference_number, CAST(p.code AS varchar)), "
+              + "'Aplicado a factura ' || i.invoice_number, 0, d.amount, d.code "
+              + "FROM payments_detail d JOIN payments p ON p.code = d.payment "
+              + "JOIN invoices i ON i.code = d.invoice "
+              + "WHERE i.client = :clientId AND i.active "
+              + "AND i.status NOT IN ('DRAFT', 'UNSENT', 'CANCELLED') "
+              + "AND p.status = 'SUCCESS' AND p.payment_date BETWEEN :from AND :to"
+              + ") e ORDER BY e.entry_date, e.kind_order, e.seq",
+      nativeQuery = true)
+  Stream<Object[]> streamStatementEntries(
+      @Param("clientId") Long clientId, @Param("from") LocalDate from, @Param("to") LocalDate to);
 
-  @Query("SELECT i FROM Invoice i WHERE i.status = 'PAID' AND i.paymentDate IS NOT NULL AND i.active = true")
-  List<Invoice> findAllPaidInvoices();
+  /** Balance of a client's statement before {@code from}: invoiced minus successfully paid. */
+  @Query(
+      value =
+          "SELECT COALESCE((SELECT SUM(i.total) FROM invoices i "
+              + "WHERE i.client = :clientId AND i.active "
+              + "AND i.status NOT IN ('DRAFT', 'UNSENT', 'CANCELLED') "
+              + "AND i.issued_date < :from), 0) "
+              + "- COALESCE((SELECT SUM(d.amount) FROM payments_detail d "
+              + "JOIN payments p ON p.code = d.payment JOIN invoices i ON i.code = d.invoice "
+              + "WHERE i.client = :clientId AND i.active "
+              + "AND i.status NOT IN ('DRAFT', 'UNSENT', 'CANCELLED') "
+              + "AND p.status = 'SUCCESS' AND p.payment_date < :from), 0)",
+      nativeQuery = true)
+  BigDecimal findStatementBalanceBefore(
+      @Param("clientId") Long clientId, @Param("from") LocalDate from);
 }
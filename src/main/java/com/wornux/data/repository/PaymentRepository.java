@@ -1,8 +1,19 @@
 package com.wornux.data.repository;
 
 import com.wornux.data.entity.Payment;
+import java.time.LocalDate;
+import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface PaymentRepository
-    extends JpaRepository<Payment, Long>, JpaSpecificationExecutor<Payment> {}
+    extends JpaRepository<Payment, Long>, JpaSpecificationExecutor<Payment> {
+
+  @Query(
+      "SELECT p.method, COUNT(p), COALESCE(SUM(p.totalAmount), 0) FROM Payment p "
+          + "WHERE p.paymentDate = :date AND p.status = 'SUCCESS' "
+          + "GROUP BY p.method ORDER BY p.method")
+  List<Object[]> summarizeCollectedByMethod(@Param("date") LocalDate date);
+}
@@ -9,6 +9,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -27,9 +28,6 @@ public interface ProductRepository
 
   List<Product> findByActiveTrue();
 
-  @Query("SELECT p FROM Product p WHERE p.accountingStock <= p.reorderLevel AND p.active = true")
-  List<Product> findLowStockProducts();
-
   List<Product> findAllByActiveIsTrue();
 
   @Query("SELECT p FROM Product p LEFT JOIN FETCH p.supplier WHERE p.active = true")
@@ -65,10 +63,32 @@ public interface ProductRepository
       Pageable pageable);
 
   @Query(
-      "SELECT p.id, p.name, p.accountingStock, p.availableStock, p.category "
+      "SELECT p.id, p.name, p.availableStock, p.reorderLevel, p.category "
           + "FROM Product p WHERE p.active = true")
   List<Object[]> findProductStockLevels();
 
-  @Query("SELECT COUNT(p) FROM Product p WHERE p.availableStock > p.reorderLevel")
-  long countProductsWithAvailableStockGreaterThanReorderLevel();
+  @Query("SELECT p.availableStock FROM Product p WHERE p.id = :productId")
+  int findAvailableStock(@Param("productId") Long productId);
+
+  /**
+   * Takes {@code quantity} units out of the available stock, only if at least that many are
+   * available. Returns 0 when there were not enough. Native, so not audited by Envers: call it
+   * through {@code StockLedger}, whose movements are the audit of stock changes.
+   */
+  @Modifying
+  @Query(
+      value =
+          "UPDATE products SET available_stock = available_stock - :quantity "
+              + "WHERE product_id = :productId AND available_stock >= :quantity",
+      nativeQuery = true)
+  int takeStock(@Param("productId") Long productId, @Param("quantity") int quantity);
+
+  /** Puts {@code quantity} units back; like {@link #takeStock}, audited by the stock ledger. */
+  @Modifying
+  @Query(
+      value =
+          "UPDATE products SET available_stock = available_stock + :quantity "
+              + "WHERE product_id = :productId",
+      nativeQuery = true)
+  int returnStock(@Param("productId") Long productId, @Param("quantity") int quantity);
 }
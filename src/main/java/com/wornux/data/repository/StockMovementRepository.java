@@ -0,0 +1,55 @@
+package com.wornux.data.repository;
+
+import com.wornux.data.entity.StockMovement;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long> {
+
+  /** Net quantity moved per product by one source record, as (product id, net quantity). */
+  @Query(
+      value =
+          """
+  SELECT m.product_id, SUM(m.quantity)
+    FROM stock_movements m
+   WHERE m.source_type = :sourceType
+     AND m.source_id = :sourceId
+   GROUP BY m.product_id
+   ORDER BY m.product_id
+""",
+      nativeQuery = true)
+  List<Object[]> sumBySource(
+      @Param("sourceType") String sourceType, @Param("sourceId") Long sourceId);
+
+  /**
+   * Folds every movement created before {@code cutoff} into the per-product snapshots. Deleting and
+   * summing happen in one statement, so a movement is either folded or kept, never both or neither.
+   */
+  @Modifying
+  @Query(
+      value =
+          """
+  WITH folded AS (
+      DELETE FROM stock_movements
+       WHERE created_at < :cutoff
+      RETURNING product_id, quantity, id
+  )
+  INSERT INTO stock_snapshots (product_id, net_quantity, movement_count, last_movement_id, compacted_at)
+  SELECT product_id, SUM(quantity), COUNT(*), MAX(id), now()
+    FROM folded
+   GROUP BY product_id
+  ON CONFLICT (product_id) DO UPDATE
+     SET net_quantity = stock_snapshots.net_quantity + EXCLUDED.net_quantity,
+         movement_count = stock_snapshots.movement_count + EXCLUDED.movement_count,
+         last_movement_id = GREATEST(stock_snapshots.last_movement_id, EXCLUDED.last_movement_id),
+         compacted_at = EXCLUDED.compacted_at
+""",
+      nativeQuery = true)
+  int compactBefore(@Param("cutoff") Instant cutoff);
+}
@@ -13,6 +13,7 @@ import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface WaitingRoomRepository
@@ -142,6 +143,133 @@ public interface WaitingRoomRepository
       @Param("visitType") com.wornux.data.enums.VisitType visitType,
       @Param("statuses") List<com.wornux.data.enums.WaitingRoomStatus> statuses);
 
+  /**
+   * Materializes every open single appointment in {@code [from, to)} into the waiting room in a
+   * single statement; occurrences of series go through {@link #insertFromOccurrence}. Rows that
+   * already exist for the same (pet, arrival_time, type) are skipped by the unique index, so the
+   * statement is idempotent and safe to run concurrently.
+   *
+   * @return the ids of the rows actually inserted.
+   */
+  @Transactional
+  @Query(
+      value =
+          """
+  INSERT INTO waiting_room (client, pet, arrival_time, status, priority, reason_for_visit, notes, type)
+  SELECT a.client_id, a.pet_id, a.start_appointment_date, 'ESPERANDO', 'NORMAL',
+         LEFT(a.reason, 255), LEFT(a.notes, 255),
+         CASE a.offering_type WHEN 'GROOMING' THEN 'GROOMING' ELSE 'MEDICA' END
+    FROM appointments a
+   WHERE a.start_appointment_date >= :from
+     AND a.start_appointment_date < :to
+     AND a.status NOT IN ('CANCELADA', 'COMPLETADA')
+     AND a.client_id IS NOT NULL
+     AND a.pet_id IS NOT NULL
+     AND a.recurrence_rule IS NULL
+  ON CONFLICT (pet, arrival_time, type) DO NOTHING
+  RETURNING id
+""",
+      nativeQuery = true)
+  List<Long> insertFromAppointments(
+      @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+  /** Same as {@link #insertFromAppointments} but restricted to a single appointment. */
+  @Transactional
+  @Query(
+      value =
+          """
+  INSERT INTO waiting_room (client, pet, arrival_time, status, priority, reason_for_visit, notes, type)
+  SELECT a.client_id, a.pet_id, a.start_appointment_date, 'ESPERANDO', 'NORMAL',
+         LEFT(a.reason, 255), LEFT(a.notes, 255),
+         CASE a.offering_type WHEN 'GROOMING' THEN 'GROOMING' ELSE 'MEDICA' END
+    FROM appointments a
+   WHERE a.id = :appointmentId
+     AND a.start_appointment_date >= :from
+     AND a.start_appointment_date < :to
+     AND a.status NOT IN ('CANCELADA', 'COMPLETADA')
+     AND a.client_id IS NOT NULL
+     AND a.pet_id IS NOT NULL
+     AND a.recurrence_rule IS NULL
+  ON CONFLICT (pet, arrival_time, type) DO NOTHING
+  RETURNING id
+""",
+      nativeQuery = true)
+  List<Long> insertFromAppointment(
+      @Param("appointmentId") Long appointmentId,
+      @Param("from") LocalDateTime from,
+      @Param("to") LocalDateTime to);
+
+  /**
+   * Materializes one occurrence of a recurring appointment, arriving at {@code arrivalTime}, with
+   * the same rules as {@link #insertFromAppointments}.
+   */
+  @Transactional
+  @Query(
+      value =
+          """
+  INSERT INTO waiting_room (client, pet, arrival_time, status, priority, reason_for_visit, notes, type)
+  SELECT a.client_id, a.pet_id, :arrivalTime, 'ESPERANDO', 'NORMAL',
+         LEFT(a.reason, 255), LEFT(a.notes, 255),
+         CASE a.offering_type WHEN 'GROOMING' THEN 'GROOMING' ELSE 'MEDICA' END
+    FROM appointments a
+   WHERE a.id = :appointmentId
+     AND a.recurrence_rule IS NOT NULL
+     AND a.status NOT IN ('CANCELADA', 'COMPLETADA')
+     AND a.client_id IS NOT NULL
+     AND a.pet_id IS NOT NULL
+  ON CONFLICT (pet, arrival_time, type) DO NOTHING
+  RETURNING id
+""",
+      nativeQuery = true)
+  List<Long> insertFromOccurrence(
+      @Param("appointmentId") Long appointmentId, @Param("arrivalTime") LocalDateTime arrivalTime);
+
+  /**
+   * Aggregates the waiting room KPIs of {@code [from, to)} in a single pass. Returns one row per
+   * visit type (status null), one per status (type null) and a total row (both null). Wait is
+   * measured from arrival to consultation start, service from consultation start to completion.
+   */
+  @Query(
+      value =
+          """
+  SELECT wr.type AS "type",
+         wr.status AS "status",
+         COUNT(*) AS "count",
+         AVG(w.wait_minutes) AS "avgWaitMinutes",
+         PERCENTILE_CONT(0.5) WITHIN GROUP (ORDER BY w.wait_minutes) AS "medianWaitMinutes",
+         PERCENTILE_CONT(0.9) WITHIN GROUP (ORDER BY w.wait_minutes) AS "p90WaitMinutes",
+         AVG(w.service_minutes) AS "avgServiceMinutes"
+    FROM waiting_room wr
+   CROSS JOIN LATERAL (
+         SELECT CAST(EXTRACT(EPOCH FROM wr.consultation_started_at - wr.arrival_time) / 60
+                     AS double precision) AS wait_minutes,
+                CAST(EXTRACT(EPOCH FROM wr.completed_at - wr.consultation_started_at) / 60
+                     AS double precision) AS service_minutes
+         ) w
+   WHERE wr.arrival_time >= :from
+     AND wr.arrival_time < :to
+   GROUP BY GROUPING SETS ((wr.type), (wr.status), ())
+""",
+      nativeQuery = true)
+  List<KpiRow> aggregateKpis(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+  /** Row of {@link #aggregateKpis}. Averages and percentiles are null when nothing was measured. */
+  interface KpiRow {
+    String getType();
+
+    String getStatus();
+
+    Long getCount();
+
+    Double getAvgWaitMinutes();
+
+    Double getMedianWaitMinutes();
+
+    Double getP90WaitMinutes();
+
+    Double getAvgServiceMinutes();
+  }
+
   // evitar duplicados exactos por (mascota, hora de cita, tipo)
   boolean existsByPet_IdAndArrivalTimeAndType(
       Long petId, java.time.LocalDateTime arrivalTime, com.wornux.data.enums.VisitType type);
@@ -13,4 +13,6 @@ public class RevenueDataDto {
   private Double revenue;
   private Long invoiceCount;
   private Boolean isPrediction;
+  private Double lowerBound; // intervalo de predicción al 95%, sólo en proyecciones
+  private Double upperBound;
 }
@@ -0,0 +1,34 @@
+package com.wornux.dto.dashboard;
+
+import com.wornux.data.enums.VisitType;
+import com.wornux.data.enums.WaitingRoomStatus;
+import java.util.Map;
+
+/**
+ * Waiting room KPIs for a time window: a total plus the same figures broken down per visit type and
+ * per status. Times are in minutes.
+ */
+public record WaitingRoomKpiDto(
+    Stats total, Map<VisitType, Stats> byType, Map<WaitingRoomStatus, Stats> byStatus) {
+
+  public static final WaitingRoomKpiDto EMPTY =
+      new WaitingRoomKpiDto(Stats.EMPTY, Map.of(), Map.of());
+
+  public Stats forType(VisitType type) {
+    return byType.getOrDefault(type, Stats.EMPTY);
+  }
+
+  public Stats forStatus(WaitingRoomStatus status) {
+    return byStatus.getOrDefault(status, Stats.EMPTY);
+  }
+
+  public record Stats(
+      long count,
+      double avgWaitMinutes,
+      double medianWaitMinutes,
+      double p90WaitMinutes,
+      double avgServiceMinutes) {
+
+    public static final Stats EMPTY = new Stats(0, 0, 0, 0, 0);
+  }
+}
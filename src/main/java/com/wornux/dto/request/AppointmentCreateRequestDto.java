@@ -55,6 +55,11 @@ public class AppointmentCreateRequestDto {
 
   @Valid @Nullable private AppointmentClientInfo guestClientInfo;
 
+  /** Regla {@code RRULE} para repetir la cita, p. ej. {@code FREQ=WEEKLY;COUNT=4}. */
+  @Size(max = 255, message = "La regla de repetición no puede exceder {max} caracteres")
+  @Nullable
+  private String recurrenceRule;
+
   @Nullable private String createdBy;
 
   public String getAppointmentDateTime() {
@@ -48,5 +48,10 @@ public class AppointmentUpdateRequestDto {
 
   @Valid @Nullable private AppointmentClientInfo guestClientInfo;
 
+  /** Regla {@code RRULE} para repetir la cita, p. ej. {@code FREQ=WEEKLY;COUNT=4}. */
+  @Size(max = 255, message = "La regla de repetición no puede exceder {max} caracteres")
+  @Nullable
+  private String recurrenceRule;
+
   @Nullable private String createdBy;
 }
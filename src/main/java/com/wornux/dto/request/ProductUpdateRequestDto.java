@@ -27,8 +27,8 @@ public class ProductUpdateRequestDto {
   @DecimalMin(value = "0.0", inclusive = true, message = "El precio no puede ser negativo")
   private BigDecimal salesPrice;
 
-  @Min(value = 0, message = "El stock no puede ser negativo")
-  private Integer availableStock;
+  /** Units to add to the available stock, negative to take them out; applied by the ledger. */
+  private Integer availableStockAdjustment;
 
   @Min(value = 0, message = "El stock contable no puede ser negativo")
   private Integer accountingStock;
@@ -42,6 +42,15 @@ public class AppointmentResponseDto {
 
   @Nullable private String updatedBy;
 
+  /** Regla de la serie, o {@code null} si es una cita suelta. */
+  @Nullable private String recurrenceRule;
+
+  /**
+   * Inicio que la regla da a esta ocurrencia de una serie, aunque se haya movido; {@code null} en
+   * citas sueltas y en la serie misma.
+   */
+  @Nullable private LocalDateTime occurrenceStart;
+
   private boolean completed;
 
   private boolean cancelled;
@@ -0,0 +1,6 @@
+package com.wornux.dto.response;
+
+import java.time.LocalDateTime;
+
+public record AvailableSlotDto(
+    Long employeeId, String employeeName, LocalDateTime start, LocalDateTime end) {}
@@ -0,0 +1,16 @@
+package com.wornux.exception;
+
+import lombok.Getter;
+
+@Getter
+public class InsufficientStockException extends RuntimeException {
+
+  private final Long productId;
+  private final int requested;
+
+  public InsufficientStockException(Long productId, String productName, int requested) {
+    super("Stock insuficiente para " + productName + " (solicitado: " + requested + ")");
+    this.productId = productId;
+    this.requested = requested;
+  }
+}
@@ -0,0 +1,7 @@
+package com.wornux.exception;
+
+public class InvalidRecurrenceRuleException extends RuntimeException {
+  public InvalidRecurrenceRuleException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,8 @@
+package com.wornux.exception;
+
+public class PaymentAllocationException extends RuntimeException {
+
+  public PaymentAllocationException(String message) {
+    super(message);
+  }
+}
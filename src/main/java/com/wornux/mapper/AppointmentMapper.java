@@ -1,6 +1,7 @@
 package com.wornux.mapper;
 
 import com.wornux.data.entity.Appointment;
+import com.wornux.data.repository.AppointmentRepository.AppointmentRow;
 import com.wornux.dto.request.AppointmentCreateRequestDto;
 import com.wornux.dto.request.AppointmentUpdateRequestDto;
 import com.wornux.dto.response.AppointmentResponseDto;
@@ -51,4 +52,14 @@ public interface AppointmentMapper {
   @Mapping(target = "hasRegisteredClient", expression = "java(appointment.hasRegisteredClient())")
   @Mapping(target = "requiresVeterinarian", expression = "java(appointment.requiresVeterinarian())")
   AppointmentResponseDto toResponseDTO(Appointment appointment);
+
+  /** The same response as {@link #toResponseDTO(Appointment)}, from a projected row. */
+  @Mapping(target = "clientName", source = "clientDisplayName")
+  @Mapping(target = "assignedEmployeeName", source = "employeeDisplayName")
+  @Mapping(target = "hasRegisteredClient", expression = "java(row.hasRegisteredClient())")
+  @Mapping(target = "requiresVeterinarian", expression = "java(row.requiresVeterinarian())")
+  AppointmentResponseDto toResponseDTO(AppointmentRow row);
+
+  /** A copy of the appointment, which the occurrences of a series start from. */
+  AppointmentResponseDto copy(AppointmentResponseDto appointment);
 }
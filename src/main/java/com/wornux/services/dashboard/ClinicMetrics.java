@@ -0,0 +1,94 @@
+package com.wornux.services.dashboard;
+
+import com.wornux.data.enums.WaitingRoomStatus;
+import com.wornux.services.events.InvoiceChangedEvent;
+import com.wornux.services.events.InvoiceChangedEvent.ChangeType;
+import com.wornux.services.inventory.StockAlertIndex;
+import com.wornux.services.invoicing.InvoiceMetricsService;
+import com.wornux.services.waitingroom.WaitingRoomBoard;
+import com.wornux.services.waitingroom.WaitingRoomKpis;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Publishes the clinic KPIs of the dashboard as Micrometer meters, so they can be scraped and
+ * alerted on without opening the dashboard.
+ *
+ * <p>Gauges only read values held in memory: the live waiting room board and stock alert index, and
+ * the last average wait and overdue amount taken by {@link #refresh()} from the waiting room KPIs
+ * and the receivable KPIs of {@link InvoiceMetricsService} on {@code
+ * application.dashboard.metrics-refresh-cron}. Both are cached, and the receivables only reload
+ * after an invoice write, so the refresh does not rebuild the dashboard when nobody has it open. A
+ * scrape never runs a query nor reloads a cache, however often it comes. Invoices per minute is a
+ * counter, {@code rate(clinic_invoices_created_total[1m]) * 60} in Prometheus.
+ */
+@Component
+public class ClinicMetrics {
+
+  private final WaitingRoomKpis waitingRoomKpis;
+  private final InvoiceMetricsService invoiceMetricsService;
+  private final Counter invoicesCreated;
+
+  private volatile double averageWait = Double.NaN;
+  private volatile double overdueAmount = Double.NaN;
+
+  public ClinicMetrics(
+      WaitingRoomBoard waitingRoomBoard,
+      WaitingRoomKpis waitingRoomKpis,
+      InvoiceMetricsService invoiceMetricsService,
+      StockAlertIndex stockAlertIndex,
+      MeterRegistry meterRegistry) {
+    this.waitingRoomKpis = waitingRoomKpis;
+    this.invoiceMetricsService = invoiceMetricsService;
+
+    Gauge.builder(
+            "clinic.waitingroom.entries",
+            waitingRoomBoard,
+            board -> board.countByStatus(WaitingRoomStatus.ESPERANDO))
+        .description("Patients currently waiting")
+        .tag("status", "waiting")
+        .register(meterRegistry);
+    Gauge.builder(
+            "clinic.waitingroom.entries",
+            waitingRoomBoard,
+            board -> board.countByStatus(WaitingRoomStatus.EN_PROCESO))
+        .description("Patients currently in consultation")
+        .tag("status", "in_consultation")
+        .register(meterRegistry);
+    Gauge.builder("clinic.waitingroom.wait.average", this, metrics -> metrics.averageWait)
+        .description("Average wait of today's completed visits")
+        .baseUnit("minutes")
+        .register(meterRegistry);
+    Gauge.builder("clinic.invoices.overdue.amount", this, metrics -> metrics.overdueAmount)
+        .description("Outstanding balance of overdue invoices")
+        .baseUnit("DOP")
+        .register(meterRegistry);
+    Gauge.builder("clinic.stock.low", stockAlertIndex, StockAlertIndex::getAlertCount)
+        .description("Products at or below their reorder level")
+        .register(meterRegistry);
+
+    this.invoicesCreated =
+        Counter.builder("clinic.invoices.created")
+            .description("Invoices created")
+            .register(meterRegistry);
+  }
+
+  /** Takes the values of the gauges backed by cached queries. */
+  @Scheduled(cron = "${application.dashboard.metrics-refresh-cron:0 * * * * *}")
+  public void refresh() {
+    averageWait =
+        waitingRoomKpis.getToday().forStatus(WaitingRoomStatus.COMPLETADO).avgWaitMinutes();
+    overdueAmount = invoiceMetricsService.getMetrics().overdueAmount().doubleValue();
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onInvoiceChanged(InvoiceChangedEvent event) {
+    if (event.changeType() == ChangeType.CREATED) {
+      invoicesCreated.increment();
+    }
+  }
+}
@@ -0,0 +1,85 @@
+package com.wornux.services.dashboard;
+
+import com.wornux.data.repository.ConsultationHourlyRollupRepository;
+import com.wornux.data.repository.DailyRevenueRollupRepository;
+import com.wornux.services.events.ConsultationChangedEvent;
+import com.wornux.services.events.InvoiceChangedEvent;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Keeps the dashboard rollup tables current.
+ *
+ * <p>Every committed invoice or consultation write recomputes the rollup rows of its day from the
+ * base tables, which stays correct for updates and deactivations without tracking deltas. A nightly
+ * run reconciles the last days to catch anything an event could not attribute, such as a
+ * consultation moved to another day.
+ */
+@Slf4j
+@Component
+@Transactional(propagation = Propagation.REQUIRES_NEW)
+public class DashboardRollupMaintainer {
+
+  private final DailyRevenueRollupRepository dailyRevenueRollupRepository;
+  private final ConsultationHourlyRollupRepository consultationHourlyRollupRepository;
+  private final int reconcileDays;
+
+  public DashboardRollupMaintainer(
+      DailyRevenueRollupRepository dailyRevenueRollupRepository,
+      ConsultationHourlyRollupRepository consultationHourlyRollupRepository,
+      @Value("${application.dashboard.rollup-reconcile-days:35}") int reconcileDays) {
+    this.dailyRevenueRollupRepository = dailyRevenueRollupRepository;
+    this.consultationHourlyRollupRepository = consultationHourlyRollupRepository;
+    this.reconcileDays = reconcileDays;
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onInvoiceChanged(InvoiceChangedEvent event) {
+    Instant createdDate = event.invoice() != null ? event.invoice().getCreatedDate() : null;
+    LocalDate day =
+        createdDate != null
+            ? LocalDate.ofInstant(createdDate, ZoneId.systemDefault())
+            : LocalDate.now();
+    refreshRevenue(day, day.plusDays(1));
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onConsultationChanged(ConsultationChangedEvent event) {
+    LocalDate day =
+        event.consultationDate() != null ? event.consultationDate().toLocalDate() : LocalDate.now();
+    refreshConsultations(day, day.plusDays(1));
+  }
+
+  /** Rebuilds the rollups of the last days from the base tables. */
+  @Scheduled(cron = "${application.dashboard.rollup-reconcile-cron:0 30 2 * * *}")
+  public void reconcile() {
+    LocalDate to = LocalDate.now().plusDays(1);
+    LocalDate from = to.minusDays(reconcileDays + 1L);
+    refreshRevenue(from, to);
+    refreshConsultations(from, to);
+    log.info("Dashboard rollups reconciled from {} to {}", from, to);
+  }
+
+  /** Recomputes the revenue rollup of the days in {@code [from, to)}. */
+  public void refreshRevenue(LocalDate from, LocalDate to) {
+    ZoneId zone = ZoneId.systemDefault();
+    dailyRevenueRollupRepository.deleteDays(from, to);
+    dailyRevenueRollupRepository.upsertFromInvoices(
+        from.atStartOfDay(zone).toInstant(), to.atStartOfDay(zone).toInstant());
+  }
+
+  /** Recomputes the consultation rollup of the days in {@code [from, to)}. */
+  public void refreshConsultations(LocalDate from, LocalDate to) {
+    consultationHourlyRollupRepository.deleteDays(from, to);
+    consultationHourlyRollupRepository.upsertFromConsultations(
+        from.atStartOfDay(), to.atStartOfDay());
+  }
+}
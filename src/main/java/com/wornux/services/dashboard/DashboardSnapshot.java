@@ -0,0 +1,44 @@
+package com.wornux.services.dashboard;
+
+import com.wornux.dto.dashboard.ChartDataDto;
+import com.wornux.dto.dashboard.RevenueDataDto;
+import com.wornux.dto.dashboard.StockAlertDto;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+/**
+ * Data of every executive dashboard widget, each loading independently. Views subscribe to the
+ * futures they need and render as soon as each one completes.
+ *
+ * @param latencies how long each widget query took, filled in as they complete.
+ */
+public record DashboardSnapshot(
+    Instant createdAt,
+    CompletableFuture<List<RevenueDataDto>> revenue,
+    CompletableFuture<List<ChartDataDto>> topServices,
+    CompletableFuture<Map<String, Object>> clientRetention,
+    CompletableFuture<List<StockAlertDto>> stockHealth,
+    CompletableFuture<Long> healthyStockCount,
+    CompletableFuture<List<ChartDataDto>> consultationTrends,
+    CompletableFuture<List<ChartDataDto>> employeeUtilization,
+    CompletableFuture<BigDecimal> overdueAmount,
+    Map<String, Duration> latencies) {
+
+  boolean hasFailures() {
+    return Stream.of(
+            revenue,
+            topServices,
+            clientRetention,
+            stockHealth,
+            healthyStockCount,
+            consultationTrends,
+            employeeUtilization,
+            overdueAmount)
+        .anyMatch(CompletableFuture::isCompletedExceptionally);
+  }
+}
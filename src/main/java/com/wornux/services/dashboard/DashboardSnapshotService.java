@@ -0,0 +1,126 @@
+package com.wornux.services.dashboard;
+
+import com.wornux.services.interfaces.DashboardService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Loads the executive dashboard concurrently and shares the result between sessions.
+ *
+ * <p>Every widget query runs on its own virtual thread with its own time budget, so the landing
+ * page waits for the slowest query instead of the sum of all of them, and a stuck query only fails
+ * its widget. The composed snapshot is reused until its TTL expires or one of its queries failed.
+ */
+@Slf4j
+@Component
+public class DashboardSnapshotService {
+
+  private final DashboardService dashboardService;
+  private final MeterRegistry meterRegistry;
+  private final Duration ttl;
+  private final Duration widgetBudget;
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+  private volatile DashboardSnapshot snapshot;
+
+  public DashboardSnapshotService(
+      DashboardService dashboardService,
+      MeterRegistry meterRegistry,
+      @Value("${application.dashboard.snapshot-ttl:60s}") Duration ttl,
+      @Value("${application.dashboard.widget-budget:5s}") Duration widgetBudget) {
+    this.dashboardService = dashboardService;
+    this.meterRegistry = meterRegistry;
+    this.ttl = ttl;
+    this.widgetBudget = widgetBudget;
+  }
+
+  /** The current snapshot; its widgets may still be loading. */
+  public DashboardSnapshot getSnapshot() {
+    DashboardSnapshot current = snapshot;
+    if (isFresh(current)) {
+      return current;
+    }
+    synchronized (this) {
+      current = snapshot;
+      if (!isFresh(current)) {
+        current = load();
+        snapshot = current;
+      }
+      return current;
+    }
+  }
+
+  /** Forces the next {@link #getSnapshot()} to reload, e.g. after stock was edited. */
+  public void invalidate() {
+    snapshot = null;
+  }
+
+  @PreDestroy
+  void shutdown() {
+    executor.shutdownNow();
+  }
+
+  private boolean isFresh(DashboardSnapshot current) {
+    return current != null
+        && Duration.between(current.createdAt(), Instant.now()).compareTo(ttl) < 0
+        && !current.hasFailures();
+  }
+
+  private DashboardSnapshot load() {
+    Map<String, Duration> latencies = new ConcurrentHashMap<>();
+    return new DashboardSnapshot(
+        Instant.now(),
+        submit("revenue", dashboardService::getRevenueAnalysisWithForecast, latencies),
+        submit("top-services", dashboardService::getTopServicesAnalysis, latencies),
+        submit("client-retention", dashboardService::getClientRetentionMetrics, latencies),
+        submit("stock-health", dashboardService::getStockHealthAnalysis, latencies),
+        submit("healthy-stock", dashboardService::getHealthyStockCount, latencies),
+        submit("consultation-trends", dashboardService::getConsultationTrends, latencies),
+        submit("employee-utilization", dashboardService::getEmployeeUtilizationData, latencies),
+        submit("overdue-amount", dashboardService::getOverdueAmount, latencies),
+        latencies);
+  }
+
+  private <T> CompletableFuture<T> submit(
+      String widget, Supplier<T> query, Map<String, Duration> latencies) {
+    Timer timer =
+        Timer.builder("dashboard.widget.load")
+            .description("Executive dashboard widget query time")
+            .tag("widget", widget)
+            .register(meterRegistry);
+
+    return CompletableFuture.supplyAsync(
+            () -> {
+              long start = System.nanoTime();
+              try {
+                return query.get();
+              } finally {
+                Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+                timer.record(elapsed);
+                latencies.put(widget, elapsed);
+                log.debug("Dashboard widget {} loaded in {} ms", widget, elapsed.toMillis());
+              }
+            },
+            executor)
+        .orTimeout(widgetBudget.toMillis(), TimeUnit.MILLISECONDS)
+        .whenComplete(
+            (result, error) -> {
+              if (error != null) {
+                log.warn("Dashboard widget {} failed: {}", widget, error.toString());
+              }
+            });
+  }
+}
@@ -0,0 +1,163 @@
+package com.wornux.services.dashboard;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Additive Holt-Winters (triple exponential smoothing) with weekly seasonality for daily series.
+ *
+ * <p>Smoothing parameters are chosen by a grid search that minimises the one-step-ahead squared
+ * error. Each candidate is a single pass over the series, so refitting several years of daily
+ * values takes milliseconds. Prediction intervals follow the additive ETS(A,A,A) variance.
+ */
+@Component
+public class HoltWintersForecaster implements TimeSeriesForecaster {
+
+  static final int WEEK = 7;
+
+  private static final double Z_95 = 1.959964;
+  private static final double[] ALPHAS = {
+    0.05, 0.15, 0.25, 0.35, 0.45, 0.55, 0.65, 0.75, 0.85, 0.95
+  };
+  private static final double[] BETAS = {0.0, 0.01, 0.05, 0.1, 0.2, 0.3};
+  private static final double[] GAMMAS = {
+    0.05, 0.15, 0.25, 0.35, 0.45, 0.55, 0.65, 0.75, 0.85, 0.95
+  };
+
+  private final int seasonLength;
+
+  public HoltWintersForecaster() {
+    this(WEEK);
+  }
+
+  HoltWintersForecaster(int seasonLength) {
+    this.seasonLength = seasonLength;
+  }
+
+  @Override
+  public Model fit(double[] series) {
+    if (series.length < 2 * seasonLength) {
+      return Model.flat(series, seasonLength);
+    }
+
+    Model best = null;
+    for (double alpha : ALPHAS) {
+      for (double beta : BETAS) {
+        for (double gamma : GAMMAS) {
+          Model candidate = Model.initial(series, seasonLength, alpha, beta, gamma);
+          for (int t = seasonLength; t < series.length; t++) {
+            candidate.update(series[t]);
+          }
+          if (best == null || candidate.sse < best.sse) {
+            best = candidate;
+          }
+        }
+      }
+    }
+    return best;
+  }
+
+  /** Fitted state. Not thread-safe; callers that share a model must synchronise. */
+  public static final class Model implements ForecastModel {
+
+    private final double alpha;
+    private final double beta;
+    private final double gamma;
+    private final double[] seasonal;
+
+    private double level;
+    private double trend;
+    private long next;
+    private double sse;
+    private long errors;
+
+    private Model(double alpha, double beta, double gamma, double[] seasonal) {
+      this.alpha = alpha;
+      this.beta = beta;
+      this.gamma = gamma;
+      this.seasonal = seasonal;
+    }
+
+    /** Classic initialisation from the first two seasons; positioned after the first season. */
+    static Model initial(double[] y, int m, double alpha, double beta, double gamma) {
+      double first = 0;
+      double second = 0;
+      for (int i = 0; i < m; i++) {
+        first += y[i];
+        second += y[m + i];
+      }
+      first /= m;
+      second /= m;
+
+      Model model = new Model(alpha, beta, gamma, new double[m]);
+      for (int i = 0; i < m; i++) {
+        model.seasonal[i] = y[i] - first;
+      }
+      model.level = first;
+      model.trend = (second - first) / m;
+      model.next = m;
+      return model;
+    }
+
+    /** Fallback for histories shorter than two seasons: the mean, no trend, no seasonality. */
+    static Model flat(double[] y, int m) {
+      Model model = new Model(0.3, 0, 0, new double[m]);
+      double mean = 0;
+      for (double v : y) {
+        mean += v;
+      }
+      mean = y.length > 0 ? mean / y.length : 0;
+      for (double v : y) {
+        model.sse += (v - mean) * (v - mean);
+      }
+      model.errors = y.length;
+      model.level = mean;
+      model.next = y.length;
+      return model;
+    }
+
+    @Override
+    public void update(double observation) {
+      int slot = (int) (next % seasonal.length);
+      double season = seasonal[slot];
+
+      double error = observation - (level + trend + season);
+      sse += error * error;
+      errors++;
+
+      double previousLevel = level;
+      level = alpha * (observation - season) + (1 - alpha) * (level + trend);
+      trend = beta * (level - previousLevel) + (1 - beta) * trend;
+      seasonal[slot] = gamma * (observation - level) + (1 - gamma) * season;
+      next++;
+    }
+
+    @Override
+    public Forecast forecast(int horizon) {
+      double[] mean = new double[horizon];
+      double[] lower = new double[horizon];
+      double[] upper = new double[horizon];
+
+      int m = seasonal.length;
+      double sigma2 = errors > 0 ? sse / errors : 0;
+      // la varianza del horizonte h se escribe con los parámetros de ETS(A,A,A), que suavizan
+      // sobre el error: beta de ETS es alpha * beta y gamma de ETS es (1 - alpha) * gamma
+      double etsBeta = alpha * beta;
+      double etsGamma = (1 - alpha) * gamma;
+      double accumulated = 1;
+
+      for (int h = 1; h <= horizon; h++) {
+        if (h > 1) {
+          int j = h - 1;
+          double c = alpha + j * etsBeta + (j % m == 0 ? etsGamma : 0);
+          accumulated += c * c;
+        }
+        double point = level + h * trend + seasonal[(int) ((next + h - 1) % m)];
+        double margin = Z_95 * Math.sqrt(sigma2 * accumulated);
+        mean[h - 1] = point;
+        lower[h - 1] = point - margin;
+        upper[h - 1] = point + margin;
+      }
+      return new Forecast(mean, lower, upper);
+    }
+  }
+}
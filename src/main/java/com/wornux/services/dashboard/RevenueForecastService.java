@@ -0,0 +1,114 @@
+package com.wornux.services.dashboard;
+
+import com.wornux.data.entity.DailyRevenueRollup;
+import com.wornux.data.repository.DailyRevenueRollupRepository;
+import com.wornux.services.dashboard.TimeSeriesForecaster.Forecast;
+import com.wornux.services.dashboard.TimeSeriesForecaster.ForecastModel;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Daily revenue forecast kept warm between dashboard loads.
+ *
+ * <p>The model is fitted on closed days only (today is still accumulating). When a new day closes
+ * the model is advanced with that day's revenue instead of being refitted; the parameters are
+ * refitted from the rollups every {@code forecast-refit-days}. The history starts at the first day
+ * with revenue within {@code forecast-history-days}, so a young clinic is not fitted on the empty
+ * days before it opened.
+ */
+@Slf4j
+@Component
+@Transactional(readOnly = true)
+public class RevenueForecastService {
+
+  private final DailyRevenueRollupRepository dailyRevenueRollupRepository;
+  private final TimeSeriesForecaster forecaster;
+  private final int horizonDays;
+  private final int historyDays;
+  private final int refitDays;
+
+  private ForecastModel model;
+  private LocalDate lastObservedDay;
+  private LocalDate fittedOn;
+
+  public RevenueForecastService(
+      DailyRevenueRollupRepository dailyRevenueRollupRepository,
+      TimeSeriesForecaster forecaster,
+      @Value("${application.dashboard.forecast-horizon-days:14}") int horizonDays,
+      @Value("${application.dashboard.forecast-history-days:730}") int historyDays,
+      @Value("${application.dashboard.forecast-refit-days:7}") int refitDays) {
+    this.dailyRevenueRollupRepository = dailyRevenueRollupRepository;
+    this.forecaster = forecaster;
+    this.horizonDays = horizonDays;
+    this.historyDays = historyDays;
+    this.refitDays = refitDays;
+  }
+
+  /**
+   * Forecasts the revenue of the {@code forecast-horizon-days} days after today.
+   *
+   * @param today the current day; its partial revenue is not used.
+   */
+  public synchronized Forecast forecastAfter(LocalDate today) {
+    LocalDate lastClosedDay = today.minusDays(1);
+
+    if (model == null || !fittedOn.plusDays(refitDays).isAfter(today)) {
+      refit(lastClosedDay);
+    } else if (lastObservedDay.isBefore(lastClosedDay)) {
+      double[] closed = dailySeries(lastObservedDay.plusDays(1), lastClosedDay);
+      for (double revenue : closed) {
+        model.update(revenue);
+      }
+      lastObservedDay = lastClosedDay;
+    }
+
+    // el horizonte 1 es hoy, que aún no cierra
+    Forecast forecast = model.forecast(horizonDays + 1);
+    return new Forecast(tail(forecast.mean()), tail(forecast.lower()), tail(forecast.upper()));
+  }
+
+  private void refit(LocalDate lastClosedDay) {
+    LocalDate from = lastClosedDay.minusDays(historyDays - 1L);
+    List<DailyRevenueRollup> rows =
+        dailyRevenueRollupRepository.findByDayBetweenOrderByDayAsc(from, lastClosedDay);
+    // antes de la primera factura la clínica no existía: esos días no son ceros y hundirían el
+    // nivel de una clínica joven
+    if (!rows.isEmpty()) {
+      from = rows.getFirst().getDay();
+    }
+    long start = System.nanoTime();
+    double[] series = dailySeries(from, lastClosedDay, rows);
+    model = forecaster.fit(series);
+    lastObservedDay = lastClosedDay;
+    fittedOn = lastClosedDay.plusDays(1);
+    log.debug(
+        "Revenue forecast refitted on {} days in {} ms",
+        series.length,
+        (System.nanoTime() - start) / 1_000_000);
+  }
+
+  /** Revenue of every day in {@code [from, to]}, zero for days without invoices. */
+  private double[] dailySeries(LocalDate from, LocalDate to) {
+    return dailySeries(
+        from, to, dailyRevenueRollupRepository.findByDayBetweenOrderByDayAsc(from, to));
+  }
+
+  private static double[] dailySeries(LocalDate from, LocalDate to, List<DailyRevenueRollup> rows) {
+    double[] series = new double[(int) ChronoUnit.DAYS.between(from, to) + 1];
+    for (DailyRevenueRollup row : rows) {
+      series[(int) ChronoUnit.DAYS.between(from, row.getDay())] = row.getRevenue().doubleValue();
+    }
+    return series;
+  }
+
+  private static double[] tail(double[] values) {
+    double[] tail = new double[values.length - 1];
+    System.arraycopy(values, 1, tail, 0, tail.length);
+    return tail;
+  }
+}
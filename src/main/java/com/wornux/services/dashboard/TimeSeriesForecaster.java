@@ -0,0 +1,35 @@
+package com.wornux.services.dashboard;
+
+/**
+ * Fits forecasting models to evenly spaced series, e.g. one value per day. Series are plain {@code
+ * double[]} so long histories can be refitted without boxing.
+ */
+public interface TimeSeriesForecaster {
+
+  /**
+   * Fits a model to the series.
+   *
+   * @param series observations, oldest first, without gaps.
+   * @return a model positioned right after the last observation.
+   */
+  ForecastModel fit(double[] series);
+
+  /** A fitted model that can be advanced one observation at a time. */
+  interface ForecastModel {
+
+    /** Feeds the next observation without refitting the parameters. */
+    void update(double observation);
+
+    /** Forecasts the next {@code horizon} periods after the last observation. */
+    Forecast forecast(int horizon);
+  }
+
+  /**
+   * Point forecasts with a 95% prediction interval.
+   *
+   * @param mean expected value of each period.
+   * @param lower lower bound of the interval.
+   * @param upper upper bound of the interval.
+   */
+  record Forecast(double[] mean, double[] lower, double[] upper) {}
+}
@@ -0,0 +1,13 @@
+package com.wornux.services.events;
+
+import com.wornux.data.entity.Appointment;
+
+/** Published whenever an {@link Appointment} is created, modified or deleted. */
+public record AppointmentChangedEvent(Long appointmentId, ChangeType changeType) {
+
+  public enum ChangeType {
+    SAVED,
+    STATUS_CHANGED,
+    DELETED
+  }
+}
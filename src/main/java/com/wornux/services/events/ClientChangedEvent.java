@@ -0,0 +1,6 @@
+package com.wornux.services.events;
+
+import com.wornux.data.entity.Client;
+
+/** Published after a {@link Client} is created, modified, deactivated or reactivated. */
+public record ClientChangedEvent(Long clientId) {}
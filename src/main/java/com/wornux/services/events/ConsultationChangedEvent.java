@@ -0,0 +1,7 @@
+package com.wornux.services.events;
+
+import com.wornux.data.entity.Consultation;
+import java.time.LocalDateTime;
+
+/** Published whenever a {@link Consultation} is created, modified or deactivated. */
+public record ConsultationChangedEvent(Long consultationId, LocalDateTime consultationDate) {}
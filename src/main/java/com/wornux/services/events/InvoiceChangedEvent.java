@@ -0,0 +1,14 @@
+package com.wornux.services.events;
+
+import com.wornux.data.entity.Invoice;
+
+/** Published after an {@link Invoice} is created, saved, changes status or is deactivated. */
+public record InvoiceChangedEvent(Invoice invoice, ChangeType changeType) {
+
+  public enum ChangeType {
+    CREATED,
+    SAVED,
+    STATUS_CHANGED,
+    DELETED
+  }
+}
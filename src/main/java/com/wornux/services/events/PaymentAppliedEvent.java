@@ -0,0 +1,6 @@
+package com.wornux.services.events;
+
+import com.wornux.data.entity.Payment;
+
+/** Published after a {@link Payment} is saved and applied to the invoices of a client. */
+public record PaymentAppliedEvent(Long paymentCode, Long clientId) {}
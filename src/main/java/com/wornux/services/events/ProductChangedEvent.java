@@ -0,0 +1,8 @@
+package com.wornux.services.events;
+
+import com.wornux.data.entity.Product;
+
+/**
+ * Published after a {@link Product} is created, modified, has its stock moved or is deactivated.
+ */
+public record ProductChangedEvent(Product product) {}
@@ -0,0 +1,7 @@
+package com.wornux.services.events;
+
+import com.wornux.data.entity.StockMovement;
+import java.util.List;
+
+/** Published after the ledger moved available stock; carries the appended movements. */
+public record StockMovedEvent(List<StockMovement> movements) {}
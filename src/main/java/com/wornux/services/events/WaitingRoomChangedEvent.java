@@ -0,0 +1,23 @@
+package com.wornux.services.events;
+
+import com.wornux.data.entity.WaitingRoom;
+
+/**
+ * Published whenever a {@link WaitingRoom} entry is created or modified. Listeners receive the
+ * saved entity, so they never need to go back to the database to learn the new state.
+ */
+public record WaitingRoomChangedEvent(WaitingRoom entry, ChangeType changeType) {
+
+  /** Declared from most to least significant, which is the order used when coalescing. */
+  public enum ChangeType {
+    ADDED,
+    STATUS_CHANGED,
+    PRIORITY_CHANGED,
+    ASSIGNMENT_CHANGED,
+    UPDATED
+  }
+
+  public Long id() {
+    return entry.getId();
+  }
+}
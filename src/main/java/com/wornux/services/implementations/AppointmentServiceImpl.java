@@ -1,20 +1,32 @@
 package com.wornux.services.implementations;
 
 import com.wornux.data.entity.Appointment;
+import com.wornux.data.entity.RecurrenceException;
 import com.wornux.data.enums.AppointmentStatus;
 import com.wornux.data.repository.AppointmentRepository;
 import com.wornux.dto.request.AppointmentCreateRequestDto;
 import com.wornux.dto.request.AppointmentUpdateRequestDto;
 import com.wornux.dto.response.AppointmentResponseDto;
 import com.wornux.exception.AppointmentNotFoundException;
+import com.wornux.exception.InvalidRecurrenceRuleException;
+import com.wornux.exception.ScheduleConflictException;
 import com.wornux.mapper.AppointmentMapper;
+import com.wornux.services.events.AppointmentChangedEvent;
+import com.wornux.services.events.AppointmentChangedEvent.ChangeType;
 import com.wornux.services.interfaces.AppointmentService;
+import com.wornux.services.scheduling.AppointmentIndex;
+import com.wornux.services.scheduling.AppointmentSeries;
+import com.wornux.services.scheduling.AppointmentSeries.Occurrence;
+import com.wornux.services.scheduling.RecurrenceRule;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -26,8 +38,15 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 public class AppointmentServiceImpl implements AppointmentService {
 
+  // las series sin fin se comprueban hasta aquí
+  private static final Duration SERIES_CONFLICT_HORIZON = Duration.ofDays(366);
+  private static final DateTimeFormatter OCCURRENCE_FORMAT =
+      DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
   private final AppointmentRepository appointmentRepository;
   private final AppointmentMapper appointmentMapper;
+  private final ApplicationEventPublisher eventPublisher;
+  private final AppointmentIndex appointmentIndex;
 
   @Override
   @Transactional
@@ -35,7 +54,10 @@ public class AppointmentServiceImpl implements AppointmentService {
     log.debug("Creating appointment for {}", createRequest.getAppointmentDateTime());
 
     Appointment appointment = appointmentMapper.toEntity(createRequest);
+    prepareRecurrence(appointment, null);
+    rejectConflicts(appointment);
     appointment = appointmentRepository.save(appointment);
+    publish(appointment.getId(), ChangeType.SAVED);
 
     log.info("Created appointment with ID: {}", appointment.getId());
     appointmentMapper.toResponseDTO(appointment);
@@ -47,9 +69,13 @@ public class AppointmentServiceImpl implements AppointmentService {
     log.debug("Updating appointment with ID: {}", id);
 
     Appointment appointment = findAppointmentById(id);
+    LocalDateTime previousStart = appointment.getStartAppointmentDate();
 
     appointmentMapper.updateAppointmentFromDTO(updateRequest, appointment);
+    prepareRecurrence(appointment, previousStart);
+    rejectConflicts(appointment);
     appointment = appointmentRepository.save(appointment);
+    publish(id, ChangeType.SAVED);
 
     log.info("Updated appointment with ID: {}", id);
     appointmentMapper.toResponseDTO(appointment);
@@ -63,7 +89,10 @@ public class AppointmentServiceImpl implements AppointmentService {
     } else {
       log.debug("Creating new appointment");
     }
-    appointmentRepository.save(appointment);
+    prepareRecurrence(appointment, null);
+    rejectConflicts(appointment);
+    Appointment saved = appointmentRepository.save(appointment);
+    publish(saved.getId(), ChangeType.SAVED);
     log.info(
         "Appointment with ID: {} has been created or updated",
         appointment.getId() != null ? appointment.getId() : "newly created");
@@ -92,9 +121,7 @@ public class AppointmentServiceImpl implements AppointmentService {
   @Transactional(readOnly = true)
   public List<AppointmentResponseDto> getAppointmentsByDateRange(
       LocalDateTime start, LocalDateTime end) {
-    List<Appointment> appointments =
-        appointmentRepository.findByStartAppointmentDateBetween(start, end);
-    return appointments.stream().map(appointmentMapper::toResponseDTO).toList();
+    return appointmentIndex.findOverlapping(start, end);
   }
 
   @Override
@@ -107,9 +134,9 @@ public class AppointmentServiceImpl implements AppointmentService {
   @Override
   @Transactional(readOnly = true)
   public List<AppointmentResponseDto> getAppointmentsByClient(Long clientId) {
-    List<Appointment> appointments =
-        appointmentRepository.findByClientIdOrderByStartAppointmentDateDesc(clientId);
-    return appointments.stream().map(appointmentMapper::toResponseDTO).toList();
+    return appointmentRepository.findRowsByClientId(clientId).stream()
+        .map(appointmentMapper::toResponseDTO)
+        .toList();
   }
 
   @Override
@@ -136,9 +163,10 @@ public class AppointmentServiceImpl implements AppointmentService {
     LocalDateTime today = LocalDateTime.now();
     LocalDateTime startOfDay = today.toLocalDate().atStartOfDay();
     LocalDateTime endOfDay = startOfDay.plusDays(1);
-    List<Appointment> appointments =
-        appointmentRepository.findTodayAppointments(startOfDay, endOfDay);
-    return appointments.stream().map(appointmentMapper::toResponseDTO).toList();
+    // las que empiezan hoy, ocurrencias de series incluidas
+    return appointmentIndex.findOverlapping(startOfDay, endOfDay).stream()
+        .filter(a -> !a.getStartAppointmentDate().isBefore(startOfDay))
+        .toList();
   }
 
   @Override
@@ -159,6 +187,7 @@ public class AppointmentServiceImpl implements AppointmentService {
     Appointment appointment = findAppointmentById(id);
     appointment.setStatus(newStatus);
     appointment = appointmentRepository.save(appointment);
+    publish(id, ChangeType.STATUS_CHANGED);
 
     log.info("Changed status of appointment {} to {}", id, newStatus);
     return appointmentMapper.toResponseDTO(appointment);
@@ -176,6 +205,7 @@ public class AppointmentServiceImpl implements AppointmentService {
       appointment.setNotes(currentNotes + "\nMotivo de cancelación: " + reason);
     }
     appointmentRepository.save(appointment);
+    publish(id, ChangeType.STATUS_CHANGED);
 
     log.info("Cancelled appointment with ID: {}", id);
   }
@@ -190,9 +220,190 @@ public class AppointmentServiceImpl implements AppointmentService {
     }
 
     appointmentRepository.deleteById(id);
+    publish(id, ChangeType.DELETED);
     log.info("Deleted appointment with ID: {}", id);
   }
 
+  @Override
+  @Transactional
+  public void cancelOccurrence(Long id, LocalDateTime occurrenceStart) {
+    log.debug("Cancelling occurrence {} of appointment series {}", occurrenceStart, id);
+
+    Appointment series = findOccurrence(id, occurrenceStart);
+    exceptionFor(series, occurrenceStart).setCancelled(true);
+    appointmentRepository.save(series);
+    publish(id, ChangeType.SAVED);
+
+    log.info("Cancelled occurrence {} of appointment series {}", occurrenceStart, id);
+  }
+
+  @Override
+  @Transactional
+  public void rescheduleOccurrence(
+      Long id, LocalDateTime occurrenceStart, LocalDateTime start, LocalDateTime end) {
+    log.debug("Moving occurrence {} of appointment series {} to {}", occurrenceStart, id, start);
+
+    Appointment series = findOccurrence(id, occurrenceStart);
+    if (start == null || end == null || !end.isAfter(start)) {
+      throw new IllegalArgumentException("La hora de cierre debe ser posterior a la de inicio");
+    }
+    if (start.isBefore(series.getStartAppointmentDate())) {
+      throw new InvalidRecurrenceRuleException(
+          "Una ocurrencia no puede moverse antes del inicio de la serie");
+    }
+    if (series.getAssignedEmployee() != null
+        && AppointmentIndex.BLOCKING_STATUSES.contains(series.getStatus())) {
+      // las demás ocurrencias de la serie también ocupan al empleado
+      if (AppointmentSeries.occurrences(series, start, end).stream()
+          .anyMatch(occurrence -> !occurrence.originalStart().equals(occurrenceStart))) {
+        throw new ScheduleConflictException(
+            "%s ya tiene una cita en ese horario".formatted(series.getEmployeeDisplayName()));
+      }
+      rejectConflicts(series, start, end, id);
+    }
+    RecurrenceException exception = exceptionFor(series, occurrenceStart);
+    exception.setCancelled(false);
+    exception.setStartAppointmentDate(start);
+    exception.setEndAppointmentDate(end);
+    series.setRecurrenceEnd(AppointmentSeries.seriesEnd(series));
+    appointmentRepository.save(series);
+    publish(id, ChangeType.SAVED);
+
+    log.info("Moved occurrence {} of appointment series {} to {}", occurrenceStart, id, start);
+  }
+
+  /**
+   * Normalizes the rule of a recurring appointment and works out where the series ends, so range
+   * reads can skip the series that are over. When the start of a series moves, its exceptions move
+   * with it, so cancelled and moved occurrences stay on the occurrences they were made for;
+   * exceptions the rule no longer produces are dropped.
+   *
+   * @param previousStart The start before this change, or {@code null} for a new appointment
+   * @throws InvalidRecurrenceRuleException if the rule is not supported or does not match the start
+   */
+  private void prepareRecurrence(Appointment appointment, LocalDateTime previousStart) {
+    if (appointment.getRecurrenceRule() == null || appointment.getRecurrenceRule().isBlank()) {
+      appointment.setRecurrenceRule(null);
+      appointment.setRecurrenceEnd(null);
+      appointment.getRecurrenceExceptions().clear();
+      return;
+    }
+    appointment.setRecurrenceRule(RecurrenceRule.parse(appointment.getRecurrenceRule()).toString());
+
+    Duration shift =
+        previousStart != null
+            ? Duration.between(previousStart, appointment.getStartAppointmentDate())
+            : Duration.ZERO;
+    List<RecurrenceException> exceptions =
+        appointment.getRecurrenceExceptions().stream()
+            .map(
+                e ->
+                    new RecurrenceException(
+                        e.getOriginalStart().plus(shift),
+                        e.isCancelled(),
+                        e.getStartAppointmentDate(),
+                        e.getEndAppointmentDate()))
+            .filter(e -> AppointmentSeries.isOccurrence(appointment, e.getOriginalStart()))
+            .toList();
+    if (!exceptions.equals(appointment.getRecurrenceExceptions())) {
+      appointment.getRecurrenceExceptions().clear();
+      appointment.getRecurrenceExceptions().addAll(exceptions);
+    }
+    appointment.setRecurrenceEnd(AppointmentSeries.seriesEnd(appointment));
+  }
+
+  /**
+   * Rejects an appointment that would take time its employee already gave to another one. A series
+   * is checked occurrence by occurrence from today over {@link #SERIES_CONFLICT_HORIZON}.
+   *
+   * <p>The index only sees committed appointments, so it is a fast first check. Then the employee's
+   * row is locked and the check repeated against the database: two saves for the same employee and
+   * time wait for each other, and the second one sees the first.
+   *
+   * @throws ScheduleConflictException if it overlaps another scheduled or in-progress appointment
+   *     of the same employee.
+   */
+  private void rejectConflicts(Appointment appointment) {
+    if (appointment.getAssignedEmployee() == null
+        || appointment.getStartAppointmentDate() == null
+        || appointment.getEndAppointmentDate() == null
+        || !AppointmentIndex.BLOCKING_STATUSES.contains(appointment.getStatus())) {
+      return;
+    }
+    Long employeeId = appointment.getAssignedEmployee().getId();
+    if (appointment.isRecurring()) {
+      LocalDateTime now = LocalDateTime.now();
+      List<Occurrence> occurrences =
+          AppointmentSeries.occurrences(appointment, now, now.plus(SERIES_CONFLICT_HORIZON));
+      appointmentIndex
+          .findFirstConflict(employeeId, occurrences, appointment.getId())
+          .or(
+              () -> {
+                appointmentRepository.lockEmployeeSchedule(employeeId);
+                return appointmentIndex.findFirstConflictInDatabase(
+                    employeeId, occurrences, appointment.getId());
+              })
+          .ifPresent(
+              occurrence -> {
+                throw new ScheduleConflictException(
+                    "%s ya tiene una cita el %s"
+                        .formatted(
+                            appointment.getEmployeeDisplayName(),
+                            OCCURRENCE_FORMAT.format(occurrence.start())));
+              });
+      return;
+    }
+    rejectConflicts(
+        appointment,
+        appointment.getStartAppointmentDate(),
+        appointment.getEndAppointmentDate(),
+        appointment.getId());
+  }
+
+  /** Rejects {@code [start, end)} if the appointment's employee already gave it to another one. */
+  private void rejectConflicts(
+      Appointment appointment, LocalDateTime start, LocalDateTime end, Long excludedId) {
+    Long employeeId = appointment.getAssignedEmployee().getId();
+    boolean conflict =
+        !appointmentIndex.findConflicts(employeeId, start, end, excludedId).isEmpty();
+    if (!conflict) {
+      appointmentRepository.lockEmployeeSchedule(employeeId);
+      conflict =
+          !appointmentIndex.findConflictsInDatabase(employeeId, start, end, excludedId).isEmpty();
+    }
+    if (conflict) {
+      throw new ScheduleConflictException(
+          "%s ya tiene una cita en ese horario".formatted(appointment.getEmployeeDisplayName()));
+    }
+  }
+
+  private Appointment findOccurrence(Long id, LocalDateTime occurrenceStart) {
+    Appointment series = findAppointmentById(id);
+    if (!series.isRecurring() || !AppointmentSeries.isOccurrence(series, occurrenceStart)) {
+      throw new AppointmentNotFoundException(
+          "Appointment " + id + " has no occurrence at " + occurrenceStart);
+    }
+    return series;
+  }
+
+  private static RecurrenceException exceptionFor(
+      Appointment series, LocalDateTime occurrenceStart) {
+    return series.getRecurrenceExceptions().stream()
+        .filter(e -> e.getOriginalStart().equals(occurrenceStart))
+        .findFirst()
+        .orElseGet(
+            () -> {
+              RecurrenceException exception =
+                  RecurrenceException.builder().originalStart(occurrenceStart).build();
+              series.getRecurrenceExceptions().add(exception);
+              return exception;
+            });
+  }
+
+  private void publish(Long appointmentId, ChangeType changeType) {
+    eventPublisher.publishEvent(new AppointmentChangedEvent(appointmentId, changeType));
+  }
+
   private Appointment findAppointmentById(Long id) {
     return appointmentRepository
         .findById(id)
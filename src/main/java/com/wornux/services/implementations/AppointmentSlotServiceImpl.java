@@ -0,0 +1,103 @@
+package com.wornux.services.implementations;
+
+import com.wornux.data.entity.Employee;
+import com.wornux.data.enums.EmployeeRole;
+import com.wornux.data.enums.OfferingType;
+import com.wornux.data.repository.EmployeeRepository;
+import com.wornux.dto.response.AvailableSlotDto;
+import com.wornux.services.interfaces.AppointmentSlotService;
+import com.wornux.services.scheduling.AppointmentIndex;
+import com.wornux.services.scheduling.AppointmentIndex.IndexedAppointment;
+import com.wornux.services.scheduling.SlotFinder;
+import com.wornux.services.scheduling.SlotGrid;
+import jakarta.annotation.security.PermitAll;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Builds a {@link SlotGrid} per qualified employee over the next {@code
+ * application.scheduling.slot-search-days}, opened at their weekly schedule and closed at the
+ * appointments the {@link AppointmentIndex} holds for them, and searches them with {@link
+ * SlotFinder}. Only the employees are read from the database.
+ */
+@Service
+@PermitAll
+public class AppointmentSlotServiceImpl implements AppointmentSlotService {
+
+  private final EmployeeRepository employeeRepository;
+  private final AppointmentIndex appointmentIndex;
+  private final Map<OfferingType, Integer> durations = new EnumMap<>(OfferingType.class);
+  private final int searchDays;
+
+  public AppointmentSlotServiceImpl(
+      EmployeeRepository employeeRepository,
+      AppointmentIndex appointmentIndex,
+      @Value("${application.scheduling.slot-minutes.vaccination:15}") int vaccinationMinutes,
+      @Value("${application.scheduling.slot-minutes.grooming:60}") int groomingMinutes,
+      @Value("${application.scheduling.slot-minutes.medical:30}") int medicalMinutes,
+      @Value("${application.scheduling.slot-search-days:31}") int searchDays) {
+    this.employeeRepository = employeeRepository;
+    this.appointmentIndex = appointmentIndex;
+    this.durations.put(OfferingType.VACCINATION, vaccinationMinutes);
+    this.durations.put(OfferingType.GROOMING, groomingMinutes);
+    this.durations.put(OfferingType.MEDICAL, medicalMinutes);
+    this.searchDays = searchDays;
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<AvailableSlotDto> findNextSlots(
+      @NonNull OfferingType offeringType, LocalDateTime from, int count) {
+    LocalDateTime now = LocalDateTime.now();
+    LocalDateTime start = from == null || from.isBefore(now) ? now : from;
+    LocalDate firstDay = start.toLocalDate();
+
+    List<Employee> employees = employeeRepository.findSchedulableByRole(roleFor(offeringType));
+    if (employees.isEmpty()) {
+      return List.of();
+    }
+    Map<Long, List<IndexedAppointment>> busy =
+        appointmentIndex.findBusy(
+            employees.stream().map(Employee::getId).toList(),
+            firstDay.atStartOfDay(),
+            firstDay.plusDays(searchDays).atStartOfDay());
+
+    List<SlotGrid> grids = new ArrayList<>(employees.size());
+    for (Employee employee : employees) {
+      SlotGrid grid = new SlotGrid(firstDay, searchDays);
+      grid.openSchedule(employee.getWorkScheduleDays());
+      busy.getOrDefault(employee.getId(), List.of())
+          .forEach(appointment -> grid.block(appointment.start(), appointment.end()));
+      grids.add(grid);
+    }
+
+    return SlotFinder.find(grids, start, getDurationMinutes(offeringType), count).stream()
+        .map(
+            slot -> {
+              Employee employee = employees.get(slot.grid());
+              return new AvailableSlotDto(
+                  employee.getId(),
+                  employee.getFirstName() + " " + employee.getLastName(),
+                  slot.start(),
+                  slot.end());
+            })
+        .toList();
+  }
+
+  @Override
+  public int getDurationMinutes(@NonNull OfferingType offeringType) {
+    return durations.get(offeringType);
+  }
+
+  private static EmployeeRole roleFor(OfferingType offeringType) {
+    return offeringType == OfferingType.GROOMING ? EmployeeRole.GROOMER : EmployeeRole.VETERINARIAN;
+  }
+}
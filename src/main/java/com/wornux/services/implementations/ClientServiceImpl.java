@@ -10,6 +10,7 @@ import com.wornux.dto.request.ClientUpdateRequestDto;
 import com.wornux.exception.ClientNotFoundException;
 import com.wornux.exception.DuplicateIdentificationException;
 import com.wornux.mapper.ClientMapper;
+import com.wornux.services.events.ClientChangedEvent;
 import com.wornux.services.interfaces.ClientService;
 import jakarta.validation.Valid;
 import jakarta.validation.ValidationException;
@@ -17,6 +18,7 @@ import java.util.List;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -35,6 +37,7 @@ public class ClientServiceImpl extends ListRepositoryService<Client, Long, Clien
 
   private final ClientRepository clientRepository;
   private final ClientMapper clientMapper;
+  private final ApplicationEventPublisher eventPublisher;
 
   @Override
   @Transactional
@@ -46,6 +49,7 @@ public class ClientServiceImpl extends ListRepositoryService<Client, Long, Clien
     try {
       Client client = clientMapper.toEntity(clientRequest);
       client = clientRepository.save(client);
+      publish(client);
       log.info("Created Client with ID: {}", client.getId());
 
       return client;
@@ -77,7 +81,7 @@ public class ClientServiceImpl extends ListRepositoryService<Client, Long, Clien
 
     try {
       clientMapper.updateClientFromDTO(clientRequest, existingClient);
-      return clientRepository.save(existingClient);
+      return publish(clientRepository.save(existingClient));
     } catch (DataIntegrityViolationException e) {
       handleConstraintViolation(e);
       throw e;
@@ -184,7 +188,7 @@ public class ClientServiceImpl extends ListRepositoryService<Client, Long, Clien
     }
 
     client.setActive(false);
-    clientRepository.save(client);
+    publish(clientRepository.save(client));
     log.info("Deactivated Client ID: {}", id);
   }
 
@@ -197,7 +201,7 @@ public class ClientServiceImpl extends ListRepositoryService<Client, Long, Clien
         clientRepository.findById(id).orElseThrow(() -> new ClientNotFoundException(id));
 
     client.setActive(true);
-    clientRepository.save(client);
+    publish(clientRepository.save(client));
 
     log.info("Reactivated Client ID: {}", id);
   }
@@ -226,7 +230,7 @@ public class ClientServiceImpl extends ListRepositoryService<Client, Long, Clien
         clientRepository.findById(id).orElseThrow(() -> new ClientNotFoundException(id));
 
     client.setCreditLimit(newLimit);
-    clientRepository.save(client);
+    publish(clientRepository.save(client));
 
     log.info("Updated credit limit for Client ID: {} to {}", id, newLimit);
   }
@@ -375,4 +379,9 @@ public class ClientServiceImpl extends ListRepositoryService<Client, Long, Clien
       throw new ValidationException("Violación de restricción de unicidad");
     }
   }
+
+  private Client publish(Client client) {
+    eventPublisher.publishEvent(new ClientChangedEvent(client.getId()));
+    return client;
+  }
 }
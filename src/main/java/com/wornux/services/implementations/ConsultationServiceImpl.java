@@ -16,6 +16,9 @@ import com.wornux.dto.request.UpdateConsultationRequestDto;
 import com.wornux.exception.EmployeeNotFoundException;
 import com.wornux.exception.PetNotFoundException;
 import com.wornux.mapper.ConsultationMapper;
+import com.wornux.services.events.ConsultationChangedEvent;
+import com.wornux.services.events.WaitingRoomChangedEvent;
+import com.wornux.services.events.WaitingRoomChangedEvent.ChangeType;
 import com.wornux.services.interfaces.ConsultationService;
 import com.wornux.services.interfaces.EmployeeService;
 import com.wornux.services.interfaces.MedicalHistoryService;
@@ -26,6 +29,7 @@ import java.time.format.DateTimeFormatter;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -48,10 +52,11 @@ public class ConsultationServiceImpl
   private final ConsultationMapper consultationMapper;
   private final EmployeeRepository employeeRepository;
   private final WaitingRoomRepository waitingRoomRepository;
+  private final ApplicationEventPublisher eventPublisher;
 
   public Consultation save(Consultation item) {
     log.debug("Saving Consultation: {}", item.getId());
-    return consultationRepository.save(item);
+    return publish(consultationRepository.save(item));
   }
 
   @Override
@@ -75,7 +80,7 @@ public class ConsultationServiceImpl
     consultation.setVeterinarian(veterinarian);
     consultation.setMedicalHistory(medicalHistory);
 
-    Consultation savedConsultation = consultationRepository.save(consultation);
+    Consultation savedConsultation = publish(consultationRepository.save(consultation));
 
     updateMedicalHistoryFromConsultation(medicalHistory, savedConsultation);
     medicalHistoryService.updateMedicalHistory(medicalHistory);
@@ -147,7 +152,7 @@ public class ConsultationServiceImpl
     consultation.setVeterinarian(veterinarian);
     consultation.setUpdatedAt(LocalDateTime.now());
 
-    return consultationRepository.save(consultation);
+    return publish(consultationRepository.save(consultation));
   }
 
   @Override
@@ -206,7 +211,7 @@ public class ConsultationServiceImpl
 
     consultation.setUpdatedAt(LocalDateTime.now());
 
-    return consultationRepository.save(consultation);
+    return publish(consultationRepository.save(consultation));
   }
 
   @Override
@@ -238,7 +243,7 @@ public class ConsultationServiceImpl
     Consultation consultation = findById(id);
     consultation.setActive(false);
     consultation.setUpdatedAt(LocalDateTime.now());
-    consultationRepository.save(consultation);
+    publish(consultationRepository.save(consultation));
   }
 
   public Page<Consultation> findByActiveTrue(Pageable pageable) {
@@ -284,7 +289,8 @@ public class ConsultationServiceImpl
 
     // Solo guardar asignación en el waiting room
     wr.setAssignedVeterinarian(vet);
-    waitingRoomRepository.save(wr);
+    eventPublisher.publishEvent(
+        new WaitingRoomChangedEvent(waitingRoomRepository.save(wr), ChangeType.ASSIGNMENT_CHANGED));
 
     log.info("Veterinario {} asignado a WaitingRoom {}", vet.getId(), wr.getId());
   }
@@ -317,7 +323,8 @@ public class ConsultationServiceImpl
     }
 
     wr.startService();
-    waitingRoomRepository.save(wr);
+    eventPublisher.publishEvent(
+        new WaitingRoomChangedEvent(waitingRoomRepository.save(wr), ChangeType.STATUS_CHANGED));
 
     Consultation c = new Consultation();
     c.setPet(wr.getPet());
@@ -326,7 +333,7 @@ public class ConsultationServiceImpl
     c.setActive(true);
     c.setStatus(ConsultationStatus.EN_PROCESO);
 
-    Consultation saved = consultationRepository.save(c);
+    Consultation saved = publish(consultationRepository.save(c));
     return saved;
   }
 
@@ -357,7 +364,8 @@ public class ConsultationServiceImpl
     }
     if (wr != null) {
       wr.completeService();
-      waitingRoomRepository.save(wr);
+      eventPublisher.publishEvent(
+          new WaitingRoomChangedEvent(waitingRoomRepository.save(wr), ChangeType.STATUS_CHANGED));
     }
 
     // Liberar veterinario
@@ -373,4 +381,10 @@ public class ConsultationServiceImpl
     return consultationRepository.findByVeterinarian_IdAndActiveTrueOrderByConsultationDateDesc(
         veterinarianId);
   }
+
+  private Consultation publish(Consultation consultation) {
+    eventPublisher.publishEvent(
+        new ConsultationChangedEvent(consultation.getId(), consultation.getConsultationDate()));
+    return consultation;
+  }
 }
@@ -1,13 +1,18 @@
 package com.wornux.services.implementations;
 
+import com.wornux.data.entity.DailyRevenueRollup;
 import com.wornux.data.repository.ClientRepository;
-import com.wornux.data.repository.ConsultationRepository;
+import com.wornux.data.repository.ConsultationHourlyRollupRepository;
+import com.wornux.data.repository.DailyRevenueRollupRepository;
 import com.wornux.data.repository.InvoiceRepository;
-import com.wornux.data.repository.ProductRepository;
 import com.wornux.dto.dashboard.ChartDataDto;
 import com.wornux.dto.dashboard.RevenueDataDto;
 import com.wornux.dto.dashboard.StockAlertDto;
+import com.wornux.services.dashboard.RevenueForecastService;
+import com.wornux.services.dashboard.TimeSeriesForecaster.Forecast;
 import com.wornux.services.interfaces.DashboardService;
+import com.wornux.services.inventory.StockAlertIndex;
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -31,39 +36,40 @@ import org.springframework.transaction.annotation.Transactional;
 public class DashboardServiceImpl implements DashboardService {
 
   private final InvoiceRepository invoiceRepository;
-  private final ProductRepository productRepository;
-  private final ConsultationRepository consultationRepository;
+  private final StockAlertIndex stockAlertIndex;
+  private final DailyRevenueRollupRepository dailyRevenueRollupRepository;
+  private final ConsultationHourlyRollupRepository consultationHourlyRollupRepository;
   private final ClientRepository clientRepository;
+  private final RevenueForecastService revenueForecastService;
 
   @Override
   public List<RevenueDataDto> getRevenueAnalysisWithForecast() {
-    LocalDateTime sixMonthsAgo = LocalDateTime.now().minusMonths(6);
-    LocalDateTime now = LocalDateTime.now();
+    LocalDate today = LocalDate.now();
 
-    List<Object[]> results =
-        invoiceRepository.findMonthlyRevenue(
-            sixMonthsAgo.atZone(ZoneId.systemDefault()).toInstant(),
-            now.atZone(ZoneId.systemDefault()).toInstant());
     List<RevenueDataDto> revenueData = new ArrayList<>();
-
-    for (Object[] row : results) {
-      LocalDate period = ((java.sql.Date) row[0]).toLocalDate();
-      Double revenue = ((Number) row[1]).doubleValue();
-      Long invoiceCount = ((Number) row[2]).longValue();
-
-      revenueData.add(new RevenueDataDto(period, revenue, invoiceCount, false));
+    for (DailyRevenueRollup row :
+        dailyRevenueRollupRepository.findByDayBetweenOrderByDayAsc(today.minusMonths(6), today)) {
+      revenueData.add(
+          new RevenueDataDto(
+              row.getDay(),
+              row.getRevenue().doubleValue(),
+              row.getInvoiceCount(),
+              false,
+              null,
+              null));
     }
 
-    // Add simple forecast for next 3 months (basic average)
-    if (!revenueData.isEmpty()) {
-      double avgRevenue =
-          revenueData.stream().mapToDouble(RevenueDataDto::getRevenue).average().orElse(0.0);
-
-      LocalDate lastPeriod = revenueData.getLast().getPeriod();
-      for (int i = 1; i <= 3; i++) {
-        LocalDate forecastPeriod = lastPeriod.plusMonths(i);
-        revenueData.add(new RevenueDataDto(forecastPeriod, avgRevenue, 0L, true));
-      }
+    // proyección diaria (Holt-Winters con estacionalidad semanal), misma granularidad que la serie
+    Forecast forecast = revenueForecastService.forecastAfter(today);
+    for (int i = 0; i < forecast.mean().length; i++) {
+      revenueData.add(
+          new RevenueDataDto(
+              today.plusDays(i + 1L),
+              Math.max(0, forecast.mean()[i]),
+              0L,
+              true,
+              Math.max(0, forecast.lower()[i]),
+              Math.max(0, forecast.upper()[i])));
     }
 
     return revenueData;
@@ -87,51 +93,20 @@ public class DashboardServiceImpl implements DashboardService {
 
   @Override
   public List<StockAlertDto> getStockHealthAnalysis() {
-    List<Object[]> results = productRepository.findProductStockLevels();
-
-    return results.stream()
-        .map(
-            row -> {
-              Long productId = ((Number) row[0]).longValue();
-              String productName = (String) row[1];
-              int availableStock = ((Number) row[3]).intValue();
-              String category = row[4].toString();
-
-              String alertLevel;
-              if (availableStock == 0) {
-                alertLevel = "OUT_OF_STOCK";
-              } else if (availableStock <= 5) {
-                alertLevel = "CRITICAL";
-              } else if (availableStock <= 10) {
-                alertLevel = "LOW";
-              } else {
-                alertLevel = "NORMAL";
-              }
-
-              return new StockAlertDto(
-                  productId,
-                  productName,
-                  availableStock,
-                  5,
-                  category,
-                  alertLevel); // Using 5 as minimum stock
-            })
-        .filter(alert -> !"NORMAL".equals(alert.getAlertLevel()))
-        .collect(Collectors.toList());
+    return stockAlertIndex.getAlerts();
   }
 
   @Override
   public List<ChartDataDto> getConsultationTrends() {
-    LocalDateTime threeMonthsAgo = LocalDateTime.now().minusMonths(3);
-    LocalDateTime now = LocalDateTime.now();
+    LocalDate today = LocalDate.now();
 
     List<Object[]> results =
-        consultationRepository.findDailyConsultationCounts(threeMonthsAgo, now);
+        consultationHourlyRollupRepository.sumByDay(today.minusMonths(3), today);
 
     return results.stream()
         .map(
             row -> {
-              LocalDate date = ((java.sql.Date) row[0]).toLocalDate();
+              LocalDate date = (LocalDate) row[0];
               Double count = ((Number) row[1]).doubleValue();
 
               return new ChartDataDto(date.toString(), count, date, null);
@@ -169,11 +144,10 @@ public class DashboardServiceImpl implements DashboardService {
 
   @Override
   public List<ChartDataDto> getEmployeeUtilizationData() {
-    LocalDateTime fourWeeksAgo = LocalDateTime.now().minusWeeks(4);
-    LocalDateTime now = LocalDateTime.now();
+    LocalDate today = LocalDate.now();
 
     List<Object[]> results =
-        consultationRepository.findEmployeeUtilizationByHour(fourWeeksAgo, now);
+        consultationHourlyRollupRepository.sumByHour(today.minusWeeks(4), today);
 
     return results.stream()
         .map(
@@ -188,6 +162,11 @@ public class DashboardServiceImpl implements DashboardService {
 
   @Override
   public long getHealthyStockCount() {
-    return productRepository.countProductsWithAvailableStockGreaterThanReorderLevel();
+    return stockAlertIndex.getHealthyCount();
+  }
+
+  @Override
+  public BigDecimal getOverdueAmount() {
+    return invoiceRepository.findTotalOverdueAmount();
   }
 }
@@ -18,6 +18,8 @@ import com.wornux.dto.request.UpdateGroomingSessionRequestDto;
 import com.wornux.exception.EmployeeNotFoundException;
 import com.wornux.exception.PetNotFoundException;
 import com.wornux.mapper.GroomingSessionMapper;
+import com.wornux.services.events.WaitingRoomChangedEvent;
+import com.wornux.services.events.WaitingRoomChangedEvent.ChangeType;
 import com.wornux.services.interfaces.EmployeeService;
 import com.wornux.services.interfaces.GroomingSessionService;
 import com.wornux.services.interfaces.PetService;
@@ -26,6 +28,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -48,6 +51,7 @@ public class GroomingSessionServiceImpl
   private final EmployeeRepository employeeRepository;
   private final GroomingSessionMapper groomingSessionMapper;
   private final WaitingRoomRepository waitingRoomRepository;
+  private final ApplicationEventPublisher eventPublisher;
 
   @Override
   public GroomingSession save(GroomingSession session) {
@@ -240,7 +244,8 @@ public class GroomingSessionServiceImpl
     employeeRepository.save(groomer);
 
     wr.setAssignedGroomer(groomer);
-    waitingRoomRepository.save(wr);
+    eventPublisher.publishEvent(
+        new WaitingRoomChangedEvent(waitingRoomRepository.save(wr), ChangeType.ASSIGNMENT_CHANGED));
 
     log.info("Groomer {} asignado a WaitingRoom {}", groomer.getId(), wr.getId());
   }
@@ -263,7 +268,8 @@ public class GroomingSessionServiceImpl
 
     // mover WR a EN_PROCESO
     wr.startService();
-    waitingRoomRepository.save(wr);
+    eventPublisher.publishEvent(
+        new WaitingRoomChangedEvent(waitingRoomRepository.save(wr), ChangeType.STATUS_CHANGED));
 
     // crear sesión
     GroomingSession s = new GroomingSession();
@@ -309,7 +315,8 @@ public class GroomingSessionServiceImpl
     }
     if (wr != null) {
       wr.completeService();
-      waitingRoomRepository.save(wr);
+      eventPublisher.publishEvent(
+          new WaitingRoomChangedEvent(waitingRoomRepository.save(wr), ChangeType.STATUS_CHANGED));
     }
 
     // Liberar groomer
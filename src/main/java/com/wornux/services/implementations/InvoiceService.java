@@ -3,20 +3,30 @@ package com.wornux.services.implementations;
 import com.wornux.data.entity.Consultation;
 import com.wornux.data.entity.Invoice;
 import com.wornux.data.entity.InvoiceOffering;
+import com.wornux.data.entity.InvoiceProduct;
 import com.wornux.data.enums.InvoiceStatus;
+import com.wornux.data.enums.StorageRecordType;
 import com.wornux.data.repository.InvoiceRepository;
+import com.wornux.exception.InsufficientStockException;
 import com.wornux.exception.InvalidInvoiceStatusChangeException;
+import com.wornux.services.events.InvoiceChangedEvent;
+import com.wornux.services.events.InvoiceChangedEvent.ChangeType;
+import com.wornux.services.inventory.StockLedger;
+import com.wornux.services.invoicing.InvoiceNumberAllocator;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
@@ -25,6 +35,9 @@ import org.springframework.stereotype.Service;
 public class InvoiceService {
 
   @Getter private final InvoiceRepository repository;
+  private final ApplicationEventPublisher eventPublisher;
+  private final StockLedger stockLedger;
+  private final InvoiceNumberAllocator invoiceNumberAllocator;
 
   public Optional<Invoice> get(Long id) {
     if (id == null) return Optional.empty();
@@ -42,11 +55,36 @@ public class InvoiceService {
 
   @Transactional
   public Invoice create(Invoice entity) {
-    repository.save(entity);
+    ChangeType changeType = entity.getCode() == null ? ChangeType.CREATED : ChangeType.SAVED;
+    assignNumber(entity);
+    publish(repository.save(entity), changeType);
 
     return entity;
   }
 
+  /**
+   * Creates the invoice and takes its products out of stock in the same transaction, so either
+   * both happen or neither does.
+   *
+   * @throws InsufficientStockException if a product does not have enough available stock.
+   */
+  @Transactional
+  public Invoice createAndConsumeStock(Invoice entity) {
+    assignNumber(entity);
+    Invoice saved = repository.save(entity);
+
+    Map<Long, Integer> quantities = new HashMap<>();
+    for (InvoiceProduct line : saved.getProducts()) {
+      if (line.getProduct() != null && line.getQuantity() != null) {
+        quantities.merge(line.getProduct().getId(), line.getQuantity().intValue(), Integer::sum);
+      }
+    }
+    stockLedger.consume(quantities, StorageRecordType.INVOICE, saved.getCode());
+
+    return publish(saved, ChangeType.CREATED);
+  }
+
+  @Transactional
   public void delete(Long id) {
     Invoice entity =
         repository
@@ -54,27 +92,30 @@ public class InvoiceService {
             .orElseThrow(() -> new EntityNotFoundException("Invoice not found."));
 
     entity.setActive(false);
-    repository.save(entity);
+    stockLedger.release(StorageRecordType.INVOICE, id);
+    publish(repository.save(entity), ChangeType.DELETED);
   }
 
   public long getCount(Specification<Invoice> specification) {
     return repository.count(specification);
   }
 
+  /** Number the next invoice will most likely get; the actual one is assigned on save. */
   public String getNextInvoiceNumber() {
-    long count = repository.count();
-    return String.valueOf(count + 1);
+    return invoiceNumberAllocator.peek(invoiceNumberAllocator.getDefaultSeries());
   }
 
+  @Transactional
   public Invoice markInvoiceAsPaid(
       Invoice invoice, BigDecimal paymentAmount, LocalDate paymentDate) {
     invoice.markAsPaid(paymentAmount, paymentDate);
-    return repository.save(invoice);
+    return publish(repository.save(invoice), ChangeType.STATUS_CHANGED);
   }
 
+  @Transactional
   public Invoice markInvoiceAsOverdue(Invoice invoice) {
     invoice.markAsOverdue();
-    return repository.save(invoice);
+    return publish(repository.save(invoice), ChangeType.STATUS_CHANGED);
   }
 
   @Transactional()
@@ -95,6 +136,30 @@ public class InvoiceService {
         .orElseThrow(() -> new EntityNotFoundException("Invoice not found with ID: " + code));
   }
 
+  /**
+   * Next chunk of invoices matching a filter, in code order and with the details needed to render
+   * them. Paging is keyed on the last code seen, so chunks stay cheap deep into large exports.
+   *
+   * @param afterCode last code of the previous chunk, or {@code null} for the first one.
+   */
+  @Transactional()
+  public List<Invoice> findChunkWithDetails(
+      Specification<Invoice> specification, Long afterCode, int size) {
+    Specification<Invoice> remaining =
+        afterCode == null
+            ? specification
+            : specification.and((root, query, builder) -> builder.gt(root.get("code"), afterCode));
+    List<Long> codes =
+        repository
+            .findBy(
+                remaining,
+                query -> query.sortBy(Sort.by("code")).project("client").limit(size).all())
+            .stream()
+            .map(Invoice::getCode)
+            .toList();
+    return codes.isEmpty() ? List.of() : repository.findAllByCodeWithServicesAndProducts(codes);
+  }
+
   // Get invoice services count for display
   @Transactional()
   public long getServicesCount(Long invoiceId) {
@@ -143,49 +208,25 @@ public class InvoiceService {
 
     try {
       invoice.changeStatusTo(newStatus);
-      return repository.save(invoice);
+      return publish(repository.save(invoice), ChangeType.STATUS_CHANGED);
     } catch (InvalidInvoiceStatusChangeException ex) {
       throw ex;
     }
   }
 
-  public BigDecimal getTotalOverdueAmount() {
-    try {
-      BigDecimal result = repository.findTotalOverdueAmount();
-      return result != null ? result : BigDecimal.ZERO;
-    } catch (Exception e) {
-      return BigDecimal.ZERO;
-    }
-  }
-
-  public BigDecimal getTotalAmountDueWithin30Days() {
-    try {
-      LocalDate targetDate = LocalDate.now().plusDays(30);
-      BigDecimal result = repository.findTotalAmountDueByDate(targetDate);
-      return result != null ? result : BigDecimal.ZERO;
-    } catch (Exception e) {
-      return BigDecimal.ZERO;
+  private void assignNumber(Invoice invoice) {
+    if (invoice.getCode() == null && invoice.getInvoiceNumber() == null) {
+      String series =
+          invoice.getNumberSeries() != null
+              ? invoice.getNumberSeries()
+              : invoiceNumberAllocator.getDefaultSeries();
+      invoice.setNumberSeries(series);
+      invoice.setInvoiceNumber(invoiceNumberAllocator.next(series));
     }
   }
 
-  public double getAveragePaymentTimeInDays() {
-    try {
-      List<Invoice> paidInvoices = repository.findAllPaidInvoices();
-      
-      if (paidInvoices == null || paidInvoices.isEmpty()) {
-        return 0.0;
-      }
-      
-      double totalDays = paidInvoices.stream()
-          .filter(invoice -> invoice.getPaymentDate() != null && invoice.getIssuedDate() != null)
-          .mapToLong(invoice -> ChronoUnit.DAYS.between(invoice.getIssuedDate(), invoice.getPaymentDate()))
-          .filter(days -> days >= 0)
-          .average()
-          .orElse(0.0);
-          
-      return Math.max(0.0, totalDays);
-    } catch (Exception e) {
-      return 0.0;
-    }
+  private Invoice publish(Invoice invoice, ChangeType changeType) {
+    eventPublisher.publishEvent(new InvoiceChangedEvent(invoice, changeType));
+    return invoice;
   }
 }
@@ -16,13 +16,21 @@ import com.wornux.dto.response.ProductListDto;
 import com.wornux.exception.ProductNotFoundException;
 import com.wornux.exception.SupplierNotFoundException;
 import com.wornux.mapper.ProductMapper;
+import com.wornux.services.events.ProductChangedEvent;
 import com.wornux.services.interfaces.ProductService;
+import com.wornux.services.inventory.StockAlertIndex;
+import com.wornux.services.inventory.StockLedger;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jspecify.annotations.Nullable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
@@ -41,6 +49,9 @@ public class ProductServiceImpl extends CrudRepositoryService<Product, Long, Pro
   @Getter private final ProductRepository productRepository;
   private final SupplierRepository supplierRepository;
   private final ProductMapper productMapper;
+  private final StockAlertIndex stockAlertIndex;
+  private final StockLedger stockLedger;
+  private final ApplicationEventPublisher eventPublisher;
 
   @Override
   @Transactional(readOnly = true)
@@ -59,7 +70,7 @@ public class ProductServiceImpl extends CrudRepositoryService<Product, Long, Pro
 
   @Override
   public Product save(Product entity) {
-    return productRepository.save(entity);
+    return publish(productRepository.save(entity));
   }
 
   public ProductCreateRequestDto createProduct(ProductCreateRequestDto dto) {
@@ -71,7 +82,7 @@ public class ProductServiceImpl extends CrudRepositoryService<Product, Long, Pro
 
       Product product = productMapper.toEntity(dto, supplier);
       product.setActive(true);
-      Product savedProduct = productRepository.save(product);
+      Product savedProduct = publish(productRepository.save(product));
 
       log.info("Product created with ID: {}", savedProduct.getId());
       return productMapper.toCreateDto(savedProduct);
@@ -97,7 +108,12 @@ public class ProductServiceImpl extends CrudRepositoryService<Product, Long, Pro
     }
 
     productMapper.updateProductFromDTO(dto, product, supplier);
-    Product updatedProduct = productRepository.save(product);
+    productRepository.save(product);
+    if (dto.getAvailableStockAdjustment() != null && dto.getAvailableStockAdjustment() != 0) {
+      stockLedger.adjust(id, dto.getAvailableStockAdjustment());
+      product.setAvailableStock(productRepository.findAvailableStock(id));
+    }
+    Product updatedProduct = publish(product);
 
     log.info("Product updated with ID: {}", updatedProduct.getId());
     return updatedProduct;
@@ -111,7 +127,7 @@ public class ProductServiceImpl extends CrudRepositoryService<Product, Long, Pro
         productRepository.findById(id).orElseThrow(() -> new ProductNotFoundException(id));
 
     product.setActive(false);
-    productRepository.save(product);
+    publish(productRepository.save(product));
 
     log.info("Product deactivated ID: {}", id);
   }
@@ -140,7 +156,7 @@ public class ProductServiceImpl extends CrudRepositoryService<Product, Long, Pro
   @Transactional(readOnly = true)
   public Product update(Product product) {
     log.debug("Updating Product: {}", product);
-    return productRepository.save(product);
+    return publish(productRepository.save(product));
   }
 
   @Transactional(readOnly = true)
@@ -158,7 +174,11 @@ public class ProductServiceImpl extends CrudRepositoryService<Product, Long, Pro
   @Transactional(readOnly = true)
   public List<Product> getLowStockProducts() {
     log.debug("Retrieving products with low stock");
-    return productRepository.findLowStockProducts();
+    List<Long> ids = stockAlertIndex.getAlertProductIds();
+    Map<Long, Product> byId =
+        productRepository.findAllById(ids).stream()
+            .collect(Collectors.toMap(Product::getId, Function.identity()));
+    return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
   }
 
   @Override
@@ -180,4 +200,9 @@ public class ProductServiceImpl extends CrudRepositoryService<Product, Long, Pro
     log.debug("Retrieving internal use products");
     return productRepository.findByUsageTypeAndActiveTrue(ProductUsageType.PRIVADO);
   }
+
+  private Product publish(Product product) {
+    eventPublisher.publishEvent(new ProductChangedEvent(product));
+    return product;
+  }
 }
@@ -3,19 +3,23 @@ package com.wornux.services.implementations;
 import com.vaadin.flow.server.auth.AnonymousAllowed;
 import com.vaadin.hilla.BrowserCallable;
 import com.vaadin.hilla.crud.ListRepositoryService;
-import com.wornux.data.entity.Appointment;
 import com.wornux.data.entity.WaitingRoom;
 import com.wornux.data.enums.*;
-import com.wornux.data.repository.AppointmentRepository;
 import com.wornux.data.repository.ClientRepository;
 import com.wornux.data.repository.PetRepository;
 import com.wornux.data.repository.WaitingRoomRepository;
+import com.wornux.dto.dashboard.WaitingRoomKpiDto;
 import com.wornux.dto.request.WaitingRoomCreateRequestDto;
 import com.wornux.exception.WaitingRoomNotFoundException;
 import com.wornux.mapper.WaitingRoomMapper;
+import com.wornux.services.events.WaitingRoomChangedEvent;
+import com.wornux.services.events.WaitingRoomChangedEvent.ChangeType;
 import com.wornux.services.interfaces.WaitingRoomService;
+import com.wornux.services.waitingroom.WaitingRoomKpis;
+import com.wornux.services.waitingroom.WaitingRoomMaterializer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
@@ -23,7 +27,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 
-import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -47,22 +50,16 @@ public class WaitingRoomServiceImpl
   private final ClientRepository clientRepository;
   private final PetRepository petRepository;
   private final WaitingRoomMapper waitingRoomMapper;
-  private final AppointmentRepository appointmentRepository;
+  private final WaitingRoomMaterializer waitingRoomMaterializer;
+  private final WaitingRoomKpis waitingRoomKpis;
+  private final ApplicationEventPublisher eventPublisher;
 
   @Override
   public WaitingRoom save(WaitingRoomCreateRequestDto dto) {
     log.debug("Request to save WaitingRoom: {}", dto);
 
     WaitingRoom waitingRoom = waitingRoomMapper.toEntity(dto, clientRepository, petRepository);
-
-    if (waitingRoom.getPet() != null && waitingRoom.getClient() != null) {
-      boolean petBelongsToClient =
-          waitingRoom.getPet().getOwners().stream()
-              .anyMatch(owner -> owner.getId().equals(waitingRoom.getClient().getId()));
-      if (!petBelongsToClient) {
-        throw new IllegalArgumentException("La mascota no pertenece al cliente especificado");
-      }
-    }
+    requirePetOfClient(waitingRoom);
 
     List<WaitingRoom> existing =
         waitingRoomRepository.findWaitingByClientAndPet(dto.getClientId(), dto.getPetId());
@@ -72,7 +69,7 @@ public class WaitingRoomServiceImpl
 
     WaitingRoom saved = waitingRoomRepository.save(waitingRoom);
     log.info("WaitingRoom saved with ID: {}", saved.getId());
-    return saved;
+    return publish(saved, ChangeType.ADDED);
   }
 
   @Override
@@ -136,7 +133,7 @@ public class WaitingRoomServiceImpl
         waitingRoomId,
         waitingRoom.getClient().getFirstName(),
         waitingRoom.getPet().getName());
-    return updated;
+    return publish(updated, ChangeType.STATUS_CHANGED);
   }
 
   @Override
@@ -162,7 +159,7 @@ public class WaitingRoomServiceImpl
         waitingRoomId,
         waitingRoom.getClient().getFirstName(),
         waitingRoom.getPet().getName());
-    return updated;
+    return publish(updated, ChangeType.STATUS_CHANGED);
   }
 
   @Override
@@ -195,7 +192,7 @@ public class WaitingRoomServiceImpl
     WaitingRoom updated = waitingRoomRepository.save(waitingRoom);
 
     log.info("Entrada cancelada: {} - Razón: {}", waitingRoomId, reason);
-    return updated;
+    return publish(updated, ChangeType.STATUS_CHANGED);
   }
 
   @Override
@@ -215,7 +212,7 @@ public class WaitingRoomServiceImpl
     WaitingRoom updated = waitingRoomRepository.save(waitingRoom);
 
     log.info("Prioridad actualizada para ID: {} a {}", waitingRoomId, newPriority);
-    return updated;
+    return publish(updated, ChangeType.PRIORITY_CHANGED);
   }
 
   @Override
@@ -240,7 +237,7 @@ public class WaitingRoomServiceImpl
     WaitingRoom updated = waitingRoomRepository.save(waitingRoom);
 
     log.info("Notas agregadas para ID: {}", waitingRoomId);
-    return updated;
+    return publish(updated, ChangeType.UPDATED);
   }
 
   @Override
@@ -265,7 +262,8 @@ public class WaitingRoomServiceImpl
   @Override
   @Transactional(readOnly = true)
   public double getAverageWaitTime() {
-    return calculateAverageWaitTime();
+    // mismo criterio de antes: sólo las entradas completadas hoy
+    return waitingRoomKpis.getToday().forStatus(WaitingRoomStatus.COMPLETADO).avgWaitMinutes();
   }
 
   @Override
@@ -313,49 +311,13 @@ public class WaitingRoomServiceImpl
   @Override
   @Transactional(readOnly = true)
   public long getTodayCount() {
-    LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
-    LocalDateTime endOfDay = startOfDay.plusDays(1);
-
-    Page<WaitingRoom> todayEntries =
-        waitingRoomRepository.findTodayHistory(startOfDay, endOfDay, Pageable.unpaged());
-    return todayEntries.getTotalElements();
+    return waitingRoomKpis.getToday().total().count();
   }
 
-  private double calculateAverageWaitTime() {
-    try {
-      LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
-      LocalDateTime endOfDay = startOfDay.plusDays(1);
-
-      List<WaitingRoom> completedToday =
-          waitingRoomRepository
-              .findTodayHistory(startOfDay, endOfDay, Pageable.unpaged())
-              .getContent()
-              .stream()
-              .filter(
-                  wr ->
-                      wr.getStatus() == WaitingRoomStatus.COMPLETADO
-                          && wr.getConsultationStartedAt() != null)
-              .toList();
-
-      if (completedToday.isEmpty()) {
-        return 0.0;
-      }
-
-      double totalMinutes =
-          completedToday.stream()
-              .mapToDouble(
-                  wr ->
-                      Duration.between(wr.getArrivalTime(), wr.getConsultationStartedAt())
-                          .toMinutes())
-              .average()
-              .orElse(0.0);
-
-      return Math.round(totalMinutes * 100.0) / 100.0;
-
-    } catch (Exception e) {
-      log.warn("Error calculando tiempo promedio de espera: {}", e.getMessage());
-      return 0.0;
-    }
+  @Override
+  @Transactional(readOnly = true)
+  public WaitingRoomKpiDto getTodayKpis() {
+    return waitingRoomKpis.getToday();
   }
 
   @Override
@@ -371,14 +333,44 @@ public class WaitingRoomServiceImpl
     }
 
     waitingRoom.setStatus(WaitingRoomStatus.CANCELADO);
-    waitingRoomRepository.save(waitingRoom);
+    publish(waitingRoomRepository.save(waitingRoom), ChangeType.STATUS_CHANGED);
 
     log.info("WaitingRoom soft deleted with ID: {}", id);
   }
 
+  @Override
+  public WaitingRoom update(Long id, WaitingRoomCreateRequestDto dto) {
+    log.debug("Request to update WaitingRoom {}: {}", id, dto);
+
+    WaitingRoom waitingRoom =
+        waitingRoomRepository.findById(id).orElseThrow(() -> new WaitingRoomNotFoundException(id));
+    WaitingRoomStatus previousStatus = waitingRoom.getStatus();
+    Priority previousPriority = waitingRoom.getPriority();
+
+    waitingRoom.setClient(waitingRoomMapper.mapClient(dto.getClientId(), clientRepository));
+    waitingRoom.setPet(waitingRoomMapper.mapPet(dto.getPetId(), petRepository));
+    waitingRoom.setReasonForVisit(dto.getReasonForVisit());
+    waitingRoom.setType(dto.getType());
+    waitingRoom.setPriority(dto.getPriority());
+    waitingRoom.setNotes(dto.getNotes());
+    // la hora de llegada no se modifica en edición
+    requirePetOfClient(waitingRoom);
+
+    WaitingRoom updated = waitingRoomRepository.save(waitingRoom);
+    return publish(updated, changeOf(previousStatus, previousPriority, updated));
+  }
+
   @Override
   public void update(WaitingRoom waitingRoom) {
-    waitingRoomRepository.save(waitingRoom);
+    WaitingRoom stored =
+        waitingRoomRepository
+            .findById(waitingRoom.getId())
+            .orElseThrow(() -> new WaitingRoomNotFoundException(waitingRoom.getId()));
+    WaitingRoomStatus previousStatus = stored.getStatus();
+    Priority previousPriority = stored.getPriority();
+
+    WaitingRoom updated = waitingRoomRepository.save(waitingRoom);
+    publish(updated, changeOf(previousStatus, previousPriority, updated));
   }
 
   @Override
@@ -392,9 +384,9 @@ public class WaitingRoomServiceImpl
   }
 
   @Override
+  @Transactional(readOnly = true)
   public List<WaitingRoom> findForVeterinarian(Long veterinarianId) {
-    // sincroniza citas del día
-    syncTodayAppointmentsForEmployee(veterinarianId, /* forGroomer= */ false);
+    // las citas del día las materializa WaitingRoomMaterializer; aquí sólo se lee
     // trae MEDICA activas: sin vet asignado o asignadas al actual
     return waitingRoomRepository.findActiveMedicalForVetOrUnassigned(
         veterinarianId, VisitType.MEDICA, activeStatuses());
@@ -412,9 +404,9 @@ public class WaitingRoomServiceImpl
   }
 
   @Override
+  @Transactional(readOnly = true)
   public List<WaitingRoom> findForGroomer(Long groomerId) {
-    // sincroniza citas del día
-    syncTodayAppointmentsForEmployee(groomerId, /* forGroomer= */ true);
+    // las citas del día las materializa WaitingRoomMaterializer; aquí sólo se lee
     // trae GROOMING activas: sin groomer asignado o asignadas al actual
     return waitingRoomRepository.findActiveGroomingForGroomerOrUnassigned(
         groomerId, VisitType.GROOMING, activeStatuses());
@@ -433,99 +425,38 @@ public class WaitingRoomServiceImpl
     return Arrays.asList(WaitingRoomStatus.ESPERANDO, WaitingRoomStatus.EN_PROCESO);
   }
 
-  private VisitType toVisitType(OfferingType type) {
-    return switch (type) {
-      case VACCINATION, MEDICAL -> VisitType.MEDICA;
-      case GROOMING -> VisitType.GROOMING;
-    };
-  }
-
-  /** Crea WR desde citas de HOY del empleado; no asigna empleado (queda NULL). */
+  @Override
   @Transactional
-  protected void syncTodayAppointmentsForEmployee(Long employeeId, boolean forGroomer) {
-    // Si tu server no está en RD, considera ZoneId.of("America/Santo_Domingo")
-    LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
-    LocalDateTime endOfDay = startOfDay.plusDays(1);
-
-    // NO filtramos por assignedEmployee (es null). Traemos todas las de hoy.
-    List<Appointment> todays = appointmentRepository.findTodayAppointments(startOfDay, endOfDay);
+  public void syncTodayFromAppointments() {
+    // un solo INSERT ... SELECT idempotente; también corre en segundo plano
+    waitingRoomMaterializer.materializeToday();
+  }
 
-    for (Appointment a : todays) {
-      // descarta canceladas/completadas
-      if (a.getStatus() == AppointmentStatus.CANCELADA
-          || a.getStatus() == AppointmentStatus.COMPLETADA) {
-        continue;
+  private static void requirePetOfClient(WaitingRoom waitingRoom) {
+    if (waitingRoom.getPet() != null && waitingRoom.getClient() != null) {
+      boolean petBelongsToClient =
+          waitingRoom.getPet().getOwners().stream()
+              .anyMatch(owner -> owner.getId().equals(waitingRoom.getClient().getId()));
+      if (!petBelongsToClient) {
+        throw new IllegalArgumentException("La mascota no pertenece al cliente especificado");
       }
-
-      if (a.getClient() == null || a.getPet() == null) continue;
-
-      // mapea OfferingType -> VisitType una sola vez
-      VisitType vt = toVisitType(a.getOfferingType());
-
-      // si esta sync es para groomer, solo GROOMING; si es para vet, solo MEDICA
-      if (forGroomer && vt != VisitType.GROOMING) continue;
-      if (!forGroomer && vt != VisitType.MEDICA) continue;
-
-      // evita duplicados por (pet, hora cita, tipo)
-      boolean exists =
-          waitingRoomRepository.existsByPet_IdAndArrivalTimeAndType(
-              a.getPet().getId(), a.getStartAppointmentDate(), vt);
-      if (exists) continue;
-
-      // crea WR sin asignar empleado
-      WaitingRoom wr = new WaitingRoom();
-      wr.setClient(a.getClient());
-      wr.setPet(a.getPet());
-      wr.setArrivalTime(a.getStartAppointmentDate()); // o LocalDateTime.now() si prefieres
-      wr.setStatus(WaitingRoomStatus.ESPERANDO);
-      wr.setPriority(Priority.NORMAL);
-      wr.setReasonForVisit(a.getReason());
-      wr.setNotes(a.getNotes());
-      wr.setType(vt);
-      // wr.setAssignedVeterinarian(null);
-      // wr.setAssignedGroomer(null);
-
-      waitingRoomRepository.save(wr);
     }
   }
 
-  @Override
-  @Transactional
-  public void syncTodayFromAppointments() {
-    syncTodayAppointmentsForAll(); // el método que ya implementamos
+  /** Status and priority changes move the entry in the queues; anything else is an update. */
+  private static ChangeType changeOf(
+      WaitingRoomStatus previousStatus, Priority previousPriority, WaitingRoom updated) {
+    if (previousStatus != updated.getStatus()) {
+      return ChangeType.STATUS_CHANGED;
+    }
+    if (previousPriority != updated.getPriority()) {
+      return ChangeType.PRIORITY_CHANGED;
+    }
+    return ChangeType.UPDATED;
   }
 
-  @Transactional
-  protected void syncTodayAppointmentsForAll() {
-    LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
-    LocalDateTime endOfDay = startOfDay.plusDays(1);
-
-    List<Appointment> todays = appointmentRepository.findTodayAppointments(startOfDay, endOfDay);
-
-    for (Appointment a : todays) {
-      if (a.getStatus() == AppointmentStatus.CANCELADA
-          || a.getStatus() == AppointmentStatus.COMPLETADA) continue;
-      if (a.getClient() == null || a.getPet() == null) continue;
-
-      VisitType vt = toVisitType(a.getOfferingType());
-
-      boolean exists =
-          waitingRoomRepository.existsByPet_IdAndArrivalTimeAndType(
-              a.getPet().getId(), a.getStartAppointmentDate(), vt);
-      if (exists) continue;
-
-      WaitingRoom wr = new WaitingRoom();
-      wr.setClient(a.getClient());
-      wr.setPet(a.getPet());
-      wr.setArrivalTime(a.getStartAppointmentDate()); // no usamos la hora actual
-      wr.setStatus(WaitingRoomStatus.ESPERANDO);
-      wr.setPriority(Priority.NORMAL);
-      wr.setReasonForVisit(a.getReason());
-      wr.setNotes(a.getNotes());
-      wr.setType(vt);
-      // no asignamos empleado aquí
-
-      waitingRoomRepository.save(wr);
-    }
+  private WaitingRoom publish(WaitingRoom waitingRoom, ChangeType changeType) {
+    eventPublisher.publishEvent(new WaitingRoomChangedEvent(waitingRoom, changeType));
+    return waitingRoom;
   }
 }
@@ -24,6 +24,7 @@ public interface AppointmentService {
 
   List<AppointmentResponseDto> getAllAppointments();
 
+  /** Appointments that overlap {@code [start, end)}, including those that began before it. */
   List<AppointmentResponseDto> getAppointmentsByDateRange(LocalDateTime start, LocalDateTime end);
 
   List<AppointmentResponseDto> getAppointmentsByDate(LocalDateTime date);
@@ -44,4 +45,19 @@ public interface AppointmentService {
   void cancelAppointment(Long id, String reason);
 
   void deleteAppointment(Long id);
+
+  /**
+   * Cancels one occurrence of a recurring appointment, leaving the rest of the series as it is.
+   *
+   * @param occurrenceStart The start the rule gives the occurrence
+   */
+  void cancelOccurrence(Long id, LocalDateTime occurrenceStart);
+
+  /**
+   * Moves one occurrence of a recurring appointment to other times.
+   *
+   * @param occurrenceStart The start the rule gives the occurrence, even if it was moved before
+   */
+  void rescheduleOccurrence(
+      Long id, LocalDateTime occurrenceStart, LocalDateTime start, LocalDateTime end);
 }
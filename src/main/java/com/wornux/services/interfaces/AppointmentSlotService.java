@@ -0,0 +1,37 @@
+package com.wornux.services.interfaces;
+
+import com.vaadin.hilla.BrowserCallable;
+import com.wornux.data.enums.OfferingType;
+import com.wornux.dto.response.AvailableSlotDto;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.NonNull;
+import org.springframework.validation.annotation.Validated;
+
+/** Finds free appointment time across the employees that can attend an offering. */
+@BrowserCallable
+@Validated
+public interface AppointmentSlotService {
+
+  /**
+   * Finds the next free slots for an offering among the available veterinarians, or groomers for
+   * grooming, from their weekly schedules and the appointments they already have.
+   *
+   * @param offeringType the offering to book, which sets the employees and the slot length
+   * @param from earliest start; now if empty or in the past
+   * @param count number of slots wanted
+   * @return up to {@code count} slots, earliest first
+   */
+  List<AvailableSlotDto> findNextSlots(
+      @NonNull OfferingType offeringType, LocalDateTime from, @Min(1) @Max(50) int count);
+
+  /**
+   * Length of an appointment for an offering.
+   *
+   * @param offeringType the offering
+   * @return the length in minutes
+   */
+  int getDurationMinutes(@NonNull OfferingType offeringType);
+}
@@ -3,6 +3,7 @@ package com.wornux.services.interfaces;
 import com.wornux.dto.dashboard.ChartDataDto;
 import com.wornux.dto.dashboard.RevenueDataDto;
 import com.wornux.dto.dashboard.StockAlertDto;
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
 
@@ -28,4 +29,7 @@ public interface DashboardService {
 
   /** Get employee utilization data by hour of day */
   List<ChartDataDto> getEmployeeUtilizationData();
+
+  /** Get the outstanding balance of overdue invoices */
+  BigDecimal getOverdueAmount();
 }
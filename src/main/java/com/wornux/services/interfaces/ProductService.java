@@ -114,9 +114,9 @@ public interface ProductService {
   List<Product> getProductsByName(String name);
 
   /**
-   * Lists Products with low stock levels.
+   * Lists Products with low stock levels, most urgent first.
    *
-   * @return List of Products with stock <= reorderLevel.
+   * @return List of active Products with available stock <= reorderLevel.
    */
   List<Product> getLowStockProducts();
 
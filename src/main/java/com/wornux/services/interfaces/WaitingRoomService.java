@@ -4,6 +4,7 @@ import com.vaadin.hilla.BrowserCallable;
 import com.wornux.data.entity.WaitingRoom;
 import com.wornux.data.enums.Priority;
 import com.wornux.data.repository.WaitingRoomRepository;
+import com.wornux.dto.dashboard.WaitingRoomKpiDto;
 import com.wornux.dto.request.WaitingRoomCreateRequestDto;
 import java.util.List;
 import java.util.Optional;
@@ -45,6 +46,14 @@ public interface WaitingRoomService {
 
   long getTodayCount();
 
+  /**
+   * Today's KPIs: count, average/median/p90 wait and average service time, in total and per visit
+   * type and status. Served from a short-lived cache.
+   *
+   * @return the aggregated KPIs.
+   */
+  WaitingRoomKpiDto getTodayKpis();
+
   double getAverageWaitTime();
 
   Page<WaitingRoom> searchWaitingRoom(String searchTerm, Pageable pageable);
@@ -66,6 +75,16 @@ public interface WaitingRoomService {
    */
   void delete(Long id);
 
+  /**
+   * Updates the client, pet, reason, type, priority and notes of an entry; its arrival time and
+   * status stay as they are.
+   *
+   * @param id the id of the entry.
+   * @param dto the new values.
+   * @return the persisted entity.
+   */
+  WaitingRoom update(Long id, WaitingRoomCreateRequestDto dto);
+
   void update(WaitingRoom waitingRoom);
 
   WaitingRoomRepository getRepository();
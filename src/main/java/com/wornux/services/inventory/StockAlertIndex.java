@@ -0,0 +1,184 @@
+package com.wornux.services.inventory;
+
+import com.wornux.data.entity.Product;
+import com.wornux.data.entity.StockMovement;
+import com.wornux.data.repository.ProductRepository;
+import com.wornux.dto.dashboard.StockAlertDto;
+import com.wornux.services.events.ProductChangedEvent;
+import com.wornux.services.events.StockMovedEvent;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * In-memory index of the active products whose available stock is at or below their reorder level,
+ * most urgent first.
+ *
+ * <p>The index is loaded once at startup and afterwards kept current by the {@link
+ * ProductChangedEvent}s and {@link StockMovedEvent}s published after each committed write, so every
+ * stock mutation costs O(log n) and readers pay only for the alerts they get back instead of a
+ * product scan. Ledger movements are applied as deltas, so their order does not matter.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StockAlertIndex {
+
+  public static final String OUT_OF_STOCK = "OUT_OF_STOCK";
+  public static final String CRITICAL = "CRITICAL";
+  public static final String LOW = "LOW";
+
+  /** Lowest stock relative to its reorder level first. */
+  private static final Comparator<Level> URGENCY =
+      Comparator.comparingDouble(Level::coverage)
+          .thenComparing(Level::name, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+          .thenComparing(Level::productId);
+
+  private final ProductRepository productRepository;
+
+  // protegidos por this
+  private final Map<Long, Level> levels = new HashMap<>();
+  private final Map<Long, Level> alerts = new HashMap<>();
+  private final NavigableSet<Level> ordered = new TreeSet<>(URGENCY);
+
+  @EventListener(ApplicationReadyEvent.class)
+  @Transactional(readOnly = true)
+  public void load() {
+    List<Level> current =
+        productRepository.findProductStockLevels().stream()
+            .map(
+                row ->
+                    new Level(
+                        ((Number) row[0]).longValue(),
+                        (String) row[1],
+                        ((Number) row[2]).intValue(),
+                        ((Number) row[3]).intValue(),
+                        String.valueOf(row[4])))
+            .toList();
+
+    synchronized (this) {
+      levels.clear();
+      alerts.clear();
+      ordered.clear();
+      current.forEach(this::put);
+    }
+    log.info("Stock alert index loaded: {} alerts over {} products", alerts.size(), current.size());
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onProductChanged(ProductChangedEvent event) {
+    Product product = event.product();
+    if (product == null || product.getId() == null) {
+      return;
+    }
+    synchronized (this) {
+      // el stock del índice va al día por los movimientos; el de la entidad puede ser viejo
+      Level previous = remove(product.getId());
+      if (product.isActive()) {
+        Level level = Level.of(product);
+        put(previous != null ? level.withStock(previous.availableStock()) : level);
+      }
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onStockMoved(StockMovedEvent event) {
+    synchronized (this) {
+      for (StockMovement movement : event.movements()) {
+        Level current = remove(movement.getProductId());
+        if (current != null) {
+          put(current.withStock(current.availableStock() + movement.getQuantity()));
+        }
+      }
+    }
+  }
+
+  /** Active products at or below their reorder level, most urgent first. */
+  public List<StockAlertDto> getAlerts() {
+    return snapshot().stream().map(Level::toDto).toList();
+  }
+
+  /** Ids of the active products at or below their reorder level, most urgent first. */
+  public List<Long> getAlertProductIds() {
+    return snapshot().stream().map(Level::productId).toList();
+  }
+
+  public synchronized int getAlertCount() {
+    return alerts.size();
+  }
+
+  /** Active products whose available stock is above their reorder level. */
+  public synchronized long getHealthyCount() {
+    return levels.size() - alerts.size();
+  }
+
+  private synchronized List<Level> snapshot() {
+    return new ArrayList<>(ordered);
+  }
+
+  private Level remove(Long productId) {
+    Level previous = levels.remove(productId);
+    if (previous != null && alerts.remove(productId) != null) {
+      ordered.remove(previous);
+    }
+    return previous;
+  }
+
+  private void put(Level level) {
+    levels.put(level.productId(), level);
+    if (level.alertLevel() != null) {
+      alerts.put(level.productId(), level);
+      ordered.add(level);
+    }
+  }
+
+  private record Level(
+      Long productId, String name, int availableStock, int reorderLevel, String category) {
+
+    static Level of(Product product) {
+      return new Level(
+          product.getId(),
+          product.getName(),
+          product.getAvailableStock(),
+          product.getReorderLevel(),
+          String.valueOf(product.getCategory()));
+    }
+
+    Level withStock(int stock) {
+      return new Level(productId, name, stock, reorderLevel, category);
+    }
+
+    /** Available stock as a fraction of the reorder level. */
+    double coverage() {
+      return reorderLevel > 0 ? (double) availableStock / reorderLevel : availableStock;
+    }
+
+    /** Alert level, or {@code null} when the stock is above the reorder level. */
+    String alertLevel() {
+      if (availableStock <= 0) {
+        return OUT_OF_STOCK;
+      } else if (availableStock <= reorderLevel / 2) {
+        return CRITICAL;
+      } else if (availableStock <= reorderLevel) {
+        return LOW;
+      }
+      return null;
+    }
+
+    StockAlertDto toDto() {
+      return new StockAlertDto(
+          productId, name, availableStock, reorderLevel, category, alertLevel());
+    }
+  }
+}
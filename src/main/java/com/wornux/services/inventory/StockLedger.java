@@ -0,0 +1,165 @@
+package com.wornux.services.inventory;
+
+import com.wornux.data.entity.Product;
+import com.wornux.data.entity.StockMovement;
+import com.wornux.data.enums.StockMovementType;
+import com.wornux.data.enums.StorageRecordType;
+import com.wornux.data.repository.ProductRepository;
+import com.wornux.data.repository.StockMovementRepository;
+import com.wornux.exception.InsufficientStockException;
+import com.wornux.services.events.StockMovedEvent;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Moves available stock through conditional updates and records every move in the append-only
+ * {@code stock_movements} ledger.
+ *
+ * <p>Stock is never read, changed in memory and written back: each product is decremented with
+ * {@code available_stock = available_stock - ? WHERE available_stock >= ?}, so concurrent consumers
+ * cannot lose each other's updates or oversell. A batch joins the caller's transaction and touches
+ * products in id order, which keeps two overlapping batches from deadlocking; if any product is
+ * short the whole batch, and the caller's transaction with it, is rolled back.
+ *
+ * <p>The updates are native, so they bypass Envers and leave no revision in {@code products_log}.
+ * That is deliberate: the ledger is the audit of stock moves, with the source record of each one,
+ * itemised within {@code ledger-retention} and folded into per-product snapshots after it. Going
+ * through the entity would need a read and a versioned write per product, which is exactly the
+ * lost-update window the conditional update closes. For the same reason the entity never writes
+ * {@code available_stock} after the insert: other edits to a product still go through the entity
+ * and are audited as before, but a stock change made from its form is an {@link #adjust}.
+ */
+@Slf4j
+@Component
+@Transactional
+public class StockLedger {
+
+  private final ProductRepository productRepository;
+  private final StockMovementRepository stockMovementRepository;
+  private final ApplicationEventPublisher eventPublisher;
+  private final Duration retention;
+
+  public StockLedger(
+      ProductRepository productRepository,
+      StockMovementRepository stockMovementRepository,
+      ApplicationEventPublisher eventPublisher,
+      @Value("${application.inventory.ledger-retention:90d}") Duration retention) {
+    this.productRepository = productRepository;
+    this.stockMovementRepository = stockMovementRepository;
+    this.eventPublisher = eventPublisher;
+    this.retention = retention;
+  }
+
+  /**
+   * Takes the given quantities out of the available stock.
+   *
+   * @param quantities units to consume by product id; repeated products should be summed.
+   * @param sourceType kind of record consuming the stock.
+   * @param sourceId id of that record, used to release the stock later.
+   * @throws InsufficientStockException if any product has fewer units available.
+   */
+  public List<StockMovement> consume(
+      Map<Long, Integer> quantities, StorageRecordType sourceType, Long sourceId) {
+    List<StockMovement> movements = new ArrayList<>();
+    for (Map.Entry<Long, Integer> line : new TreeMap<>(quantities).entrySet()) {
+      Long productId = line.getKey();
+      int quantity = line.getValue();
+      if (quantity <= 0) {
+        continue;
+      }
+      if (productRepository.takeStock(productId, quantity) == 0) {
+        String name =
+            productRepository.findById(productId).map(Product::getName).orElse("#" + productId);
+        throw new InsufficientStockException(productId, name, quantity);
+      }
+      movements.add(
+          movement(productId, StockMovementType.CONSUMPTION, -quantity, sourceType, sourceId));
+    }
+    return record(movements);
+  }
+
+  /**
+   * Adds {@code quantity} units to the available stock of a product, or takes them out when it is
+   * negative, as a manual adjustment of the product itself.
+   *
+   * @throws InsufficientStockException if it would take out more units than are available.
+   */
+  public List<StockMovement> adjust(Long productId, int quantity) {
+    if (quantity == 0) {
+      return List.of();
+    }
+    if (quantity > 0) {
+      productRepository.returnStock(productId, quantity);
+    } else if (productRepository.takeStock(productId, -quantity) == 0) {
+      String name =
+          productRepository.findById(productId).map(Product::getName).orElse("#" + productId);
+      throw new InsufficientStockException(productId, name, -quantity);
+    }
+    return record(
+        List.of(
+            movement(
+                productId,
+                StockMovementType.ADJUSTMENT,
+                quantity,
+                StorageRecordType.PRODUCT,
+                productId)));
+  }
+
+  /**
+   * Returns to stock whatever a source record still holds, e.g. when its invoice is cancelled.
+   * Calling it again is a no-op. Only movements within the ledger retention can be released.
+   */
+  public List<StockMovement> release(StorageRecordType sourceType, Long sourceId) {
+    List<StockMovement> movements = new ArrayList<>();
+    for (Object[] row : stockMovementRepository.sumBySource(sourceType.name(), sourceId)) {
+      Long productId = ((Number) row[0]).longValue();
+      int held = -((Number) row[1]).intValue();
+      if (held > 0) {
+        productRepository.returnStock(productId, held);
+        movements.add(movement(productId, StockMovementType.RELEASE, held, sourceType, sourceId));
+      }
+    }
+    return record(movements);
+  }
+
+  /** Folds movements older than the retention into the per-product snapshots. */
+  @Scheduled(cron = "${application.inventory.ledger-compaction-cron:0 30 3 * * *}")
+  public void compact() {
+    int products = stockMovementRepository.compactBefore(Instant.now().minus(retention));
+    log.info("Stock ledger compacted movements of {} products", products);
+  }
+
+  private List<StockMovement> record(List<StockMovement> movements) {
+    if (movements.isEmpty()) {
+      return movements;
+    }
+    List<StockMovement> saved = stockMovementRepository.saveAll(movements);
+    eventPublisher.publishEvent(new StockMovedEvent(saved));
+    return saved;
+  }
+
+  private static StockMovement movement(
+      Long productId,
+      StockMovementType type,
+      int quantity,
+      StorageRecordType sourceType,
+      Long sourceId) {
+    return StockMovement.builder()
+        .productId(productId)
+        .movementType(type)
+        .quantity(quantity)
+        .sourceType(sourceType)
+        .sourceId(sourceId)
+        .build();
+  }
+}
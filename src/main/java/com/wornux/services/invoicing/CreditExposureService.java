@@ -0,0 +1,211 @@
+package com.wornux.services.invoicing;
+
+import com.wornux.data.entity.Invoice;
+import com.wornux.data.enums.InvoiceStatus;
+import com.wornux.data.repository.ClientRepository;
+import com.wornux.services.events.ClientChangedEvent;
+import com.wornux.services.events.InvoiceChangedEvent;
+import com.wornux.services.events.PaymentAppliedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.math.BigDecimal;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Credit exposure of every client: outstanding balance of its open invoices against its credit
+ * limit, kept in memory so invoice forms can check it on every save.
+ *
+ * <p>The exposures are loaded at startup by one aggregate query. After that, each committed change
+ * to a client's invoices, payments or credit limit reloads that client's row alone, so {@link
+ * #canInvoice} is a map lookup and never touches the database. Every reload takes a sequence number
+ * before querying, and a row never replaces one read after it, so concurrent reloads cannot leave
+ * an older balance behind. A scheduled reconciliation re-reads everything and counts the clients
+ * whose cached balance had drifted in {@code invoicing.credit.drift}.
+ */
+@Slf4j
+@Service
+public class CreditExposureService {
+
+  private static final Set<InvoiceStatus> NO_EXPOSURE_STATUSES =
+      EnumSet.of(InvoiceStatus.PAID, InvoiceStatus.OVERPAID, InvoiceStatus.CANCELLED);
+
+  private final ClientRepository clientRepository;
+  private final Map<Long, Exposure> exposures = new ConcurrentHashMap<>();
+  private final AtomicLong reads = new AtomicLong();
+  private final Counter driftCounter;
+
+  public CreditExposureService(ClientRepository clientRepository, MeterRegistry meterRegistry) {
+    this.clientRepository = clientRepository;
+    Gauge.builder("invoicing.credit.clients", exposures, Map::size)
+        .description("Clients with a cached credit exposure")
+        .register(meterRegistry);
+    this.driftCounter =
+        Counter.builder("invoicing.credit.drift")
+            .description("Cached credit exposures corrected by reconciliation")
+            .register(meterRegistry);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  @Transactional(readOnly = true)
+  public void load() {
+    long sequence = reads.incrementAndGet();
+    List<Object[]> rows =
+        clientRepository.findCreditExposures(PaymentAllocationService.OPEN_STATUSES);
+    rows.forEach(row -> put(toExposure(row, sequence)));
+    log.info("Credit exposure loaded for {} clients", rows.size());
+  }
+
+  /**
+   * Whether a client can take {@code amount} more of credit. Clients without a credit limit (zero
+   * or empty) are not limited; clients not cached yet are loaded first.
+   */
+  public boolean canInvoice(Long clientId, BigDecimal amount) {
+    Exposure exposure = get(clientId);
+    return exposure == null || exposure.allows(amount != null ? amount : BigDecimal.ZERO);
+  }
+
+  /**
+   * What an invoice adds, or will add once issued, to its client's balance: its outstanding amount,
+   * or nothing once it is paid or cancelled. Forms compare it before and after an edit and only
+   * check the credit limit for the difference.
+   */
+  public static BigDecimal exposureOf(Invoice invoice) {
+    if (invoice == null
+        || invoice.getTotal() == null
+        || NO_EXPOSURE_STATUSES.contains(invoice.getStatus())) {
+      return BigDecimal.ZERO;
+    }
+    BigDecimal paid = invoice.getPaidToDate() != null ? invoice.getPaidToDate() : BigDecimal.ZERO;
+    return invoice.getTotal().subtract(paid).max(BigDecimal.ZERO);
+  }
+
+  /** Credit the client has left, or empty if the client is not limited. */
+  public Optional<BigDecimal> getAvailableCredit(Long clientId) {
+    Exposure exposure = get(clientId);
+    return exposure == null || !exposure.isLimited()
+        ? Optional.empty()
+        : Optional.of(exposure.creditLimit().subtract(exposure.balance()).max(BigDecimal.ZERO));
+  }
+
+  /** Outstanding balance of the client's open invoices. */
+  public BigDecimal getBalance(Long clientId) {
+    Exposure exposure = get(clientId);
+    return exposure != null ? exposure.balance() : BigDecimal.ZERO;
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+  public void onInvoiceChanged(InvoiceChangedEvent event) {
+    if (event.invoice() != null && event.invoice().getClient() != null) {
+      refresh(event.invoice().getClient().getId());
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+  public void onPaymentApplied(PaymentAppliedEvent event) {
+    refresh(event.clientId());
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+  public void onClientChanged(ClientChangedEvent event) {
+    refresh(event.clientId());
+  }
+
+  /** Re-reads every exposure and corrects the cached ones that drifted. */
+  @Scheduled(cron = "${application.invoicing.credit-reconcile-cron:0 */10 * * * *}")
+  @Transactional(readOnly = true)
+  public void reconcile() {
+    long sequence = reads.incrementAndGet();
+    int drifted = 0;
+    for (Object[] row :
+        clientRepository.findCreditExposures(PaymentAllocationService.OPEN_STATUSES)) {
+      Exposure fresh = toExposure(row, sequence);
+      Exposure cached = exposures.get(fresh.clientId());
+      // una recarga posterior a esta lectura ya es más reciente; no cuenta como desvío
+      if (cached != null && cached.sequence() < sequence && !cached.sameAmounts(fresh)) {
+        drifted++;
+        log.warn(
+            "Credit exposure of client {} drifted: cached {}, actual {}",
+            fresh.clientId(),
+            cached.balance(),
+            fresh.balance());
+      }
+      put(fresh);
+    }
+    if (drifted > 0) {
+      driftCounter.increment(drifted);
+    }
+  }
+
+  private Exposure get(Long clientId) {
+    if (clientId == null) {
+      return null;
+    }
+    Exposure exposure = exposures.get(clientId);
+    return exposure != null ? exposure : refresh(clientId);
+  }
+
+  private Exposure refresh(Long clientId) {
+    long sequence = reads.incrementAndGet();
+    return clientRepository
+        .findCreditExposure(clientId, PaymentAllocationService.OPEN_STATUSES)
+        .stream()
+        .findFirst()
+        .map(row -> put(toExposure(row, sequence)))
+        .orElse(null);
+  }
+
+  private Exposure put(Exposure exposure) {
+    return exposures.merge(
+        exposure.clientId(),
+        exposure,
+        (current, candidate) -> candidate.sequence() > current.sequence() ? candidate : current);
+  }
+
+  private static Exposure toExposure(Object[] row, long sequence) {
+    return new Exposure(
+        ((Number) row[0]).longValue(),
+        toBigDecimal(row[1]),
+        row[2] != null ? BigDecimal.valueOf(((Number) row[2]).doubleValue()) : BigDecimal.ZERO,
+        sequence);
+  }
+
+  private static BigDecimal toBigDecimal(Object value) {
+    return value instanceof BigDecimal decimal
+        ? decimal
+        : new BigDecimal(String.valueOf(value != null ? value : 0));
+  }
+
+  private record Exposure(
+      Long clientId, BigDecimal balance, BigDecimal creditLimit, long sequence) {
+
+    boolean isLimited() {
+      return creditLimit.signum() > 0;
+    }
+
+    boolean allows(BigDecimal amount) {
+      return !isLimited() || balance.add(amount).compareTo(creditLimit) <= 0;
+    }
+
+    boolean sameAmounts(Exposure other) {
+      return balance.compareTo(other.balance) == 0 && creditLimit.compareTo(other.creditLimit) == 0;
+    }
+  }
+}
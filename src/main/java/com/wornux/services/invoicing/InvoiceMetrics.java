@@ -0,0 +1,19 @@
+package com.wornux.services.invoicing;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+/**
+ * Receivable figures of the invoices page.
+ *
+ * @param period month of issue the figures cover, or {@code null} for every active invoice
+ * @param overdueAmount balance of the overdue invoices
+ * @param amountDueSoon balance of the pending and partially paid invoices due within the horizon
+ * @param averageDaysToPay average days between issue and payment of the paid invoices
+ */
+public record InvoiceMetrics(
+    YearMonth period, BigDecimal overdueAmount, BigDecimal amountDueSoon, double averageDaysToPay) {
+
+  public static final InvoiceMetrics EMPTY =
+      new InvoiceMetrics(null, BigDecimal.ZERO, BigDecimal.ZERO, 0.0);
+}
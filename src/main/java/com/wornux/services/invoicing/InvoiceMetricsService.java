@@ -0,0 +1,140 @@
+package com.wornux.services.invoicing;
+
+import com.wornux.data.repository.InvoiceRepository;
+import com.wornux.services.events.InvoiceChangedEvent;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Receivable KPIs of the invoices page.
+ *
+ * <p>Overdue balance, balance due within {@code application.invoicing.due-horizon-days} and average
+ * days to pay come from one aggregate query, so opening the page no longer loads the paid ledger.
+ * Results are kept for {@code application.invoicing.metrics-ttl} and dropped as soon as an invoice
+ * write commits.
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class InvoiceMetricsService {
+
+  private static final String CURRENT = "current";
+
+  private final InvoiceRepository repository;
+  private final Duration ttl;
+  private final int dueHorizonDays;
+  private final Map<String, Cached<?>> cache = new ConcurrentHashMap<>();
+  private final AtomicLong generation = new AtomicLong();
+
+  public InvoiceMetricsService(
+      InvoiceRepository repository,
+      @Value("${application.invoicing.metrics-ttl:30s}") Duration ttl,
+      @Value("${application.invoicing.due-horizon-days:30}") int dueHorizonDays) {
+    this.repository = repository;
+    this.ttl = ttl;
+    this.dueHorizonDays = dueHorizonDays;
+  }
+
+  /** Days ahead counted by {@link InvoiceMetrics#amountDueSoon()}. */
+  public int getDueHorizonDays() {
+    return dueHorizonDays;
+  }
+
+  /** Figures over every active invoice. */
+  public InvoiceMetrics getMetrics() {
+    return cached(
+        CURRENT,
+        () ->
+            repository.aggregateMetrics(dueBy()).stream()
+                .findFirst()
+                .map(row -> toMetrics(null, row, 0))
+                .orElse(InvoiceMetrics.EMPTY));
+  }
+
+  /**
+   * Figures per month of issue, for the months between {@code from} and {@code to} inclusive.
+   * Months without invoices are omitted.
+   */
+  public List<InvoiceMetrics> getMetricsByMonth(YearMonth from, YearMonth to) {
+    return cached(
+        "months:%s:%s".formatted(from, to),
+        () ->
+            repository
+                .aggregateMetricsByMonth(dueBy(), from.atDay(1), to.plusMonths(1).atDay(1))
+                .stream()
+                .map(
+                    row ->
+                        toMetrics(
+                            YearMonth.of(
+                                ((Number) row[0]).intValue(), ((Number) row[1]).intValue()),
+                            row,
+                            2))
+                .toList());
+  }
+
+  /** Drops every cached figure, so the next request reads them again. */
+  public void invalidate() {
+    generation.incrementAndGet();
+    cache.clear();
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onInvoiceChanged(InvoiceChangedEvent event) {
+    invalidate();
+  }
+
+  private LocalDate dueBy() {
+    return LocalDate.now().plusDays(dueHorizonDays);
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> T cached(String key, Supplier<T> loader) {
+    Cached<?> current = cache.get(key);
+    if (current != null && current.isFresh(ttl)) {
+      return (T) current.value();
+    }
+    long loadedGeneration = generation.get();
+    T value = loader.get();
+    // una factura confirmada durante la consulta invalida lo leído; no se guarda
+    if (generation.get() == loadedGeneration) {
+      cache.put(key, new Cached<>(value, Instant.now()));
+    }
+    log.debug("Invoice metrics {} reloaded", key);
+    return value;
+  }
+
+  private static InvoiceMetrics toMetrics(YearMonth period, Object[] row, int offset) {
+    Number averageDays = (Number) row[offset + 2];
+    return new InvoiceMetrics(
+        period,
+        toBigDecimal(row[offset]),
+        toBigDecimal(row[offset + 1]),
+        averageDays != null ? averageDays.doubleValue() : 0.0);
+  }
+
+  private static BigDecimal toBigDecimal(Object value) {
+    return value instanceof BigDecimal decimal
+        ? decimal
+        : new BigDecimal(String.valueOf(value != null ? value : 0));
+  }
+
+  private record Cached<T>(T value, Instant loadedAt) {
+
+    boolean isFresh(Duration ttl) {
+      return Duration.between(loadedAt, Instant.now()).compareTo(ttl) < 0;
+    }
+  }
+}
@@ -0,0 +1,128 @@
+package com.wornux.services.invoicing;
+
+import com.wornux.data.entity.InvoiceNumberSeries;
+import com.wornux.data.repository.InvoiceNumberSeriesRepository;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Hands out invoice numbers from the per-series counters in {@code invoice_number_series}.
+ *
+ * <p>Regular series reserve a block of numbers in a short transaction of their own and then serve
+ * it from memory, so concurrent invoices only meet at the database once per block. Numbers of a
+ * block that is never used (an invoice rolled back, a restart) are skipped.
+ *
+ * <p>Gapless series, such as NCF sequences, take each number inside the caller's transaction: the
+ * series row stays locked until the invoice commits or rolls back, so every number is used exactly
+ * once at the cost of serializing invoices of that series.
+ */
+@Slf4j
+@Component
+public class InvoiceNumberAllocator {
+
+  private final InvoiceNumberSeriesRepository seriesRepository;
+  private final TransactionTemplate blockTransaction;
+  private final int blockSize;
+  private final String defaultSeries;
+  private final Map<String, Series> series = new ConcurrentHashMap<>();
+
+  public InvoiceNumberAllocator(
+      InvoiceNumberSeriesRepository seriesRepository,
+      PlatformTransactionManager transactionManager,
+      @Value("${application.invoicing.number-block-size:50}") int blockSize,
+      @Value("${application.invoicing.default-series:FACT}") String defaultSeries) {
+    this.seriesRepository = seriesRepository;
+    this.blockTransaction = new TransactionTemplate(transactionManager);
+    this.blockTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    this.blockSize = blockSize;
+    this.defaultSeries = defaultSeries;
+  }
+
+  public String getDefaultSeries() {
+    return defaultSeries;
+  }
+
+  /**
+   * Allocates the next number of a series.
+   *
+   * @throws IllegalArgumentException if the series does not exist.
+   * @throws IllegalStateException if the series is gapless and no transaction is active.
+   */
+  public String next(String seriesName) {
+    Series current = series(seriesName);
+    if (current.config().getGapless()) {
+      if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+        throw new IllegalStateException(
+            "Gapless series " + seriesName + " must be allocated inside the invoice transaction");
+      }
+      return current.config().format(reserve(seriesName, 1));
+    }
+    return current.config().format(current.nextFromBlock());
+  }
+
+  /** The number the series would most likely hand out next, without reserving it. */
+  public String peek(String seriesName) {
+    Series current = series(seriesName);
+    Long pending = current.config().getGapless() ? null : current.peekBlock();
+    if (pending == null) {
+      pending =
+          seriesRepository
+              .findById(seriesName)
+              .map(InvoiceNumberSeries::getNextValue)
+              .orElseThrow(() -> unknown(seriesName));
+    }
+    return current.config().format(pending);
+  }
+
+  private Series series(String seriesName) {
+    return series.computeIfAbsent(
+        seriesName,
+        name -> new Series(name, seriesRepository.findById(name).orElseThrow(() -> unknown(name))));
+  }
+
+  private long reserve(String seriesName, int count) {
+    return seriesRepository.reserve(seriesName, count).orElseThrow(() -> unknown(seriesName));
+  }
+
+  private static IllegalArgumentException unknown(String seriesName) {
+    return new IllegalArgumentException("Unknown invoice number series: " + seriesName);
+  }
+
+  private final class Series {
+
+    private final String name;
+    private final InvoiceNumberSeries config;
+    private long next;
+    private long end;
+
+    private Series(String name, InvoiceNumberSeries config) {
+      this.name = name;
+      this.config = config;
+    }
+
+    InvoiceNumberSeries config() {
+      return config;
+    }
+
+    synchronized long nextFromBlock() {
+      if (next == end) {
+        Long first = blockTransaction.execute(status -> reserve(name, blockSize));
+        next = first;
+        end = first + blockSize;
+        log.debug("Reserved invoice numbers {}..{} of series {}", next, end - 1, name);
+      }
+      return next++;
+    }
+
+    synchronized Long peekBlock() {
+      return next < end ? next : null;
+    }
+  }
+}
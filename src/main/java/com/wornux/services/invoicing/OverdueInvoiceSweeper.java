@@ -0,0 +1,130 @@
+package com.wornux.services.invoicing;
+
+import com.wornux.data.entity.Invoice;
+import com.wornux.data.repository.InvoiceRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves pending invoices past their payment date to {@code OVERDUE}.
+ *
+ * <p>Candidates are taken in code order, a batch at a time, each batch in a transaction of its own
+ * that locks its rows with {@code FOR NO KEY UPDATE SKIP LOCKED}: invoices being edited are left
+ * for the next run, and two instances never sweep the same invoice. Status changes go through
+ * {@link Invoice#markAsOverdue()} and are flushed as JDBC batches, so Envers records one revision
+ * per batch. The selection is the status itself, so a run interrupted mid-batch loses only that
+ * batch and the next run, including the one at startup, picks it up again.
+ */
+@Slf4j
+@Component
+public class OverdueInvoiceSweeper {
+
+  private final InvoiceRepository repository;
+  private final InvoiceMetricsService metricsService;
+  private final TransactionTemplate batchTransaction;
+  private final int batchSize;
+  private final AtomicBoolean running = new AtomicBoolean();
+
+  private final Timer sweepTimer;
+  private final Counter sweptCounter;
+  private final Counter failureCounter;
+
+  public OverdueInvoiceSweeper(
+      InvoiceRepository repository,
+      InvoiceMetricsService metricsService,
+      PlatformTransactionManager transactionManager,
+      MeterRegistry meterRegistry,
+      @Value("${application.invoicing.overdue-sweep-batch-size:200}") int batchSize) {
+    this.repository = repository;
+    this.metricsService = metricsService;
+    this.batchTransaction = new TransactionTemplate(transactionManager);
+    this.batchTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    this.batchSize = batchSize;
+    this.sweepTimer =
+        Timer.builder("invoicing.overdue.sweeps")
+            .description("Overdue invoice sweeper runs")
+            .register(meterRegistry);
+    this.sweptCounter =
+        Counter.builder("invoicing.overdue.swept")
+            .description("Invoices moved to overdue by the sweeper")
+            .register(meterRegistry);
+    this.failureCounter =
+        Counter.builder("invoicing.overdue.failures")
+            .description("Failed overdue sweeper runs")
+            .register(meterRegistry);
+  }
+
+  /** Sweeps every pending invoice due before today. Runs at startup and then on a schedule. */
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(cron = "${application.invoicing.overdue-sweep-cron:0 5 0 * * *}")
+  public void sweep() {
+    if (!running.compareAndSet(false, true)) {
+      log.debug("Overdue sweep already running, skipped");
+      return;
+    }
+    try {
+      Integer swept = sweepTimer.record(() -> sweepBefore(LocalDate.now()));
+      log.info("Overdue sweep moved {} invoices to overdue", swept);
+    } catch (RuntimeException e) {
+      failureCounter.increment();
+      log.error("Overdue sweep failed; committed batches are kept", e);
+    } finally {
+      running.set(false);
+    }
+  }
+
+  private int sweepBefore(LocalDate today) {
+    int swept = 0;
+    long afterCode = 0L;
+    while (true) {
+      long cursor = afterCode;
+      Batch batch = batchTransaction.execute(status -> sweepBatch(today, cursor));
+      if (batch == null || batch.selected() == 0) {
+        return swept;
+      }
+
+      swept += batch.moved();
+      sweptCounter.increment(batch.moved());
+      metricsService.invalidate();
+      if (batch.selected() < batchSize) {
+        return swept;
+      }
+      afterCode = batch.lastCode();
+    }
+  }
+
+  private Batch sweepBatch(LocalDate today, long afterCode) {
+    List<Long> codes = repository.lockOverdueCandidates(today, afterCode, Limit.of(batchSize));
+    if (codes.isEmpty()) {
+      return new Batch(afterCode, 0, 0);
+    }
+
+    int moved = 0;
+    for (Invoice invoice : repository.findAllById(codes)) {
+      try {
+        invoice.markAsOverdue();
+        moved++;
+      } catch (IllegalStateException | IllegalArgumentException e) {
+        log.warn("Invoice {} was not moved to overdue: {}", invoice.getCode(), e.getMessage());
+      }
+    }
+    log.debug("Overdue sweep batch after code {}: {} of {} moved", afterCode, moved, codes.size());
+    return new Batch(codes.getLast(), codes.size(), moved);
+  }
+
+  private record Batch(long lastCode, int selected, int moved) {}
+}
@@ -0,0 +1,225 @@
+package com.wornux.services.invoicing;
+
+import com.wornux.data.entity.Payment;
+import com.wornux.data.entity.PaymentDetail;
+import com.wornux.data.enums.InvoiceStatus;
+import com.wornux.data.enums.PaymentStatus;
+import com.wornux.data.repository.ClientRepository;
+import com.wornux.data.repository.InvoiceRepository;
+import com.wornux.data.repository.PaymentRepository;
+import com.wornux.exception.PaymentAllocationException;
+import com.wornux.services.events.InvoiceChangedEvent;
+import com.wornux.services.events.PaymentAppliedEvent;
+import java.math.BigDecimal;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Applies payments to a client's open invoices and keeps the client's open balance.
+ *
+ * <p>Only {@code SUCCESS} payments are applied. The target invoices are locked and read as (code,
+ * outstanding) pairs, the payment and its details are saved as entities, and the affected invoices
+ * are then loaded and updated as entities too, so Envers records their new paid amount and status
+ * in {@code invoices_log}. {@code client.current_balance} is recomputed in SQL from the client's
+ * open invoices whenever one of them changes, so reports read a single column instead of the
+ * invoice history. Credit limits are checked against {@link CreditExposureService}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PaymentAllocationService {
+
+  /** Invoices that still expect payments and count towards the open balance. */
+  public static final Set<InvoiceStatus> OPEN_STATUSES =
+      EnumSet.of(
+          InvoiceStatus.SENT, InvoiceStatus.PENDING, InvoiceStatus.PARTIAL, InvoiceStatus.OVERDUE);
+
+  private final InvoiceRepository invoiceRepository;
+  private final PaymentRepository paymentRepository;
+  private final ClientRepository clientRepository;
+  private final InvoiceMetricsService metricsService;
+  private final ApplicationEventPublisher eventPublisher;
+
+  /**
+   * Applies a payment to the open invoices of a client, the ones due first before the others. Any
+   * amount left after every open invoice is paid stays unapplied on the payment.
+   *
+   * @param clientId The paying client
+   * @param payment A new payment, without details
+   * @return The saved payment and how it was applied
+   */
+  @Transactional
+  public PaymentAllocation allocateOldestFirst(Long clientId, Payment payment) {
+    requireSuccessful(payment);
+    requirePositive(payment.getTotalAmount(), "El monto del pago debe ser mayor que cero");
+
+    Map<Long, BigDecimal> allocations = new LinkedHashMap<>();
+    BigDecimal remaining = payment.getTotalAmount();
+    for (Object[] row : invoiceRepository.lockOpenBalances(clientId, OPEN_STATUSES)) {
+      if (remaining.signum() <= 0) {
+        break;
+      }
+      BigDecimal outstanding = (BigDecimal) row[1];
+      if (outstanding.signum() > 0) {
+        BigDecimal amount = remaining.min(outstanding);
+        allocations.put((Long) row[0], amount);
+        remaining = remaining.subtract(amount);
+      }
+    }
+
+    return apply(clientId, payment, allocations);
+  }
+
+  /**
+   * Applies a payment to the given invoices with the given amounts.
+   *
+   * @param clientId The paying client; every invoice must belong to it
+   * @param payment A new payment, without details
+   * @param allocations Amount to apply to each invoice code
+   * @return The saved payment and how it was applied
+   * @throws PaymentAllocationException if the payment did not succeed, an invoice is not open,
+   *     belongs to another client, would be overpaid, or the amounts exceed the payment.
+   */
+  @Transactional
+  public PaymentAllocation allocate(
+      Long clientId, Payment payment, Map<Long, BigDecimal> allocations) {
+    requireSuccessful(payment);
+    requirePositive(payment.getTotalAmount(), "El monto del pago debe ser mayor que cero");
+    allocations.values().forEach(a -> requirePositive(a, "Cada monto aplicado debe ser positivo"));
+
+    BigDecimal requested = allocations.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+    if (requested.compareTo(payment.getTotalAmount()) > 0) {
+      throw new PaymentAllocationException(
+          "Los montos aplicados (%s) exceden el pago (%s)"
+              .formatted(requested, payment.getTotalAmount()));
+    }
+
+    List<Object[]> rows = invoiceRepository.lockBalances(allocations.keySet());
+    if (rows.size() != allocations.size()) {
+      throw new PaymentAllocationException("Alguna de las facturas indicadas no existe");
+    }
+    for (Object[] row : rows) {
+      Long code = (Long) row[0];
+      if (!clientId.equals(row[1])) {
+        throw new PaymentAllocationException(
+            "La factura %d no pertenece al cliente indicado".formatted(code));
+      }
+      if (!Boolean.TRUE.equals(row[4]) || !OPEN_STATUSES.contains((InvoiceStatus) row[2])) {
+        throw new PaymentAllocationException(
+            "La factura %d no admite pagos en estado %s".formatted(code, row[2]));
+      }
+      if (allocations.get(code).compareTo((BigDecimal) row[3]) > 0) {
+        throw new PaymentAllocationException(
+            "El monto aplicado a la factura %d excede su saldo (%s)".formatted(code, row[3]));
+      }
+    }
+
+    return apply(clientId, payment, allocations);
+  }
+
+  /** Open balance of a client, read from its denormalized column. */
+  @Transactional(readOnly = true)
+  public BigDecimal getOpenBalance(Long clientId) {
+    return clientRepository.findBalanceAndCreditLimit(clientId).stream()
+        .findFirst()
+        .map(row -> toBigDecimal(row[0]))
+        .orElseThrow(() -> new PaymentAllocationException("Cliente no encontrado: " + clientId));
+  }
+
+  /**
+   * Keeps the open balance of the invoice's client current. Runs inside the transaction that wrote
+   * the invoice, just before it commits.
+   */
+  @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+  public void onInvoiceChanged(InvoiceChangedEvent event) {
+    if (event.invoice() != null && event.invoice().getClient() != null) {
+      clientRepository.refreshOpenBalances(List.of(event.invoice().getClient().getId()));
+    }
+  }
+
+  /** Repairs balances changed outside the application. */
+  @Transactional
+  @Scheduled(cron = "${application.invoicing.balance-reconcile-cron:0 15 3 * * *}")
+  public void reconcileOpenBalances() {
+    int changed = clientRepository.reconcileOpenBalances();
+    if (changed > 0) {
+      log.warn("Open balance reconciliation corrected {} clients", changed);
+    }
+  }
+
+  private PaymentAllocation apply(
+      Long clientId, Payment payment, Map<Long, BigDecimal> allocations) {
+    allocations.forEach(
+        (code, amount) -> {
+          PaymentDetail detail = new PaymentDetail();
+          detail.setPayment(payment);
+          detail.setInvoice(invoiceRepository.getReferenceById(code));
+          detail.setAmount(amount);
+          payment.addPaymentDetail(detail);
+        });
+    Payment saved = paymentRepository.save(payment);
+
+    if (!allocations.isEmpty()) {
+      invoiceRepository
+          .findAllById(allocations.keySet())
+          .forEach(invoice -> invoice.applyPayment(allocations.get(invoice.getCode())));
+      // the balance refresh below reads the invoices in SQL
+      invoiceRepository.flush();
+      clientRepository.refreshOpenBalances(List.of(clientId));
+      metricsService.invalidate();
+    }
+    eventPublisher.publishEvent(new PaymentAppliedEvent(saved.getCode(), clientId));
+
+    BigDecimal applied = allocations.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+    log.info(
+        "Payment {} of client {} applied {} to {} invoices",
+        saved.getCode(),
+        clientId,
+        applied,
+        allocations.size());
+    return new PaymentAllocation(
+        saved, Map.copyOf(allocations), saved.getTotalAmount().subtract(applied));
+  }
+
+  private static BigDecimal toBigDecimal(Object value) {
+    return Optional.ofNullable((Number) value)
+        .map(n -> BigDecimal.valueOf(n.doubleValue()))
+        .orElse(BigDecimal.ZERO);
+  }
+
+  private static void requireSuccessful(Payment payment) {
+    if (payment.getStatus() != PaymentStatus.SUCCESS) {
+      throw new PaymentAllocationException(
+          "Solo se aplican pagos exitosos; el pago está en estado %s"
+              .formatted(payment.getStatus()));
+    }
+  }
+
+  private static void requirePositive(BigDecimal amount, String message) {
+    if (amount == null || amount.signum() <= 0) {
+      throw new PaymentAllocationException(message);
+    }
+  }
+
+  /**
+   * Result of applying a payment.
+   *
+   * @param payment The saved payment with its details
+   * @param applied Amount applied to each invoice code
+   * @param unapplied Part of the payment that was not applied to any invoice
+   */
+  public record PaymentAllocation(
+      Payment payment, Map<Long, BigDecimal> applied, BigDecimal unapplied) {}
+}
@@ -0,0 +1,252 @@
+package com.wornux.services.report;
+
+import com.wornux.data.entity.Client;
+import com.wornux.data.repository.ClientRepository;
+import com.wornux.data.repository.InvoiceRepository;
+import com.wornux.exception.ClientNotFoundException;
+import com.wornux.services.report.pdf.JasperReportFactory;
+import com.wornux.services.report.pdf.ReportErrorException;
+import com.wornux.services.report.pdf.ReportId;
+import com.wornux.services.report.pdf.ReportServiceDatabase;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.sf.jasperreports.engine.JRDataSource;
+import net.sf.jasperreports.engine.JRField;
+import net.sf.jasperreports.engine.JRParameter;
+import net.sf.jasperreports.engine.fill.JRSwapFileVirtualizer;
+import net.sf.jasperreports.engine.util.JRSwapFile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Estados de cuenta de clientes: facturas emitidas y pagos aplicados de un período, con el balance
+ * acumulado línea a línea.
+ *
+ * <p>Las líneas se leen de un cursor de la base de datos y se escriben a medida que llegan, con el
+ * balance calculado sobre la marcha; el PDF se llena en el mismo hilo que abrió el cursor y pagina
+ * a disco con un virtualizador. Ni el historial ni el documento completo se mantienen en memoria,
+ * por largo que sea el período.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class AccountStatementService {
+
+  private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+  private static final int PDF_PAGES_IN_MEMORY = 20;
+
+  private final InvoiceRepository invoiceRepository;
+  private final ClientRepository clientRepository;
+  private final JasperReportFactory reportFactory;
+
+  /** Cliente con el RNC indicado, para los estados de cuenta de empresas. */
+  public Client findClientByRnc(String rnc) {
+    return clientRepository
+        .findByRnc(rnc)
+        .orElseThrow(() -> new IllegalArgumentException("No existe un cliente con RNC " + rnc));
+  }
+
+  /**
+   * Escribe el estado de cuenta en CSV (UTF-8, separado por comas). La primera línea de datos es el
+   * balance anterior al período. No cierra {@code outputStream}.
+   */
+  public void writeCsv(Long clientId, LocalDate from, LocalDate to, OutputStream outputStream)
+      throws IOException {
+    findClient(clientId);
+    BigDecimal openingBalance = openingBalance(clientId, from);
+
+    Writer writer =
+        new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+    writer.write("Fecha,Tipo,Referencia,Descripción,Débito,Crédito,Balance\n");
+    writeCsvLine(
+        writer, new StatementLine(from, "SALDO ANTERIOR", "", "", null, null, openingBalance));
+
+    int lines = 0;
+    try (Stream<Object[]> rows = invoiceRepository.streamStatementEntries(clientId, from, to)) {
+      for (Iterator<StatementLine> it = new StatementCursor(rows.iterator(), openingBalance);
+          it.hasNext(); ) {
+        writeCsvLine(writer, it.next());
+        lines++;
+      }
+    }
+    writer.flush();
+    log.debug("Account statement CSV of client {} written with {} lines", clientId, lines);
+  }
+
+  /** Renderiza el estado de cuenta en PDF directamente sobre {@code outputStream}. */
+  public void writePdf(Long clientId, LocalDate from, LocalDate to, OutputStream outputStream)
+      throws ReportErrorException {
+    Client client = findClient(clientId);
+    BigDecimal openingBalance = openingBalance(clientId, from);
+
+    JRSwapFileVirtualizer virtualizer =
+        new JRSwapFileVirtualizer(
+            PDF_PAGES_IN_MEMORY,
+            new JRSwapFile(System.getProperty("java.io.tmpdir"), 4096, 64),
+            true);
+    try (Stream<Object[]> rows = invoiceRepository.streamStatementEntries(clientId, from, to)) {
+      ((ReportServiceDatabase) reportFactory.getServiceFromDatabase(ReportId.ACCOUNT_STATEMENT))
+          .withDataSource(
+              new StatementDataSource(new StatementCursor(rows.iterator(), openingBalance)))
+          .put(JRParameter.REPORT_VIRTUALIZER, virtualizer)
+          .put("clientName", clientName(client))
+          .put("clientRnc", client.getRnc())
+          .put("periodFrom", from.format(DATE_FORMAT))
+          .put("periodTo", to.format(DATE_FORMAT))
+          .put("generatedDate", LocalDate.now().format(DATE_FORMAT))
+          .put("openingBalance", openingBalance)
+          .execute(outputStream);
+    } finally {
+      virtualizer.cleanup();
+    }
+  }
+
+  private Client findClient(Long clientId) {
+    return clientRepository
+        .findById(clientId)
+        .orElseThrow(() -> new ClientNotFoundException(clientId));
+  }
+
+  private BigDecimal openingBalance(Long clientId, LocalDate from) {
+    return Optional.ofNullable(invoiceRepository.findStatementBalanceBefore(clientId, from))
+        .orElse(BigDecimal.ZERO);
+  }
+
+  private static String clientName(Client client) {
+    return client.getCompanyName() != null && !client.getCompanyName().isBlank()
+        ? client.getCompanyName()
+        : client.getFullName();
+  }
+
+  private static void writeCsvLine(Writer writer, StatementLine line) throws IOException {
+    writer.write(line.date().format(DATE_FORMAT));
+    writer.write(',');
+    writer.write(csv(line.kind()));
+    writer.write(',');
+    writer.write(csv(line.reference()));
+    writer.write(',');
+    writer.write(csv(line.description()));
+    writer.write(',');
+    writer.write(amount(line.debit()));
+    writer.write(',');
+    writer.write(amount(line.credit()));
+    writer.write(',');
+    writer.write(line.balance().toPlainString());
+    writer.write('\n');
+  }
+
+  private static String csv(String value) {
+    if (value == null) {
+      return "";
+    }
+    if (value.indexOf(',') < 0
+        && value.indexOf('"') < 0
+        && value.indexOf('\n') < 0
+        && value.indexOf('\r') < 0) {
+      return value;
+    }
+    return '"' + value.replace("\"", "\"\"") + '"';
+  }
+
+  private static String amount(BigDecimal value) {
+    return value != null && value.signum() != 0 ? value.toPlainString() : "";
+  }
+
+  /** Una línea del estado de cuenta con el balance acumulado hasta ella. */
+  record StatementLine(
+      LocalDate date,
+      String kind,
+      String reference,
+      String description,
+      BigDecimal debit,
+      BigDecimal credit,
+      BigDecimal balance) {}
+
+  /** Convierte las filas del cursor en líneas, acumulando el balance a medida que avanza. */
+  static final class StatementCursor implements Iterator<StatementLine> {
+
+    private final Iterator<Object[]> rows;
+    private BigDecimal balance;
+
+    StatementCursor(Iterator<Object[]> rows, BigDecimal openingBalance) {
+      this.rows = rows;
+      this.balance = openingBalance;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return rows.hasNext();
+    }
+
+    @Override
+    public StatementLine next() {
+      Object[] row = rows.next();
+      BigDecimal debit = toBigDecimal(row[4]);
+      BigDecimal credit = toBigDecimal(row[5]);
+      balance = balance.add(debit).subtract(credit);
+      return new StatementLine(
+          toLocalDate(row[0]),
+          (String) row[1],
+          (String) row[2],
+          (String) row[3],
+          debit,
+          credit,
+          balance);
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+      return value instanceof Date date ? date.toLocalDate() : (LocalDate) value;
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+      return value instanceof BigDecimal decimal
+          ? decimal
+          : new BigDecimal(String.valueOf(value != null ? value : 0));
+    }
+  }
+
+  /** Entrega las líneas del cursor a JasperReports sin acumularlas. */
+  static final class StatementDataSource implements JRDataSource {
+
+    private final Iterator<StatementLine> lines;
+    private StatementLine current;
+
+    StatementDataSource(Iterator<StatementLine> lines) {
+      this.lines = lines;
+    }
+
+    @Override
+    public boolean next() {
+      current = lines.hasNext() ? lines.next() : null;
+      return current != null;
+    }
+
+    @Override
+    public Object getFieldValue(JRField field) {
+      return switch (field.getName()) {
+        case "entryDate" -> current.date().format(DATE_FORMAT);
+        case "kind" -> current.kind();
+        case "reference" -> current.reference();
+        case "description" -> current.description();
+        case "debit" -> current.debit();
+        case "credit" -> current.credit();
+        case "balance" -> current.balance();
+        default -> null;
+      };
+    }
+  }
+}
@@ -0,0 +1,206 @@
+package com.wornux.services.report;
+
+import com.wornux.data.entity.Client;
+import com.wornux.data.entity.Consultation;
+import com.wornux.data.entity.Employee;
+import com.wornux.data.entity.MedicalHistory;
+import com.wornux.data.entity.Pet;
+import com.wornux.data.entity.Product;
+import com.wornux.data.enums.PaymentMethod;
+import com.wornux.data.repository.ConsultationRepository;
+import com.wornux.data.repository.InvoiceRepository;
+import com.wornux.data.repository.PaymentRepository;
+import com.wornux.data.repository.PetRepository;
+import com.wornux.data.repository.ProductRepository;
+import com.wornux.services.report.pdf.JasperReportFactory;
+import com.wornux.services.report.pdf.ReportId;
+import com.wornux.services.report.pdf.ReportServiceDatabase;
+import jakarta.persistence.EntityNotFoundException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Prepara los reportes clínicos y administrativos distintos de la factura: historial médico de una
+ * mascota, valoración del inventario y cierre de caja diario. Cada método carga los datos y
+ * devuelve el reporte listo para ejecutar, con la plantilla seleccionada por {@link ReportId}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ClinicReportService {
+
+  private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+  private final JasperReportFactory reportFactory;
+  private final PetRepository petRepository;
+  private final ConsultationRepository consultationRepository;
+  private final ProductRepository productRepository;
+  private final PaymentRepository paymentRepository;
+  private final InvoiceRepository invoiceRepository;
+
+  /**
+   * Historial médico de una mascota con sus consultas, de la más antigua a la más reciente.
+   *
+   * @param petId La mascota
+   * @return ReportServiceDatabase listo para ejecutar
+   */
+  public ReportServiceDatabase prepareMedicalHistoryReport(Long petId) {
+    Pet pet =
+        petRepository
+            .findById(petId)
+            .orElseThrow(() -> new EntityNotFoundException("Pet not found with ID: " + petId));
+    MedicalHistory history =
+        Optional.ofNullable(pet.getMedicalHistory()).orElseGet(MedicalHistory::new);
+
+    List<Map<String, Object>> rows =
+        consultationRepository.findByPetIdAndActiveTrue(petId).stream()
+            .sorted(
+                Comparator.comparing(
+                    Consultation::getConsultationDate,
+                    Comparator.nullsLast(Comparator.naturalOrder())))
+            .map(this::consultationToMap)
+            .toList();
+    log.debug("Preparando historial médico de la mascota #{} con {} consultas", petId, rows.size());
+
+    return report(ReportId.MEDICAL_HISTORY)
+        .withData(rows)
+        .put("petName", pet.getName())
+        .put("petDetails", petDetails(pet))
+        .put(
+            "ownerName",
+            pet.getOwners().stream().map(Client::getFullName).collect(Collectors.joining(", ")))
+        .put("generatedDate", LocalDate.now().format(DATE_FORMAT))
+        .put("allergies", history.getAllergies())
+        .put("medications", history.getMedications())
+        .put("vaccinations", history.getVaccinations())
+        .put("surgeries", history.getSurgeries())
+        .put("chronicConditions", history.getChronicConditions());
+  }
+
+  /**
+   * Valoración a costo de compra de la existencia disponible de los productos activos, agrupada por
+   * categoría.
+   *
+   * @return ReportServiceDatabase listo para ejecutar
+   */
+  public ReportServiceDatabase prepareInventoryValuationReport() {
+    List<Map<String, Object>> rows =
+        productRepository.findByActiveTrue().stream()
+            .sorted(
+                Comparator.comparing((Product p) -> String.valueOf(p.getCategory()))
+                    .thenComparing(Product::getName, String.CASE_INSENSITIVE_ORDER))
+            .map(this::productToMap)
+            .toList();
+
+    return report(ReportId.INVENTORY_VALUATION)
+        .withData(rows)
+        .put("generatedDate", LocalDate.now().format(DATE_FORMAT))
+        .put("warehouseName", "");
+  }
+
+  /**
+   * Cierre de caja de un día: pagos cobrados por método y facturas emitidas.
+   *
+   * @param date El día a cerrar
+   * @param generatedBy Usuario que genera el cierre
+   * @return ReportServiceDatabase listo para ejecutar
+   */
+  public ReportServiceDatabase prepareDailyCashClosureReport(LocalDate date, String generatedBy) {
+    List<Map<String, Object>> rows = new ArrayList<>();
+    for (Object[] row : paymentRepository.summarizeCollectedByMethod(date)) {
+      Map<String, Object> map = new HashMap<>();
+      map.put("method", ((PaymentMethod) row[0]).getDisplay());
+      map.put("paymentCount", ((Number) row[1]).longValue());
+      map.put("amount", toBigDecimal(row[2]));
+      rows.add(map);
+    }
+
+    Object[] issued =
+        invoiceRepository.summarizeIssuedOn(date).stream()
+            .findFirst()
+            .orElse(new Object[] {0L, BigDecimal.ZERO});
+
+    return report(ReportId.DAILY_CASH_CLOSURE)
+        .withData(rows)
+        .put("closureDate", date.format(DATE_FORMAT))
+        .put("generatedBy", generatedBy != null ? generatedBy : "")
+        .put("invoicesIssued", ((Number) issued[0]).longValue())
+        .put("invoicedTotal", toBigDecimal(issued[1]));
+  }
+
+  private ReportServiceDatabase report(ReportId reportId) {
+    return (ReportServiceDatabase) reportFactory.getServiceFromDatabase(reportId);
+  }
+
+  private Map<String, Object> consultationToMap(Consultation consultation) {
+    Map<String, Object> map = new HashMap<>();
+    map.put(
+        "consultationDate",
+        consultation.getConsultationDate() != null
+            ? consultation.getConsultationDate().format(DATE_FORMAT)
+            : "");
+    map.put("veterinarian", employeeName(consultation.getVeterinarian()));
+    map.put("diagnosis", consultation.getDiagnosis());
+    map.put("treatment", consultation.getTreatment());
+    map.put("prescription", consultation.getPrescription());
+    return map;
+  }
+
+  private Map<String, Object> productToMap(Product product) {
+    BigDecimal unitCost =
+        product.getPurchasePrice() != null ? product.getPurchasePrice() : BigDecimal.ZERO;
+    int stock = Math.max(0, product.getAvailableStock());
+
+    Map<String, Object> map = new HashMap<>();
+    map.put("productName", product.getName());
+    map.put("category", String.valueOf(product.getCategory()));
+    map.put("availableStock", stock);
+    map.put("unitCost", unitCost);
+    map.put("stockValue", unitCost.multiply(BigDecimal.valueOf(stock)));
+    return map;
+  }
+
+  private static String petDetails(Pet pet) {
+    List<String> details = new ArrayList<>();
+    if (pet.getType() != null) {
+      details.add(pet.getType().getDisplayName());
+    }
+    if (pet.getBreed() != null && !pet.getBreed().isBlank()) {
+      details.add(pet.getBreed());
+    }
+    if (pet.getBirthDate() != null) {
+      details.add("Nacimiento: " + pet.getBirthDate().format(DATE_FORMAT));
+    }
+    return String.join(" · ", details);
+  }
+
+  private static String employeeName(Employee employee) {
+    if (employee == null) {
+      return "";
+    }
+    return "%s %s"
+        .formatted(
+            Optional.ofNullable(employee.getFirstName()).orElse(""),
+            Optional.ofNullable(employee.getLastName()).orElse(""))
+        .trim();
+  }
+
+  private static BigDecimal toBigDecimal(Object value) {
+    return value instanceof BigDecimal decimal
+        ? decimal
+        : new BigDecimal(String.valueOf(value != null ? value : 0));
+  }
+}
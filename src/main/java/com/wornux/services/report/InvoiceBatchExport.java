@@ -0,0 +1,58 @@
+package com.wornux.services.report;
+
+import com.wornux.data.entity.Invoice;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * A batch export of invoice PDFs in progress: what to export, how far it got, and a way to stop it.
+ * Progress is reported from the thread writing the ZIP, so listeners that touch the UI must go
+ * through {@code UI.access}.
+ */
+public class InvoiceBatchExport {
+
+  @Getter private final Specification<Invoice> specification;
+  @Getter private final long total;
+  private final AtomicInteger completed = new AtomicInteger();
+  private volatile boolean cancelled;
+
+  @Setter private Consumer<InvoiceBatchExport> progressListener = export -> {};
+
+  public InvoiceBatchExport(Specification<Invoice> specification, long total) {
+    this.specification = specification;
+    this.total = total;
+  }
+
+  public int getCompleted() {
+    return completed.get();
+  }
+
+  /** Fraction of the invoices already written, between 0 and 1. */
+  public double getProgress() {
+    return total == 0 ? 1.0 : Math.min(1.0, (double) completed.get() / total);
+  }
+
+  /** Stops the export after the PDF being written; the ZIP is left unfinished. */
+  public void cancel() {
+    cancelled = true;
+  }
+
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  void checkCancelled() {
+    if (cancelled) {
+      throw new CancellationException("Exportación de facturas cancelada");
+    }
+  }
+
+  void invoiceWritten() {
+    completed.incrementAndGet();
+    progressListener.accept(this);
+  }
+}
@@ -9,11 +9,24 @@ import com.wornux.services.implementations.InvoiceService;
 import com.wornux.services.report.pdf.JasperReportFactory;
 import com.wornux.services.report.pdf.ReportErrorException;
 import com.wornux.services.report.pdf.ReportServiceDatabase;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 /**
@@ -26,6 +39,7 @@ import org.springframework.stereotype.Service;
 public class InvoiceReportService {
 
   private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+  private static final int BATCH_CHUNK_SIZE = 50;
   private final InvoiceReportMapper invoiceReportMapper;
   private final JasperReportFactory reportFactory;
   private final InvoiceService invoiceService;
@@ -66,6 +80,18 @@ public class InvoiceReportService {
         .put("salesOrder", reportDto.getSalesOrder() != null ? reportDto.getSalesOrder() : "");
   }
 
+  /**
+   * Carga la factura con sus detalles y prepara su reporte. El PDF se renderiza al ejecutar el
+   * reporte, por ejemplo directamente sobre la respuesta de una descarga.
+   *
+   * @param invoice La factura a generar
+   * @return ReportServiceDatabase listo para ejecutar
+   */
+  public ReportServiceDatabase prepareInvoicePdf(Invoice invoice) {
+    Invoice invoiceWithDetails = invoiceService.findByIdWithDetails(invoice.getCode());
+    return prepareInvoiceReport(invoiceWithDetails);
+  }
+
   /**
    * Genera el PDF de la factura.
    *
@@ -76,9 +102,7 @@ public class InvoiceReportService {
     log.info("Generando PDF para factura #{}", invoice.getCode());
 
     try {
-      Invoice invoiceWithDetails = invoiceService.findByIdWithDetails(invoice.getCode());
-      ReportServiceDatabase reportService = prepareInvoiceReport(invoiceWithDetails);
-      byte[] pdfData = reportService.execute();
+      byte[] pdfData = prepareInvoicePdf(invoice).execute();
 
       log.info(
           "PDF generado exitosamente para factura #{}, tamaño: {} bytes",
@@ -92,6 +116,93 @@ public class InvoiceReportService {
     }
   }
 
+  /**
+   * Prepara la exportación en lote de las facturas que cumplen el filtro.
+   *
+   * @param specification Filtro de facturas (estado, período, cliente...)
+   * @return exportación pendiente, con el total de facturas a escribir
+   */
+  public InvoiceBatchExport prepareBatchExport(Specification<Invoice> specification) {
+    return new InvoiceBatchExport(specification, invoiceService.getCount(specification));
+  }
+
+  /**
+   * Escribe en {@code outputStream} un ZIP con el PDF de cada factura de la exportación.
+   *
+   * <p>Las facturas se leen por bloques y sus PDFs se renderizan en paralelo sobre el pool de
+   * reportes, pero a lo sumo {@link JasperReportFactory#getRenderParallelism()} PDFs están en
+   * memoria a la vez: cada uno se escribe en el ZIP, en orden de código, en cuanto termina el más
+   * antiguo. Si la exportación se cancela o falla, el ZIP queda sin cerrar para que no pase por un
+   * archivo completo.
+   *
+   * @throws java.util.concurrent.CancellationException si la exportación se cancela
+   */
+  public void writeBatchZip(InvoiceBatchExport export, OutputStream outputStream)
+      throws IOException {
+    log.info("Exportando {} facturas en ZIP", export.getTotal());
+
+    int window = reportFactory.getRenderParallelism();
+    Deque<Rendering> inFlight = new ArrayDeque<>();
+    ZipOutputStream zip = new ZipOutputStream(outputStream);
+    zip.setLevel(Deflater.BEST_SPEED); // los PDFs ya vienen comprimidos
+
+    try (ExecutorService exporters = Executors.newVirtualThreadPerTaskExecutor()) {
+      try {
+        Long lastCode = null;
+        List<Invoice> chunk;
+        do {
+          chunk =
+              invoiceService.findChunkWithDetails(
+                  export.getSpecification(), lastCode, BATCH_CHUNK_SIZE);
+          for (Invoice invoice : chunk) {
+            export.checkCancelled();
+            ReportServiceDatabase report = prepareInvoiceReport(invoice);
+            inFlight.add(
+                new Rendering(
+                    "Invoice_%s.pdf".formatted(invoice.getCode()),
+                    exporters.submit(() -> report.execute())));
+            if (inFlight.size() >= window) {
+              writeEntry(zip, inFlight.poll(), export);
+            }
+          }
+          lastCode = chunk.isEmpty() ? lastCode : chunk.getLast().getCode();
+        } while (chunk.size() == BATCH_CHUNK_SIZE);
+
+        while (!inFlight.isEmpty()) {
+          writeEntry(zip, inFlight.poll(), export);
+        }
+      } finally {
+        inFlight.forEach(rendering -> rendering.pdf().cancel(true));
+      }
+    }
+
+    zip.finish();
+    log.info("Exportación ZIP completada: {} facturas", export.getCompleted());
+  }
+
+  private void writeEntry(ZipOutputStream zip, Rendering rendering, InvoiceBatchExport export)
+      throws IOException {
+    export.checkCancelled();
+    byte[] pdf;
+    try {
+      pdf = rendering.pdf().get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ReportErrorException("Exportación de facturas interrumpida", e);
+    } catch (ExecutionException e) {
+      throw new ReportErrorException(
+          "Error al generar " + rendering.fileName() + ": " + e.getCause().getMessage(),
+          e.getCause());
+    }
+
+    zip.putNextEntry(new ZipEntry(rendering.fileName()));
+    zip.write(pdf);
+    zip.closeEntry();
+    export.invoiceWritten();
+  }
+
+  private record Rendering(String fileName, Future<byte[]> pdf) {}
+
   private void calculateCorrectTotals(Invoice invoice) {
     BigDecimal productsTotal =
         Optional.ofNullable(invoice.getProducts()).orElse(java.util.Collections.emptySet()).stream()
@@ -1,20 +1,160 @@
 package com.wornux.services.report.pdf;
 
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import net.sf.jasperreports.engine.JRDataSource;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperFillManager;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.JasperReport;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.stereotype.Service;
 
+/**
+ * Creates report services over the compiled templates of the {@link ReportRegistry} and a bounded
+ * pool for filling them.
+ *
+ * <p>Fills are the memory-hungry part of a rendering, so they run on at most {@code
+ * application.reports.max-concurrent-renders} threads with a short queue behind them. A burst of
+ * downloads beyond that is refused with a {@link ReportErrorException} instead of piling filled
+ * reports onto the heap. Fills from a data source bound to the calling thread, such as a database
+ * cursor, run on that thread instead, under a limit of the same size.
+ */
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class JasperReportFactory {
 
   private final ResourceLoader resourceLoader;
+  private final ReportRegistry reportRegistry;
+  private final String version;
+  private final ThreadPoolExecutor renderExecutor;
+  private final Semaphore callerThreadFills;
 
-  @Value("${application.version:unknown}")
-  private String version;
+  public JasperReportFactory(
+      ResourceLoader resourceLoader,
+      ReportRegistry reportRegistry,
+      @Value("${application.version:unknown}") String version,
+      @Value("${application.reports.max-concurrent-renders:0}") int maxConcurrentRenders,
+      @Value("${application.reports.render-queue-capacity:32}") int queueCapacity) {
+    this.resourceLoader = resourceLoader;
+    this.reportRegistry = reportRegistry;
+    this.version = version;
 
+    int threads =
+        maxConcurrentRenders > 0
+            ? maxConcurrentRenders
+            : Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+    this.callerThreadFills = new Semaphore(threads);
+    AtomicInteger sequence = new AtomicInteger();
+    this.renderExecutor =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+            task -> {
+              Thread thread = new Thread(task, "report-render-" + sequence.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  /** Service for the invoice report. */
   public ReportService<ReportServiceDatabase> getServiceFromDatabase() {
-    return ReportServiceDatabase.builder().resourceLoader(resourceLoader).version(version).build();
+    return getServiceFromDatabase(ReportId.INVOICE);
+  }
+
+  public ReportService<ReportServiceDatabase> getServiceFromDatabase(ReportId reportId) {
+    return ReportServiceDatabase.builder()
+        .resourceLoader(resourceLoader)
+        .version(version)
+        .reportFactory(this)
+        .reportId(reportId)
+        .build();
+  }
+
+  /**
+   * Returns the compiled template of a report.
+   *
+   * @throws ReportErrorException if the template is missing or is not a compiled report.
+   */
+  public JasperReport getCompiledReport(ReportId reportId) throws ReportErrorException {
+    return reportRegistry.get(reportId);
+  }
+
+  /** Fills that can run at the same time; callers rendering in bulk should keep this many going. */
+  public int getRenderParallelism() {
+    return renderExecutor.getMaximumPoolSize();
+  }
+
+  /**
+   * Fills a report on the rendering pool and waits for the result.
+   *
+   * @throws ReportErrorException if the pool is saturated, the fill fails or the caller is
+   *     interrupted.
+   */
+  public JasperPrint fill(
+      JasperReport report, Map<String, Object> parameters, JRDataSource dataSource)
+      throws ReportErrorException {
+    Future<JasperPrint> filled;
+    try {
+      filled =
+          renderExecutor.submit(() -> JasperFillManager.fillReport(report, parameters, dataSource));
+    } catch (RejectedExecutionException ex) {
+      log.warn(
+          "Report rendering pool saturated ({} active, {} queued)",
+          renderExecutor.getActiveCount(),
+          renderExecutor.getQueue().size());
+      throw new ReportErrorException("Too many reports being generated, try again shortly", ex);
+    }
+
+    try {
+      return filled.get();
+    } catch (InterruptedException ex) {
+      filled.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new ReportErrorException("Report rendering interrupted", ex);
+    } catch (ExecutionException ex) {
+      throw new ReportErrorException(
+          "Error filling report: " + ex.getCause().getMessage(), ex.getCause());
+    }
+  }
+
+  /**
+   * Fills a report on the calling thread, for data sources that must be read where they were
+   * opened: a Hibernate cursor belongs to the caller's session and transaction.
+   *
+   * @throws ReportErrorException if too many such fills are running or the fill fails.
+   */
+  public JasperPrint fillOnCallerThread(
+      JasperReport report, Map<String, Object> parameters, JRDataSource dataSource)
+      throws ReportErrorException {
+    if (!callerThreadFills.tryAcquire()) {
+      log.warn("Too many reports being filled on caller threads");
+      throw new ReportErrorException("Too many reports being generated, try again shortly");
+    }
+    try {
+      return JasperFillManager.fillReport(report, parameters, dataSource);
+    } catch (JRException ex) {
+      throw new ReportErrorException("Error filling report: " + ex.getMessage(), ex);
+    } finally {
+      callerThreadFills.release();
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    renderExecutor.shutdownNow();
   }
 }
@@ -0,0 +1,23 @@
+package com.wornux.services.report.pdf;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/** Reports the application can render, each backed by a template compiled at build time. */
+@Getter
+@RequiredArgsConstructor
+public enum ReportId {
+  INVOICE("Invoice", "Factura"),
+  MEDICAL_HISTORY("MedicalHistory", "Historial médico"),
+  INVENTORY_VALUATION("InventoryValuation", "Valoración de inventario"),
+  DAILY_CASH_CLOSURE("DailyCashClosure", "Cierre de caja diario"),
+  ACCOUNT_STATEMENT("AccountStatement", "Estado de cuenta");
+
+  private final String template;
+  private final String display;
+
+  /** Classpath location of the compiled template. */
+  public String getLocation() {
+    return "classpath:reports/" + template + ".jasper";
+  }
+}
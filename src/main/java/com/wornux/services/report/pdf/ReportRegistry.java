@@ -0,0 +1,145 @@
+package com.wornux.services.report.pdf;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import lombok.extern.slf4j.Slf4j;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperReport;
+import net.sf.jasperreports.engine.util.JRLoader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+/**
+ * Compiled report templates by {@link ReportId}.
+ *
+ * <p>The {@code .jrxml} sources are compiled by the build (jasperreports-maven-plugin) and every
+ * template is deserialized in parallel once the application is ready, so rendering a report never
+ * pays for compiling or loading it. {@link JasperReport} is immutable once loaded and is shared by
+ * concurrent fills.
+ *
+ * <p>With {@code application.reports.hot-reload} (enabled in the dev profile) the modification time
+ * of each compiled template is checked on every lookup, and one recompiled by {@code mvn
+ * process-sources} replaces the cached copy without a restart.
+ */
+@Slf4j
+@Component
+public class ReportRegistry {
+
+  private final ResourceLoader resourceLoader;
+  private final boolean hotReload;
+  private final Map<ReportId, CompiledReport> compiledReports = new EnumMap<>(ReportId.class);
+
+  public ReportRegistry(
+      ResourceLoader resourceLoader,
+      @Value("${application.reports.hot-reload:false}") boolean hotReload) {
+    this.resourceLoader = resourceLoader;
+    this.hotReload = hotReload;
+  }
+
+  /** Loads every template in parallel. Templates that fail are retried on first use. */
+  @EventListener(ApplicationReadyEvent.class)
+  public void preload() {
+    long start = System.nanoTime();
+    List<ReportId> ids = Arrays.asList(ReportId.values());
+
+    try (ExecutorService loaders = Executors.newVirtualThreadPerTaskExecutor()) {
+      List<CompletableFuture<Void>> loads =
+          ids.stream()
+              .map(
+                  id ->
+                      CompletableFuture.runAsync(() -> get(id), loaders)
+                          .exceptionally(
+                              ex -> {
+                                log.error("Report {} could not be preloaded", id, ex);
+                                return null;
+                              }))
+              .toList();
+      CompletableFuture.allOf(loads.toArray(CompletableFuture[]::new)).join();
+    }
+
+    log.info(
+        "Report registry loaded {} of {} templates in {} ms",
+        loadedCount(),
+        ids.size(),
+        (System.nanoTime() - start) / 1_000_000);
+  }
+
+  /**
+   * Returns the compiled template of a report, loading it if it was not preloaded.
+   *
+   * @throws ReportErrorException if the template is missing or is not a compiled report.
+   */
+  public JasperReport get(ReportId id) throws ReportErrorException {
+    CompiledReport cached = cached(id);
+    if (cached == null || (hotReload && cached.isStale())) {
+      cached = reload(id);
+    }
+    return cached.report();
+  }
+
+  /** Drops every cached template, so the next rendering reads them again. */
+  public synchronized void evictAll() {
+    compiledReports.clear();
+  }
+
+  private synchronized CompiledReport cached(ReportId id) {
+    return compiledReports.get(id);
+  }
+
+  private synchronized long loadedCount() {
+    return compiledReports.size();
+  }
+
+  private CompiledReport reload(ReportId id) {
+    // dos hilos pueden recargar la misma plantilla a la vez; ambos leen el mismo recurso
+    Resource resource = resourceLoader.getResource(id.getLocation());
+    long lastModified = lastModified(resource);
+    CompiledReport loaded =
+        new CompiledReport(loadReport(resourceLoader, id.getLocation()), resource, lastModified);
+    synchronized (this) {
+      compiledReports.put(id, loaded);
+    }
+    return loaded;
+  }
+
+  /** Reads a compiled report without caching it. */
+  static JasperReport loadReport(ResourceLoader resourceLoader, String location)
+      throws ReportErrorException {
+    try (InputStream resourceStream = resourceLoader.getResource(location).getInputStream()) {
+      JasperReport jasperReport = (JasperReport) JRLoader.loadObject(resourceStream);
+      log.info("Jasper report loaded successfully: {}", jasperReport.getName());
+      return jasperReport;
+    } catch (IOException ex) {
+      throw new ReportErrorException("Error loading resource: " + ex.getMessage(), ex);
+    } catch (JRException ex) {
+      throw new ReportErrorException("Error compiling report: " + ex.getMessage(), ex);
+    }
+  }
+
+  /** Modification time of a resource, or 0 when it cannot be known (e.g. inside a jar). */
+  private static long lastModified(Resource resource) {
+    try {
+      return resource.lastModified();
+    } catch (IOException ex) {
+      return 0L;
+    }
+  }
+
+  private record CompiledReport(JasperReport report, Resource resource, long lastModified) {
+
+    boolean isStale() {
+      return ReportRegistry.lastModified(resource) != lastModified;
+    }
+  }
+}
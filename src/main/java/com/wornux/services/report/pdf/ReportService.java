@@ -1,8 +1,13 @@
 package com.wornux.services.report.pdf;
 
+import java.io.OutputStream;
+
 public interface ReportService<T> {
 
   byte[] execute() throws ReportErrorException;
 
+  /** Renders the report straight into {@code outputStream}, without buffering the whole PDF. */
+  void execute(OutputStream outputStream) throws ReportErrorException;
+
   T put(String key, Object value);
 }
@@ -2,7 +2,7 @@ package com.wornux.services.report.pdf;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -12,24 +12,27 @@ import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import net.sf.jasperreports.engine.*;
 import net.sf.jasperreports.engine.data.JRBeanCollectionDataSource;
-import net.sf.jasperreports.engine.util.JRLoader;
 import org.springframework.core.io.ResourceLoader;
 
 /**
  * Servicio para generar reportes PDF usando JasperReports. Implementa el patrón Builder para
  * configuración fluida.
+ *
+ * <p>Built by {@link JasperReportFactory} it uses the factory's cached compiled report and
+ * rendering pool; built on its own it loads and fills the report on every call.
  */
 @Slf4j
 @Builder
 public class ReportServiceDatabase implements ReportService<ReportServiceDatabase> {
 
-  private static final String REPORT_PATH = "classpath:./reports/Invoice.jasper";
-
   private final Map<String, Object> parameters = new HashMap<>();
   private ResourceLoader resourceLoader;
   private String version;
+  private JasperReportFactory reportFactory;
+  @Builder.Default private ReportId reportId = ReportId.INVOICE;
 
   @Setter private List<Map<String, Object>> productsData;
+  private JRDataSource dataSource;
 
   @Override
   public ReportServiceDatabase put(String key, Object value) {
@@ -37,6 +40,29 @@ public class ReportServiceDatabase implements ReportService<ReportServiceDatabas
     return this;
   }
 
+  /**
+   * Configura las filas del reporte.
+   *
+   * @param rows Lista de Maps con los campos de cada fila
+   * @return this para encadenamiento fluido
+   */
+  public ReportServiceDatabase withData(List<Map<String, Object>> rows) {
+    return withProductsData(rows);
+  }
+
+  /**
+   * Configura una fuente de datos que entrega las filas a medida que se llena el reporte, en lugar
+   * de una lista en memoria. El reporte se llena en el hilo que llama a {@code execute}, de modo
+   * que la fuente puede leer de un cursor abierto en su transacción.
+   *
+   * @param dataSource Fuente de datos del detalle
+   * @return this para encadenamiento fluido
+   */
+  public ReportServiceDatabase withDataSource(JRDataSource dataSource) {
+    this.dataSource = dataSource;
+    return this;
+  }
+
   /**
    * Configura los datos de productos para el reporte.
    *
@@ -50,9 +76,22 @@ public class ReportServiceDatabase implements ReportService<ReportServiceDatabas
 
   @Override
   public byte[] execute() throws ReportErrorException {
+    try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
+      execute(outputStream);
+      byte[] pdfBytes = outputStream.toByteArray();
+      validateGeneratedPdf(pdfBytes);
+      return pdfBytes;
+    } catch (IOException ex) {
+      throw new ReportErrorException("Failed to generate report: " + ex.getMessage(), ex);
+    }
+  }
+
+  @Override
+  public void execute(OutputStream outputStream) throws ReportErrorException {
     try {
       JasperReport jasperReport = loadJasperReport();
-      return generatePdfReport(jasperReport);
+      JasperPrint jasperPrint = fillReportWithData(jasperReport);
+      JasperExportManager.exportReportToPdfStream(jasperPrint, outputStream);
     } catch (ReportErrorException ex) {
       throw ex;
     } catch (Exception ex) {
@@ -62,44 +101,30 @@ public class ReportServiceDatabase implements ReportService<ReportServiceDatabas
   }
 
   private JasperReport loadJasperReport() throws ReportErrorException {
-    try (InputStream resourceStream = loadResourceStream()) {
-      JasperReport jasperReport = (JasperReport) JRLoader.loadObject(resourceStream);
-      log.info("Jasper report loaded successfully: {}", jasperReport.getName());
-      return jasperReport;
-    } catch (IOException ex) {
-      throw new ReportErrorException("Error loading resource: " + ex.getMessage(), ex);
-    } catch (JRException ex) {
-      throw new ReportErrorException("Error compiling report: " + ex.getMessage(), ex);
-    }
+    return reportFactory != null
+        ? reportFactory.getCompiledReport(reportId)
+        : ReportRegistry.loadReport(resourceLoader, reportId.getLocation());
   }
 
-  private InputStream loadResourceStream() throws IOException {
-    return resourceLoader.getResource(REPORT_PATH).getInputStream();
-  }
-
-  private byte[] generatePdfReport(JasperReport jasperReport) throws ReportErrorException {
-    try {
-      JasperPrint jasperPrint = fillReportWithData(jasperReport);
-      byte[] pdfBytes = exportReportToPdf(jasperPrint);
-      validateGeneratedPdf(pdfBytes);
-      return pdfBytes;
-    } catch (Exception ex) {
-      throw new ReportErrorException("Error generating PDF: " + ex.getMessage(), ex);
+  private JasperPrint fillReportWithData(JasperReport jasperReport) throws JRException {
+    if (dataSource != null) {
+      log.info("Filling report from a streaming data source");
+      return reportFactory != null
+          ? reportFactory.fillOnCallerThread(jasperReport, parameters, dataSource)
+          : JasperFillManager.fillReport(jasperReport, parameters, dataSource);
     }
-  }
 
-  private JasperPrint fillReportWithData(JasperReport jasperReport) throws JRException {
     if (productsData != null) {
       log.info("Filling report with {} total items", productsData.size());
     } else {
       log.warn("No data provided, filling report with empty dataset");
     }
 
-    JRBeanCollectionDataSource dataSource =
+    JRBeanCollectionDataSource collectionDataSource =
         new JRBeanCollectionDataSource(productsData != null ? productsData : new ArrayList<>());
-    parameters.put("productsDataSource", dataSource);
+    parameters.put("productsDataSource", collectionDataSource);
 
-    JasperPrint jasperPrint = JasperFillManager.fillReport(jasperReport, parameters, dataSource);
+    JasperPrint jasperPrint = fill(jasperReport, collectionDataSource);
 
     log.info(
         "Report filled successfully with {} parameters and {} total items",
@@ -109,11 +134,10 @@ public class ReportServiceDatabase implements ReportService<ReportServiceDatabas
     return jasperPrint;
   }
 
-  private byte[] exportReportToPdf(JasperPrint jasperPrint) throws IOException, JRException {
-    try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
-      JasperExportManager.exportReportToPdfStream(jasperPrint, outputStream);
-      return outputStream.toByteArray();
-    }
+  private JasperPrint fill(JasperReport jasperReport, JRDataSource source) throws JRException {
+    return reportFactory != null
+        ? reportFactory.fill(jasperReport, parameters, source)
+        : JasperFillManager.fillReport(jasperReport, parameters, source);
   }
 
   private void validateGeneratedPdf(byte[] pdfBytes) throws ReportErrorException {
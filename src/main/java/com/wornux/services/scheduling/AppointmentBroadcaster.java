@@ -0,0 +1,105 @@
+package com.wornux.services.scheduling;
+
+import com.vaadin.flow.shared.Registration;
+import com.wornux.dto.response.AppointmentResponseDto;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fans committed appointment changes out to every open calendar.
+ *
+ * <p>Changes are offered by the {@link AppointmentIndex} once it has applied them, with the
+ * appointment as it was read after the commit. As in the waiting room, each subscriber buffers the
+ * changes of the debounce window, keeps only the latest state of each appointment and receives them
+ * as one batch.
+ */
+@Slf4j
+@Component
+public class AppointmentBroadcaster {
+
+  private final Duration debounce;
+  private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+  private final ScheduledExecutorService scheduler =
+      Executors.newSingleThreadScheduledExecutor(
+          Thread.ofPlatform().name("appointment-broadcaster").daemon().factory());
+
+  public AppointmentBroadcaster(
+      @Value("${application.scheduling.push-debounce:200ms}") Duration debounce) {
+    this.debounce = debounce;
+  }
+
+  /**
+   * Subscribes to appointment changes. The listener is invoked from a background thread, so UI code
+   * must wrap its work in {@code UI.access}.
+   *
+   * @param listener receives each coalesced batch of changes.
+   * @return a registration to remove the subscription, typically on detach.
+   */
+  public Registration register(Consumer<List<Change>> listener) {
+    Subscription subscription = new Subscription(listener);
+    subscriptions.add(subscription);
+    return () -> subscriptions.remove(subscription);
+  }
+
+  void offer(Long appointmentId, AppointmentResponseDto appointment) {
+    Change change = new Change(appointmentId, appointment);
+    subscriptions.forEach(subscription -> subscription.offer(change));
+  }
+
+  @PreDestroy
+  void shutdown() {
+    scheduler.shutdownNow();
+  }
+
+  /**
+   * A changed appointment.
+   *
+   * @param appointment The appointment after the change, or {@code null} if it no longer exists
+   */
+  public record Change(Long appointmentId, AppointmentResponseDto appointment) {}
+
+  private final class Subscription {
+
+    private final Consumer<List<Change>> listener;
+    private final Map<Long, Change> pending = new LinkedHashMap<>();
+    private boolean scheduled;
+
+    private Subscription(Consumer<List<Change>> listener) {
+      this.listener = listener;
+    }
+
+    synchronized void offer(Change change) {
+      pending.put(change.appointmentId(), change);
+      if (!scheduled) {
+        scheduled = true;
+        scheduler.schedule(this::flush, debounce.toMillis(), TimeUnit.MILLISECONDS);
+      }
+    }
+
+    private void flush() {
+      List<Change> batch;
+      synchronized (this) {
+        batch = List.copyOf(pending.values());
+        pending.clear();
+        scheduled = false;
+      }
+      try {
+        listener.accept(batch);
+      } catch (Exception e) {
+        log.warn("Could not push {} appointment changes: {}", batch.size(), e.getMessage());
+      }
+    }
+  }
+}
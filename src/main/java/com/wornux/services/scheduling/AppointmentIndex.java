@@ -0,0 +1,481 @@
+package com.wornux.services.scheduling;
+
+import com.wornux.data.entity.Appointment;
+import com.wornux.data.entity.RecurrenceException;
+import com.wornux.data.enums.AppointmentStatus;
+import com.wornux.data.repository.AppointmentRepository;
+import com.wornux.data.repository.AppointmentRepository.AppointmentRow;
+import com.wornux.dto.response.AppointmentResponseDto;
+import com.wornux.mapper.AppointmentMapper;
+import com.wornux.services.events.AppointmentChangedEvent;
+import com.wornux.services.scheduling.AppointmentSeries.Occurrence;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * In-memory index of the appointments around today, in one {@link IntervalTree} per assigned
+ * employee plus one over all of them.
+ *
+ * <p>The index covers a rolling window of {@code application.scheduling.index-past-days} before and
+ * {@code index-future-days} after today. It is loaded at startup and every night, and kept current
+ * by the {@link AppointmentChangedEvent}s published after each committed write, each of which
+ * reloads only that appointment. Loads and reloads run one at a time, so the last one to run always
+ * read the latest state; readers share a read lock and never wait on the database. Calendar ranges
+ * and conflict checks inside the window are answered from memory; outside it they go to the
+ * database with the same overlap semantics. An appointment overlaps {@code [from, to)} when it
+ * starts before {@code to} and ends after {@code from}, so long appointments that began before a
+ * calendar view are included. Each applied change is then handed to the {@link
+ * AppointmentBroadcaster} for the open calendars.
+ *
+ * <p>Recurring appointments are expanded with {@link AppointmentSeries} into their occurrences
+ * within the window, each indexed under the series id at its own start, so conflict checks and free
+ * slot searches see them as any other appointment. Queries outside the window expand only the
+ * series that may reach it, and only for the requested range.
+ *
+ * <p>Appointments are read as {@link AppointmentRow} projections rather than entities, so a load, a
+ * reload or a range outside the window is a single statement whatever it holds.
+ */
+@Slf4j
+@Component
+public class AppointmentIndex {
+
+  /** Statuses in which an appointment takes its employee's time. */
+  public static final Set<AppointmentStatus> BLOCKING_STATUSES =
+      EnumSet.of(AppointmentStatus.PROGRAMADA, AppointmentStatus.EN_PROGRESO);
+
+  private static final long UNASSIGNED = 0L;
+
+  private final AppointmentRepository repository;
+  private final AppointmentMapper mapper;
+  private final AppointmentBroadcaster broadcaster;
+  private final int pastDays;
+  private final int futureDays;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  // protegidos por lock
+  private final IntervalTree<IndexedAppointment> all = new IntervalTree<>();
+  private final Map<Long, IntervalTree<IndexedAppointment>> byEmployee = new HashMap<>();
+  // una entrada por cita suelta, una por ocurrencia de las series
+  private final Map<Long, List<IndexedAppointment>> byId = new HashMap<>();
+  private LocalDateTime windowStart = LocalDateTime.MAX;
+  private LocalDateTime windowEnd = LocalDateTime.MIN;
+
+  public AppointmentIndex(
+      AppointmentRepository repository,
+      AppointmentMapper mapper,
+      AppointmentBroadcaster broadcaster,
+      MeterRegistry meterRegistry,
+      @Value("${application.scheduling.index-past-days:31}") int pastDays,
+      @Value("${application.scheduling.index-future-days:186}") int futureDays) {
+    this.repository = repository;
+    this.mapper = mapper;
+    this.broadcaster = broadcaster;
+    this.pastDays = pastDays;
+    this.futureDays = futureDays;
+    Gauge.builder("scheduling.index.appointments", this, AppointmentIndex::size)
+        .description("Appointments held by the in-memory appointment index")
+        .register(meterRegistry);
+  }
+
+  /** Loads the window around today. Runs at startup and every night, to move the window. */
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(cron = "${application.scheduling.index-reload-cron:0 0 1 * * *}")
+  @Transactional(readOnly = true)
+  public synchronized void load() {
+    LocalDate today = LocalDate.now();
+    LocalDateTime start = today.minusDays(pastDays).atStartOfDay();
+    LocalDateTime end = today.plusDays(futureDays + 1L).atStartOfDay();
+    List<IndexedAppointment> loaded =
+        fromRows(repository.findRowsOverlapping(start, end), start, end);
+
+    lock.writeLock().lock();
+    try {
+      all.clear();
+      byEmployee.clear();
+      byId.clear();
+      windowStart = start;
+      windowEnd = end;
+      loaded.forEach(this::add);
+    } finally {
+      lock.writeLock().unlock();
+    }
+    log.info("Appointment index loaded {} appointments from {} to {}", loaded.size(), start, end);
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+  public synchronized void onAppointmentChanged(AppointmentChangedEvent event) {
+    List<AppointmentRow> rows =
+        event.changeType() == AppointmentChangedEvent.ChangeType.DELETED
+            ? List.of()
+            : repository.findRowsById(event.appointmentId());
+    AppointmentResponseDto appointment =
+        rows.isEmpty() ? null : mapper.toResponseDTO(rows.getFirst());
+    List<IndexedAppointment> indexed = fromRows(rows, windowStart, windowEnd);
+
+    lock.writeLock().lock();
+    try {
+      remove(event.appointmentId());
+      indexed.forEach(this::add);
+    } finally {
+      lock.writeLock().unlock();
+    }
+    broadcaster.offer(event.appointmentId(), appointment);
+  }
+
+  /** Appointments that overlap {@code [from, to)}, in start order. */
+  public List<AppointmentResponseDto> findOverlapping(LocalDateTime from, LocalDateTime to) {
+    lock.readLock().lock();
+    try {
+      if (covers(from, to)) {
+        return all.overlapping(epoch(from), epoch(to)).stream()
+            .map(IndexedAppointment::appointment)
+            .toList();
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    return readOverlapping(from, to).stream().map(IndexedAppointment::appointment).toList();
+  }
+
+  /**
+   * Appointments of an employee that take the time {@code [from, to)}, ignoring {@code excludedId}
+   * (the appointment being moved), in start order.
+   */
+  public List<Long> findConflicts(
+      Long employeeId, LocalDateTime from, LocalDateTime to, Long excludedId) {
+    if (employeeId == null) {
+      return List.of();
+    }
+    long excluded = excludedId != null ? excludedId : -1L;
+    lock.readLock().lock();
+    try {
+      if (covers(from, to)) {
+        IntervalTree<IndexedAppointment> tree = byEmployee.get(employeeId);
+        return tree == null
+            ? List.of()
+            : tree.overlapping(epoch(from), epoch(to)).stream()
+                .filter(a -> a.id() != excluded && BLOCKING_STATUSES.contains(a.status()))
+                .map(IndexedAppointment::id)
+                .toList();
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    return findConflictsInDatabase(employeeId, from, to, excludedId);
+  }
+
+  /**
+   * {@link #findConflicts} read from the database instead of the index. The index only sees
+   * committed changes, so saves re-check here while holding the employee's schedule lock.
+   */
+  public List<Long> findConflictsInDatabase(
+      Long employeeId, LocalDateTime from, LocalDateTime to, Long excludedId) {
+    if (employeeId == null) {
+      return List.of();
+    }
+    long excluded = excludedId != null ? excludedId : -1L;
+    List<Long> conflicts =
+        new ArrayList<>(
+            repository.findEmployeeOverlaps(employeeId, from, to, BLOCKING_STATUSES, excluded));
+    for (Appointment series :
+        repository.findEmployeeSeriesOverlapping(
+            employeeId, from, to, BLOCKING_STATUSES, excluded)) {
+      if (!AppointmentSeries.occurrences(series, from, to).isEmpty()) {
+        conflicts.add(series.getId());
+      }
+    }
+    return conflicts;
+  }
+
+  /**
+   * The first of the given occurrences of a series (in start order) that takes time its employee
+   * already gave to another appointment, ignoring {@code excludedId} (the series itself).
+   * Occurrences inside the window are checked in memory; the rest against a single read of the
+   * employee's appointments over their span.
+   */
+  public Optional<Occurrence> findFirstConflict(
+      Long employeeId, List<Occurrence> occurrences, Long excludedId) {
+    if (employeeId == null || occurrences.isEmpty()) {
+      return Optional.empty();
+    }
+    long excluded = excludedId != null ? excludedId : -1L;
+    List<Occurrence> outside = new ArrayList<>();
+    lock.readLock().lock();
+    try {
+      IntervalTree<IndexedAppointment> tree = byEmployee.get(employeeId);
+      for (Occurrence occurrence : occurrences) {
+        if (!covers(occurrence.start(), occurrence.end())) {
+          outside.add(occurrence);
+        } else if (tree != null
+            && tree.anyOverlapping(
+                epoch(occurrence.start()),
+                epoch(occurrence.end()),
+                a -> a.id() != excluded && BLOCKING_STATUSES.contains(a.status()))) {
+          return Optional.of(occurrence);
+        }
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    return findFirstConflictInDatabase(employeeId, outside, excludedId);
+  }
+
+  /**
+   * {@link #findFirstConflict} read from the database instead of the index, with a single read of
+   * the employee's appointments over the span of the occurrences. Saves re-check here while holding
+   * the employee's schedule lock.
+   */
+  public Optional<Occurrence> findFirstConflictInDatabase(
+      Long employeeId, List<Occurrence> occurrences, Long excludedId) {
+    if (employeeId == null || occurrences.isEmpty()) {
+      return Optional.empty();
+    }
+    long excluded = excludedId != null ? excludedId : -1L;
+    LocalDateTime from = occurrences.getFirst().start();
+    LocalDateTime to =
+        occurrences.stream().map(Occurrence::end).max(Comparator.naturalOrder()).get();
+    IntervalTree<Long> busy = new IntervalTree<>();
+    for (Appointment appointment :
+        repository.findEmployeeAppointmentsOverlapping(
+            employeeId, from, to, BLOCKING_STATUSES, excluded)) {
+      insert(
+          busy,
+          appointment.getId(),
+          appointment.getStartAppointmentDate(),
+          appointment.getEndAppointmentDate());
+    }
+    for (Appointment series :
+        repository.findEmployeeSeriesOverlapping(
+            employeeId, from, to, BLOCKING_STATUSES, excluded)) {
+      AppointmentSeries.occurrences(series, from, to)
+          .forEach(o -> insert(busy, series.getId(), o.start(), o.end()));
+    }
+    return occurrences.stream()
+        .filter(o -> busy.anyOverlapping(epoch(o.start()), epoch(o.end()), appointment -> true))
+        .findFirst();
+  }
+
+  /**
+   * Appointments that take the time of each of the given employees within {@code [from, to)}, by
+   * employee, in start order. Employees without any are left out.
+   */
+  public Map<Long, List<IndexedAppointment>> findBusy(
+      Collection<Long> employeeIds, LocalDateTime from, LocalDateTime to) {
+    Map<Long, List<IndexedAppointment>> busy = new HashMap<>();
+    lock.readLock().lock();
+    try {
+      if (covers(from, to)) {
+        for (Long employeeId : employeeIds) {
+          IntervalTree<IndexedAppointment> tree = byEmployee.get(employeeId);
+          if (tree != null) {
+            tree.forEachOverlapping(
+                epoch(from),
+                epoch(to),
+                a -> {
+                  if (BLOCKING_STATUSES.contains(a.status())) {
+                    busy.computeIfAbsent(employeeId, k -> new ArrayList<>()).add(a);
+                  }
+                });
+          }
+        }
+        return busy;
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    readOverlapping(from, to).stream()
+        .filter(
+            a ->
+                a.employeeId() != null
+                    && employeeIds.contains(a.employeeId())
+                    && BLOCKING_STATUSES.contains(a.status()))
+        .forEach(a -> busy.computeIfAbsent(a.employeeId(), k -> new ArrayList<>()).add(a));
+    return busy;
+  }
+
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return byId.values().stream().mapToInt(List::size).sum();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private boolean covers(LocalDateTime from, LocalDateTime to) {
+    return !from.isBefore(windowStart) && !to.isAfter(windowEnd);
+  }
+
+  /**
+   * Single appointments and occurrences of series that overlap {@code [from, to)}, in order, read
+   * in a single statement.
+   */
+  private List<IndexedAppointment> readOverlapping(LocalDateTime from, LocalDateTime to) {
+    return fromRows(repository.findRowsOverlapping(from, to), from, to);
+  }
+
+  /**
+   * The single appointments and occurrences of series in {@code [from, to)} that the rows of {@link
+   * AppointmentRepository#findRowsOverlapping} hold, in start order. The rows of a series, one per
+   * exception, come one after the other.
+   */
+  private List<IndexedAppointment> fromRows(
+      List<AppointmentRow> rows, LocalDateTime from, LocalDateTime to) {
+    List<IndexedAppointment> appointments = new ArrayList<>(rows.size());
+    boolean expanded = false;
+    int i = 0;
+    while (i < rows.size()) {
+      AppointmentRow row = rows.get(i++);
+      if (row.getRecurrenceRule() == null) {
+        IndexedAppointment single =
+            new IndexedAppointment(
+                row.getEventId(),
+                row.getEmployeeId(),
+                row.getStartAppointmentDate(),
+                row.getEndAppointmentDate(),
+                row.getStatus(),
+                mapper.toResponseDTO(row));
+        if (single.overlaps(from, to)) {
+          appointments.add(single);
+        }
+        continue;
+      }
+      List<RecurrenceException> exceptions = new ArrayList<>();
+      addException(row, exceptions);
+      while (i < rows.size() && rows.get(i).getEventId().equals(row.getEventId())) {
+        addException(rows.get(i++), exceptions);
+      }
+      appointments.addAll(expand(row, exceptions, from, to));
+      expanded = true;
+    }
+    if (expanded) {
+      appointments.sort(
+          Comparator.comparing(IndexedAppointment::start).thenComparing(IndexedAppointment::id));
+    }
+    return appointments;
+  }
+
+  private void add(IndexedAppointment appointment) {
+    long start = epoch(appointment.start());
+    long end = Math.max(start, epoch(appointment.end()));
+    all.insert(appointment.id(), start, end, appointment);
+    byEmployee
+        .computeIfAbsent(appointment.employeeKey(), k -> new IntervalTree<>())
+        .insert(appointment.id(), start, end, appointment);
+    byId.computeIfAbsent(appointment.id(), k -> new ArrayList<>(1)).add(appointment);
+  }
+
+  private void remove(Long id) {
+    List<IndexedAppointment> previous = byId.remove(id);
+    if (previous == null) {
+      return;
+    }
+    for (IndexedAppointment appointment : previous) {
+      long start = epoch(appointment.start());
+      all.remove(id, start);
+      IntervalTree<IndexedAppointment> tree = byEmployee.get(appointment.employeeKey());
+      if (tree != null && tree.remove(id, start) && tree.isEmpty()) {
+        byEmployee.remove(appointment.employeeKey());
+      }
+    }
+  }
+
+  /** The occurrences of a series that overlap {@code [from, to)}, each with its own copy. */
+  private List<IndexedAppointment> expand(
+      AppointmentRow series,
+      List<RecurrenceException> exceptions,
+      LocalDateTime from,
+      LocalDateTime to) {
+    List<Occurrence> occurrences =
+        AppointmentSeries.occurrences(
+            series.getRecurrenceRule(),
+            series.getStartAppointmentDate(),
+            series.getEndAppointmentDate(),
+            exceptions,
+            from,
+            to);
+    if (occurrences.isEmpty()) {
+      return List.of();
+    }
+    AppointmentResponseDto template = mapper.toResponseDTO(series);
+    List<IndexedAppointment> expanded = new ArrayList<>(occurrences.size());
+    for (Occurrence occurrence : occurrences) {
+      AppointmentResponseDto dto = mapper.copy(template);
+      dto.setStartAppointmentDate(occurrence.start());
+      dto.setEndAppointmentDate(occurrence.end());
+      dto.setOccurrenceStart(occurrence.originalStart());
+      expanded.add(
+          new IndexedAppointment(
+              series.getEventId(),
+              series.getEmployeeId(),
+              occurrence.start(),
+              occurrence.end(),
+              series.getStatus(),
+              dto));
+    }
+    return expanded;
+  }
+
+  private static void addException(AppointmentRow row, List<RecurrenceException> exceptions) {
+    RecurrenceException exception = row.getRecurrenceException();
+    if (exception != null) {
+      exceptions.add(exception);
+    }
+  }
+
+  private static void insert(
+      IntervalTree<Long> tree, long id, LocalDateTime start, LocalDateTime end) {
+    long from = epoch(start);
+    tree.insert(id, from, Math.max(from, epoch(end)), id);
+  }
+
+  private static long epoch(LocalDateTime dateTime) {
+    return dateTime.toEpochSecond(ZoneOffset.UTC);
+  }
+
+  /**
+   * An indexed appointment, or an occurrence of a recurring one under the id of its series.
+   *
+   * @param appointment The appointment as the calendar shows it; shared, not to be modified
+   */
+  public record IndexedAppointment(
+      long id,
+      Long employeeId,
+      LocalDateTime start,
+      LocalDateTime end,
+      AppointmentStatus status,
+      AppointmentResponseDto appointment) {
+
+    long employeeKey() {
+      return employeeId != null ? employeeId : UNASSIGNED;
+    }
+
+    boolean overlaps(LocalDateTime from, LocalDateTime to) {
+      return start.isBefore(to) && end.isAfter(from);
+    }
+  }
+}
@@ -0,0 +1,173 @@
+package com.wornux.services.scheduling;
+
+import com.wornux.data.entity.Appointment;
+import com.wornux.data.entity.RecurrenceException;
+import com.wornux.exception.InvalidRecurrenceRuleException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Expands recurring appointments into their occurrences, one window at a time.
+ *
+ * <p>A series is a single {@code appointments} row: its start and end are those of the first
+ * occurrence, {@link Appointment#getRecurrenceRule()} gives the rest and its {@link
+ * RecurrenceException}s cancel or move single occurrences. Nothing is stored per occurrence, so
+ * range reads stay as cheap as the number of series, not of their occurrences.
+ */
+public final class AppointmentSeries {
+
+  private AppointmentSeries() {}
+
+  /**
+   * An occurrence of a series.
+   *
+   * @param originalStart The start the rule gives it, which identifies it within the series
+   * @param start The start after any exception
+   * @param end The end after any exception
+   */
+  public record Occurrence(LocalDateTime originalStart, LocalDateTime start, LocalDateTime end) {
+
+    public boolean isRescheduled() {
+      return !originalStart.equals(start);
+    }
+  }
+
+  /**
+   * Occurrences of a series that overlap {@code [from, to)}, in start order. Cancelled occurrences
+   * are left out and moved ones appear at their new times.
+   */
+  public static List<Occurrence> occurrences(
+      Appointment series, LocalDateTime from, LocalDateTime to) {
+    return occurrences(
+        series.getRecurrenceRule(),
+        series.getStartAppointmentDate(),
+        series.getEndAppointmentDate(),
+        exceptionsOf(series),
+        from,
+        to);
+  }
+
+  /**
+   * Occurrences that overlap {@code [from, to)} of a series given by its rule, the times of its
+   * first occurrence and its exceptions, as {@link #occurrences(Appointment, LocalDateTime,
+   * LocalDateTime)} does for a loaded series.
+   */
+  public static List<Occurrence> occurrences(
+      String recurrenceRule,
+      LocalDateTime seriesStart,
+      LocalDateTime seriesEnd,
+      Collection<RecurrenceException> seriesExceptions,
+      LocalDateTime from,
+      LocalDateTime to) {
+    RecurrenceRule rule = RecurrenceRule.parse(recurrenceRule);
+    Duration length = length(seriesStart, seriesEnd);
+
+    Map<LocalDateTime, RecurrenceException> exceptions = new HashMap<>();
+    seriesExceptions.forEach(e -> exceptions.put(e.getOriginalStart(), e));
+
+    List<Occurrence> occurrences = new ArrayList<>();
+    for (LocalDateTime start : rule.startsBetween(seriesStart, from.minus(length), to)) {
+      RecurrenceException exception = exceptions.remove(start);
+      if (exception == null) {
+        Occurrence occurrence = new Occurrence(start, start, start.plus(length));
+        if (overlaps(occurrence, from, to)) {
+          occurrences.add(occurrence);
+        }
+      } else {
+        add(exception, from, to, occurrences);
+      }
+    }
+    // las movidas desde fuera de la ventana
+    for (RecurrenceException exception : exceptions.values()) {
+      if (exception.isRescheduled()
+          && isOccurrence(rule, seriesStart, exception.getOriginalStart())) {
+        add(exception, from, to, occurrences);
+      }
+    }
+    occurrences.sort(Comparator.comparing(Occurrence::start));
+    return occurrences;
+  }
+
+  /** Whether {@code originalStart} is the start the rule gives one of the occurrences. */
+  public static boolean isOccurrence(Appointment series, LocalDateTime originalStart) {
+    return isOccurrence(
+        RecurrenceRule.parse(series.getRecurrenceRule()),
+        series.getStartAppointmentDate(),
+        originalStart);
+  }
+
+  /**
+   * Validates the rule of a series against its start and works out where it ends, taking moved
+   * occurrences into account.
+   *
+   * @return The end of its last occurrence, or {@code null} if it never ends
+   * @throws InvalidRecurrenceRuleException if the rule cannot be read or the start does not match
+   *     it
+   */
+  public static LocalDateTime seriesEnd(Appointment series) {
+    RecurrenceRule rule = RecurrenceRule.parse(series.getRecurrenceRule());
+    if (!rule.matchesStart(series.getStartAppointmentDate())) {
+      throw new InvalidRecurrenceRuleException(
+          "La fecha de inicio debe coincidir con los días de la regla de repetición");
+    }
+    LocalDateTime lastStart = rule.lastStart(series.getStartAppointmentDate());
+    if (lastStart == null) {
+      return null;
+    }
+    LocalDateTime end =
+        lastStart.plus(length(series.getStartAppointmentDate(), series.getEndAppointmentDate()));
+    for (RecurrenceException exception : exceptionsOf(series)) {
+      if (exception.isRescheduled() && exception.getEndAppointmentDate().isAfter(end)) {
+        end = exception.getEndAppointmentDate();
+      }
+    }
+    return end;
+  }
+
+  private static boolean isOccurrence(
+      RecurrenceRule rule, LocalDateTime seriesStart, LocalDateTime originalStart) {
+    if (originalStart.isBefore(seriesStart)) {
+      return false;
+    }
+    List<LocalDateTime> starts =
+        rule.startsBetween(seriesStart, originalStart, originalStart.plusSeconds(1));
+    return !starts.isEmpty() && starts.getFirst().equals(originalStart);
+  }
+
+  private static void add(
+      RecurrenceException exception,
+      LocalDateTime from,
+      LocalDateTime to,
+      List<Occurrence> occurrences) {
+    if (!exception.isRescheduled()) {
+      return;
+    }
+    Occurrence occurrence =
+        new Occurrence(
+            exception.getOriginalStart(),
+            exception.getStartAppointmentDate(),
+            exception.getEndAppointmentDate());
+    if (overlaps(occurrence, from, to)) {
+      occurrences.add(occurrence);
+    }
+  }
+
+  private static boolean overlaps(Occurrence occurrence, LocalDateTime from, LocalDateTime to) {
+    return occurrence.start().isBefore(to) && occurrence.end().isAfter(from);
+  }
+
+  private static List<RecurrenceException> exceptionsOf(Appointment series) {
+    return series.getRecurrenceExceptions() != null ? series.getRecurrenceExceptions() : List.of();
+  }
+
+  private static Duration length(LocalDateTime start, LocalDateTime end) {
+    Duration length = Duration.between(start, end);
+    return length.isNegative() ? Duration.ZERO : length;
+  }
+}
@@ -0,0 +1,225 @@
+package com.wornux.services.scheduling;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Half-open intervals {@code [start, end)} with a value each, in an AVL tree ordered by start and
+ * augmented with the greatest end of every subtree.
+ *
+ * <p>Inserts and removals are O(log n). An overlap query walks only the subtrees whose greatest end
+ * lies after the query start and stops at the first start past the query end, so it touches O(log
+ * n) nodes plus the k results (O(k log n) at worst), which come back in start order. Intervals are
+ * identified by an id, so several can share a start. Not thread-safe.
+ *
+ * @param <T> value kept with each interval
+ */
+public final class IntervalTree<T> {
+
+  private Node<T> root;
+  private int size;
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Adds an interval. The caller removes any previous interval with the same id first.
+   *
+   * @throws IllegalArgumentException if {@code end} is before {@code start}.
+   */
+  public void insert(long id, long start, long end, T value) {
+    if (end < start) {
+      throw new IllegalArgumentException("Interval ends before it starts: " + start + ", " + end);
+    }
+    root = insert(root, new Node<>(id, start, end, value));
+    size++;
+  }
+
+  /**
+   * Removes the interval with the given id and start.
+   *
+   * @return whether it was found.
+   */
+  public boolean remove(long id, long start) {
+    int before = size;
+    root = remove(root, id, start);
+    return size < before;
+  }
+
+  public void clear() {
+    root = null;
+    size = 0;
+  }
+
+  /** Values of the intervals that overlap {@code [from, to)}, in start order. */
+  public List<T> overlapping(long from, long to) {
+    List<T> values = new ArrayList<>();
+    forEachOverlapping(from, to, values::add);
+    return values;
+  }
+
+  /** Visits the values of the intervals that overlap {@code [from, to)}, in start order. */
+  public void forEachOverlapping(long from, long to, Consumer<? super T> action) {
+    visit(
+        root,
+        from,
+        to,
+        value -> {
+          action.accept(value);
+          return true;
+        });
+  }
+
+  /** Whether an interval overlapping {@code [from, to)} has a value accepted by {@code filter}. */
+  public boolean anyOverlapping(long from, long to, Predicate<? super T> filter) {
+    return !visit(root, from, to, value -> !filter.test(value));
+  }
+
+  /**
+   * Visits in order while {@code action} returns {@code true}; returns whether it never stopped.
+   */
+  private static <T> boolean visit(Node<T> node, long from, long to, Predicate<? super T> action) {
+    if (node == null || node.maxEnd <= from) {
+      return true;
+    }
+    if (!visit(node.left, from, to, action)) {
+      return false;
+    }
+    if (node.start >= to) {
+      // todo el subárbol derecho empieza aún más tarde
+      return true;
+    }
+    if (node.end > from && !action.test(node.value)) {
+      return false;
+    }
+    return visit(node.right, from, to, action);
+  }
+
+  private Node<T> insert(Node<T> node, Node<T> added) {
+    if (node == null) {
+      return added;
+    }
+    if (compare(added.start, added.id, node) < 0) {
+      node.left = insert(node.left, added);
+    } else {
+      node.right = insert(node.right, added);
+    }
+    return rebalance(node);
+  }
+
+  private Node<T> remove(Node<T> node, long id, long start) {
+    if (node == null) {
+      return null;
+    }
+    int order = compare(start, id, node);
+    if (order < 0) {
+      node.left = remove(node.left, id, start);
+    } else if (order > 0) {
+      node.right = remove(node.right, id, start);
+    } else {
+      size--;
+      if (node.left == null || node.right == null) {
+        return node.left != null ? node.left : node.right;
+      }
+      Node<T> successor = node.right;
+      while (successor.left != null) {
+        successor = successor.left;
+      }
+      successor.right = removeMin(node.right);
+      successor.left = node.left;
+      return rebalance(successor);
+    }
+    return rebalance(node);
+  }
+
+  private Node<T> removeMin(Node<T> node) {
+    if (node.left == null) {
+      return node.right;
+    }
+    node.left = removeMin(node.left);
+    return rebalance(node);
+  }
+
+  private static int compare(long start, long id, Node<?> node) {
+    int order = Long.compare(start, node.start);
+    return order != 0 ? order : Long.compare(id, node.id);
+  }
+
+  private static <T> Node<T> rebalance(Node<T> node) {
+    node.update();
+    int balance = height(node.left) - height(node.right);
+    if (balance > 1) {
+      if (height(node.left.left) < height(node.left.right)) {
+        node.left = rotateLeft(node.left);
+      }
+      return rotateRight(node);
+    }
+    if (balance < -1) {
+      if (height(node.right.right) < height(node.right.left)) {
+        node.right = rotateRight(node.right);
+      }
+      return rotateLeft(node);
+    }
+    return node;
+  }
+
+  private static <T> Node<T> rotateRight(Node<T> node) {
+    Node<T> pivot = node.left;
+    node.left = pivot.right;
+    pivot.right = node;
+    node.update();
+    pivot.update();
+    return pivot;
+  }
+
+  private static <T> Node<T> rotateLeft(Node<T> node) {
+    Node<T> pivot = node.right;
+    node.right = pivot.left;
+    pivot.left = node;
+    node.update();
+    pivot.update();
+    return pivot;
+  }
+
+  private static int height(Node<?> node) {
+    return node != null ? node.height : 0;
+  }
+
+  private static final class Node<T> {
+
+    private final long id;
+    private final long start;
+    private final long end;
+    private final T value;
+    private Node<T> left;
+    private Node<T> right;
+    private int height = 1;
+    private long maxEnd;
+
+    Node(long id, long start, long end, T value) {
+      this.id = id;
+      this.start = start;
+      this.end = end;
+      this.value = value;
+      this.maxEnd = end;
+    }
+
+    void update() {
+      height = 1 + Math.max(height(left), height(right));
+      maxEnd = end;
+      if (left != null && left.maxEnd > maxEnd) {
+        maxEnd = left.maxEnd;
+      }
+      if (right != null && right.maxEnd > maxEnd) {
+        maxEnd = right.maxEnd;
+      }
+    }
+  }
+}
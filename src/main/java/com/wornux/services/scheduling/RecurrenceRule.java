@@ -0,0 +1,327 @@
+package com.wornux.services.scheduling;
+
+import com.wornux.exception.InvalidRecurrenceRuleException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The subset of RFC 5545 {@code RRULE}s that appointment series use: {@code FREQ} of {@code DAILY},
+ * {@code WEEKLY} or {@code MONTHLY}, {@code INTERVAL}, {@code BYDAY} (weekly only), and at most one
+ * of {@code COUNT} or {@code UNTIL}, e.g. {@code FREQ=WEEKLY;BYDAY=MO,TH;COUNT=10}.
+ *
+ * <p>Occurrences are never enumerated from the start of the series: {@link #startsBetween} jumps to
+ * the period that contains {@code from} and only walks the requested window, so a years-old daily
+ * series costs the same as a new one. Monthly series on days 29 to 31 skip the months without that
+ * day, as RFC 5545 does. The first occurrence is the series start, which must match the rule.
+ * Immutable.
+ */
+public final class RecurrenceRule {
+
+  /** Longest series with a {@code COUNT}, and the most occurrences a single window returns. */
+  public static final int MAX_OCCURRENCES = 1000;
+
+  private static final DateTimeFormatter UNTIL_FORMAT =
+      DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+  private static final DateTimeFormatter UNTIL_DATE_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+
+  public enum Frequency {
+    DAILY,
+    WEEKLY,
+    MONTHLY
+  }
+
+  private final Frequency frequency;
+  private final int interval;
+  private final Set<DayOfWeek> days;
+  private final Integer count;
+  private final LocalDateTime until;
+
+  public RecurrenceRule(
+      Frequency frequency, int interval, Set<DayOfWeek> days, Integer count, LocalDateTime until) {
+    if (frequency == null) {
+      throw new InvalidRecurrenceRuleException("La regla de repetición necesita una frecuencia");
+    }
+    if (interval < 1 || interval > 99) {
+      throw new InvalidRecurrenceRuleException("El intervalo debe estar entre 1 y 99");
+    }
+    if (count != null && (count < 1 || count > MAX_OCCURRENCES)) {
+      throw new InvalidRecurrenceRuleException(
+          "El número de repeticiones debe estar entre 1 y " + MAX_OCCURRENCES);
+    }
+    if (count != null && until != null) {
+      throw new InvalidRecurrenceRuleException("Indique repeticiones o fecha final, no ambas");
+    }
+    if (days != null && !days.isEmpty() && frequency != Frequency.WEEKLY) {
+      throw new InvalidRecurrenceRuleException(
+          "Los días de la semana sólo aplican a reglas semanales");
+    }
+    this.frequency = frequency;
+    this.interval = interval;
+    this.days =
+        days == null || days.isEmpty() ? EnumSet.noneOf(DayOfWeek.class) : EnumSet.copyOf(days);
+    this.count = count;
+    this.until = until;
+  }
+
+  /**
+   * Parses a rule such as {@code FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,WE;UNTIL=20251231T235959}. An
+   * optional {@code RRULE:} prefix is accepted; {@code UNTIL} may also be a plain date, meaning the
+   * end of that day.
+   *
+   * @throws InvalidRecurrenceRuleException if the rule is outside the supported subset
+   */
+  public static RecurrenceRule parse(String rule) {
+    if (rule == null || rule.isBlank()) {
+      throw new InvalidRecurrenceRuleException("La regla de repetición está vacía");
+    }
+    String text = rule.trim().toUpperCase(Locale.ROOT);
+    if (text.startsWith("RRULE:")) {
+      text = text.substring("RRULE:".length());
+    }
+    Frequency frequency = null;
+    int interval = 1;
+    Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+    Integer count = null;
+    LocalDateTime until = null;
+    for (String part : text.split(";")) {
+      if (part.isEmpty()) {
+        continue;
+      }
+      int equals = part.indexOf('=');
+      if (equals < 1) {
+        throw new InvalidRecurrenceRuleException("Parte no válida en la regla: " + part);
+      }
+      String name = part.substring(0, equals);
+      String value = part.substring(equals + 1);
+      try {
+        switch (name) {
+          case "FREQ" -> frequency = Frequency.valueOf(value);
+          case "INTERVAL" -> interval = Integer.parseInt(value);
+          case "COUNT" -> count = Integer.parseInt(value);
+          case "UNTIL" -> until = parseUntil(value);
+          case "BYDAY" -> {
+            for (String day : value.split(",")) {
+              days.add(parseDay(day));
+            }
+          }
+          default ->
+              throw new InvalidRecurrenceRuleException("Parte no soportada en la regla: " + name);
+        }
+      } catch (IllegalArgumentException | DateTimeParseException e) {
+        throw new InvalidRecurrenceRuleException("Valor no válido en la regla: " + part);
+      }
+    }
+    return new RecurrenceRule(frequency, interval, days, count, until);
+  }
+
+  public Frequency getFrequency() {
+    return frequency;
+  }
+
+  public int getInterval() {
+    return interval;
+  }
+
+  public Integer getCount() {
+    return count;
+  }
+
+  public LocalDateTime getUntil() {
+    return until;
+  }
+
+  /** This rule, ending after {@code count} occurrences or never if it is null. */
+  public RecurrenceRule withCount(Integer count) {
+    return new RecurrenceRule(frequency, interval, days, count, null);
+  }
+
+  /** Whether {@code start} is an occurrence of a series that begins at {@code start}. */
+  public boolean matchesStart(LocalDateTime start) {
+    return days.isEmpty() || days.contains(start.getDayOfWeek());
+  }
+
+  /**
+   * Starts of the occurrences of a series beginning at {@code seriesStart} that fall in {@code
+   * [from, to)}, in order, at most {@link #MAX_OCCURRENCES}.
+   */
+  public List<LocalDateTime> startsBetween(
+      LocalDateTime seriesStart, LocalDateTime from, LocalDateTime to) {
+    List<LocalDateTime> starts = new ArrayList<>();
+    if (!from.isBefore(to)) {
+      return starts;
+    }
+    switch (frequency) {
+      case DAILY -> daily(seriesStart, from, to, starts);
+      case WEEKLY -> weekly(seriesStart, from, to, starts);
+      case MONTHLY -> monthly(seriesStart, from, to, starts);
+    }
+    return starts;
+  }
+
+  /** Start of the last occurrence, or {@code null} if the series never ends. */
+  public LocalDateTime lastStart(LocalDateTime seriesStart) {
+    if (count == null && until == null) {
+      return null;
+    }
+    LocalDateTime last = null;
+    LocalDateTime from = seriesStart;
+    List<LocalDateTime> starts;
+    do {
+      // como mucho MAX_OCCURRENCES por vuelta; sólo UNTIL lejanos dan más de una
+      LocalDateTime to = until != null ? until.plusSeconds(1) : LocalDateTime.MAX;
+      starts = startsBetween(seriesStart, from, to);
+      if (!starts.isEmpty()) {
+        last = starts.getLast();
+        from = last.plusSeconds(1);
+      }
+    } while (starts.size() == MAX_OCCURRENCES && count == null);
+    return last;
+  }
+
+  private void daily(
+      LocalDateTime seriesStart, LocalDateTime from, LocalDateTime to, List<LocalDateTime> out) {
+    long k = from.isAfter(seriesStart) ? ChronoUnit.DAYS.between(seriesStart, from) / interval : 0;
+    for (; ; k++) {
+      if (count != null && k >= count) {
+        return;
+      }
+      LocalDateTime start = seriesStart.plusDays(k * interval);
+      if (!accept(start, from, to, out)) {
+        return;
+      }
+    }
+  }
+
+  private void weekly(
+      LocalDateTime seriesStart, LocalDateTime from, LocalDateTime to, List<LocalDateTime> out) {
+    List<DayOfWeek> weekDays =
+        days.isEmpty() ? List.of(seriesStart.getDayOfWeek()) : List.copyOf(days);
+    LocalDate firstWeek =
+        seriesStart.toLocalDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    LocalTime time = seriesStart.toLocalTime();
+    // los días de la primera semana anteriores al inicio no cuentan
+    int skipped =
+        (int) weekDays.stream().filter(d -> d.compareTo(seriesStart.getDayOfWeek()) < 0).count();
+    long w =
+        from.isAfter(seriesStart)
+            ? ChronoUnit.WEEKS.between(firstWeek, from.toLocalDate()) / interval
+            : 0;
+    for (; ; w++) {
+      LocalDate monday = firstWeek.plusWeeks(w * interval);
+      for (int i = 0; i < weekDays.size(); i++) {
+        long index = w * weekDays.size() + i - skipped;
+        if (index < 0) {
+          continue;
+        }
+        if (count != null && index >= count) {
+          return;
+        }
+        LocalDateTime start = monday.plusDays(weekDays.get(i).ordinal()).atTime(time);
+        if (!accept(start, from, to, out)) {
+          return;
+        }
+      }
+    }
+  }
+
+  private void monthly(
+      LocalDateTime seriesStart, LocalDateTime from, LocalDateTime to, List<LocalDateTime> out) {
+    int day = seriesStart.getDayOfMonth();
+    YearMonth first = YearMonth.from(seriesStart);
+    LocalTime time = seriesStart.toLocalTime();
+    long k = 0;
+    long index = 0;
+    // con días hasta el 28 todos los meses cuentan y se puede saltar directamente
+    if (from.isAfter(seriesStart) && day <= 28) {
+      k = ChronoUnit.MONTHS.between(first, YearMonth.from(from)) / interval;
+      index = k;
+    }
+    for (; ; k++) {
+      YearMonth month = first.plusMonths(k * interval);
+      if (!month.isValidDay(day)) {
+        continue;
+      }
+      if (count != null && index >= count) {
+        return;
+      }
+      if (!accept(month.atDay(day).atTime(time), from, to, out)) {
+        return;
+      }
+      index++;
+    }
+  }
+
+  /** Adds {@code start} if it is in the window; {@code false} once past the window or the rule. */
+  private boolean accept(
+      LocalDateTime start, LocalDateTime from, LocalDateTime to, List<LocalDateTime> out) {
+    if (!start.isBefore(to) || (until != null && start.isAfter(until))) {
+      return false;
+    }
+    if (!start.isBefore(from)) {
+      out.add(start);
+    }
+    return out.size() < MAX_OCCURRENCES;
+  }
+
+  private static LocalDateTime parseUntil(String value) {
+    return value.length() == 8
+        ? LocalDate.parse(value, UNTIL_DATE_FORMAT).atTime(LocalTime.MAX.withNano(0))
+        : LocalDateTime.parse(
+            value.endsWith("Z") ? value.substring(0, value.length() - 1) : value, UNTIL_FORMAT);
+  }
+
+  private static DayOfWeek parseDay(String day) {
+    if (day.length() == 2) {
+      for (DayOfWeek dayOfWeek : DayOfWeek.values()) {
+        if (dayOfWeek.name().startsWith(day)) {
+          return dayOfWeek;
+        }
+      }
+    }
+    throw new InvalidRecurrenceRuleException("Día no válido en la regla: " + day);
+  }
+
+  /** The rule in {@code RRULE} syntax, without prefix and with the parts in a fixed order. */
+  @Override
+  public String toString() {
+    StringBuilder rule = new StringBuilder("FREQ=").append(frequency);
+    if (interval != 1) {
+      rule.append(";INTERVAL=").append(interval);
+    }
+    if (!days.isEmpty()) {
+      rule.append(";BYDAY=")
+          .append(
+              days.stream().map(d -> d.name().substring(0, 2)).collect(Collectors.joining(",")));
+    }
+    if (count != null) {
+      rule.append(";COUNT=").append(count);
+    }
+    if (until != null) {
+      rule.append(";UNTIL=").append(UNTIL_FORMAT.format(until));
+    }
+    return rule.toString();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    return o instanceof RecurrenceRule other && toString().equals(other.toString());
+  }
+
+  @Override
+  public int hashCode() {
+    return toString().hashCode();
+  }
+}
@@ -0,0 +1,85 @@
+package com.wornux.services.scheduling;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Next free slots of a given length across the {@link SlotGrid}s of several employees.
+ *
+ * <p>Days are searched in order and stop as soon as enough slots were found, so a busy month costs
+ * no more than its first free days. Within a free run, slots follow each other back to back from
+ * its start. Slots of the same day are merged across employees by start time (ties by grid order),
+ * which keeps the result the earliest possible.
+ */
+public final class SlotFinder {
+
+  private SlotFinder() {}
+
+  /**
+   * A free slot.
+   *
+   * @param grid Index of the grid (employee) it belongs to
+   */
+  public record Slot(int grid, LocalDateTime start, LocalDateTime end) {}
+
+  /**
+   * The first {@code count} slots of {@code minutes} that start at or after {@code from}, earliest
+   * first.
+   *
+   * @param grids Grids covering the same days
+   * @throws IllegalArgumentException if the grids do not cover the same days.
+   */
+  public static List<Slot> find(List<SlotGrid> grids, LocalDateTime from, int minutes, int count) {
+    if (grids.isEmpty() || count <= 0) {
+      return List.of();
+    }
+    SlotGrid reference = grids.getFirst();
+    for (SlotGrid grid : grids) {
+      if (!grid.firstDay().equals(reference.firstDay()) || grid.days() != reference.days()) {
+        throw new IllegalArgumentException("Slot grids must cover the same days");
+      }
+    }
+    int length = Math.max(1, (minutes + SlotGrid.SLOT_MINUTES - 1) / SlotGrid.SLOT_MINUTES);
+    long first = Math.max(0, reference.slotAtOrAfter(from));
+
+    List<Slot> slots = new ArrayList<>(count);
+    // (ranura << 32 | grid) de los candidatos del día, para ordenarlos sin objetos
+    long[] candidates = new long[Math.min(count, 64) * grids.size()];
+    for (int day = (int) (first / SlotGrid.SLOTS_PER_DAY);
+        day < reference.days() && slots.size() < count;
+        day++) {
+      int dayStart =
+          day == first / SlotGrid.SLOTS_PER_DAY ? (int) (first % SlotGrid.SLOTS_PER_DAY) : 0;
+      int remaining = count - slots.size();
+      int found = 0;
+      for (int g = 0; g < grids.size(); g++) {
+        SlotGrid grid = grids.get(g);
+        int start = dayStart;
+        for (int taken = 0; taken < remaining; taken++) {
+          start = grid.findRun(day, start, length);
+          if (start < 0) {
+            break;
+          }
+          if (found == candidates.length) {
+            candidates = Arrays.copyOf(candidates, candidates.length * 2);
+          }
+          candidates[found++] = (long) start << 32 | g;
+          start += length;
+        }
+      }
+      Arrays.sort(candidates, 0, found);
+      for (int i = 0; i < found && slots.size() < count; i++) {
+        int start = (int) (candidates[i] >>> 32);
+        LocalDateTime startTime = reference.timeOf(day, start);
+        slots.add(
+            new Slot(
+                (int) candidates[i],
+                startTime,
+                startTime.plusMinutes((long) length * SlotGrid.SLOT_MINUTES)));
+      }
+    }
+    return slots;
+  }
+}
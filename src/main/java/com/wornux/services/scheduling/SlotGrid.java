@@ -0,0 +1,197 @@
+package com.wornux.services.scheduling;
+
+import com.wornux.data.entity.WorkScheduleDay;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+
+/**
+ * Free time of one employee over consecutive days, as one bitset per day of {@value
+ * #SLOT_MINUTES}-minute slots.
+ *
+ * <p>A day is {@value #SLOTS_PER_DAY} bits packed in a few {@code long}s; a set bit is a free slot.
+ * A grid starts all closed, is opened at the hours of the weekly schedule and closed again wherever
+ * an appointment takes the time. Schedules are rounded inwards and appointments outwards, so a free
+ * slot is always free for its whole length. Finding a free run walks whole words with {@link
+ * Long#numberOfTrailingZeros}, so it costs the number of gaps in the day, not its minutes. Not
+ * thread-safe.
+ */
+public final class SlotGrid {
+
+  public static final int SLOT_MINUTES = 5;
+  public static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+
+  private static final int SLOT_SECONDS = SLOT_MINUTES * 60;
+  private static final int WORDS_PER_DAY = (SLOTS_PER_DAY + Long.SIZE - 1) / Long.SIZE;
+
+  private final LocalDate firstDay;
+  private final long firstSecond;
+  private final int days;
+  private final long[] words;
+
+  public SlotGrid(LocalDate firstDay, int days) {
+    if (days <= 0) {
+      throw new IllegalArgumentException("A slot grid needs at least one day: " + days);
+    }
+    this.firstDay = firstDay;
+    this.firstSecond = firstDay.atStartOfDay().toEpochSecond(ZoneOffset.UTC);
+    this.days = days;
+    this.words = new long[days * WORDS_PER_DAY];
+  }
+
+  public LocalDate firstDay() {
+    return firstDay;
+  }
+
+  public int days() {
+    return days;
+  }
+
+  /**
+   * Opens every day of the grid at the hours of a weekly schedule. Days off and days without a
+   * valid time range stay closed.
+   */
+  public void openSchedule(Collection<WorkScheduleDay> schedule) {
+    int firstDayOfWeek = firstDay.getDayOfWeek().getValue();
+    for (WorkScheduleDay workDay : schedule) {
+      if (workDay.isOffDay() || !workDay.isValidTimeRange()) {
+        continue;
+      }
+      int from = ceilSlot(workDay.getStartTime());
+      int to = floorSlot(workDay.getEndTime());
+      for (int day = Math.floorMod(workDay.getDayOfWeek().getValue() - firstDayOfWeek, 7);
+          day < days;
+          day += 7) {
+        open(day, from, to);
+      }
+    }
+  }
+
+  /** Closes every slot touched by {@code [from, to)}, across days if needed. */
+  public void block(LocalDateTime from, LocalDateTime to) {
+    long first = Math.max(0, Math.floorDiv(secondsSinceStart(from), SLOT_SECONDS));
+    long last = Math.min((long) days * SLOTS_PER_DAY, slotAtOrAfter(to));
+    for (long slot = first; slot < last; ) {
+      int day = (int) (slot / SLOTS_PER_DAY);
+      int start = (int) (slot % SLOTS_PER_DAY);
+      int end = (int) Math.min(last - (long) day * SLOTS_PER_DAY, SLOTS_PER_DAY);
+      close(day, start, end);
+      slot = (long) day * SLOTS_PER_DAY + end;
+    }
+  }
+
+  /** Marks the slots {@code [from, to)} of a day as free. */
+  public void open(int day, int from, int to) {
+    apply(day, from, to, true);
+  }
+
+  /** Marks the slots {@code [from, to)} of a day as taken. */
+  public void close(int day, int from, int to) {
+    apply(day, from, to, false);
+  }
+
+  public boolean isFree(int day, int slot) {
+    return (words[day * WORDS_PER_DAY + (slot >>> 6)] & (1L << slot)) != 0;
+  }
+
+  /**
+   * First slot at or after {@code from} that starts {@code length} consecutive free slots of the
+   * same day, or {@code -1}.
+   */
+  public int findRun(int day, int from, int length) {
+    int start = nextFree(day, from);
+    while (start >= 0 && start + length <= SLOTS_PER_DAY) {
+      int end = nextTaken(day, start);
+      if (end - start >= length) {
+        return start;
+      }
+      start = nextFree(day, end);
+    }
+    return -1;
+  }
+
+  /** Start of a slot. */
+  public LocalDateTime timeOf(int day, int slot) {
+    return firstDay.plusDays(day).atStartOfDay().plusMinutes((long) slot * SLOT_MINUTES);
+  }
+
+  /** Slot of the grid that starts at or right after {@code time}, counted from its first day. */
+  public long slotAtOrAfter(LocalDateTime time) {
+    return -Math.floorDiv(-secondsSinceStart(time), SLOT_SECONDS);
+  }
+
+  private int nextFree(int day, int from) {
+    if (from >= SLOTS_PER_DAY) {
+      return -1;
+    }
+    int base = day * WORDS_PER_DAY;
+    int index = from >>> 6;
+    long word = words[base + index] & (-1L << from);
+    while (word == 0) {
+      if (++index == WORDS_PER_DAY) {
+        return -1;
+      }
+      word = words[base + index];
+    }
+    return (index << 6) + Long.numberOfTrailingZeros(word);
+  }
+
+  private int nextTaken(int day, int from) {
+    if (from >= SLOTS_PER_DAY) {
+      return SLOTS_PER_DAY;
+    }
+    int base = day * WORDS_PER_DAY;
+    int index = from >>> 6;
+    long word = ~words[base + index] & (-1L << from);
+    while (word == 0) {
+      if (++index == WORDS_PER_DAY) {
+        return SLOTS_PER_DAY;
+      }
+      word = ~words[base + index];
+    }
+    // los bits que sobran tras la última ranura del día nunca están libres
+    return Math.min((index << 6) + Long.numberOfTrailingZeros(word), SLOTS_PER_DAY);
+  }
+
+  private void apply(int day, int from, int to, boolean free) {
+    if (day < 0 || day >= days) {
+      throw new IndexOutOfBoundsException("Day " + day + " outside a grid of " + days);
+    }
+    from = Math.max(from, 0);
+    to = Math.min(to, SLOTS_PER_DAY);
+    if (from >= to) {
+      return;
+    }
+    int base = day * WORDS_PER_DAY;
+    int first = from >>> 6;
+    int last = (to - 1) >>> 6;
+    for (int index = first; index <= last; index++) {
+      long mask = -1L;
+      if (index == first) {
+        mask &= -1L << from;
+      }
+      if (index == last) {
+        mask &= -1L >>> -to;
+      }
+      if (free) {
+        words[base + index] |= mask;
+      } else {
+        words[base + index] &= ~mask;
+      }
+    }
+  }
+
+  private long secondsSinceStart(LocalDateTime time) {
+    return time.toEpochSecond(ZoneOffset.UTC) - firstSecond;
+  }
+
+  private static int ceilSlot(LocalTime time) {
+    return (time.toSecondOfDay() + SLOT_SECONDS - 1) / SLOT_SECONDS;
+  }
+
+  private static int floorSlot(LocalTime time) {
+    return time.toSecondOfDay() / SLOT_SECONDS;
+  }
+}
@@ -0,0 +1,34 @@
+package com.wornux.services.waitingroom;
+
+import com.wornux.services.events.AppointmentChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Materializes a single appointment into the waiting room as soon as it is committed, instead of
+ * re-scanning every appointment of the day on each screen refresh.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AppointmentWaitingRoomListener {
+
+  private final WaitingRoomMaterializer waitingRoomMaterializer;
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onAppointmentChanged(AppointmentChangedEvent event) {
+    if (event.changeType() == AppointmentChangedEvent.ChangeType.DELETED) {
+      return;
+    }
+    try {
+      waitingRoomMaterializer.materializeAppointment(event.appointmentId());
+    } catch (Exception e) {
+      log.warn(
+          "Could not sync appointment {} into the waiting room: {}",
+          event.appointmentId(),
+          e.getMessage());
+    }
+  }
+}
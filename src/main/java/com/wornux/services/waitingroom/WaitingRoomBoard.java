@@ -0,0 +1,139 @@
+package com.wornux.services.waitingroom;
+
+import com.wornux.data.entity.Employee;
+import com.wornux.data.entity.WaitingRoom;
+import com.wornux.data.enums.VisitType;
+import com.wornux.data.enums.WaitingRoomStatus;
+import com.wornux.data.repository.WaitingRoomRepository;
+import com.wornux.services.events.WaitingRoomChangedEvent;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * In-memory live queue of the waiting room, one priority-ordered list per {@link VisitType}.
+ *
+ * <p>The board is loaded once at startup and afterwards kept current by {@link
+ * WaitingRoomChangedEvent}s published after each committed write. Reads return immutable lists, so
+ * views can filter on every keystroke without touching the database. The entries in those lists are
+ * shared by every session and must not be modified: edits go through {@code WaitingRoomService} by
+ * id, and the board picks up the saved entity from the event.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WaitingRoomBoard {
+
+  public static final List<WaitingRoomStatus> ACTIVE_STATUSES =
+      List.of(WaitingRoomStatus.ESPERANDO, WaitingRoomStatus.EN_PROCESO);
+
+  /** Highest priority first, then first come first served. */
+  public static final Comparator<WaitingRoom> QUEUE_ORDER =
+      Comparator.comparingInt((WaitingRoom wr) -> -wr.getPriority().getNumericValue())
+          .thenComparing(WaitingRoom::getArrivalTime)
+          .thenComparing(WaitingRoom::getId);
+
+  private final WaitingRoomRepository waitingRoomRepository;
+
+  private final Map<Long, WaitingRoom> entries = new ConcurrentHashMap<>();
+
+  private volatile Map<VisitType, List<WaitingRoom>> queues = new EnumMap<>(VisitType.class);
+  private volatile List<WaitingRoom> activeEntries = List.of();
+  private volatile Map<WaitingRoomStatus, Integer> statusCounts =
+      new EnumMap<>(WaitingRoomStatus.class);
+
+  @EventListener(ApplicationReadyEvent.class)
+  @Transactional(readOnly = true)
+  public void load() {
+    List<WaitingRoom> current = waitingRoomRepository.findCurrentWaitingRoom(ACTIVE_STATUSES);
+    synchronized (this) {
+      entries.clear();
+      current.forEach(wr -> entries.put(wr.getId(), wr));
+      rebuild();
+    }
+    log.info("Waiting room board loaded with {} active entries", current.size());
+  }
+
+  @Order(Ordered.HIGHEST_PRECEDENCE)
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onWaitingRoomChanged(WaitingRoomChangedEvent event) {
+    WaitingRoom entry = event.entry();
+    if (entry == null || entry.getId() == null) {
+      return;
+    }
+    synchronized (this) {
+      if (ACTIVE_STATUSES.contains(entry.getStatus())) {
+        entries.put(entry.getId(), entry);
+      } else {
+        entries.remove(entry.getId());
+      }
+      rebuild();
+    }
+    log.debug("Waiting room board updated: {} {}", event.changeType(), entry.getId());
+  }
+
+  /** Active entries of the given type, in queue order. */
+  public List<WaitingRoom> getQueue(VisitType type) {
+    return queues.getOrDefault(type, List.of());
+  }
+
+  /** All active entries, in queue order. */
+  public List<WaitingRoom> getActiveEntries() {
+    return activeEntries;
+  }
+
+  /**
+   * Active entries of the given type that are either unassigned or assigned to the given employee.
+   */
+  public List<WaitingRoom> getQueueFor(VisitType type, Long employeeId) {
+    return getQueue(type).stream()
+        .filter(
+            wr -> {
+              Employee assigned =
+                  type == VisitType.GROOMING
+                      ? wr.getAssignedGroomer()
+                      : wr.getAssignedVeterinarian();
+              return assigned == null || Objects.equals(assigned.getId(), employeeId);
+            })
+        .toList();
+  }
+
+  public int countByStatus(WaitingRoomStatus status) {
+    return statusCounts.getOrDefault(status, 0);
+  }
+
+  public int getActiveCount() {
+    return activeEntries.size();
+  }
+
+  private void rebuild() {
+    Map<VisitType, List<WaitingRoom>> byType = new EnumMap<>(VisitType.class);
+    Map<WaitingRoomStatus, Integer> counts = new EnumMap<>(WaitingRoomStatus.class);
+    List<WaitingRoom> all = new ArrayList<>(entries.values());
+    all.sort(QUEUE_ORDER);
+
+    for (WaitingRoom wr : all) {
+      VisitType type = wr.getType() != null ? wr.getType() : VisitType.MEDICA;
+      byType.computeIfAbsent(type, t -> new ArrayList<>()).add(wr);
+      counts.merge(wr.getStatus(), 1, Integer::sum);
+    }
+    byType.replaceAll((type, list) -> List.copyOf(list));
+
+    queues = byType;
+    statusCounts = counts;
+    activeEntries = List.copyOf(all);
+  }
+}
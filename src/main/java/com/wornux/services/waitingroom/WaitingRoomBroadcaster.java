@@ -0,0 +1,114 @@
+package com.wornux.services.waitingroom;
+
+import com.vaadin.flow.shared.Registration;
+import com.wornux.services.events.WaitingRoomChangedEvent;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Fans committed waiting room changes out to every open UI.
+ *
+ * <p>Each subscriber has its own pending buffer: changes arriving within the debounce window are
+ * coalesced per entry and delivered as a single batch, so a burst of writes costs one round-trip
+ * per session instead of one per change.
+ */
+@Slf4j
+@Component
+public class WaitingRoomBroadcaster {
+
+  private final Duration debounce;
+  private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+  private final ScheduledExecutorService scheduler =
+      Executors.newSingleThreadScheduledExecutor(
+          Thread.ofPlatform().name("waiting-room-broadcaster").daemon().factory());
+
+  public WaitingRoomBroadcaster(
+      @Value("${application.waiting-room.push-debounce:300ms}") Duration debounce) {
+    this.debounce = debounce;
+  }
+
+  /**
+   * Subscribes to waiting room changes. The listener is invoked from a background thread, so UI
+   * code must wrap its work in {@code UI.access}.
+   *
+   * @param listener receives each coalesced batch of changes.
+   * @return a registration to remove the subscription, typically on detach.
+   */
+  public Registration register(Consumer<List<WaitingRoomChangedEvent>> listener) {
+    Subscription subscription = new Subscription(listener);
+    subscriptions.add(subscription);
+    return () -> subscriptions.remove(subscription);
+  }
+
+  @Order(Ordered.LOWEST_PRECEDENCE)
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onWaitingRoomChanged(WaitingRoomChangedEvent event) {
+    if (event.entry() == null || event.id() == null) {
+      return;
+    }
+    subscriptions.forEach(subscription -> subscription.offer(event));
+  }
+
+  @PreDestroy
+  void shutdown() {
+    scheduler.shutdownNow();
+  }
+
+  private final class Subscription {
+
+    private final Consumer<List<WaitingRoomChangedEvent>> listener;
+    private final Map<Long, WaitingRoomChangedEvent> pending = new LinkedHashMap<>();
+    private boolean scheduled;
+
+    private Subscription(Consumer<List<WaitingRoomChangedEvent>> listener) {
+      this.listener = listener;
+    }
+
+    synchronized void offer(WaitingRoomChangedEvent event) {
+      pending.merge(event.id(), event, Subscription::coalesce);
+      if (!scheduled) {
+        scheduled = true;
+        scheduler.schedule(this::flush, debounce.toMillis(), TimeUnit.MILLISECONDS);
+      }
+    }
+
+    private void flush() {
+      List<WaitingRoomChangedEvent> batch;
+      synchronized (this) {
+        batch = List.copyOf(pending.values());
+        pending.clear();
+        scheduled = false;
+      }
+      try {
+        listener.accept(batch);
+      } catch (Exception e) {
+        log.warn("Could not push {} waiting room changes: {}", batch.size(), e.getMessage());
+      }
+    }
+
+    /** Keeps the latest state of the entry and the most significant change type. */
+    private static WaitingRoomChangedEvent coalesce(
+        WaitingRoomChangedEvent previous, WaitingRoomChangedEvent latest) {
+      WaitingRoomChangedEvent.ChangeType type =
+          previous.changeType().ordinal() < latest.changeType().ordinal()
+              ? previous.changeType()
+              : latest.changeType();
+      return new WaitingRoomChangedEvent(latest.entry(), type);
+    }
+  }
+}
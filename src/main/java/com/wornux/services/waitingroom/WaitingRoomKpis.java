@@ -0,0 +1,103 @@
+package com.wornux.services.waitingroom;
+
+import com.wornux.data.enums.VisitType;
+import com.wornux.data.enums.WaitingRoomStatus;
+import com.wornux.data.repository.WaitingRoomRepository;
+import com.wornux.data.repository.WaitingRoomRepository.KpiRow;
+import com.wornux.dto.dashboard.WaitingRoomKpiDto;
+import com.wornux.dto.dashboard.WaitingRoomKpiDto.Stats;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Today's waiting room KPIs, computed by the database and cached for a short time.
+ *
+ * <p>Every screen polls these figures, so concurrent readers within the TTL share one aggregate
+ * query instead of each loading the whole day of entries.
+ */
+@Slf4j
+@Component
+public class WaitingRoomKpis {
+
+  private final WaitingRoomRepository waitingRoomRepository;
+  private final long ttlNanos;
+
+  private volatile Cached cached;
+
+  public WaitingRoomKpis(
+      WaitingRoomRepository waitingRoomRepository,
+      @Value("${application.waiting-room.kpi-ttl:15s}") Duration ttl) {
+    this.waitingRoomRepository = waitingRoomRepository;
+    this.ttlNanos = ttl.toNanos();
+  }
+
+  /** KPIs of today, at most one TTL old. */
+  @Transactional(readOnly = true)
+  public WaitingRoomKpiDto getToday() {
+    LocalDate today = LocalDate.now();
+    Cached current = cached;
+    if (isFresh(current, today)) {
+      return current.kpis();
+    }
+    synchronized (this) {
+      current = cached;
+      if (isFresh(current, today)) {
+        return current.kpis();
+      }
+      WaitingRoomKpiDto kpis = load(today);
+      cached = new Cached(today, System.nanoTime(), kpis);
+      return kpis;
+    }
+  }
+
+  private boolean isFresh(Cached current, LocalDate today) {
+    return current != null
+        && current.day().equals(today)
+        && System.nanoTime() - current.loadedAt() < ttlNanos;
+  }
+
+  private WaitingRoomKpiDto load(LocalDate day) {
+    LocalDateTime startOfDay = day.atStartOfDay();
+    List<KpiRow> rows = waitingRoomRepository.aggregateKpis(startOfDay, startOfDay.plusDays(1));
+
+    Stats total = Stats.EMPTY;
+    Map<VisitType, Stats> byType = new EnumMap<>(VisitType.class);
+    Map<WaitingRoomStatus, Stats> byStatus = new EnumMap<>(WaitingRoomStatus.class);
+
+    for (KpiRow row : rows) {
+      Stats stats = toStats(row);
+      if (row.getType() != null) {
+        byType.put(VisitType.valueOf(row.getType()), stats);
+      } else if (row.getStatus() != null) {
+        byStatus.put(WaitingRoomStatus.valueOf(row.getStatus()), stats);
+      } else {
+        total = stats;
+      }
+    }
+    log.debug("Waiting room KPIs loaded for {}: {} entries", day, total.count());
+    return new WaitingRoomKpiDto(total, Map.copyOf(byType), Map.copyOf(byStatus));
+  }
+
+  private static Stats toStats(KpiRow row) {
+    return new Stats(
+        row.getCount() != null ? row.getCount() : 0,
+        minutes(row.getAvgWaitMinutes()),
+        minutes(row.getMedianWaitMinutes()),
+        minutes(row.getP90WaitMinutes()),
+        minutes(row.getAvgServiceMinutes()));
+  }
+
+  private static double minutes(Double value) {
+    return value != null ? Math.round(value * 100.0) / 100.0 : 0.0;
+  }
+
+  private record Cached(LocalDate day, long loadedAt, WaitingRoomKpiDto kpis) {}
+}
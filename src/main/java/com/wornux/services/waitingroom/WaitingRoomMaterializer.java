@@ -0,0 +1,154 @@
+package com.wornux.services.waitingroom;
+
+import com.wornux.data.entity.Appointment;
+import com.wornux.data.repository.AppointmentRepository;
+import com.wornux.data.repository.WaitingRoomRepository;
+import com.wornux.services.events.WaitingRoomChangedEvent;
+import com.wornux.services.events.WaitingRoomChangedEvent.ChangeType;
+import com.wornux.services.scheduling.AppointmentSeries;
+import com.wornux.services.scheduling.AppointmentSeries.Occurrence;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Turns today's open appointments into waiting room entries in the background.
+ *
+ * <p>Each run is a single {@code INSERT ... SELECT ... ON CONFLICT DO NOTHING} backed by the unique
+ * index on (pet, arrival_time, type), so runs are idempotent and never race with each other. Newly
+ * inserted entries are announced with {@link WaitingRoomChangedEvent}s so the board and open
+ * screens pick them up.
+ *
+ * <p>Recurring appointments have no row per occurrence: today's occurrences are expanded with
+ * {@link AppointmentSeries} and inserted one by one with the same statement shape.
+ */
+@Slf4j
+@Component
+@Transactional
+public class WaitingRoomMaterializer {
+
+  private final WaitingRoomRepository waitingRoomRepository;
+  private final AppointmentRepository appointmentRepository;
+  private final ApplicationEventPublisher eventPublisher;
+
+  private final Timer batchTimer;
+  private final Timer appointmentTimer;
+  private final Counter insertedCounter;
+  private final Counter failureCounter;
+
+  public WaitingRoomMaterializer(
+      WaitingRoomRepository waitingRoomRepository,
+      AppointmentRepository appointmentRepository,
+      ApplicationEventPublisher eventPublisher,
+      MeterRegistry meterRegistry) {
+    this.waitingRoomRepository = waitingRoomRepository;
+    this.appointmentRepository = appointmentRepository;
+    this.eventPublisher = eventPublisher;
+    this.batchTimer =
+        Timer.builder("waitingroom.materializer.runs")
+            .description("Appointment to waiting room materializer runs")
+            .tag("trigger", "batch")
+            .register(meterRegistry);
+    this.appointmentTimer =
+        Timer.builder("waitingroom.materializer.runs")
+            .description("Appointment to waiting room materializer runs")
+            .tag("trigger", "appointment")
+            .register(meterRegistry);
+    this.insertedCounter =
+        Counter.builder("waitingroom.materializer.inserted")
+            .description("Waiting room entries created from appointments")
+            .register(meterRegistry);
+    this.failureCounter =
+        Counter.builder("waitingroom.materializer.failures")
+            .description("Failed materializer runs")
+            .register(meterRegistry);
+  }
+
+  /** Materializes every open appointment of today. Runs at startup and then on a schedule. */
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(cron = "${application.waiting-room.materializer-cron:0 */5 * * * *}")
+  public void materializeToday() {
+    LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
+    LocalDateTime endOfDay = startOfDay.plusDays(1);
+
+    List<Long> inserted =
+        record(
+            batchTimer,
+            () -> {
+              List<Long> ids =
+                  new ArrayList<>(
+                      waitingRoomRepository.insertFromAppointments(startOfDay, endOfDay));
+              appointmentRepository
+                  .findSeriesOverlapping(startOfDay, endOfDay)
+                  .forEach(series -> ids.addAll(insertOccurrences(series, startOfDay, endOfDay)));
+              return ids;
+            });
+    log.debug("Waiting room materializer created {} entries", inserted.size());
+  }
+
+  /** Materializes a single appointment, or today's occurrences of a series, if due today. */
+  @Transactional(propagation = Propagation.REQUIRES_NEW)
+  public void materializeAppointment(Long appointmentId) {
+    LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
+    LocalDateTime endOfDay = startOfDay.plusDays(1);
+
+    record(
+        appointmentTimer,
+        () -> {
+          List<Long> ids =
+              new ArrayList<>(
+                  waitingRoomRepository.insertFromAppointment(appointmentId, startOfDay, endOfDay));
+          if (ids.isEmpty()) {
+            appointmentRepository
+                .findByIdWithDetails(appointmentId)
+                .filter(Appointment::isRecurring)
+                .ifPresent(series -> ids.addAll(insertOccurrences(series, startOfDay, endOfDay)));
+          }
+          return ids;
+        });
+  }
+
+  /** Inserts the occurrences of a series that start in {@code [from, to)}. */
+  private List<Long> insertOccurrences(Appointment series, LocalDateTime from, LocalDateTime to) {
+    List<Long> ids = new ArrayList<>();
+    for (Occurrence occurrence : AppointmentSeries.occurrences(series, from, to)) {
+      if (!occurrence.start().isBefore(from)) {
+        ids.addAll(waitingRoomRepository.insertFromOccurrence(series.getId(), occurrence.start()));
+      }
+    }
+    return ids;
+  }
+
+  private List<Long> record(Timer timer, Supplier<List<Long>> insert) {
+    List<Long> inserted;
+    try {
+      inserted = timer.record(insert);
+    } catch (RuntimeException e) {
+      failureCounter.increment();
+      throw e;
+    }
+
+    if (inserted != null && !inserted.isEmpty()) {
+      insertedCounter.increment(inserted.size());
+      waitingRoomRepository
+          .findAllById(inserted)
+          .forEach(
+              wr -> eventPublisher.publishEvent(new WaitingRoomChangedEvent(wr, ChangeType.ADDED)));
+      log.info("Materialized {} appointments into the waiting room", inserted.size());
+    }
+    return inserted != null ? inserted : List.of();
+  }
+}
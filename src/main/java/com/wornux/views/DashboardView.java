@@ -1,6 +1,7 @@
 package com.wornux.views;
 
 import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
 import com.vaadin.flow.component.charts.Chart;
@@ -33,6 +34,8 @@ import com.wornux.dto.dashboard.ChartDataDto;
 import com.wornux.dto.dashboard.RevenueDataDto;
 import com.wornux.dto.dashboard.StockAlertDto;
 import com.wornux.security.UserUtils;
+import com.wornux.services.dashboard.DashboardSnapshot;
+import com.wornux.services.dashboard.DashboardSnapshotService;
 import com.wornux.services.interfaces.DashboardService;
 import com.wornux.services.interfaces.ProductService;
 import com.wornux.services.interfaces.SupplierService;
@@ -49,6 +52,8 @@ import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 //@RolesAllowed({"ROLE_SYSTEM_ADMIN", "ROLE_MANAGER"})
@@ -60,6 +65,7 @@ public class DashboardView extends VerticalLayout  {
 
 
   private final DashboardService dashboardService;
+  private final DashboardSnapshotService dashboardSnapshotService;
   private final ProductService productService;
   private final SupplierService supplierService;
   private final WarehouseService warehouseService;
@@ -77,13 +83,16 @@ public class DashboardView extends VerticalLayout  {
   private Grid<StockAlertDto> alertsGrid; // New field
   private Product selectedProduct;
   private boolean dashboardBuilt = false;
+  private DashboardSnapshot snapshot;
 
   public DashboardView(
       DashboardService dashboardService,
+      DashboardSnapshotService dashboardSnapshotService,
       @Qualifier("productServiceImpl") ProductService productService,
       @Qualifier("supplierServiceImpl") SupplierService supplierService,
       @Qualifier("warehouseServiceImpl") WarehouseService warehouseService) {
     this.dashboardService = dashboardService;
+    this.dashboardSnapshotService = dashboardSnapshotService;
     this.productService = productService;
     this.supplierService = supplierService;
     this.warehouseService = warehouseService;
@@ -124,6 +133,7 @@ public class DashboardView extends VerticalLayout  {
     }
 
     add(productForm);                    // arriba del dashboard (como tenías)
+    snapshot = dashboardSnapshotService.getSnapshot(); // consultas en paralelo, en caché
     initializeDashboard();               // tabs + widgets
     showStockAlerts();                   // notificaciones críticas
 
@@ -149,16 +159,34 @@ public class DashboardView extends VerticalLayout  {
     centeredTabsLayout.getStyle().set("margin-bottom", "var(--lumo-space-l)");
 
     VerticalLayout financialContent = new VerticalLayout();
-    financialContent.add(createModernRevenueAnalysisWidget());
-    financialContent.add(createModernTopServicesWidget());
-    financialContent.add(createModernClientRetentionWidget());
+    financialContent.add(
+        lazyWidget("Análisis de Ingresos", snapshot.revenue(), this::createModernRevenueAnalysisWidget));
+    financialContent.add(
+        lazyWidget("Servicios Estrella", snapshot.topServices(), this::createModernTopServicesWidget));
+    financialContent.add(
+        lazyWidget(
+            "Lealtad de Clientes",
+            snapshot.clientRetention(),
+            this::createModernClientRetentionWidget));
     financialContent.setSizeFull();
     financialContent.setVisible(true);
 
     VerticalLayout operationsContent = new VerticalLayout();
-    operationsContent.add(createModernStockHealthWidget());
-    operationsContent.add(createModernConsultationTrendsWidget());
-    operationsContent.add(createModernEmployeeUtilizationWidget());
+    operationsContent.add(
+        lazyWidget(
+            "Centro de Control de Inventario",
+            snapshot.stockHealth().thenCombine(snapshot.healthyStockCount(), StockHealth::new),
+            this::createModernStockHealthWidget));
+    operationsContent.add(
+        lazyWidget(
+            "Tendencias de Consultas",
+            snapshot.consultationTrends(),
+            this::createModernConsultationTrendsWidget));
+    operationsContent.add(
+        lazyWidget(
+            "👨‍⚕️ Utilización de Personal",
+            snapshot.employeeUtilization(),
+            this::createModernEmployeeUtilizationWidget));
     operationsContent.setSizeFull();
     operationsContent.setVisible(false);
 
@@ -171,8 +199,40 @@ public class DashboardView extends VerticalLayout  {
     add(centeredTabsLayout, financialContent, operationsContent);
   }
 
+  /** Shows a skeleton until the widget data arrives, then swaps in the real widget. */
+  private <T> Div lazyWidget(
+      String title, CompletableFuture<T> data, Function<T, DashboardWidget> builder) {
+    Div slot = new Div();
+    slot.setWidthFull();
+
+    DashboardWidget skeleton = new DashboardWidget(title);
+    ProgressBar loading = new ProgressBar();
+    loading.setIndeterminate(true);
+    skeleton.setContent(loading);
+    skeleton.setClassName(LumoUtility.Width.FULL);
+    slot.add(skeleton);
+
+    UI ui = UI.getCurrent();
+    data.whenComplete(
+        (value, error) ->
+            ui.access(
+                () -> {
+                  slot.removeAll();
+                  if (error != null) {
+                    Notification.show("Error cargando " + title, 3000, Notification.Position.TOP_END)
+                        .addThemeVariants(NotificationVariant.LUMO_ERROR);
+                    slot.add(new DashboardWidget("Error en " + title));
+                  } else {
+                    slot.add(builder.apply(value));
+                  }
+                }));
+    return slot;
+  }
+
+  private record StockHealth(List<StockAlertDto> alerts, long healthyCount) {}
+
   /** Modern Revenue Analysis with enhanced visual design */
-  private DashboardWidget createModernRevenueAnalysisWidget() {
+  private DashboardWidget createModernRevenueAnalysisWidget(List<RevenueDataDto> revenueData) {
     try {
       DashboardWidget widget = new DashboardWidget("Análisis de Ingresos");
 
@@ -185,8 +245,6 @@ public class DashboardView extends VerticalLayout  {
           .set("padding", "var(--lumo-space-l)")
           .set("box-shadow", "0 8px 32px rgba(0,0,0,0.1)");
 
-      List<RevenueDataDto> revenueData = dashboardService.getRevenueAnalysisWithForecast();
-
       // KPIs Header
       HorizontalLayout kpiHeader = createRevenueKPIs(revenueData);
 
@@ -220,11 +278,15 @@ public class DashboardView extends VerticalLayout  {
               .map(data -> data.getPeriod().format(dateFormatter))
               .toArray(String[]::new);
 
-      Number[] values = revenueData.stream().map(RevenueDataDto::getRevenue).toArray(Number[]::new);
+      // Reales y proyectados en series separadas; los huecos quedan en null
+      Number[] values =
+          revenueData.stream()
+              .map(data -> Boolean.TRUE.equals(data.getIsPrediction()) ? null : data.getRevenue())
+              .toArray(Number[]::new);
 
       config.getxAxis().setCategories(categories);
 
-      ListSeries series = new ListSeries("Ingresos Mensuales");
+      ListSeries series = new ListSeries("Ingresos Diarios");
       series.setData(values);
 
       // Styling de la serie
@@ -240,6 +302,7 @@ public class DashboardView extends VerticalLayout  {
 
       series.setPlotOptions(plotOptions);
       config.addSeries(series);
+      addForecastSeries(config, revenueData);
 
       // Tooltip moderno
       Tooltip tooltip = config.getTooltip();
@@ -260,17 +323,48 @@ public class DashboardView extends VerticalLayout  {
     }
   }
 
+  private void addForecastSeries(Configuration config, List<RevenueDataDto> revenueData) {
+    ListSeries forecast = new ListSeries("Proyección");
+    DataSeries interval = new DataSeries("Intervalo 95%");
+    for (int i = 0; i < revenueData.size(); i++) {
+      RevenueDataDto data = revenueData.get(i);
+      if (Boolean.TRUE.equals(data.getIsPrediction())) {
+        forecast.addData(data.getRevenue());
+        interval.add(new DataSeriesItem(i, data.getLowerBound(), data.getUpperBound()));
+      } else {
+        forecast.addData(null);
+      }
+    }
+
+    PlotOptionsSpline forecastOptions = new PlotOptionsSpline();
+    forecastOptions.setColor(new SolidColor("#059669"));
+    forecastOptions.setDashStyle(DashStyle.DASH);
+    forecast.setPlotOptions(forecastOptions);
+
+    PlotOptionsArearange intervalOptions = new PlotOptionsArearange();
+    intervalOptions.setColor(new SolidColor("#10B981"));
+    intervalOptions.setFillOpacity(0.2);
+    intervalOptions.setLineWidth(0);
+    intervalOptions.setEnableMouseTracking(false);
+    interval.setPlotOptions(intervalOptions);
+
+    config.addSeries(forecast);
+    config.addSeries(interval);
+  }
+
   private HorizontalLayout createRevenueKPIs(List<RevenueDataDto> revenueData) {
     HorizontalLayout kpiLayout = new HorizontalLayout();
     kpiLayout.setWidthFull();
     kpiLayout.setJustifyContentMode(JustifyContentMode.AROUND);
     kpiLayout.getStyle().set("margin-bottom", "var(--lumo-space-l)");
 
-    if (!revenueData.isEmpty()) {
-      double totalRevenue =
-          revenueData.stream().mapToDouble(r -> r.getRevenue().doubleValue()).sum();
+    List<RevenueDataDto> actuals =
+        revenueData.stream().filter(r -> !Boolean.TRUE.equals(r.getIsPrediction())).toList();
+
+    if (!actuals.isEmpty()) {
+      double totalRevenue = actuals.stream().mapToDouble(r -> r.getRevenue().doubleValue()).sum();
 
-      double avgRevenue = totalRevenue / revenueData.size();
+      double avgRevenue = totalRevenue / actuals.size();
 
       // Calcular crecimiento (simulado)
       double growth = 12.5;
@@ -285,7 +379,7 @@ public class DashboardView extends VerticalLayout  {
       Div avgCard =
           createModernKPICard(
               currencyFormat.format(avgRevenue),
-              "Promedio Mensual",
+              "Promedio Diario",
               VaadinIcon.CHART.create(),
               "#3B82F6");
 
@@ -303,7 +397,7 @@ public class DashboardView extends VerticalLayout  {
   }
 
   /** Modern Top Services with enhanced visual design */
-  private DashboardWidget createModernTopServicesWidget() {
+  private DashboardWidget createModernTopServicesWidget(List<ChartDataDto> servicesData) {
     DashboardWidget widget = new DashboardWidget("Servicios Estrella");
 
     Div content = new Div();
@@ -339,8 +433,6 @@ public class DashboardView extends VerticalLayout  {
     config.getyAxis().setGridLineWidth(1);
     config.getyAxis().setGridLineColor(new SolidColor("#f8fafc"));
 
-    List<ChartDataDto> servicesData = dashboardService.getTopServicesAnalysis();
-
     String[] categories = servicesData.stream().map(ChartDataDto::getLabel).toArray(String[]::new);
 
     Number[] values = servicesData.stream().map(ChartDataDto::getValue).toArray(Number[]::new);
@@ -385,7 +477,7 @@ public class DashboardView extends VerticalLayout  {
   }
 
   /** Modern Client Retention with enhanced visual design */
-  private DashboardWidget createModernClientRetentionWidget() {
+  private DashboardWidget createModernClientRetentionWidget(Map<String, Object> retentionData) {
     DashboardWidget widget = new DashboardWidget("Lealtad de Clientes");
 
     Div content = new Div();
@@ -397,8 +489,6 @@ public class DashboardView extends VerticalLayout  {
         .set("padding", "var(--lumo-space-l)")
         .set("box-shadow", "0 8px 32px rgba(16, 185, 129, 0.1)");
 
-    Map<String, Object> retentionData = dashboardService.getClientRetentionMetrics();
-
     // KPIs Header
     HorizontalLayout retentionKPIs = createRetentionKPIs(retentionData);
 
@@ -486,7 +576,8 @@ public class DashboardView extends VerticalLayout  {
   }
 
   /** Modern Consultation Trends with enhanced visual design */
-  private DashboardWidget createModernConsultationTrendsWidget() {
+  private DashboardWidget createModernConsultationTrendsWidget(
+      List<ChartDataDto> consultationData) {
     DashboardWidget widget = new DashboardWidget("Tendencias de Consultas");
 
     Div content = new Div();
@@ -522,8 +613,6 @@ public class DashboardView extends VerticalLayout  {
     config.getyAxis().setGridLineWidth(1);
     config.getyAxis().setGridLineColor(new SolidColor("#fef9c3"));
 
-    List<ChartDataDto> consultationData = dashboardService.getConsultationTrends();
-
     String[] categories =
         consultationData.stream().map(ChartDataDto::getLabel).toArray(String[]::new);
 
@@ -562,7 +651,8 @@ public class DashboardView extends VerticalLayout  {
   }
 
   /** Modern Employee Utilization with enhanced visual design */
-  private DashboardWidget createModernEmployeeUtilizationWidget() {
+  private DashboardWidget createModernEmployeeUtilizationWidget(
+      List<ChartDataDto> utilizationData) {
     DashboardWidget widget = new DashboardWidget("👨‍⚕️ Utilización de Personal");
 
     Div content = new Div();
@@ -598,8 +688,6 @@ public class DashboardView extends VerticalLayout  {
     config.getyAxis().setGridLineWidth(1);
     config.getyAxis().setGridLineColor(new SolidColor("#fdf2f8"));
 
-    List<ChartDataDto> utilizationData = dashboardService.getEmployeeUtilizationData();
-
     String[] categories =
         utilizationData.stream().map(ChartDataDto::getLabel).toArray(String[]::new);
 
@@ -638,7 +726,7 @@ public class DashboardView extends VerticalLayout  {
   }
 
   // [Resto de métodos del widget de stock permanecen igual...]
-  private DashboardWidget createModernStockHealthWidget() {
+  private DashboardWidget createModernStockHealthWidget(StockHealth stockHealth) {
     DashboardWidget widget = new DashboardWidget("Centro de Control de Inventario");
 
     Div content = new Div();
@@ -651,11 +739,12 @@ public class DashboardView extends VerticalLayout  {
         .set("border-radius", "16px")
         .set("padding", "var(--lumo-space-l)");
 
-    List<StockAlertDto> stockAlerts = dashboardService.getStockHealthAnalysis();
+    List<StockAlertDto> stockAlerts = stockHealth.alerts();
 
-    HorizontalLayout metricsRow = createAdvancedMetricsRow(stockAlerts);
+    HorizontalLayout metricsRow = createAdvancedMetricsRow(stockAlerts, stockHealth.healthyCount());
     Div alertsPanel = createInteractiveAlertsPanel(stockAlerts);
-    HorizontalLayout analyticsSection = createAdvancedAnalyticsSection(stockAlerts);
+    HorizontalLayout analyticsSection =
+        createAdvancedAnalyticsSection(stockAlerts, stockHealth.healthyCount());
 
     VerticalLayout mainLayout = new VerticalLayout();
     mainLayout.setPadding(false);
@@ -668,7 +757,8 @@ public class DashboardView extends VerticalLayout  {
     return widget;
   }
 
-  private HorizontalLayout createAdvancedMetricsRow(List<StockAlertDto> stockAlerts) {
+  private HorizontalLayout createAdvancedMetricsRow(
+      List<StockAlertDto> stockAlerts, long healthyCount) {
     HorizontalLayout metricsRow = new HorizontalLayout();
     metricsRow.setWidthFull();
     metricsRow.setJustifyContentMode(JustifyContentMode.AROUND);
@@ -684,7 +774,6 @@ public class DashboardView extends VerticalLayout  {
     long outOfStockCount =
         stockAlerts.stream().filter(alert -> "OUT_OF_STOCK".equals(alert.getAlertLevel())).count();
 
-    long healthyCount = dashboardService.getHealthyStockCount();
     long totalProducts = criticalCount + lowCount + outOfStockCount + healthyCount;
 
     // Métricas con animaciones y progreso
@@ -906,7 +995,9 @@ public class DashboardView extends VerticalLayout  {
 
                   ProgressBar stockProgress = new ProgressBar();
                   double progressValue =
-                      Math.min(1.0, (double) alert.getCurrentStock() / alert.getMinimumStock());
+                      alert.getMinimumStock() > 0
+                          ? Math.min(1.0, (double) alert.getCurrentStock() / alert.getMinimumStock())
+                          : 0.0;
                   stockProgress.setValue(progressValue);
                   stockProgress
                       .getStyle()
@@ -972,6 +1063,7 @@ public class DashboardView extends VerticalLayout  {
   }
 
   private void refreshStockAlertsGrid() {
+    dashboardSnapshotService.invalidate();
     List<StockAlertDto> stockAlerts = dashboardService.getStockHealthAnalysis();
     List<StockAlertDto> criticalAlerts =
         stockAlerts.stream()
@@ -1032,13 +1124,14 @@ public class DashboardView extends VerticalLayout  {
     return card;
   }
 
-  private HorizontalLayout createAdvancedAnalyticsSection(List<StockAlertDto> stockAlerts) {
+  private HorizontalLayout createAdvancedAnalyticsSection(
+      List<StockAlertDto> stockAlerts, long healthyCount) {
     HorizontalLayout analyticsSection = new HorizontalLayout();
     analyticsSection.setWidthFull();
     analyticsSection.setSpacing(true);
 
     // Gráfico de distribución modernizado
-    Chart distributionChart = createModernDistributionChart(stockAlerts);
+    Chart distributionChart = createModernDistributionChart(stockAlerts, healthyCount);
     distributionChart
         .getStyle()
         .set("background", "white")
@@ -1049,7 +1142,7 @@ public class DashboardView extends VerticalLayout  {
     return analyticsSection;
   }
 
-  private Chart createModernDistributionChart(List<StockAlertDto> stockAlerts) {
+  private Chart createModernDistributionChart(List<StockAlertDto> stockAlerts, long healthyCount) {
     Chart chart = new Chart(ChartType.PIE);
     chart.setHeight("350px");
 
@@ -1079,7 +1172,6 @@ public class DashboardView extends VerticalLayout  {
           colorIndex[0]++;
         });
 
-    long healthyCount = dashboardService.getHealthyStockCount();
     if (healthyCount > 0) {
       DataSeriesItem healthyItem = new DataSeriesItem("✅ Stock Saludable", healthyCount);
       healthyItem.setColor(new SolidColor("#059669"));
@@ -1096,8 +1188,15 @@ public class DashboardView extends VerticalLayout  {
   }
 
   private void showStockAlerts() {
+    UI ui = UI.getCurrent();
+    snapshot
+        .stockHealth()
+        .thenAccept(stockAlerts -> ui.access(() -> showStockAlerts(stockAlerts)));
+  }
+
+  private void showStockAlerts(List<StockAlertDto> stockAlerts) {
     List<StockAlertDto> criticalAlerts =
-        dashboardService.getStockHealthAnalysis().stream()
+        stockAlerts.stream()
             .filter(
                 alert ->
                     "CRITICAL".equals(alert.getAlertLevel())
@@ -1160,6 +1259,7 @@ public class DashboardView extends VerticalLayout  {
     add(productForm);
     productForm.setOnSaveCallback(this::refreshStockAlertsGrid);
 
+    snapshot = dashboardSnapshotService.getSnapshot();
     initializeDashboard();
     showStockAlerts();
   }
@@ -1,5 +1,8 @@
 package com.wornux.views.calendar;
 
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.DetachEvent;
+import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
 import com.vaadin.flow.component.combobox.ComboBox;
@@ -13,15 +16,24 @@ import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.shared.Registration;
 import com.vaadin.flow.theme.lumo.LumoUtility;
 import com.wornux.dto.request.AppointmentUpdateRequestDto;
+import com.wornux.exception.InvalidRecurrenceRuleException;
+import com.wornux.exception.ScheduleConflictException;
 import com.wornux.mapper.ClientMapper;
 import com.wornux.services.AuditService;
 import com.wornux.services.interfaces.AppointmentService;
+import com.wornux.services.interfaces.AppointmentSlotService;
 import com.wornux.services.interfaces.ClientService;
+import com.wornux.services.interfaces.EmployeeService;
 import com.wornux.services.interfaces.PetService;
+import com.wornux.services.scheduling.AppointmentBroadcaster;
 import com.wornux.utils.ValidationNotificationUtils;
 import com.wornux.views.MainLayout;
+import com.wornux.views.calendar.entryproviders.AppointmentEntryStore;
+import com.wornux.views.calendar.entryproviders.AppointmentEntryStore.ChangeType;
+import com.wornux.views.calendar.entryproviders.AppointmentEntryStore.EntryChange;
 import com.wornux.views.calendar.utils.FullCalendarWithTooltip;
 import elemental.json.Json;
 import elemental.json.JsonObject;
@@ -33,12 +45,12 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.TextStyle;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
 import lombok.extern.slf4j.Slf4j;
 import org.vaadin.stefan.fullcalendar.*;
-import org.vaadin.stefan.fullcalendar.dataprovider.CallbackEntryProvider;
 import org.vaadin.stefan.fullcalendar.dataprovider.EntryProvider;
 
 @Slf4j
@@ -50,28 +62,41 @@ public class AppointmentCalendarView extends VerticalLayout {
   private final FullCalendar calendar;
   private final transient AppointmentEntryService appointmentEntryService;
   private final transient AppointmentService appointmentService;
+  private final transient AppointmentBroadcaster appointmentBroadcaster;
+  private final transient AppointmentEntryStore entryStore;
   private final AppointmentForm appointmentForm;
   private final Span currentViewLabel;
   private final ComboBox<CalendarViewImpl> viewSelector;
+  private Registration broadcasterRegistration;
 
   public AppointmentCalendarView(
       AppointmentEntryService appointmentEntryService,
       AppointmentService appointmentService,
+      AppointmentBroadcaster appointmentBroadcaster,
       PetService petService,
+      AppointmentSlotService appointmentSlotService,
+      EmployeeService employeeService,
       AuditService auditService,
       ClientService clientService,
       ClientMapper clientMapper) {
     this.appointmentEntryService = appointmentEntryService;
     this.appointmentService = appointmentService;
+    this.appointmentBroadcaster = appointmentBroadcaster;
+    this.entryStore =
+        new AppointmentEntryStore(
+            appointmentService::getAppointmentsByDateRange,
+            appointmentEntryService::convertToEntry);
 
     appointmentForm =
         new AppointmentForm(
             appointmentService,
             clientService,
             petService,
+            appointmentSlotService,
+            employeeService,
             auditService,
             clientMapper,
-            v -> loadAppointments());
+            v -> {});
 
     currentViewLabel = new Span();
     viewSelector = createViewSelector();
@@ -105,7 +130,30 @@ public class AppointmentCalendarView extends VerticalLayout {
     header.addClassNames(LumoUtility.Margin.Bottom.SMALL);
     add(header, calendar, appointmentForm);
 
-    loadAppointments();
+    calendar.setEntryProvider(
+        EntryProvider.fromCallbacks(
+            query ->
+                query.getStart() != null && query.getEnd() != null
+                    ? entryStore.fetch(query.getStart(), query.getEnd())
+                    : entryStore.fetchLoaded(),
+            entryId -> entryStore.get(entryId).orElse(null)));
+  }
+
+  @Override
+  protected void onAttach(AttachEvent event) {
+    super.onAttach(event);
+    UI ui = event.getUI();
+    broadcasterRegistration =
+        appointmentBroadcaster.register(changes -> ui.access(() -> onAppointmentsChanged(changes)));
+  }
+
+  @Override
+  protected void onDetach(DetachEvent event) {
+    super.onDetach(event);
+    if (broadcasterRegistration != null) {
+      broadcasterRegistration.remove();
+      broadcasterRegistration = null;
+    }
   }
 
   private void configureCalendar() {
@@ -266,16 +314,11 @@ public class AppointmentCalendarView extends VerticalLayout {
 
   private void onDatesRendered(DatesRenderedEvent event) {
     LocalDate intervalStart = event.getIntervalStart();
-    LocalDate intervalEnd = event.getIntervalEnd();
     CalendarViewImpl currentView = viewSelector.getValue();
 
     if (currentView != null && intervalStart != null) {
       String formattedInterval = formatIntervalForView(intervalStart, currentView);
       currentViewLabel.setText(formattedInterval);
-
-      if (intervalEnd != null) {
-        loadAppointmentsForDateRange(intervalStart, intervalEnd);
-      }
     }
   }
 
@@ -334,50 +377,40 @@ public class AppointmentCalendarView extends VerticalLayout {
     appointmentForm.openForNew(LocalDateTime.now(), LocalDateTime.now().plusHours(1));
   }
 
+  /** Reads the visible range again from the server. */
   public void loadAppointments() {
-    try {
-      CallbackEntryProvider<Entry> entryProvider =
-          EntryProvider.fromCallbacks(
-              query -> {
-                LocalDate start = query.getStart().toLocalDate();
-                LocalDate end = query.getEnd().toLocalDate();
-                LocalDate bufferedStart = start.minusDays(7);
-                LocalDate bufferedEnd = end.plusDays(7);
-
-                return appointmentEntryService
-                    .getAppointmentEntriesInRange(
-                        bufferedStart.atStartOfDay(), bufferedEnd.atTime(23, 59, 59))
-                    .stream();
-              },
-              entryId ->
-                  appointmentEntryService
-                      .getAppointment(Long.valueOf(entryId))
-                      .map(appointmentEntryService::convertToEntry)
-                      .orElse(null));
-
-      calendar.setEntryProvider(entryProvider);
+    entryStore.clear();
+    calendar.getEntryProvider().refreshAll();
+  }
+
+  /**
+   * Applies the appointments changed by anyone since the last push. The client refetches only the
+   * visible range and the store answers it from memory; a single change refreshes just its entry.
+   */
+  private void onAppointmentsChanged(List<AppointmentBroadcaster.Change> changes) {
+    List<EntryChange> applied = new ArrayList<>();
+    changes.forEach(
+        change ->
+            entryStore.apply(change.appointmentId(), change.appointment()).ifPresent(applied::add));
+    if (applied.stream().anyMatch(change -> change.type() == ChangeType.RELOADED)) {
+      calendar.getEntryProvider().refreshAll();
+    } else if (applied.size() == 1) {
+      calendar.getEntryProvider().refreshItem(applied.getFirst().entry());
+    } else if (!applied.isEmpty()) {
       calendar.getEntryProvider().refreshAll();
-    } catch (Exception e) {
-      log.error("Error loading appointments", e);
     }
   }
 
-  private void loadAppointmentsForDateRange(LocalDate start, LocalDate end) {
-    try {
-      LocalDate bufferedStart = start.minusDays(3);
-      LocalDate bufferedEnd = end.plusDays(3);
-
-      List<Entry> entries =
-          appointmentEntryService.getAppointmentEntriesInRange(
-              bufferedStart.atStartOfDay(), bufferedEnd.atTime(23, 59, 59));
-
-      org.vaadin.stefan.fullcalendar.dataprovider.InMemoryEntryProvider<Entry> entryProvider =
-          EntryProvider.inMemoryFrom(entries);
-      calendar.setEntryProvider(entryProvider);
-      calendar.getEntryProvider().refreshAll();
-    } catch (Exception e) {
-      log.error("Error loading appointments for date range: {} to {}", start, end, e);
+  /** Puts an entry back where the server has it, after the client moved it and the move failed. */
+  private void revertEntry(String entryId) {
+    if (AppointmentEntryStore.occurrenceStart(entryId).isPresent()) {
+      loadAppointments();
+      return;
     }
+    Long appointmentId = AppointmentEntryStore.appointmentId(entryId);
+    entryStore
+        .apply(appointmentId, appointmentEntryService.getAppointment(appointmentId).orElse(null))
+        .ifPresent(change -> calendar.getEntryProvider().refreshItem(change.entry()));
   }
 
   public void refreshAll(LocalDate localDate) {
@@ -394,8 +427,13 @@ public class AppointmentCalendarView extends VerticalLayout {
   }
 
   private void onEntryClick(EntryClickedEvent event) {
-    Long appointmentId = Long.valueOf(event.getEntry().getId());
-    appointmentEntryService.getAppointment(appointmentId).ifPresent(appointmentForm::openForEdit);
+    String entryId = event.getEntry().getId();
+    appointmentEntryService
+        .getAppointment(AppointmentEntryStore.appointmentId(entryId))
+        .ifPresent(
+            appointment ->
+                appointmentForm.openForEdit(
+                    appointment, AppointmentEntryStore.occurrenceStart(entryId).orElse(null)));
   }
 
   private void onTimeslotsSelected(TimeslotsSelectedEvent event) {
@@ -417,13 +455,21 @@ public class AppointmentCalendarView extends VerticalLayout {
   }
 
   private void updateAppointmentTime(Entry entry) {
+    String entryId = entry.getId();
+    Long appointmentId = AppointmentEntryStore.appointmentId(entryId);
     try {
-      Long appointmentId = Long.parseLong(entry.getId());
-      AppointmentUpdateRequestDto updateDto = new AppointmentUpdateRequestDto();
-      updateDto.setStartAppointmentDate(entry.getStart());
-      updateDto.setEndAppointmentDate(entry.getEnd());
-
-      appointmentService.updateAppointment(appointmentId, updateDto);
+      Optional<LocalDateTime> occurrenceStart = AppointmentEntryStore.occurrenceStart(entryId);
+      if (occurrenceStart.isPresent()) {
+        // mover una ocurrencia sólo cambia esa fecha de la serie
+        appointmentService.rescheduleOccurrence(
+            appointmentId, occurrenceStart.get(), entry.getStart(), entry.getEnd());
+      } else {
+        AppointmentUpdateRequestDto updateDto = new AppointmentUpdateRequestDto();
+        updateDto.setStartAppointmentDate(entry.getStart());
+        updateDto.setEndAppointmentDate(entry.getEnd());
+
+        appointmentService.updateAppointment(appointmentId, updateDto);
+      }
 
       Notification notification = Notification.show("Cita actualizada correctamente");
       notification.addThemeVariants(NotificationVariant.LUMO_SUCCESS);
@@ -432,7 +478,14 @@ public class AppointmentCalendarView extends VerticalLayout {
     } catch (ConstraintViolationException e) {
       log.error("Validation error updating appointment", e);
       ValidationNotificationUtils.handleCalendarValidationErrors(e);
-      loadAppointments();
+      revertEntry(entryId);
+    } catch (ScheduleConflictException | InvalidRecurrenceRuleException e) {
+      Notification notification = Notification.show(e.getMessage());
+      notification.addThemeVariants(NotificationVariant.LUMO_ERROR);
+      notification.setPosition(Notification.Position.TOP_CENTER);
+      notification.setDuration(5000);
+
+      revertEntry(entryId);
     } catch (Exception e) {
       log.error("Error updating appointment", e);
 
@@ -442,7 +495,7 @@ public class AppointmentCalendarView extends VerticalLayout {
       notification.setPosition(Notification.Position.TOP_CENTER);
       notification.setDuration(5000);
 
-      loadAppointments();
+      revertEntry(entryId);
     }
   }
 
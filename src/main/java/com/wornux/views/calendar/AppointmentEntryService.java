@@ -3,8 +3,7 @@ package com.wornux.views.calendar;
 import com.wornux.data.enums.OfferingType;
 import com.wornux.dto.response.AppointmentResponseDto;
 import com.wornux.services.interfaces.AppointmentService;
-import java.time.LocalDateTime;
-import java.util.List;
+import com.wornux.views.calendar.entryproviders.AppointmentEntryStore;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -16,15 +15,8 @@ public class AppointmentEntryService {
 
   private final AppointmentService appointmentService;
 
-  public List<Entry> getAppointmentEntriesInRange(LocalDateTime start, LocalDateTime end) {
-    List<AppointmentResponseDto> appointments =
-        appointmentService.getAppointmentsByDateRange(start, end);
-
-    return appointments.stream().map(this::convertToEntry).toList();
-  }
-
   public Entry convertToEntry(AppointmentResponseDto appointment) {
-    Entry entry = new Entry(String.valueOf(appointment.getEventId()));
+    Entry entry = new Entry(AppointmentEntryStore.entryId(appointment));
     entry.setTitle(buildAppointmentTitle(appointment));
     entry.setStart(appointment.getStartAppointmentDate());
     entry.setEnd(appointment.getEndAppointmentDate());
@@ -75,7 +67,11 @@ public class AppointmentEntryService {
     }
 
     if (appointment.getAppointmentTitle() != null) {
-      desc.append("Título: ").append(appointment.getAppointmentTitle());
+      desc.append("Título: ").append(appointment.getAppointmentTitle()).append("\n");
+    }
+
+    if (appointment.getRecurrenceRule() != null) {
+      desc.append("Cita recurrente");
     }
 
     return desc.toString().trim();
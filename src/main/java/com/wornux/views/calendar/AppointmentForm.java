@@ -24,6 +24,7 @@ import com.vaadin.flow.component.menubar.MenuBarVariant;
 import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.notification.NotificationVariant;
 import com.vaadin.flow.component.select.Select;
+import com.vaadin.flow.component.textfield.IntegerField;
 import com.vaadin.flow.component.textfield.TextArea;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.component.textfield.TextFieldBase;
@@ -39,11 +40,18 @@ import com.wornux.data.enums.OfferingType;
 import com.wornux.data.enums.PetType;
 import com.wornux.dto.request.AppointmentUpdateRequestDto;
 import com.wornux.dto.response.AppointmentResponseDto;
+import com.wornux.dto.response.AvailableSlotDto;
+import com.wornux.exception.InvalidRecurrenceRuleException;
+import com.wornux.exception.ScheduleConflictException;
 import com.wornux.mapper.ClientMapper;
 import com.wornux.services.AuditService;
 import com.wornux.services.interfaces.AppointmentService;
+import com.wornux.services.interfaces.AppointmentSlotService;
 import com.wornux.services.interfaces.ClientService;
+import com.wornux.services.interfaces.EmployeeService;
 import com.wornux.services.interfaces.PetService;
+import com.wornux.services.scheduling.RecurrenceRule;
+import com.wornux.services.scheduling.RecurrenceRule.Frequency;
 import com.wornux.utils.CommonUtils;
 import com.wornux.utils.MenuBarHandler;
 import com.wornux.utils.ValidationNotificationUtils;
@@ -52,8 +60,10 @@ import com.wornux.views.customers.ClientCreationDialog;
 import com.wornux.views.pets.PetForm;
 import jakarta.validation.ConstraintViolationException;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
@@ -65,6 +75,8 @@ public class AppointmentForm extends Div {
   private final transient AppointmentService appointmentService;
   private final transient ClientService clientService;
   private final transient PetService petService;
+  private final transient AppointmentSlotService appointmentSlotService;
+  private final transient EmployeeService employeeService;
   private final transient Consumer<Void> onSaveCallback;
   private final Select<OfferingType> offeringTypeSelect = new Select<>();
   private final ComboBox<Client> clientCombo = new ComboBox<>("Selecciona un cliente");
@@ -75,6 +87,8 @@ public class AppointmentForm extends Div {
   private final TimePicker startTime = new TimePicker("Hora de Inicio");
   private final TimePicker endTime = new TimePicker("Hora de Fin");
   private final TextArea notesField = new TextArea("Notas");
+  private final Select<Frequency> repeatSelect = new Select<>();
+  private final IntegerField repeatCount = new IntegerField("Repeticiones");
   // AppointmentClientInfo fields for grooming workflow
   private final TextField guestClientName = new TextField("Nombre del Cliente");
   private final TextField guestClientPhone = new TextField("Teléfono");
@@ -88,23 +102,32 @@ public class AppointmentForm extends Div {
   private final transient RevisionView<Appointment> revisionView;
   private final Button addClient = new Button(VaadinIcon.PLUS_CIRCLE.create());
   private final Button addPet = new Button(VaadinIcon.PLUS_CIRCLE.create());
+  private final Button nextSlot = new Button("Próximo horario libre", VaadinIcon.CLOCK.create());
+  private final Button skipOccurrence = new Button("Omitir esta fecha", VaadinIcon.BAN.create());
   private final Div layoutTabBar = new Div();
   private final Div generalFormDiv = new Div();
   private final ClientCreationDialog clientCreationDialog;
   private final PetForm petForm;
   private transient AppointmentResponseDto currentAppointment;
+  private LocalDateTime currentOccurrence;
+  // la regla guardada; el formulario solo muestra frecuencia y repeticiones
+  private RecurrenceRule loadedRule;
   private boolean isGroomingWorkflow = false;
 
   public AppointmentForm(
       AppointmentService appointmentService,
       ClientService clientService,
       PetService petService,
+      AppointmentSlotService appointmentSlotService,
+      EmployeeService employeeService,
       AuditService auditService,
       ClientMapper clientMapper,
       Consumer<Void> onSaveCallback) {
     this.appointmentService = appointmentService;
     this.clientService = clientService;
     this.petService = petService;
+    this.appointmentSlotService = appointmentSlotService;
+    this.employeeService = employeeService;
     this.onSaveCallback = onSaveCallback;
 
     this.clientCreationDialog = new ClientCreationDialog(clientService, clientMapper);
@@ -187,6 +210,43 @@ public class AppointmentForm extends Div {
     endTime.setWidth("48%");
     endTime.setEnabled(false);
 
+    assignedEmployeeCombo.setWidthFull();
+    assignedEmployeeCombo.setReadOnly(true);
+    assignedEmployeeCombo.setItemLabelGenerator(e -> e.getFirstName() + " " + e.getLastName());
+
+    nextSlot.setTooltipText("Buscar el próximo horario libre para este servicio");
+    nextSlot.addThemeVariants(ButtonVariant.LUMO_SMALL, ButtonVariant.LUMO_TERTIARY);
+    nextSlot.setEnabled(false);
+    nextSlot.addClickListener(this::fillNextAvailableSlot);
+
+    repeatSelect.setLabel("Repetir");
+    repeatSelect.setItems(Frequency.values());
+    repeatSelect.setEmptySelectionAllowed(true);
+    repeatSelect.setEmptySelectionCaption("No se repite");
+    repeatSelect.setItemLabelGenerator(
+        frequency ->
+            switch (frequency) {
+              case DAILY -> "Cada día";
+              case WEEKLY -> "Cada semana";
+              case MONTHLY -> "Cada mes";
+            });
+    repeatSelect.setWidth("48%");
+    repeatSelect.setEnabled(false);
+    repeatSelect.addValueChangeListener(event -> repeatCount.setEnabled(event.getValue() != null));
+
+    repeatCount.setWidth("48%");
+    repeatCount.setMin(2);
+    repeatCount.setMax(RecurrenceRule.MAX_OCCURRENCES);
+    repeatCount.setStepButtonsVisible(true);
+    repeatCount.setHelperText("Vacío: sin fecha final");
+    repeatCount.setEnabled(false);
+
+    skipOccurrence.setTooltipText("Cancelar sólo esta fecha de la serie");
+    skipOccurrence.addThemeVariants(
+        ButtonVariant.LUMO_SMALL, ButtonVariant.LUMO_TERTIARY, ButtonVariant.LUMO_ERROR);
+    skipOccurrence.setVisible(false);
+    skipOccurrence.addClickListener(this::cancelCurrentOccurrence);
+
     notesField.setWidthFull();
     notesField.setEnabled(false);
     CommonUtils.commentsFormat(notesField, 500);
@@ -320,6 +380,42 @@ public class AppointmentForm extends Div {
     }
   }
 
+  /**
+   * Fills the date, the hours and the employee with the first free slot for the selected service,
+   * from the chosen date and start time or from now.
+   */
+  private void fillNextAvailableSlot(ClickEvent<Button> event) {
+    OfferingType offeringType = offeringTypeSelect.getValue();
+    if (offeringType == null) {
+      return;
+    }
+    LocalDateTime from =
+        appointmentDate.isEmpty()
+            ? null
+            : LocalDateTime.of(
+                appointmentDate.getValue(),
+                startTime.isEmpty() ? LocalTime.MIDNIGHT : startTime.getValue());
+
+    List<AvailableSlotDto> slots = appointmentSlotService.findNextSlots(offeringType, from, 1);
+    if (slots.isEmpty()) {
+      Notification.show(
+              "No hay horarios libres en los próximos días", 3000, Notification.Position.BOTTOM_END)
+          .addThemeVariants(NotificationVariant.LUMO_WARNING);
+      return;
+    }
+    AvailableSlotDto slot = slots.getFirst();
+    employeeService
+        .getEmployeeById(slot.employeeId())
+        .ifPresent(
+            employee -> {
+              assignedEmployeeCombo.setItems(employee);
+              assignedEmployeeCombo.setValue(employee);
+            });
+    appointmentDate.setValue(slot.start().toLocalDate());
+    startTime.setValue(slot.start().toLocalTime());
+    endTime.setValue(slot.end().toLocalTime());
+  }
+
   private void openClientCreationDialog(ClickEvent<Button> event) {
     clientCreationDialog.setOnClientCreated(
         item -> {
@@ -346,6 +442,9 @@ public class AppointmentForm extends Div {
     Stream.<AbstractSinglePropertyField<?, ?>>of(
             titleField, appointmentDate, startTime, endTime, notesField)
         .forEach(field -> field.setEnabled(enabled));
+    nextSlot.setEnabled(enabled);
+    repeatSelect.setEnabled(enabled);
+    repeatCount.setEnabled(enabled && repeatSelect.getValue() != null);
 
     clientCombo.setEnabled(enabled && !isGroomingWorkflow);
     addClient.setEnabled(enabled && !isGroomingWorkflow);
@@ -451,11 +550,25 @@ public class AppointmentForm extends Div {
         LumoUtility.Gap.MEDIUM,
         LumoUtility.JustifyContent.BETWEEN);
 
-    Div timeSection = new Div(timeLabelDiv, timeLayout);
+    Div timeSection = new Div(timeLabelDiv, timeLayout, nextSlot);
     timeSection.addClassNames(
         LumoUtility.Display.FLEX, LumoUtility.FlexDirection.COLUMN, LumoUtility.Gap.SMALL);
 
-    Div section = new Div(titleField, appointmentDate, timeSection);
+    Div repeatLayout = new Div(repeatSelect, repeatCount);
+    repeatLayout.addClassNames(
+        LumoUtility.Display.FLEX,
+        LumoUtility.FlexDirection.ROW,
+        LumoUtility.Gap.MEDIUM,
+        LumoUtility.JustifyContent.BETWEEN);
+
+    Div section =
+        new Div(
+            titleField,
+            appointmentDate,
+            timeSection,
+            repeatLayout,
+            skipOccurrence,
+            assignedEmployeeCombo);
     section.addClassNames(LumoUtility.Display.FLEX, LumoUtility.FlexDirection.COLUMN);
     section.addClassNames(LumoUtility.Gap.SMALL);
 
@@ -510,6 +623,9 @@ public class AppointmentForm extends Div {
     } catch (ConstraintViolationException e) {
       log.error("Validation error saving appointment", e);
       ValidationNotificationUtils.handleFormValidationErrors(e);
+    } catch (ScheduleConflictException | InvalidRecurrenceRuleException e) {
+      Notification.show(e.getMessage(), 5000, Notification.Position.MIDDLE)
+          .addThemeVariants(NotificationVariant.LUMO_ERROR);
     } catch (ObjectOptimisticLockingFailureException ex) {
       log.error(ex.getLocalizedMessage());
       Notification.show(
@@ -571,6 +687,7 @@ public class AppointmentForm extends Div {
     try {
       binder.writeBean(appointment);
       setDateRangeForAppointment(appointment);
+      appointment.setRecurrenceRule(buildRecurrenceRule());
       if (isGroomingWorkflow) {
         guestInfoBinder.writeBean(appointmentClientInfo);
         appointment.setGuestClientInfo(appointmentClientInfo);
@@ -594,6 +711,9 @@ public class AppointmentForm extends Div {
 
     updateDto.setStartAppointmentDate(startDateTime);
     updateDto.setEndAppointmentDate(endDateTime);
+    // vacío quita la repetición; null dejaría la que tenga
+    String recurrenceRule = buildRecurrenceRule();
+    updateDto.setRecurrenceRule(recurrenceRule != null ? recurrenceRule : "");
 
     appointmentService.updateAppointment(currentAppointment.getEventId(), updateDto);
 
@@ -601,6 +721,41 @@ public class AppointmentForm extends Div {
         .addThemeVariants(NotificationVariant.LUMO_SUCCESS);
   }
 
+  /**
+   * The rule for the chosen repetition. The saved rule is kept as it is while its frequency and
+   * count are untouched, and keeps its interval and weekdays if only the count changes; a new
+   * frequency starts a plain rule on the weekday or day of month of the start.
+   */
+  private String buildRecurrenceRule() {
+    if (repeatSelect.getValue() == null) {
+      return null;
+    }
+    if (loadedRule == null || loadedRule.getFrequency() != repeatSelect.getValue()) {
+      return new RecurrenceRule(repeatSelect.getValue(), 1, null, repeatCount.getValue(), null)
+          .toString();
+    }
+    return Objects.equals(loadedRule.getCount(), repeatCount.getValue())
+        ? loadedRule.toString()
+        : loadedRule.withCount(repeatCount.getValue()).toString();
+  }
+
+  private void cancelCurrentOccurrence(ClickEvent<Button> event) {
+    if (currentAppointment == null || currentOccurrence == null) {
+      return;
+    }
+    try {
+      appointmentService.cancelOccurrence(currentAppointment.getEventId(), currentOccurrence);
+      Notification.show("Fecha omitida de la serie", 3000, Notification.Position.BOTTOM_END)
+          .addThemeVariants(NotificationVariant.LUMO_SUCCESS);
+      onSaveCallback.accept(null);
+      sidebar.close();
+    } catch (Exception e) {
+      log.error("Error cancelling occurrence", e);
+      Notification.show("Error omitiendo la fecha", 3000, Notification.Position.MIDDLE)
+          .addThemeVariants(NotificationVariant.LUMO_ERROR);
+    }
+  }
+
   private void setDateRangeForAppointment(Appointment dto) {
     LocalDateTime startDateTime =
         LocalDateTime.of(appointmentDate.getValue(), startTime.getValue());
@@ -613,6 +768,11 @@ public class AppointmentForm extends Div {
     binder.getFields().forEach(HasValue::clear);
     guestInfoBinder.getFields().forEach(HasValue::clear);
     Stream.of(clientCombo, petCombo, assignedEmployeeCombo).forEach(HasValue::clear);
+    repeatSelect.clear();
+    repeatCount.clear();
+    loadedRule = null;
+    currentOccurrence = null;
+    skipOccurrence.setVisible(false);
 
     isGroomingWorkflow = false;
     updateWorkflowVisibility();
@@ -633,6 +793,13 @@ public class AppointmentForm extends Div {
       if (appointment.getEndAppointmentDate() != null) {
         endTime.setValue(appointment.getEndAppointmentDate().toLocalTime());
       }
+
+      loadedRule =
+          appointment.getRecurrenceRule() != null
+              ? RecurrenceRule.parse(appointment.getRecurrenceRule())
+              : null;
+      repeatSelect.setValue(loadedRule != null ? loadedRule.getFrequency() : null);
+      repeatCount.setValue(loadedRule != null ? loadedRule.getCount() : null);
     }
   }
 
@@ -661,8 +828,20 @@ public class AppointmentForm extends Div {
   }
 
   public void openForEdit(AppointmentResponseDto appointment) {
+    openForEdit(appointment, null);
+  }
+
+  /**
+   * Opens a recurring appointment from one of its occurrences: the form edits the whole series and
+   * offers to skip just that occurrence.
+   *
+   * @param occurrenceStart The start the rule gives the occurrence, or {@code null} for the series
+   */
+  public void openForEdit(AppointmentResponseDto appointment, LocalDateTime occurrenceStart) {
     currentAppointment = appointment;
     populateForm(appointment);
+    currentOccurrence = occurrenceStart;
+    skipOccurrence.setVisible(occurrenceStart != null);
 
     recreateHeaderContent();
     sidebar.getCancel().setText("Descartar cambios");
@@ -0,0 +1,239 @@
+package com.wornux.views.calendar.entryproviders;
+
+import com.wornux.dto.response.AppointmentResponseDto;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import org.vaadin.stefan.fullcalendar.Entry;
+
+/**
+ * Calendar entries of one calendar, one per appointment and one per occurrence of a recurring
+ * appointment. Entry ids are built by {@link #entryId}: the appointment id, plus the original start
+ * of the occurrence for series.
+ *
+ * <p>Entries are kept in a {@link NavigableMap} by start, so the entries of a visible range are a
+ * sub-map rather than a scan: the lower bound is moved back by the longest entry held, which picks
+ * up those that began before the range and still overlap it. Ranges not loaded yet are read through
+ * the loader, with a margin around them so moving to the next week or month stays in memory; ranges
+ * far from the loaded one replace it. Changes pushed after a commit are applied with {@link #apply}
+ * and come back as {@link EntryChange}s, which is what the calendar has to refresh. A change to a
+ * series may add or drop any number of its occurrences, so it empties the store instead and comes
+ * back as {@link ChangeType#RELOADED}. Not thread-safe; it belongs to a UI.
+ */
+public class AppointmentEntryStore {
+
+  static final Duration PREFETCH = Duration.ofDays(7);
+  static final Duration MAX_SPAN = Duration.ofDays(400);
+
+  private static final String OCCURRENCE_SEPARATOR = "@";
+  private static final Comparator<Key> ORDER =
+      Comparator.comparing(Key::start).thenComparing(Key::id);
+
+  private final BiFunction<LocalDateTime, LocalDateTime, List<AppointmentResponseDto>> loader;
+  private final Function<AppointmentResponseDto, Entry> converter;
+  private final NavigableMap<Key, Stored> byStart = new TreeMap<>(ORDER);
+  private final Map<String, Stored> byId = new HashMap<>();
+  private final Set<Long> series = new HashSet<>();
+  private LocalDateTime loadedFrom;
+  private LocalDateTime loadedTo;
+  private Duration longest = Duration.ZERO;
+
+  /**
+   * @param loader reads the appointments that overlap {@code [from, to)}
+   * @param converter builds the calendar entry of an appointment
+   */
+  public AppointmentEntryStore(
+      BiFunction<LocalDateTime, LocalDateTime, List<AppointmentResponseDto>> loader,
+      Function<AppointmentResponseDto, Entry> converter) {
+    this.loader = loader;
+    this.converter = converter;
+  }
+
+  /** Entries that overlap {@code [from, to)}, in start order, loading the range if needed. */
+  public Stream<Entry> fetch(LocalDateTime from, LocalDateTime to) {
+    ensureLoaded(from, to);
+    return byStart
+        .subMap(new Key(from.minus(longest), ""), true, new Key(to, ""), false)
+        .values()
+        .stream()
+        .filter(stored -> stored.end().isAfter(from) || !stored.key().start().isBefore(from))
+        .map(Stored::entry);
+  }
+
+  /** Every entry loaded, in start order. */
+  public Stream<Entry> fetchLoaded() {
+    return byStart.values().stream().map(Stored::entry);
+  }
+
+  public Optional<Entry> get(String id) {
+    return Optional.ofNullable(byId.get(id)).map(Stored::entry);
+  }
+
+  public int size() {
+    return byId.size();
+  }
+
+  /** Forgets everything loaded, so the next fetch reads its range again. */
+  public void clear() {
+    byStart.clear();
+    byId.clear();
+    series.clear();
+    loadedFrom = null;
+    loadedTo = null;
+    longest = Duration.ZERO;
+  }
+
+  /**
+   * Applies the latest state of an appointment.
+   *
+   * @param appointment The appointment, or {@code null} if it no longer exists
+   * @return what changed for the calendar, if anything: an entry is added or updated only while it
+   *     overlaps the loaded range, and removed otherwise; series are reloaded
+   */
+  public Optional<EntryChange> apply(Long appointmentId, AppointmentResponseDto appointment) {
+    if (series.contains(appointmentId)
+        || (appointment != null && appointment.getRecurrenceRule() != null)) {
+      if (loadedFrom == null) {
+        return Optional.empty();
+      }
+      clear();
+      return Optional.of(new EntryChange(ChangeType.RELOADED, null));
+    }
+    Stored previous = remove(String.valueOf(appointmentId));
+    if (appointment != null && loadedFrom != null && overlapsLoaded(appointment)) {
+      Stored stored = put(appointment);
+      return Optional.of(
+          new EntryChange(
+              previous == null ? ChangeType.ADDED : ChangeType.UPDATED, stored.entry()));
+    }
+    return Optional.ofNullable(previous)
+        .map(removed -> new EntryChange(ChangeType.REMOVED, removed.entry()));
+  }
+
+  private void ensureLoaded(LocalDateTime from, LocalDateTime to) {
+    if (loadedFrom != null && !from.isBefore(loadedFrom) && !to.isAfter(loadedTo)) {
+      return;
+    }
+    LocalDateTime start = from.minus(PREFETCH);
+    LocalDateTime end = to.plus(PREFETCH);
+    if (loadedFrom == null
+        || end.isBefore(loadedFrom)
+        || start.isAfter(loadedTo)
+        || Duration.between(min(start, loadedFrom), max(end, loadedTo)).compareTo(MAX_SPAN) > 0) {
+      clear();
+      load(start, end);
+      loadedFrom = start;
+      loadedTo = end;
+      return;
+    }
+    // sólo se leen los tramos que faltan; una cita en el borde llega dos veces y se sustituye
+    if (start.isBefore(loadedFrom)) {
+      load(start, loadedFrom);
+      loadedFrom = start;
+    }
+    if (end.isAfter(loadedTo)) {
+      load(loadedTo, end);
+      loadedTo = end;
+    }
+  }
+
+  private void load(LocalDateTime from, LocalDateTime to) {
+    for (AppointmentResponseDto appointment : loader.apply(from, to)) {
+      remove(entryId(appointment));
+      if (appointment.getStartAppointmentDate() != null) {
+        put(appointment);
+      }
+    }
+  }
+
+  private Stored put(AppointmentResponseDto appointment) {
+    LocalDateTime start = appointment.getStartAppointmentDate();
+    LocalDateTime end =
+        appointment.getEndAppointmentDate() != null
+                && appointment.getEndAppointmentDate().isAfter(start)
+            ? appointment.getEndAppointmentDate()
+            : start;
+    Stored stored =
+        new Stored(new Key(start, entryId(appointment)), end, converter.apply(appointment));
+    byStart.put(stored.key(), stored);
+    byId.put(stored.key().id(), stored);
+    if (appointment.getOccurrenceStart() != null) {
+      series.add(appointment.getEventId());
+    }
+    Duration length = Duration.between(start, end);
+    if (length.compareTo(longest) > 0) {
+      longest = length;
+    }
+    return stored;
+  }
+
+  private Stored remove(String id) {
+    Stored stored = byId.remove(id);
+    if (stored != null) {
+      byStart.remove(stored.key());
+    }
+    return stored;
+  }
+
+  private boolean overlapsLoaded(AppointmentResponseDto appointment) {
+    LocalDateTime start = appointment.getStartAppointmentDate();
+    LocalDateTime end = appointment.getEndAppointmentDate();
+    return start != null
+        && start.isBefore(loadedTo)
+        && (end != null ? end : start).compareTo(loadedFrom) >= 0;
+  }
+
+  /** Id of the entry of an appointment, or of an occurrence of a series. */
+  public static String entryId(AppointmentResponseDto appointment) {
+    return appointment.getOccurrenceStart() == null
+        ? String.valueOf(appointment.getEventId())
+        : appointment.getEventId() + OCCURRENCE_SEPARATOR + appointment.getOccurrenceStart();
+  }
+
+  /** The appointment an entry belongs to. */
+  public static Long appointmentId(String entryId) {
+    int separator = entryId.indexOf(OCCURRENCE_SEPARATOR);
+    return Long.valueOf(separator < 0 ? entryId : entryId.substring(0, separator));
+  }
+
+  /** The original start of the occurrence an entry shows, if it belongs to a series. */
+  public static Optional<LocalDateTime> occurrenceStart(String entryId) {
+    int separator = entryId.indexOf(OCCURRENCE_SEPARATOR);
+    return separator < 0
+        ? Optional.empty()
+        : Optional.of(LocalDateTime.parse(entryId.substring(separator + 1)));
+  }
+
+  private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+    return a.isBefore(b) ? a : b;
+  }
+
+  private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+    return a.isAfter(b) ? a : b;
+  }
+
+  public enum ChangeType {
+    ADDED,
+    UPDATED,
+    REMOVED,
+    RELOADED
+  }
+
+  /** An entry the calendar has to refresh, and why; no entry when everything was reloaded. */
+  public record EntryChange(ChangeType type, Entry entry) {}
+
+  private record Key(LocalDateTime start, String id) {}
+
+  private record Stored(Key key, LocalDateTime end, Entry entry) {}
+}
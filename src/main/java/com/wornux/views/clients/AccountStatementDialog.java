@@ -0,0 +1,149 @@
+package com.wornux.views.clients;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.button.ButtonVariant;
+import com.vaadin.flow.component.datepicker.DatePicker;
+import com.vaadin.flow.component.dialog.Dialog;
+import com.vaadin.flow.component.formlayout.FormLayout;
+import com.vaadin.flow.component.icon.VaadinIcon;
+import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.server.StreamRegistration;
+import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.flow.server.streams.DownloadHandler;
+import com.wornux.data.entity.Client;
+import com.wornux.services.report.AccountStatementService;
+import com.wornux.services.report.pdf.ReportErrorException;
+import com.wornux.utils.NotificationUtils;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.core5.http.ContentType;
+
+/**
+ * Pide el período del estado de cuenta de un cliente, o el RNC de la empresa, y lo descarga en PDF
+ * o CSV. El documento se genera al atender la descarga y se escribe directamente en la respuesta.
+ */
+@Slf4j
+public class AccountStatementDialog extends Dialog {
+
+  private final TextField rnc = new TextField("RNC");
+  private final DatePicker from = new DatePicker("Desde");
+  private final DatePicker to = new DatePicker("Hasta");
+  private final transient AccountStatementService accountStatementService;
+  private transient Client client;
+
+  public AccountStatementDialog(AccountStatementService accountStatementService) {
+    this.accountStatementService = accountStatementService;
+
+    setWidth("460px");
+    rnc.setRequired(true);
+    rnc.setClearButtonVisible(true);
+    from.setRequired(true);
+    to.setRequired(true);
+    to.setMax(LocalDate.now());
+    from.addValueChangeListener(e -> to.setMin(e.getValue()));
+
+    FormLayout layout = new FormLayout(rnc, from, to);
+    layout.setColspan(rnc, 2);
+    add(layout);
+
+    Button pdf = new Button("PDF", VaadinIcon.FILE_TEXT_O.create(), e -> download(true));
+    pdf.addThemeVariants(ButtonVariant.LUMO_PRIMARY);
+    Button csv = new Button("CSV", VaadinIcon.TABLE.create(), e -> download(false));
+    Button cancel = new Button("Cancelar", e -> close());
+    cancel.addThemeVariants(ButtonVariant.LUMO_TERTIARY);
+    getFooter().add(cancel, csv, pdf);
+  }
+
+  /** Abre el diálogo para el estado de cuenta del cliente dado. */
+  public void openFor(Client client) {
+    this.client = client;
+    setHeaderTitle("Estado de Cuenta - " + client.getFullName());
+    rnc.setVisible(false);
+    resetPeriod();
+    open();
+  }
+
+  /** Abre el diálogo para buscar la empresa por su RNC. */
+  public void openForRnc() {
+    client = null;
+    setHeaderTitle("Estado de Cuenta por RNC");
+    rnc.clear();
+    rnc.setInvalid(false);
+    rnc.setVisible(true);
+    resetPeriod();
+    open();
+    rnc.focus();
+  }
+
+  private void resetPeriod() {
+    LocalDate today = LocalDate.now();
+    from.setValue(today.withDayOfMonth(1));
+    to.setValue(today);
+    from.setInvalid(false);
+    to.setInvalid(false);
+  }
+
+  private void download(boolean pdf) {
+    from.setInvalid(from.isEmpty());
+    to.setInvalid(to.isEmpty() || !from.isEmpty() && to.getValue().isBefore(from.getValue()));
+    if (from.isInvalid() || to.isInvalid()) {
+      return;
+    }
+    Client target = client != null ? client : findByRnc();
+    if (target == null) {
+      return;
+    }
+
+    Long clientId = target.getId();
+    LocalDate start = from.getValue();
+    LocalDate end = to.getValue();
+    String fileName = "Estado_Cuenta_%d_%s_%s".formatted(clientId, start, end);
+    UI ui = UI.getCurrent();
+
+    DownloadHandler downloadHandler =
+        pdf
+            ? event -> {
+              event.setFileName(fileName + ".pdf");
+              event.setContentType(ContentType.APPLICATION_PDF.getMimeType());
+              try (OutputStream outputStream = event.getOutputStream()) {
+                accountStatementService.writePdf(clientId, start, end, outputStream);
+              } catch (ReportErrorException e) {
+                log.error("Error al generar el estado de cuenta: {}", fileName, e);
+                event.getResponse().sendError(500, "Error al generar el PDF");
+                ui.access(
+                    () ->
+                        NotificationUtils.error(
+                            "Error al generar el estado de cuenta, favor intentar nuevamente"));
+              }
+            }
+            : event -> {
+              event.setFileName(fileName + ".csv");
+              event.setContentType("text/csv");
+              try (OutputStream outputStream = event.getOutputStream()) {
+                accountStatementService.writeCsv(clientId, start, end, outputStream);
+              }
+            };
+
+    StreamRegistration registration =
+        VaadinSession.getCurrent().getResourceRegistry().registerResource(downloadHandler);
+    ui.getPage().open(registration.getResourceUri().toString(), "_blank");
+    close();
+  }
+
+  private Client findByRnc() {
+    if (rnc.isEmpty()) {
+      rnc.setInvalid(true);
+      rnc.setErrorMessage("El RNC es requerido");
+      return null;
+    }
+    try {
+      return accountStatementService.findClientByRnc(rnc.getValue().trim());
+    } catch (IllegalArgumentException e) {
+      rnc.setInvalid(true);
+      rnc.setErrorMessage(e.getMessage());
+      return null;
+    }
+  }
+}
@@ -27,6 +27,7 @@ import com.wornux.data.enums.EmployeeRole;
 import com.wornux.data.enums.SystemRole;
 import com.wornux.security.UserUtils;
 import com.wornux.services.interfaces.ClientService;
+import com.wornux.services.report.AccountStatementService;
 import com.wornux.utils.GridUtils;
 import com.wornux.utils.NotificationUtils;
 import com.wornux.views.MainLayout;
@@ -53,10 +54,14 @@ public class CompanyClientView extends Div {
   private final Button create = new Button();
   private final transient ClientService clientService;
   private final CompanyClientForm companyClientForm;
+  private final AccountStatementDialog accountStatementDialog;
 
-  public CompanyClientView(@Qualifier("clientServiceImpl") ClientService clientService) {
+  public CompanyClientView(
+      @Qualifier("clientServiceImpl") ClientService clientService,
+      AccountStatementService accountStatementService) {
     this.clientService = clientService;
     this.companyClientForm = new CompanyClientForm(clientService);
+    this.accountStatementDialog = new AccountStatementDialog(accountStatementService);
 
     setId("company-clients-view");
 
@@ -163,7 +168,14 @@ public class CompanyClientView extends Div {
         LumoUtility.Background.PRIMARY,
         LumoUtility.Margin.Bottom.XSMALL);
 
-    HorizontalLayout toolbar = new HorizontalLayout(searchField, quantity);
+    Button statementByRnc =
+        new Button(
+            "Estado de cuenta por RNC",
+            VaadinIcon.FILE_TEXT_O.create(),
+            e -> accountStatementDialog.openForRnc());
+    statementByRnc.addThemeVariants(ButtonVariant.LUMO_TERTIARY, ButtonVariant.LUMO_SMALL);
+
+    HorizontalLayout toolbar = new HorizontalLayout(searchField, statementByRnc, quantity);
     toolbar.setJustifyContentMode(FlexComponent.JustifyContentMode.BETWEEN);
     toolbar.setAlignItems(FlexComponent.Alignment.END);
     toolbar.addClassNames(
@@ -227,10 +239,17 @@ public class CompanyClientView extends Div {
     delete.getElement().setProperty("title", "Eliminar");
     delete.getStyle().set("min-width", "32px").set("width", "32px").set("padding", "0");
 
+    Button statement = new Button(new Icon(VaadinIcon.FILE_TEXT_O));
+    statement.addThemeVariants(
+        ButtonVariant.LUMO_ICON, ButtonVariant.LUMO_TERTIARY, ButtonVariant.LUMO_SMALL);
+    statement.getElement().setProperty("title", "Estado de cuenta");
+    statement.getStyle().set("min-width", "32px").set("width", "32px").set("padding", "0");
+
     edit.addClickListener(e -> companyClientForm.openForEdit(client));
+    statement.addClickListener(e -> accountStatementDialog.openFor(client));
     delete.addClickListener(e -> showDeleteConfirmationDialog(client));
 
-    HorizontalLayout actions = new HorizontalLayout(edit, delete);
+    HorizontalLayout actions = new HorizontalLayout(edit, statement, delete);
     actions.setSpacing(true);
     actions.setPadding(false);
     actions.setMargin(false);
@@ -29,6 +29,7 @@ import com.wornux.data.enums.EmployeeRole;
 import com.wornux.data.enums.SystemRole;
 import com.wornux.security.UserUtils;
 import com.wornux.services.interfaces.ClientService;
+import com.wornux.services.report.AccountStatementService;
 import com.wornux.utils.GridUtils;
 import com.wornux.utils.NotificationUtils;
 import com.wornux.views.MainLayout;
@@ -55,10 +56,14 @@ public class IndividualClientView extends Div {
   private final Button create = new Button();
   private final transient ClientService clientService;
   private final IndividualClientForm individualClientForm;
+  private final AccountStatementDialog accountStatementDialog;
 
-  public IndividualClientView(@Qualifier("clientServiceImpl") ClientService clientService) {
+  public IndividualClientView(
+      @Qualifier("clientServiceImpl") ClientService clientService,
+      AccountStatementService accountStatementService) {
     this.clientService = clientService;
     this.individualClientForm = new IndividualClientForm(clientService);
+    this.accountStatementDialog = new AccountStatementDialog(accountStatementService);
 
     setId("individual-clients-view");
 
@@ -246,10 +251,17 @@ public class IndividualClientView extends Div {
     delete.getElement().setProperty("title", "Eliminar");
     delete.getStyle().set("min-width", "32px").set("width", "32px").set("padding", "0");
 
+    Button statement = new Button(new Icon(VaadinIcon.FILE_TEXT_O));
+    statement.addThemeVariants(
+        ButtonVariant.LUMO_ICON, ButtonVariant.LUMO_TERTIARY, ButtonVariant.LUMO_SMALL);
+    statement.getElement().setProperty("title", "Estado de cuenta");
+    statement.getStyle().set("min-width", "32px").set("width", "32px").set("padding", "0");
+
     edit.addClickListener(e -> individualClientForm.openForEdit(client));
+    statement.addClickListener(e -> accountStatementDialog.openFor(client));
     delete.addClickListener(e -> showDeleteConfirmationDialog(client));
 
-    HorizontalLayout actions = new HorizontalLayout(edit, delete);
+    HorizontalLayout actions = new HorizontalLayout(edit, statement, delete);
     actions.setSpacing(true);
     actions.setPadding(false);
     actions.setMargin(false);
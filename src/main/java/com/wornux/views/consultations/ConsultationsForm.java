@@ -29,6 +29,7 @@ import com.wornux.data.enums.InvoiceStatus;
 import com.wornux.security.UserUtils;
 import com.wornux.services.implementations.InvoiceService;
 import com.wornux.services.interfaces.*;
+import com.wornux.services.invoicing.CreditExposureService;
 import com.wornux.utils.NotificationUtils;
 import com.wornux.views.pets.SelectPetDialog;
 import com.wornux.views.services.OfferingForm;
@@ -38,6 +39,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
@@ -82,6 +84,7 @@ public class ConsultationsForm extends Dialog {
   private final transient OfferingService offeringService;
   private final transient InvoiceService invoiceService;
   private final transient ProductService productService;
+  private final transient CreditExposureService creditExposureService;
 
   private transient Consultation editingConsultation;
   private transient Invoice editingInvoice;
@@ -98,13 +101,15 @@ public class ConsultationsForm extends Dialog {
       PetService petService,
       OfferingService offeringService,
       InvoiceService invoiceService,
-      ProductService productService) {
+      ProductService productService,
+      CreditExposureService creditExposureService) {
     this.consultationService = consultationService;
     this.employeeService = employeeService;
     this.petService = petService;
     this.offeringService = offeringService;
     this.productService = productService;
     this.invoiceService = invoiceService;
+    this.creditExposureService = creditExposureService;
     this.offeringForm = new OfferingForm(offeringService);
 
     this.selectPetDialog = new SelectPetDialog(petService);
@@ -488,6 +493,10 @@ public class ConsultationsForm extends Dialog {
         return;
       }
 
+      if (!isWithinCreditLimit()) {
+        return;
+      }
+
       binder.writeBean(editingConsultation);
 
       editingConsultation.setPet(selectedPet);
@@ -612,6 +621,44 @@ public class ConsultationsForm extends Dialog {
         });
   }
 
+  /**
+   * La factura que generará la consulta no puede llevar al dueño por encima de su límite de
+   * crédito. Como en {@code InvoiceForm}, solo cuenta lo que aumenta: si la factura que se
+   * reemplaza es del mismo dueño, lo que ya aportaba a su saldo se descuenta.
+   */
+  private boolean isWithinCreditLimit() {
+    if ((selectedServices.isEmpty() && selectedProducts.isEmpty())
+        || selectedPet.getOwners().isEmpty()
+        || (editingInvoice != null && editingInvoice.getStatus() == InvoiceStatus.PAID)) {
+      return true;
+    }
+
+    BigDecimal subtotal =
+        Stream.concat(
+                selectedServices.stream().map(OfferingItem::getSubtotal),
+                selectedProducts.stream().map(ProductItem::getSubtotal))
+            .reduce(BigDecimal.ZERO, BigDecimal::add);
+    BigDecimal added = subtotal.add(subtotal.multiply(Invoice.TAX_RATE));
+    Long ownerId = selectedPet.getOwners().iterator().next().getId();
+    if (editingInvoice != null) {
+      if (editingInvoice.getPaidToDate() != null) {
+        added = added.subtract(editingInvoice.getPaidToDate());
+      }
+      if (editingInvoice.getClient() != null
+          && ownerId.equals(editingInvoice.getClient().getId())) {
+        added = added.subtract(CreditExposureService.exposureOf(editingInvoice));
+      }
+    }
+
+    if (added.signum() <= 0 || creditExposureService.canInvoice(ownerId, added)) {
+      return true;
+    }
+    NotificationUtils.error(
+        "El dueño excede su límite de crédito. Crédito disponible: $"
+            + creditExposureService.getAvailableCredit(ownerId).orElse(BigDecimal.ZERO));
+    return false;
+  }
+
   private void saveOrUpdateInvoice(Consultation consultation) {
     if (selectedServices.isEmpty() && selectedProducts.isEmpty()) {
       if (editingInvoice != null) {
@@ -694,22 +741,10 @@ public class ConsultationsForm extends Dialog {
     invoiceToSave.setConsultationNotes(consultation.getNotes());
 
     try {
-      invoiceService.create(invoiceToSave);
+      // factura y descuento de stock en una sola transacción
+      invoiceService.createAndConsumeStock(invoiceToSave);
       NotificationUtils.success("Factura guardada automáticamente.");
 
-      // Update product stock
-      for (ProductItem productItem : selectedProducts) {
-        Product product = productItem.getProduct();
-        Double quantity = productItem.getQuantity();
-        if (product != null && quantity != null) {
-          Integer currentStock = product.getAvailableStock();
-          if (currentStock != null) {
-            product.setAvailableStock(currentStock - quantity.intValue());
-            productService.save(product);
-          }
-        }
-      }
-
     } catch (Exception e) {
       log.error("Error al guardar la factura para la consulta: {}", consultation.getId(), e);
       NotificationUtils.error("Error al generar/actualizar la factura: " + e.getMessage());
@@ -30,6 +30,7 @@ import com.wornux.data.enums.SystemRole;
 import com.wornux.security.UserUtils;
 import com.wornux.services.implementations.InvoiceService;
 import com.wornux.services.interfaces.*;
+import com.wornux.services.invoicing.CreditExposureService;
 import com.wornux.utils.GridUtils;
 import com.wornux.utils.NotificationUtils;
 import com.wornux.views.MainLayout;
@@ -65,7 +66,8 @@ public class ConsultationsView extends Div {
       @Qualifier("petServiceImpl") PetService petService,
       @Qualifier("offeringServiceImpl") OfferingService offeringService,
       @Qualifier("productServiceImpl") ProductService productService,
-      InvoiceService invoiceService) {
+      InvoiceService invoiceService,
+      CreditExposureService creditExposureService) {
     this.consultationService = consultationService;
     this.invoiceService = invoiceService;
     this.productService = productService;
@@ -77,7 +79,8 @@ public class ConsultationsView extends Div {
             petService,
             offeringService,
             invoiceService,
-            productService);
+            productService,
+            creditExposureService);
     this.detailsSidebar = new ConsultationDetailsSidebar(invoiceService, consultationsForm);
     add(detailsSidebar); // para que el overlay viva en el DOM
 
@@ -30,13 +30,17 @@ import com.wornux.data.enums.ProductUsageType;
 import com.wornux.services.interfaces.ProductService;
 import com.wornux.services.interfaces.SupplierService;
 import com.wornux.services.interfaces.WarehouseService;
+import com.wornux.services.inventory.StockAlertIndex;
+import com.wornux.services.report.ClinicReportService;
 import com.wornux.utils.NotificationUtils;
 import com.wornux.views.MainLayout;
 import com.wornux.views.consultations.ConsultationsView;
 import com.wornux.views.products.ProductForm;
 import com.wornux.views.products.ProductGrid;
+import com.wornux.views.transactions.InvoiceView;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.persistence.criteria.Predicate;
+import java.time.LocalDate;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.domain.PageRequest;
@@ -56,18 +60,26 @@ public class InventoryView extends Div {
   private ComboBox<ProductUnit> unitFilter;
   private ComboBox<ProductUsageType> usageTypeFilter;
   private final Button newButton = new Button("Nuevo Producto");
+  private final Button valuationButton = new Button("Valoración", VaadinIcon.FILE_TEXT_O.create());
   private final Span quantity = new Span();
+  private final Span lowStock = new Span();
 
   private final transient ProductService productService;
   private final transient WarehouseService warehouseService;
   private final transient ProductForm productForm;
+  private final transient StockAlertIndex stockAlertIndex;
+  private final transient ClinicReportService clinicReportService;
 
   public InventoryView(
       @Qualifier("productServiceImpl") ProductService productService,
       @Qualifier("supplierServiceImpl") SupplierService supplierService,
-      @Qualifier("warehouseServiceImpl") WarehouseService warehouseService) {
+      @Qualifier("warehouseServiceImpl") WarehouseService warehouseService,
+      StockAlertIndex stockAlertIndex,
+      ClinicReportService clinicReportService) {
     this.productService = productService;
+    this.clinicReportService = clinicReportService;
     this.warehouseService = warehouseService;
+    this.stockAlertIndex = stockAlertIndex;
     this.productForm = new ProductForm(productService, supplierService, warehouseService);
     this.productGrid = new ProductGrid(productService, warehouseService, productForm::openForEdit);
 
@@ -99,6 +111,11 @@ public class InventoryView extends Div {
         LumoUtility.Height.FULL,
         LumoUtility.Overflow.HIDDEN);
     newButton.addClickListener(event -> productForm.openForNew());
+    valuationButton.addClickListener(
+        event ->
+            InvoiceView.exportInvoiceInPdfFormat(
+                "Valoracion_Inventario_%s".formatted(LocalDate.now()),
+                clinicReportService.prepareInventoryValuationReport()));
   }
 
   private void createGrid(Specification<Product> specification) {
@@ -128,7 +145,13 @@ public class InventoryView extends Div {
         ButtonVariant.LUMO_PRIMARY, ButtonVariant.LUMO_CONTRAST, ButtonVariant.LUMO_SMALL);
     newButton.addClassNames(LumoUtility.Width.AUTO);
 
-    Div layout = new Div(headerLayout, newButton);
+    valuationButton.addThemeVariants(ButtonVariant.LUMO_CONTRAST, ButtonVariant.LUMO_SMALL);
+    valuationButton.addClassNames(LumoUtility.Width.AUTO);
+
+    Div actions = new Div(valuationButton, newButton);
+    actions.addClassNames(LumoUtility.Display.FLEX, LumoUtility.Gap.SMALL);
+
+    Div layout = new Div(headerLayout, actions);
     layout.addClassNames(
         LumoUtility.Display.FLEX,
         LumoUtility.FlexDirection.COLUMN,
@@ -205,6 +228,7 @@ public class InventoryView extends Div {
         LumoUtility.Margin.Bottom.XSMALL,
         LumoUtility.TextColor.PRIMARY_CONTRAST,
         LumoUtility.Background.PRIMARY);
+    lowStock.getElement().getThemeList().add("badge error");
     updateQuantity();
 
     warehouseFilter.setItems(
@@ -233,9 +257,9 @@ public class InventoryView extends Div {
     firstRowFilters.setSpacing(true);
 
     HorizontalLayout secondRowFilters =
-        new HorizontalLayout(unitFilter, usageTypeFilter, clearFilters, quantity);
+        new HorizontalLayout(unitFilter, usageTypeFilter, clearFilters, lowStock, quantity);
     secondRowFilters.setDefaultVerticalComponentAlignment(FlexComponent.Alignment.END);
-    quantity.getStyle().set("margin-left", "auto");
+    lowStock.getStyle().set("margin-left", "auto");
     secondRowFilters.setWidthFull();
     secondRowFilters.setSpacing(true);
 
@@ -396,8 +420,12 @@ public class InventoryView extends Div {
 
   private void updateQuantity() {
     try {
-      long count = productService.getAllProducts().stream().filter(Product::isActive).count();
+      long count = productService.getCount((root, query, cb) -> cb.isTrue(root.get("active")));
       quantity.setText("Productos (" + count + ")");
+
+      int lowStockCount = stockAlertIndex.getAlertCount();
+      lowStock.setText(lowStockCount + " con stock bajo");
+      lowStock.setVisible(lowStockCount > 0);
     } catch (Exception e) {
       log.warn("Error getting products count", e);
       quantity.setText("Productos (0)");
@@ -9,6 +9,7 @@ import com.vaadin.flow.component.html.H2;
 import com.vaadin.flow.component.html.H3;
 import com.vaadin.flow.component.html.Paragraph;
 import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.icon.VaadinIcon;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.textfield.TextField;
@@ -19,10 +20,13 @@ import com.wornux.data.entity.Consultation;
 import com.wornux.data.entity.Pet;
 import com.wornux.services.implementations.InvoiceService;
 import com.wornux.services.interfaces.*;
+import com.wornux.services.invoicing.CreditExposureService;
+import com.wornux.services.report.ClinicReportService;
 import com.wornux.views.MainLayout;
 import com.wornux.views.consultations.ConsultationDetailsSidebar;
 import com.wornux.views.consultations.ConsultationsForm;
 import com.wornux.views.pets.SelectPetDialog;
+import com.wornux.views.transactions.InvoiceView;
 import jakarta.annotation.security.RolesAllowed;
 import java.util.Locale;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -38,12 +42,14 @@ public class MedicalHistoryView extends VerticalLayout {
   private final Grid<Consultation> consultationsGrid;
   private final TextField selectedPetField;
   private final Button selectPetBtn;
+  private final Button printBtn;
   private final HorizontalLayout petSelector;
   private final transient InvoiceService invoiceService;
   private final transient OfferingService offeringService;
   private final transient ProductService productService;
   private final transient ConsultationsForm consultationsForm;
   private final ConsultationDetailsSidebar detailsSidebar;
+  private final transient ClinicReportService clinicReportService;
 
   private Pet selectedPet;
   private boolean lockedByParam = false;
@@ -56,8 +62,11 @@ public class MedicalHistoryView extends VerticalLayout {
       @Qualifier("petServiceImpl") PetService petService,
       @Qualifier("offeringServiceImpl") OfferingService offeringService,
       @Qualifier("productServiceImpl") ProductService productService,
-      InvoiceService invoiceService) {
+      InvoiceService invoiceService,
+      CreditExposureService creditExposureService,
+      ClinicReportService clinicReportService) {
     this.consultationService = consultationService;
+    this.clinicReportService = clinicReportService;
     this.invoiceService = invoiceService;
     this.productService = productService;
     this.offeringService = offeringService;
@@ -68,7 +77,8 @@ public class MedicalHistoryView extends VerticalLayout {
             petService,
             offeringService,
             invoiceService,
-            productService);
+            productService,
+            creditExposureService);
     this.petService = petService;
     this.detailsSidebar = new ConsultationDetailsSidebar(invoiceService, consultationsForm);
     add(detailsSidebar);
@@ -98,7 +108,9 @@ public class MedicalHistoryView extends VerticalLayout {
               dialog.open();
             });
 
-    petSelector = new HorizontalLayout(selectedPetField, selectPetBtn);
+    printBtn = new Button("Imprimir historial", VaadinIcon.PRINT.create(), e -> printHistory());
+
+    petSelector = new HorizontalLayout(selectedPetField, selectPetBtn, printBtn);
     petSelector.setAlignItems(Alignment.END);
 
     consultationsGrid = new Grid<>(Consultation.class, false);
@@ -187,6 +199,8 @@ public class MedicalHistoryView extends VerticalLayout {
   }
 
   private void updateSelectorUI() {
+    printBtn.setEnabled(selectedPet != null);
+
     // Si vino por URL, se bloquea el cambio de mascota
     selectPetBtn.setVisible(!lockedByParam);
     selectPetBtn.setEnabled(!lockedByParam);
@@ -200,6 +214,15 @@ public class MedicalHistoryView extends VerticalLayout {
     consultationsGrid.setItems(consultationService.findByPetId(petId));
   }
 
+  private void printHistory() {
+    if (selectedPet == null) {
+      return;
+    }
+    InvoiceView.exportInvoiceInPdfFormat(
+        "Historial_%s_%d".formatted(selectedPet.getName(), selectedPet.getId()),
+        clinicReportService.prepareMedicalHistoryReport(selectedPet.getId()));
+  }
+
   private void openConsultationDetail(Consultation c) {
     Dialog detailDialog = new Dialog();
     detailDialog.setHeaderTitle("Consulta del " + formatDateTime(c.getConsultationDate()));
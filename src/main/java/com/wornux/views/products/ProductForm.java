@@ -306,7 +306,9 @@ public class ProductForm extends Dialog {
             .purchasePrice(BigDecimal.valueOf(purchasePrice.getValue()))
             .salesPrice(BigDecimal.valueOf(salesPrice.getValue()))
             .accountingStock(accountingStock.getValue().intValue())
-            .availableStock(availableStock.getValue().intValue())
+            // lo que el usuario cambió sobre el stock que vio; el resto lo movió el ledger
+            .availableStockAdjustment(
+                availableStock.getValue().intValue() - currentProduct.getAvailableStock())
             .reorderLevel(reorderLevel.getValue().intValue())
             .supplierId(supplier.getValue().getId())
             .category(category.getValue())
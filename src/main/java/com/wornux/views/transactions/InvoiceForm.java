@@ -44,6 +44,7 @@ import com.wornux.services.implementations.InvoiceService;
 import com.wornux.services.interfaces.ClientService;
 import com.wornux.services.interfaces.OfferingService;
 import com.wornux.services.interfaces.ProductService;
+import com.wornux.services.invoicing.CreditExposureService;
 import com.wornux.services.report.InvoiceReportService;
 import com.wornux.utils.CommonUtils;
 import com.wornux.utils.MenuBarHandler;
@@ -97,6 +98,7 @@ public class InvoiceForm extends Div {
   private final transient InvoiceService invoiceService;
   private final transient ClientService customerService;
   private final transient InvoiceReportService invoiceReportService;
+  private final transient CreditExposureService creditExposureService;
   private final transient RevisionView<Invoice> revisionView;
   private final ClientCreationDialog clientCreationDialog;
   private final transient List<Product> products;
@@ -111,10 +113,12 @@ public class InvoiceForm extends Div {
       OfferingService offeringService,
       AuditService auditService,
       ClientMapper clientMapper,
-      InvoiceReportService invoiceReportService) {
+      InvoiceReportService invoiceReportService,
+      CreditExposureService creditExposureService) {
     this.invoiceService = invoiceService;
     this.customerService = customerService;
     this.invoiceReportService = invoiceReportService;
+    this.creditExposureService = creditExposureService;
 
     CommonUtils.commentsFormat(notes, 500);
     notes.setWidthFull();
@@ -763,6 +767,31 @@ public class InvoiceForm extends Div {
     configureDeleteButtonVisibility();
   }
 
+  /**
+   * Solo se verifica lo que la edición agrega al saldo del cliente, comparado con la factura
+   * guardada: si el cliente no cambió se descuenta lo que ya aportaba; si cambió, el nuevo cliente
+   * recibe la factura completa.
+   */
+  private boolean isWithinCreditLimit() {
+    Long clientId = element.getClient().getId();
+    BigDecimal added = CreditExposureService.exposureOf(element);
+    Invoice persisted =
+        element.getCode() != null ? invoiceService.get(element.getCode()).orElse(null) : null;
+    if (persisted != null
+        && persisted.getClient() != null
+        && clientId.equals(persisted.getClient().getId())) {
+      added = added.subtract(CreditExposureService.exposureOf(persisted));
+    }
+
+    if (added.signum() <= 0 || creditExposureService.canInvoice(clientId, added)) {
+      return true;
+    }
+    NotificationUtils.error(
+        "El cliente excede su límite de crédito. Crédito disponible: $"
+            + creditExposureService.getAvailableCredit(clientId).orElse(BigDecimal.ZERO));
+    return false;
+  }
+
   private void cancel(ClickEvent<Button> buttonClickEvent) {
     sidebar.close();
   }
@@ -797,6 +826,10 @@ public class InvoiceForm extends Div {
         return;
       }
 
+      if (!isWithinCreditLimit()) {
+        return;
+      }
+
       boolean isNewInvoice = (element.getCode() == null || element.getCode() == 0);
 
       if (isNewInvoice) {
@@ -923,7 +956,10 @@ public class InvoiceForm extends Div {
       exportPdfButton.setEnabled(false);
       invoiceProducts.add(new InvoiceProduct());
     } else {
-      docNum.setValue(String.valueOf(element.getCode()));
+      docNum.setValue(
+          element.getInvoiceNumber() != null
+              ? element.getInvoiceNumber()
+              : String.valueOf(element.getCode()));
       issuedDate.setValue(element.getIssuedDate());
       paymentDate.setValue(element.getPaymentDate());
 
@@ -1121,11 +1157,11 @@ public class InvoiceForm extends Div {
     try {
       var fileName = "Invoice_" + element.getCode();
 
-      var data = invoiceReportService.generateInvoicePdf(element);
+      var report = invoiceReportService.prepareInvoicePdf(element);
 
-      InvoiceView.exportInvoiceInPdfFormat(fileName, data);
+      InvoiceView.exportInvoiceInPdfFormat(fileName, report);
 
-      NotificationUtils.success("PDF generado exitosamente.");
+      NotificationUtils.success("Descarga del PDF iniciada.");
 
     } catch (Exception e) {
       log.error("Error al generar el PDF de la factura: {}", element.getCode(), e);
@@ -7,6 +7,7 @@ import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
 import com.vaadin.flow.component.combobox.MultiSelectComboBox;
 import com.vaadin.flow.component.datepicker.DatePicker;
+import com.vaadin.flow.component.dialog.Dialog;
 import com.vaadin.flow.component.dependency.CssImport;
 import com.vaadin.flow.component.dependency.Uses;
 import com.vaadin.flow.component.grid.ColumnTextAlign;
@@ -16,11 +17,13 @@ import com.vaadin.flow.component.html.Hr;
 import com.vaadin.flow.component.html.Section;
 import com.vaadin.flow.component.html.Span;
 import com.vaadin.flow.component.icon.Icon;
+import com.vaadin.flow.component.icon.VaadinIcon;
 import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.notification.NotificationVariant;
 import com.vaadin.flow.component.orderedlayout.FlexComponent;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.popover.Popover;
+import com.vaadin.flow.component.progressbar.ProgressBar;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.data.renderer.LitRenderer;
 import com.vaadin.flow.data.renderer.Renderer;
@@ -30,8 +33,6 @@ import com.vaadin.flow.router.Route;
 import com.vaadin.flow.server.StreamRegistration;
 import com.vaadin.flow.server.VaadinSession;
 import com.vaadin.flow.server.streams.DownloadHandler;
-import com.vaadin.flow.server.streams.DownloadResponse;
-import com.vaadin.flow.server.streams.InputStreamDownloadHandler;
 import com.vaadin.flow.theme.lumo.LumoIcon;
 import com.vaadin.flow.theme.lumo.LumoUtility;
 import com.wornux.components.*;
@@ -47,7 +48,14 @@ import com.wornux.services.implementations.InvoiceService;
 import com.wornux.services.interfaces.ClientService;
 import com.wornux.services.interfaces.OfferingService;
 import com.wornux.services.interfaces.ProductService;
+import com.wornux.services.invoicing.CreditExposureService;
+import com.wornux.services.invoicing.InvoiceMetrics;
+import com.wornux.services.invoicing.InvoiceMetricsService;
+import com.wornux.services.report.ClinicReportService;
+import com.wornux.services.report.InvoiceBatchExport;
 import com.wornux.services.report.InvoiceReportService;
+import com.wornux.services.report.pdf.ReportErrorException;
+import com.wornux.services.report.pdf.ReportService;
 import com.wornux.utils.GridUtils;
 import com.wornux.views.MainLayout;
 import jakarta.annotation.security.RolesAllowed;
@@ -60,16 +68,17 @@ import org.apache.hc.core5.http.ContentType;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.jpa.domain.Specification;
 
-import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
 import java.text.DecimalFormat;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
 
 import static com.wornux.utils.CommonUtils.comboBoxItemFilter;
 import static com.wornux.utils.PredicateUtils.createPredicateForSelectedItems;
-import static com.wornux.utils.PredicateUtils.predicateForNumericField;
+import static com.wornux.utils.PredicateUtils.predicateForTextField;
 
 @Slf4j
 @Uses(Icon.class)
@@ -92,10 +101,14 @@ public class InvoiceView extends Div {
 
   private final BoardCards boardCards = new BoardCards();
   private final Button create = new Button();
+  private final Button exportPdfs = new Button();
+  private final Button cashClosure = new Button();
 
   private final transient InvoiceService service;
   private final InvoiceForm invoiceForm;
   private final transient InvoiceReportService invoiceReportService;
+  private final transient ClinicReportService clinicReportService;
+  private final transient InvoiceMetricsService metricsService;
 
   public InvoiceView(
       InvoiceService service,
@@ -104,9 +117,14 @@ public class InvoiceView extends Div {
       AuditService auditService,
       ClientMapper clientMapper,
       OfferingService offeringService,
-      InvoiceReportService invoiceReportService) {
+      InvoiceReportService invoiceReportService,
+      InvoiceMetricsService metricsService,
+      CreditExposureService creditExposureService,
+      ClinicReportService clinicReportService) {
     this.service = service;
+    this.metricsService = metricsService;
     this.invoiceReportService = invoiceReportService;
+    this.clinicReportService = clinicReportService;
 
     setId("invoices-view");
 
@@ -118,7 +136,8 @@ public class InvoiceView extends Div {
             offeringService,
             auditService,
             clientMapper,
-            invoiceReportService);
+            invoiceReportService,
+            creditExposureService);
 
     createGrid(service, createFilterSpecification());
 
@@ -131,6 +150,8 @@ public class InvoiceView extends Div {
     setSizeFull();
 
     create.addClickListener(event -> invoiceForm.open());
+    exportPdfs.addClickListener(event -> exportFilteredInvoices());
+    cashClosure.addClickListener(event -> openCashClosureDialog());
 
     invoiceForm.setCallable(this::refreshAll);
 
@@ -157,23 +178,34 @@ public class InvoiceView extends Div {
         .withProperty("address", c -> c.getClient().getEmail());
   }
 
-  static void exportInvoiceInPdfFormat(String fileName, byte[] data) {
+  /**
+   * Abre en otra pestaña la descarga del reporte. El PDF se renderiza al atender la descarga y se
+   * escribe directamente en la respuesta, sin mantenerlo completo en memoria.
+   */
+  public static void exportInvoiceInPdfFormat(String fileName, ReportService<?> report) {
     UI.getCurrent()
         .access(
             () -> {
-              InputStreamDownloadHandler downloadHandler =
-                  DownloadHandler.fromInputStream(
-                      event -> {
-                        try {
-                          return new DownloadResponse(
-                              new ByteArrayInputStream(data),
-                              "%s.pdf".formatted(fileName),
-                              ContentType.APPLICATION_JSON.getMimeType(),
-                              data.length);
-                        } catch (Exception e) {
-                          return DownloadResponse.error(500);
-                        }
-                      });
+              DownloadHandler downloadHandler =
+                  event -> {
+                    event.setFileName("%s.pdf".formatted(fileName));
+                    event.setContentType(ContentType.APPLICATION_PDF.getMimeType());
+                    try (OutputStream outputStream = event.getOutputStream()) {
+                      report.execute(outputStream);
+                    } catch (ReportErrorException e) {
+                      log.error("Error al generar el PDF: {}", fileName, e);
+                      event.getResponse().sendError(500, "Error al generar el PDF");
+                      event
+                          .getUI()
+                          .access(
+                              () ->
+                                  Notification.show(
+                                          "Error al generar el PDF, favor intentar nuevamente en unos minutos",
+                                          5000,
+                                          Notification.Position.TOP_CENTER)
+                                      .addThemeVariants(NotificationVariant.LUMO_ERROR));
+                    }
+                  };
 
               final StreamRegistration registration =
                   VaadinSession.getCurrent()
@@ -191,7 +223,7 @@ public class InvoiceView extends Div {
 
     GridUtils.addColumn(grid, Invoice::getIssuedDate, "Fecha", "issuedDate");
 
-    GridUtils.addColumn(grid, Invoice::getCode, "Número", "code");
+    GridUtils.addColumn(grid, Invoice::getInvoiceNumber, "Número", "invoiceNumber");
 
     GridUtils.addColumn(grid, renderCustomer(), "Cliente", "customer.name", "customer.email");
 
@@ -225,6 +257,17 @@ public class InvoiceView extends Div {
   }
 
   public Specification<Invoice> createFilterSpecification() {
+    return (root, query, builder) -> currentFilter().toPredicate(root, query, builder);
+  }
+
+  /** Filtro con los valores actuales de los campos; puede evaluarse fuera del hilo de la UI. */
+  private Specification<Invoice> currentFilter() {
+    String number = docNum.getValue().toLowerCase().trim();
+    Set<Client> clients = Set.copyOf(customer.getSelectedItems());
+    Set<InvoiceStatus> statuses = Set.copyOf(status.getSelectedItems());
+    LocalDate from = fromPeriod.getValue();
+    LocalDate to = toPeriod.getValue();
+
     return (root, query, builder) -> {
       Order order = builder.desc(root.get("code"));
 
@@ -233,29 +276,33 @@ public class InvoiceView extends Div {
       }
 
       Predicate predicateCode =
-          predicateForNumericField(
-              root, builder, "code", docNum.getValue().toLowerCase().trim(), Long.class);
+          predicateForTextField(root, builder, new String[] {"invoiceNumber"}, number);
 
-      Predicate customerPredicate = createCustomerPredicate(root, builder);
+      Predicate customerPredicate =
+          createPredicateForSelectedItems(
+              Optional.of(clients), items -> root.get("client").in(items), builder);
 
-      Predicate statusPredicate = createStatusPredicate(root, builder);
+      Predicate statusPredicate =
+          createPredicateForSelectedItems(
+              Optional.of(statuses), items -> root.get("status").in(items), builder);
 
-      return builder.and(predicateCode, customerPredicate, statusPredicate);
-    };
-  }
+      Predicate periodPredicate = createPeriodPredicate(root, builder, from, to);
 
-  private Predicate createCustomerPredicate(Root<Invoice> root, CriteriaBuilder builder) {
-    return createPredicateForSelectedItems(
-        Optional.ofNullable(customer.getSelectedItems()),
-        items -> root.get("client").in(items),
-        builder);
+      return builder.and(predicateCode, customerPredicate, statusPredicate, periodPredicate);
+    };
   }
 
-  private Predicate createStatusPredicate(Root<Invoice> root, CriteriaBuilder builder) {
-    return createPredicateForSelectedItems(
-        Optional.ofNullable(status.getSelectedItems()),
-        items -> root.get("status").in(items),
-        builder);
+  private static Predicate createPeriodPredicate(
+      Root<Invoice> root, CriteriaBuilder builder, LocalDate from, LocalDate to) {
+    Predicate predicate = builder.conjunction();
+    if (from != null) {
+      predicate =
+          builder.and(predicate, builder.greaterThanOrEqualTo(root.get("issuedDate"), from));
+    }
+    if (to != null) {
+      predicate = builder.and(predicate, builder.lessThanOrEqualTo(root.get("issuedDate"), to));
+    }
+    return predicate;
   }
 
   private void refreshAll() {
@@ -295,12 +342,10 @@ public class InvoiceView extends Div {
     Set.of(fromPeriod, toPeriod)
         .forEach(
             c -> {
-              c.setValue(LocalDate.now());
-              c.setVisible(false);
+              c.setClearButtonVisible(true);
               c.addValueChangeListener(e -> refreshAll());
             });
     Span periodDiv = new Span("-");
-    periodDiv.setVisible(false);
 
     Set.of(customer, status)
         .forEach(
@@ -343,7 +388,20 @@ public class InvoiceView extends Div {
         ButtonVariant.LUMO_PRIMARY, ButtonVariant.LUMO_CONTRAST, ButtonVariant.LUMO_SMALL);
     create.addClassNames(LumoUtility.Width.AUTO);
 
-    Div layout = new Div(headerLayout, create);
+    exportPdfs.setText("Exportar PDFs");
+    exportPdfs.setIcon(VaadinIcon.FILE_ZIP.create());
+    exportPdfs.addThemeVariants(ButtonVariant.LUMO_CONTRAST, ButtonVariant.LUMO_SMALL);
+    exportPdfs.addClassNames(LumoUtility.Width.AUTO);
+
+    cashClosure.setText("Cierre de Caja");
+    cashClosure.setIcon(VaadinIcon.CASH.create());
+    cashClosure.addThemeVariants(ButtonVariant.LUMO_CONTRAST, ButtonVariant.LUMO_SMALL);
+    cashClosure.addClassNames(LumoUtility.Width.AUTO);
+
+    Div actions = new Div(cashClosure, exportPdfs, create);
+    actions.addClassNames(LumoUtility.Display.FLEX, LumoUtility.Gap.SMALL);
+
+    Div layout = new Div(headerLayout, actions);
     layout.addClassNames(
         LumoUtility.Display.FLEX,
         LumoUtility.FlexDirection.COLUMN,
@@ -358,13 +416,133 @@ public class InvoiceView extends Div {
     return layout;
   }
 
+  /** Pide el día a cerrar y abre el PDF del cierre de caja de ese día. */
+  private void openCashClosureDialog() {
+    DatePicker day = new DatePicker("Día");
+    day.setValue(LocalDate.now());
+    day.setMax(LocalDate.now());
+    day.setRequired(true);
+
+    Dialog dialog = new Dialog();
+    dialog.setHeaderTitle("Cierre de Caja");
+    dialog.add(day);
+
+    Button generate =
+        new Button(
+            "Generar",
+            e -> {
+              if (day.getValue() == null) {
+                day.setInvalid(true);
+                return;
+              }
+              exportInvoiceInPdfFormat(
+                  "Cierre_Caja_%s".formatted(day.getValue()),
+                  clinicReportService.prepareDailyCashClosureReport(
+                      day.getValue(), UserUtils.getCurrentUsername()));
+              dialog.close();
+            });
+    generate.addThemeVariants(ButtonVariant.LUMO_PRIMARY);
+    Button cancel = new Button("Cancelar", e -> dialog.close());
+    cancel.addThemeVariants(ButtonVariant.LUMO_TERTIARY);
+    dialog.getFooter().add(cancel, generate);
+    dialog.open();
+  }
+
+  /**
+   * Descarga en un ZIP los PDFs de las facturas que cumplen el filtro actual, mostrando el progreso
+   * y permitiendo cancelar.
+   */
+  private void exportFilteredInvoices() {
+    InvoiceBatchExport export = invoiceReportService.prepareBatchExport(currentFilter());
+    if (export.getTotal() == 0) {
+      Notification.show("No hay facturas para exportar", 3000, Notification.Position.TOP_CENTER);
+      return;
+    }
+
+    UI ui = UI.getCurrent();
+    Dialog dialog = new Dialog();
+    dialog.setHeaderTitle("Exportando facturas");
+    dialog.setCloseOnOutsideClick(false);
+    dialog.setWidth(28, Unit.REM);
+
+    ProgressBar progressBar = new ProgressBar(0, 1, 0);
+    Span progressText = new Span("0 de %d".formatted(export.getTotal()));
+    progressText.addClassNames(LumoUtility.FontSize.SMALL, LumoUtility.TextColor.SECONDARY);
+    dialog.add(progressBar, progressText);
+
+    Button cancel =
+        new Button(
+            "Cancelar",
+            e -> {
+              export.cancel();
+              dialog.close();
+            });
+    cancel.addThemeVariants(ButtonVariant.LUMO_ERROR, ButtonVariant.LUMO_TERTIARY);
+    dialog.getFooter().add(cancel);
+
+    export.setProgressListener(
+        e ->
+            ui.access(
+                () -> {
+                  progressBar.setValue(e.getProgress());
+                  progressText.setText("%d de %d".formatted(e.getCompleted(), e.getTotal()));
+                }));
+
+    DownloadHandler downloadHandler =
+        event -> {
+          event.setFileName("Facturas_%s.zip".formatted(LocalDate.now()));
+          event.setContentType("application/zip");
+          try (OutputStream outputStream = event.getOutputStream()) {
+            invoiceReportService.writeBatchZip(export, outputStream);
+            ui.access(
+                () -> {
+                  dialog.close();
+                  Notification.show(
+                          "%d facturas exportadas".formatted(export.getCompleted()),
+                          3000,
+                          Notification.Position.TOP_CENTER)
+                      .addThemeVariants(NotificationVariant.LUMO_SUCCESS);
+                });
+          } catch (CancellationException e) {
+            log.info("Exportación de facturas cancelada tras {}", export.getCompleted());
+          } catch (ReportErrorException e) {
+            log.error("Error al exportar las facturas", e);
+            ui.access(
+                () -> {
+                  dialog.close();
+                  Notification.show(
+                          "Error al exportar las facturas, favor intentar nuevamente",
+                          5000,
+                          Notification.Position.TOP_CENTER)
+                      .addThemeVariants(NotificationVariant.LUMO_ERROR);
+                });
+          }
+        };
+
+    StreamRegistration registration =
+        VaadinSession.getCurrent().getResourceRegistry().registerResource(downloadHandler);
+    dialog.addDialogCloseActionListener(
+        e -> {
+          export.cancel();
+          dialog.close();
+        });
+    dialog.addOpenedChangeListener(
+        e -> {
+          if (!e.isOpened()) {
+            registration.unregister();
+          }
+        });
+    dialog.open();
+    ui.getPage().open(registration.getResourceUri().toString(), "_blank");
+  }
+
   private void generateInvoice(Invoice invoice) {
     try {
       var fileName = "Invoice_" + invoice.getCode();
 
-      var data = invoiceReportService.generateInvoicePdf(invoice);
+      var report = invoiceReportService.prepareInvoicePdf(invoice);
 
-      exportInvoiceInPdfFormat(fileName, data);
+      exportInvoiceInPdfFormat(fileName, report);
 
     } catch (Exception e) {
       log.error("Error al generar el PDF de la factura: {}", invoice.getCode(), e);
@@ -401,22 +579,24 @@ public class InvoiceView extends Div {
     DecimalFormat numberFormat = new DecimalFormat("#,##0.0");
 
     try {
-      var overdueAmount = service.getTotalOverdueAmount();
-      BoardCard card = createBoardCard("Vencido", decimalFormat.format(overdueAmount), "DOP");
+      InvoiceMetrics metrics = metricsService.getMetrics();
+      BoardCard card =
+          createBoardCard("Vencido", decimalFormat.format(metrics.overdueAmount()), "DOP");
       boardCards.add(card);
 
-      var amountDueWithin30Days = service.getTotalAmountDueWithin30Days();
       card =
           createBoardCard(
-              "Deuda a pagar dentro de los próximos 30 días",
-              decimalFormat.format(amountDueWithin30Days),
+              "Deuda a pagar dentro de los próximos %d días"
+                  .formatted(metricsService.getDueHorizonDays()),
+              decimalFormat.format(metrics.amountDueSoon()),
               "DOP");
       boardCards.add(card);
 
-      var averagePaymentTime = service.getAveragePaymentTimeInDays();
       card =
           createBoardCard(
-              "Tiempo promedio para recibir pago", numberFormat.format(averagePaymentTime), "días");
+              "Tiempo promedio para recibir pago",
+              numberFormat.format(metrics.averageDaysToPay()),
+              "días");
       boardCards.add(card);
     } catch (Exception e) {
       log.error("Error loading board card metrics", e);
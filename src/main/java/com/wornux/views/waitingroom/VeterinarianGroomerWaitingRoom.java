@@ -1,5 +1,8 @@
 package com.wornux.views.waitingroom;
 
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.DetachEvent;
+import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
 import com.vaadin.flow.component.confirmdialog.ConfirmDialog;
@@ -13,13 +16,18 @@ import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.shared.Registration;
 import com.wornux.data.entity.Employee;
 import com.wornux.data.entity.WaitingRoom;
 import com.wornux.data.enums.EmployeeRole;
+import com.wornux.data.enums.VisitType;
 import com.wornux.data.enums.WaitingRoomStatus;
 import com.wornux.security.UserUtils;
 import com.wornux.services.implementations.InvoiceService;
 import com.wornux.services.interfaces.*;
+import com.wornux.services.invoicing.CreditExposureService;
+import com.wornux.services.waitingroom.WaitingRoomBoard;
+import com.wornux.services.waitingroom.WaitingRoomBroadcaster;
 import com.wornux.utils.NotificationUtils;
 import com.wornux.views.MainLayout;
 import com.wornux.views.consultations.ConsultationsForm;
@@ -29,6 +37,7 @@ import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Objects;
 
 @Route(value = "mi-sala-espera", layout = MainLayout.class)
 @PageTitle("Mi Sala de Espera")
@@ -43,8 +52,13 @@ public class VeterinarianGroomerWaitingRoom extends VerticalLayout {
   private final InvoiceService invoiceService;
   private final ProductService productService;
   private final OfferingService offeringService;
+  private final CreditExposureService creditExposureService;
+  private final WaitingRoomBoard waitingRoomBoard;
+  private final WaitingRoomBroadcaster waitingRoomBroadcaster;
 
   private final Grid<WaitingRoom> grid = new Grid<>(WaitingRoom.class, false);
+  private final WaitingRoomLiveItems liveItems = new WaitingRoomLiveItems();
+  private Registration broadcasterRegistration;
 
   public VeterinarianGroomerWaitingRoom(
       WaitingRoomService waitingRoomService,
@@ -54,7 +68,10 @@ public class VeterinarianGroomerWaitingRoom extends VerticalLayout {
       EmployeeService employeeService,
       PetService petService,
       InvoiceService invoiceService,
-      ProductService productService) {
+      ProductService productService,
+      CreditExposureService creditExposureService,
+      WaitingRoomBoard waitingRoomBoard,
+      WaitingRoomBroadcaster waitingRoomBroadcaster) {
 
     this.waitingRoomService = waitingRoomService;
     this.consultationService = consultationService;
@@ -64,11 +81,15 @@ public class VeterinarianGroomerWaitingRoom extends VerticalLayout {
     this.invoiceService = invoiceService;
     this.productService = productService;
     this.offeringService = offeringService;
+    this.creditExposureService = creditExposureService;
+    this.waitingRoomBoard = waitingRoomBoard;
+    this.waitingRoomBroadcaster = waitingRoomBroadcaster;
 
     setSizeFull();
     setPadding(true);
     setSpacing(true);
 
+    grid.setItems(liveItems.getDataProvider());
     grid.addColumn(wr -> wr.getPet().getName()).setHeader("Mascota");
     grid.addColumn(wr -> wr.getClient().getFirstName() + " " + wr.getClient().getLastName())
         .setHeader("Cliente");
@@ -126,28 +147,55 @@ public class VeterinarianGroomerWaitingRoom extends VerticalLayout {
       return;
     }
 
-    List<WaitingRoom> items;
+    // el tablero sólo contiene entradas activas (ESPERANDO / EN_PROCESO)
+    VisitType type = resolveVisitType();
+    List<WaitingRoom> items =
+        type != null ? waitingRoomBoard.getQueueFor(type, me.getId()) : List.of();
 
-    if (isVet()) {
-      // Usa el método del servicio que ya tienes para vet
-      items = waitingRoomService.findForVeterinarian(me.getId());
-    } else if (isGroomer()) {
-      // 👇 espejo para groomer (debe existir en tu servicio)
-      items = waitingRoomService.findForGroomer(me.getId());
-    } else {
-      items = List.of();
+    liveItems.setAll(items, WaitingRoomBoard.QUEUE_ORDER::compare);
+  }
+
+  private VisitType resolveVisitType() {
+    if (isVet()) return VisitType.MEDICA;
+    if (isGroomer()) return VisitType.GROOMING;
+    return null;
+  }
+
+  private boolean belongsToMyQueue(WaitingRoom wr, VisitType type, Long employeeId) {
+    if (wr.getType() != type || !WaitingRoomBoard.ACTIVE_STATUSES.contains(wr.getStatus())) {
+      return false;
+    }
+    Employee assigned =
+        type == VisitType.GROOMING ? wr.getAssignedGroomer() : wr.getAssignedVeterinarian();
+    return assigned == null || Objects.equals(assigned.getId(), employeeId);
+  }
+
+  @Override
+  protected void onAttach(AttachEvent event) {
+    super.onAttach(event);
+    Employee me = UserUtils.getCurrentEmployee().orElse(null);
+    VisitType type = resolveVisitType();
+    if (me == null || type == null) {
+      return;
     }
 
-    // (opcional) Si tu findForX ya filtra por estados activos no necesitas este filtro:
-    items =
-        items.stream()
-            .filter(
-                wr ->
-                    wr.getStatus() == WaitingRoomStatus.ESPERANDO
-                        || wr.getStatus() == WaitingRoomStatus.EN_PROCESO)
-            .toList();
+    // el rol y el empleado se resuelven aquí: el push llega desde otro hilo
+    Long employeeId = me.getId();
+    UI ui = event.getUI();
+    broadcasterRegistration =
+        waitingRoomBroadcaster.register(
+            changes ->
+                ui.access(
+                    () -> liveItems.apply(changes, wr -> belongsToMyQueue(wr, type, employeeId))));
+  }
 
-    grid.setItems(items);
+  @Override
+  protected void onDetach(DetachEvent event) {
+    super.onDetach(event);
+    if (broadcasterRegistration != null) {
+      broadcasterRegistration.remove();
+      broadcasterRegistration = null;
+    }
   }
 
   // === Flujo VETERINARIO (igual al tuyo) ===
@@ -165,7 +213,8 @@ public class VeterinarianGroomerWaitingRoom extends VerticalLayout {
             petService,
             offeringService,
             invoiceService,
-            productService);
+            productService,
+            creditExposureService);
     form.openForNew();
 
     // bloquear vet (siempre en esta vista)
@@ -154,14 +154,8 @@ public class WaitingRoomForm extends Dialog {
         waitingRoomService.save(dto);
         NotificationUtils.success("Entrada creada exitosamente.");
       } else {
-        editingWaitingRoom.setClient(selectedClient);
-        editingWaitingRoom.setPet(petField.getValue());
-        editingWaitingRoom.setReasonForVisit(reasonField.getValue());
-        editingWaitingRoom.setType(typeField.getValue());
-        editingWaitingRoom.setPriority(priorityField.getValue());
-        editingWaitingRoom.setNotes(notesField.getValue());
-        // arrivalTime NO se modifica en edición (se mantiene el original)
-        waitingRoomService.update(editingWaitingRoom);
+        // la entrada es la del tablero, compartida por todas las sesiones: no se modifica aquí
+        waitingRoomService.update(editingWaitingRoom.getId(), dto);
         NotificationUtils.success("Entrada actualizada exitosamente.");
       }
       if (onSave != null) onSave.accept(dto);
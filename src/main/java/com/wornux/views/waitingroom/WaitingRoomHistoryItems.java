@@ -0,0 +1,73 @@
+package com.wornux.views.waitingroom;
+
+import com.vaadin.flow.data.provider.Query;
+import com.wornux.data.entity.WaitingRoom;
+import com.wornux.data.repository.WaitingRoomRepository;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Lazy source of the waiting room history grid.
+ *
+ * <p>Pages are read with keyset pagination on (priority, arrival time, id). The position after
+ * every page served is remembered, so scrolling seeks from the last row instead of making the
+ * database skip an ever-growing OFFSET. No count query is issued: the grid grows its size estimate
+ * as the user scrolls.
+ */
+class WaitingRoomHistoryItems {
+
+  static final Sort ORDER =
+      Sort.by(
+          Sort.Order.desc("priorityRank"), Sort.Order.desc("arrivalTime"), Sort.Order.desc("id"));
+
+  private final WaitingRoomRepository waitingRoomRepository;
+  private final Supplier<Specification<WaitingRoom>> filter;
+  private final NavigableMap<Integer, ScrollPosition> positions = new TreeMap<>();
+  private Specification<WaitingRoom> specification;
+
+  WaitingRoomHistoryItems(
+      WaitingRoomRepository waitingRoomRepository, Supplier<Specification<WaitingRoom>> filter) {
+    this.waitingRoomRepository = waitingRoomRepository;
+    this.filter = filter;
+    reset();
+  }
+
+  /** Re-reads the filters and forgets the known positions. Call before refreshing the grid. */
+  void reset() {
+    specification = filter.get();
+    positions.clear();
+    positions.put(0, ScrollPosition.keyset());
+  }
+
+  Stream<WaitingRoom> fetch(Query<WaitingRoom, Void> query) {
+    int offset = query.getOffset();
+    int limit = query.getLimit();
+
+    // seek desde la posición conocida más cercana; sólo se saltan filas si el usuario brincó
+    Map.Entry<Integer, ScrollPosition> start = positions.floorEntry(offset);
+    int skip = offset - start.getKey();
+
+    Window<WaitingRoom> window =
+        waitingRoomRepository.findBy(
+            specification,
+            q ->
+                q.sortBy(ORDER)
+                    .project("client", "pet")
+                    .limit(skip + limit)
+                    .scroll(start.getValue()));
+
+    List<WaitingRoom> content = window.getContent();
+    if (!content.isEmpty()) {
+      positions.put(start.getKey() + content.size(), window.positionAt(content.size() - 1));
+    }
+    return content.stream().skip(skip);
+  }
+}
@@ -0,0 +1,83 @@
+package com.wornux.views.waitingroom;
+
+import com.vaadin.flow.data.provider.ListDataProvider;
+import com.vaadin.flow.function.SerializableComparator;
+import com.wornux.data.entity.WaitingRoom;
+import com.wornux.services.events.WaitingRoomChangedEvent;
+import com.wornux.services.events.WaitingRoomChangedEvent.ChangeType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
+import lombok.Getter;
+
+/**
+ * Backing list of a waiting room grid. Pushed changes are patched into the list in place: a change
+ * that only alters what a row shows is sent with {@code refreshItem}; one that can move, add or
+ * remove rows re-runs the in-memory filter and sort.
+ */
+class WaitingRoomLiveItems {
+
+  private final List<WaitingRoom> items = new ArrayList<>();
+
+  @Getter private final ListDataProvider<WaitingRoom> dataProvider = new ListDataProvider<>(items);
+
+  void setAll(Collection<WaitingRoom> entries, SerializableComparator<WaitingRoom> sortOrder) {
+    items.clear();
+    items.addAll(entries);
+    dataProvider.setSortComparator(sortOrder);
+  }
+
+  void refresh() {
+    dataProvider.refreshAll();
+  }
+
+  /**
+   * Applies a batch of changes.
+   *
+   * @param changes the coalesced changes.
+   * @param belongs whether an entry should be part of this grid after the change.
+   */
+  void apply(List<WaitingRoomChangedEvent> changes, Predicate<WaitingRoom> belongs) {
+    boolean structural = false;
+    List<WaitingRoom> changed = new ArrayList<>();
+
+    for (WaitingRoomChangedEvent change : changes) {
+      WaitingRoom entry = change.entry();
+      int index = indexOf(entry.getId());
+      boolean keep = belongs.test(entry);
+
+      if (index >= 0 && keep) {
+        items.set(index, entry);
+        if (change.changeType() == ChangeType.STATUS_CHANGED
+            || change.changeType() == ChangeType.PRIORITY_CHANGED) {
+          structural = true;
+        } else {
+          changed.add(entry);
+        }
+      } else if (index >= 0) {
+        items.remove(index);
+        structural = true;
+      } else if (keep) {
+        items.add(entry);
+        structural = true;
+      }
+    }
+
+    if (structural) {
+      dataProvider.refreshAll();
+    } else {
+      changed.forEach(dataProvider::refreshItem);
+    }
+  }
+
+  private int indexOf(Long id) {
+    for (int i = 0; i < items.size(); i++) {
+      if (Objects.equals(items.get(i).getId(), id)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
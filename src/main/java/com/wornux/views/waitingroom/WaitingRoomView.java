@@ -4,6 +4,8 @@ import static com.wornux.utils.PredicateUtils.createPredicateForSelectedItems;
 
 import com.vaadin.flow.component.AttachEvent;
 import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.DetachEvent;
+import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
 import com.vaadin.flow.component.combobox.ComboBox;
@@ -21,13 +23,17 @@ import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.shared.Registration;
 import com.vaadin.flow.theme.lumo.LumoUtility;
 import com.wornux.data.entity.Employee;
 import com.wornux.data.entity.WaitingRoom;
 import com.wornux.data.enums.Priority;
 import com.wornux.data.enums.VisitType;
 import com.wornux.data.enums.WaitingRoomStatus;
+import com.wornux.services.events.WaitingRoomChangedEvent;
 import com.wornux.services.interfaces.*;
+import com.wornux.services.waitingroom.WaitingRoomBoard;
+import com.wornux.services.waitingroom.WaitingRoomBroadcaster;
 import com.wornux.utils.GridUtils;
 import com.wornux.utils.NotificationUtils;
 import com.wornux.views.MainLayout;
@@ -38,6 +44,7 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.jpa.domain.Specification;
 
@@ -53,8 +60,14 @@ public class WaitingRoomView extends VerticalLayout {
   private final GroomingSessionService groomingSessionService;
   private final EmployeeService employeeService;
   private final ConsultationService consultationService;
+  private final WaitingRoomBoard waitingRoomBoard;
+  private final WaitingRoomBroadcaster waitingRoomBroadcaster;
 
   private final Grid<WaitingRoom> grid = GridUtils.createBasicGrid(WaitingRoom.class);
+  private final WaitingRoomLiveItems liveItems = new WaitingRoomLiveItems();
+  private final WaitingRoomHistoryItems historyItems;
+  private boolean historyMode;
+  private Registration broadcasterRegistration;
   private final WaitingRoomForm form;
   private final VerticalLayout cardContainer = new VerticalLayout();
 
@@ -72,13 +85,20 @@ public class WaitingRoomView extends VerticalLayout {
       PetService petService,
       ConsultationService consultationService,
       EmployeeService employeeService,
-      GroomingSessionService groomingSessionService) {
+      GroomingSessionService groomingSessionService,
+      WaitingRoomBoard waitingRoomBoard,
+      WaitingRoomBroadcaster waitingRoomBroadcaster) {
     this.waitingRoomService = waitingRoomService;
     this.clientService = clientService;
     this.petService = petService;
     this.consultationService = consultationService;
     this.employeeService = employeeService;
     this.groomingSessionService = groomingSessionService;
+    this.waitingRoomBoard = waitingRoomBoard;
+    this.waitingRoomBroadcaster = waitingRoomBroadcaster;
+    this.historyItems =
+        new WaitingRoomHistoryItems(
+            waitingRoomService.getRepository(), this::createFilterSpecification);
 
     setSizeFull();
     setPadding(true);
@@ -137,11 +157,6 @@ public class WaitingRoomView extends VerticalLayout {
     quantity.setWidth("15%");
     updateQuantity();
 
-    statusFilter.setItems(WaitingRoomStatus.values());
-    statusFilter.setClearButtonVisible(true);
-    statusFilter.setAutoExpand(MultiSelectComboBox.AutoExpandMode.BOTH);
-    statusFilter.addValueChangeListener(e -> refreshGrid());
-
     HorizontalLayout filters =
         new HorizontalLayout(searchField, priorityFilter, statusFilter, typeFilter, quantity);
     filters.setAlignItems(Alignment.END);
@@ -175,11 +190,12 @@ public class WaitingRoomView extends VerticalLayout {
 
     // add(header, grid);
     add(header, filters, grid, cardContainer);
-    refreshGrid();
   }
 
   private void configureGrid() {
     grid.setSizeFull();
+    liveItems.getDataProvider().setFilter(this::matchesFilters);
+    GridUtils.configureGrid(grid, liveItems.getDataProvider());
 
     grid.addThemeVariants(GridVariant.LUMO_ROW_STRIPES);
 
@@ -288,10 +304,73 @@ public class WaitingRoomView extends VerticalLayout {
   }
 
   private void refreshGrid() {
-    waitingRoomService.syncTodayFromAppointments();
-    Specification<WaitingRoom> spec = createFilterSpecification();
-    List<WaitingRoom> filtered = waitingRoomService.getRepository().findAll(spec);
-    grid.setItems(filtered);
+    boolean history = isHistoryRequested();
+    if (history || historyMode) {
+      loadItems(history);
+    } else {
+      // el tablero se mantiene por push: basta con re-aplicar los filtros en memoria
+      liveItems.refresh();
+    }
+  }
+
+  private boolean isHistoryRequested() {
+    return statusFilter.getSelectedItems().stream()
+        .anyMatch(st -> !WaitingRoomBoard.ACTIVE_STATUSES.contains(st));
+  }
+
+  private void loadItems(boolean history) {
+    if (history) {
+      // completadas/canceladas no viven en el tablero: se paginan desde la BD
+      historyItems.reset();
+      if (historyMode) {
+        grid.getDataProvider().refreshAll();
+      } else {
+        GridUtils.configureGrid(grid, historyItems::fetch);
+      }
+    } else {
+      liveItems.setAll(waitingRoomBoard.getActiveEntries(), WaitingRoomBoard.QUEUE_ORDER::compare);
+      if (historyMode) {
+        GridUtils.configureGrid(grid, liveItems.getDataProvider());
+      } else {
+        liveItems.refresh();
+      }
+    }
+    historyMode = history;
+  }
+
+  private void onWaitingRoomChanged(List<WaitingRoomChangedEvent> changes) {
+    if (historyMode) {
+      // el historial es paginado: sólo se repintan las filas cargadas que cambiaron
+      changes.forEach(change -> grid.getDataProvider().refreshItem(change.entry()));
+    } else {
+      liveItems.apply(changes, wr -> WaitingRoomBoard.ACTIVE_STATUSES.contains(wr.getStatus()));
+    }
+    updateQuantity();
+  }
+
+  private boolean matchesFilters(WaitingRoom wr) {
+    String searchTerm = searchField.getValue();
+    if (searchTerm != null && !searchTerm.trim().isEmpty()) {
+      String term = searchTerm.toLowerCase();
+      boolean matches =
+          containsIgnoreCase(wr.getClient().getFirstName(), term)
+              || containsIgnoreCase(wr.getClient().getLastName(), term)
+              || containsIgnoreCase(wr.getPet().getName(), term);
+      if (!matches) {
+        return false;
+      }
+    }
+
+    Set<Priority> priorities = priorityFilter.getSelectedItems();
+    Set<WaitingRoomStatus> statuses = statusFilter.getSelectedItems();
+    Set<VisitType> types = typeFilter.getSelectedItems();
+    return (priorities.isEmpty() || priorities.contains(wr.getPriority()))
+        && (statuses.isEmpty() || statuses.contains(wr.getStatus()))
+        && (types.isEmpty() || types.contains(wr.getType()));
+  }
+
+  private static boolean containsIgnoreCase(String value, String lowerCaseTerm) {
+    return value != null && value.toLowerCase().contains(lowerCaseTerm);
   }
 
   private Component renderPriority(WaitingRoom wr) {
@@ -445,8 +524,7 @@ public class WaitingRoomView extends VerticalLayout {
         new Button(
             "Finalizar Consulta",
             e -> {
-              wr.setStatus(WaitingRoomStatus.COMPLETADO);
-              waitingRoomService.update(wr);
+              waitingRoomService.completeConsultation(wr.getId());
               refreshGrid();
               dialog.close();
             });
@@ -623,8 +701,7 @@ public class WaitingRoomView extends VerticalLayout {
 
   private void updateQuantity() {
     try {
-      long count =
-          waitingRoomService.getWaitingCount() + waitingRoomService.getInConsultationCount();
+      long count = waitingRoomBoard.getActiveCount();
       quantity.setText("En sala de espera (" + count + ")");
     } catch (Exception e) {
       log.warn("Error getting employee count", e);
@@ -736,12 +813,20 @@ public class WaitingRoomView extends VerticalLayout {
   @Override
   protected void onAttach(AttachEvent event) {
     super.onAttach(event);
-    try {
-      waitingRoomService.syncTodayFromAppointments();
-      refreshGrid();
-      updateQuantity();
-    } catch (Exception ex) {
-      NotificationUtils.error("No se pudo sincronizar: " + ex.getMessage());
+    loadItems(isHistoryRequested());
+    updateQuantity();
+
+    UI ui = event.getUI();
+    broadcasterRegistration =
+        waitingRoomBroadcaster.register(changes -> ui.access(() -> onWaitingRoomChanged(changes)));
+  }
+
+  @Override
+  protected void onDetach(DetachEvent event) {
+    super.onDetach(event);
+    if (broadcasterRegistration != null) {
+      broadcasterRegistration.remove();
+      broadcasterRegistration = null;
     }
   }
 }
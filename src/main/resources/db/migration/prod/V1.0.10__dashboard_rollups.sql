@@ -0,0 +1,71 @@
+--   ─────▀▄▀─────▄─────▄
+--   ──▄███████▄──▀██▄██▀
+--   ▄█████▀█████▄──▄█
+--   ███████▀████████▀
+--   ─▄▄▄▄▄▄███████▀
+
+-- =================================================================================================
+--  ZOOLAN VETMGMT - DASHBOARD ROLLUPS MIGRATION
+--  Version: V1.0.10__dashboard_rollups.sql
+--  Dependencies: V1.0.9__waiting_room_history_keyset.sql
+--  Description: Daily revenue and hourly consultation rollups read by the executive dashboard
+-- =================================================================================================
+
+-- Migration validation
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM flyway_schema_history WHERE version = '1.0.9' AND success = true) THEN
+        RAISE EXCEPTION 'Waiting room history keyset migration (V1.0.9) must complete successfully before running this migration';
+    END IF;
+END $$;
+
+-- =================================================================================================
+--  ROLLUP TABLES
+--
+--  One row per day (revenue) and per day and hour (consultations). The application recomputes the
+--  rows of a day after every invoice or consultation write and reconciles recent days nightly.
+-- =================================================================================================
+
+CREATE TABLE IF NOT EXISTS daily_revenue_rollup
+(
+    day           date                        not null,
+    revenue       numeric(38, 2)              not null,
+    invoice_count bigint                      not null,
+    refreshed_at  timestamp(6) with time zone not null,
+    primary key (day)
+);
+
+CREATE TABLE IF NOT EXISTS consultation_hourly_rollup
+(
+    day                date                        not null,
+    hour_of_day        integer                     not null check (hour_of_day between 0 and 23),
+    consultation_count bigint                      not null,
+    refreshed_at       timestamp(6) with time zone not null,
+    primary key (day, hour_of_day)
+);
+
+-- =================================================================================================
+--  SOURCE INDEXES
+--
+--  The per-day refresh filters the base tables by plain timestamp ranges.
+-- =================================================================================================
+
+CREATE INDEX IF NOT EXISTS ix_invoices_created_date ON invoices (created_date);
+CREATE INDEX IF NOT EXISTS ix_consultations_consultation_date ON consultations (consultation_date);
+
+-- =================================================================================================
+--  BACKFILL
+-- =================================================================================================
+
+INSERT INTO daily_revenue_rollup (day, revenue, invoice_count, refreshed_at)
+SELECT CAST(i.created_date AS date), SUM(i.total), COUNT(*), now()
+FROM invoices i
+GROUP BY CAST(i.created_date AS date)
+ON CONFLICT (day) DO NOTHING;
+
+INSERT INTO consultation_hourly_rollup (day, hour_of_day, consultation_count, refreshed_at)
+SELECT CAST(c.consultation_date AS date), CAST(EXTRACT(HOUR FROM c.consultation_date) AS integer), COUNT(*), now()
+FROM consultations c
+WHERE c.active = true
+GROUP BY 1, 2
+ON CONFLICT (day, hour_of_day) DO NOTHING;
@@ -0,0 +1,58 @@
+--   ─────▀▄▀─────▄─────▄
+--   ──▄███████▄──▀██▄██▀
+--   ▄█████▀█████▄──▄█
+--   ███████▀████████▀
+--   ─▄▄▄▄▄▄███████▀
+
+-- =================================================================================================
+--  ZOOLAN VETMGMT - STOCK LEDGER MIGRATION
+--  Version: V1.0.11__stock_ledger.sql
+--  Dependencies: V1.0.10__dashboard_rollups.sql
+--  Description: Append-only stock movements and their compacted per-product snapshots
+-- =================================================================================================
+
+-- Migration validation
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM flyway_schema_history WHERE version = '1.0.10' AND success = true) THEN
+        RAISE EXCEPTION 'Dashboard rollups migration (V1.0.10) must complete successfully before running this migration';
+    END IF;
+END $$;
+
+-- =================================================================================================
+--  STOCK MOVEMENTS
+--
+--  One row per change of a product's available stock, signed (negative when stock leaves), with
+--  the record that caused it. Rows are only ever inserted; old rows are folded into the snapshots.
+-- =================================================================================================
+
+CREATE TABLE IF NOT EXISTS stock_movements
+(
+    id            bigint generated by default as identity,
+    product_id    bigint                      not null references products (product_id),
+    movement_type varchar(30)                 not null check (movement_type in ('RECEIPT', 'CONSUMPTION', 'RELEASE', 'ADJUSTMENT')),
+    quantity      integer                     not null check (quantity <> 0),
+    source_type   varchar(30)                 not null,
+    source_id     bigint,
+    created_at    timestamp(6) with time zone not null default now(),
+    primary key (id)
+);
+
+CREATE INDEX IF NOT EXISTS ix_stock_movements_source ON stock_movements (source_type, source_id);
+CREATE INDEX IF NOT EXISTS ix_stock_movements_product ON stock_movements (product_id, id);
+
+-- =================================================================================================
+--  STOCK SNAPSHOTS
+--
+--  Net movement of each product up to the last compacted movement.
+-- =================================================================================================
+
+CREATE TABLE IF NOT EXISTS stock_snapshots
+(
+    product_id       bigint                      not null references products (product_id),
+    net_quantity     bigint                      not null,
+    movement_count   bigint                      not null,
+    last_movement_id bigint                      not null,
+    compacted_at     timestamp(6) with time zone not null,
+    primary key (product_id)
+);
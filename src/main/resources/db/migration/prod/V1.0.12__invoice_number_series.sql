@@ -0,0 +1,67 @@
+--   ─────▀▄▀─────▄─────▄
+--   ──▄███████▄──▀██▄██▀
+--   ▄█████▀█████▄──▄█
+--   ███████▀████████▀
+--   ─▄▄▄▄▄▄███████▀
+
+-- =================================================================================================
+--  ZOOLAN VETMGMT - INVOICE NUMBER SERIES MIGRATION
+--  Version: V1.0.12__invoice_number_series.sql
+--  Dependencies: V1.0.11__stock_ledger.sql
+--  Description: Per-series invoice number counters and the number stored on each invoice
+-- =================================================================================================
+
+-- Migration validation
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM flyway_schema_history WHERE version = '1.0.11' AND success = true) THEN
+        RAISE EXCEPTION 'Stock ledger migration (V1.0.11) must complete successfully before running this migration';
+    END IF;
+END $$;
+
+-- =================================================================================================
+--  NUMBER SERIES
+--
+--  One row-locked counter per series. Regular series are reserved in blocks; gapless series (NCF)
+--  take one number inside the invoice transaction, so a rollback gives the number back.
+-- =================================================================================================
+
+CREATE TABLE IF NOT EXISTS invoice_number_series
+(
+    series      varchar(20)  not null,
+    prefix      varchar(10)  not null default '',
+    digits      integer      not null default 0 check (digits between 0 and 18),
+    next_value  bigint       not null check (next_value > 0),
+    gapless     boolean      not null default false,
+    description varchar(100),
+    primary key (series)
+);
+
+-- =================================================================================================
+--  INVOICE NUMBERS
+-- =================================================================================================
+
+ALTER TABLE invoices ADD COLUMN IF NOT EXISTS invoice_number varchar(30);
+ALTER TABLE invoices ADD COLUMN IF NOT EXISTS number_series varchar(20);
+ALTER TABLE invoices_log ADD COLUMN IF NOT EXISTS invoice_number varchar(30);
+ALTER TABLE invoices_log ADD COLUMN IF NOT EXISTS invoice_number_mod boolean;
+ALTER TABLE invoices_log ADD COLUMN IF NOT EXISTS number_series varchar(20);
+ALTER TABLE invoices_log ADD COLUMN IF NOT EXISTS number_series_mod boolean;
+
+-- Las facturas existentes conservan como número su código, que es lo que mostraba la aplicación
+UPDATE invoices
+SET invoice_number = CAST(code AS varchar),
+    number_series  = 'FACT'
+WHERE invoice_number IS NULL;
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_invoices_series_number ON invoices (number_series, invoice_number);
+
+INSERT INTO invoice_number_series (series, prefix, digits, next_value, gapless, description)
+SELECT 'FACT', '', 0, COALESCE(MAX(code), 0) + 1, false, 'Facturas internas'
+FROM invoices
+ON CONFLICT (series) DO NOTHING;
+
+INSERT INTO invoice_number_series (series, prefix, digits, next_value, gapless, description)
+VALUES ('B01', 'B01', 8, 1, true, 'NCF Crédito Fiscal'),
+       ('B02', 'B02', 8, 1, true, 'NCF Consumo')
+ON CONFLICT (series) DO NOTHING;
@@ -0,0 +1,48 @@
+--   ─────▀▄▀─────▄─────▄
+--   ──▄███████▄──▀██▄██▀
+--   ▄█████▀█████▄──▄█
+--   ███████▀████████▀
+--   ─▄▄▄▄▄▄███████▀
+
+-- =================================================================================================
+--  ZOOLAN VETMGMT - CLIENT OPEN BALANCE MIGRATION
+--  Version: V1.0.13__client_open_balance.sql
+--  Dependencies: V1.0.12__invoice_number_series.sql
+--  Description: Indexes for payment allocation and backfill of the denormalized client balance
+-- =================================================================================================
+
+-- Migration validation
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM flyway_schema_history WHERE version = '1.0.12' AND success = true) THEN
+        RAISE EXCEPTION 'Invoice number series migration (V1.0.12) must complete successfully before running this migration';
+    END IF;
+END $$;
+
+-- =================================================================================================
+--  INDEXES
+--
+--  Open invoices of a client are read on every allocation and balance refresh; payment details are
+--  joined by payment when applied and by invoice for statements.
+-- =================================================================================================
+
+CREATE INDEX IF NOT EXISTS ix_invoices_client_open
+    ON invoices (client, payment_date, code)
+    WHERE active AND status IN ('SENT', 'PENDING', 'PARTIAL', 'OVERDUE');
+
+CREATE INDEX IF NOT EXISTS ix_payments_detail_payment ON payments_detail (payment);
+CREATE INDEX IF NOT EXISTS ix_payments_detail_invoice ON payments_detail (invoice);
+
+-- =================================================================================================
+--  OPEN BALANCE
+--
+--  client.current_balance is the outstanding balance of the client's open invoices, kept by the
+--  payment allocation service. Existing clients get it computed once here.
+-- =================================================================================================
+
+UPDATE client c
+SET current_balance = COALESCE((SELECT SUM(i.total - i.paid_to_date)
+                                FROM invoices i
+                                WHERE i.client = c.client_id
+                                  AND i.active
+                                  AND i.status IN ('SENT', 'PENDING', 'PARTIAL', 'OVERDUE')), 0);
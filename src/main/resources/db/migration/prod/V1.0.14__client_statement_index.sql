@@ -0,0 +1,23 @@
+--   ─────▀▄▀─────▄─────▄
+--   ──▄███████▄──▀██▄██▀
+--   ▄█████▀█████▄──▄█
+--   ███████▀████████▀
+--   ─▄▄▄▄▄▄███████▀
+
+-- =================================================================================================
+--  ZOOLAN VETMGMT - CLIENT STATEMENT INDEX MIGRATION
+--  Version: V1.0.14__client_statement_index.sql
+--  Dependencies: V1.0.13__client_open_balance.sql
+--  Description: Index to read a client's invoices by issue date for account statements
+-- =================================================================================================
+
+-- Migration validation
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM flyway_schema_history WHERE version = '1.0.13' AND success = true) THEN
+        RAISE EXCEPTION 'Client open balance migration (V1.0.13) must complete successfully before running this migration';
+    END IF;
+END $$;
+
+-- Los estados de cuenta recorren las facturas de un cliente por fecha de emisión
+CREATE INDEX IF NOT EXISTS ix_invoices_client_issued ON invoices (client, issued_date, code);
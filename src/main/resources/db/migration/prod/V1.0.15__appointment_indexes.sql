@@ -0,0 +1,27 @@
+--   ─────▀▄▀─────▄─────▄
+--   ──▄███████▄──▀██▄██▀
+--   ▄█████▀█████▄──▄█
+--   ███████▀████████▀
+--   ─▄▄▄▄▄▄███████▀
+
+-- =================================================================================================
+--  ZOOLAN VETMGMT - APPOINTMENT INDEXES MIGRATION
+--  Version: V1.0.15__appointment_indexes.sql
+--  Dependencies: V1.0.14__client_statement_index.sql
+--  Description: Indexes for calendar range reads and per-employee conflict checks on appointments
+-- =================================================================================================
+
+-- Migration validation
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM flyway_schema_history WHERE version = '1.0.14' AND success = true) THEN
+        RAISE EXCEPTION 'Client statement index migration (V1.0.14) must complete successfully before running this migration';
+    END IF;
+END $$;
+
+-- El calendario y el índice en memoria leen las citas que se solapan con una ventana de fechas
+CREATE INDEX IF NOT EXISTS ix_appointments_start ON appointments (start_appointment_date);
+
+-- Los conflictos fuera de la ventana del índice se buscan por empleado
+CREATE INDEX IF NOT EXISTS ix_appointments_employee_start
+    ON appointments (employee_id, start_appointment_date);
@@ -0,0 +1,64 @@
+--   ─────▀▄▀─────▄─────▄
+--   ──▄███████▄──▀██▄██▀
+--   ▄█████▀█████▄──▄█
+--   ███████▀████████▀
+--   ─▄▄▄▄▄▄███████▀
+
+-- =================================================================================================
+--  ZOOLAN VETMGMT - APPOINTMENT RECURRENCE MIGRATION
+--  Version: V1.0.16__appointment_recurrence.sql
+--  Dependencies: V1.0.15__appointment_indexes.sql
+--  Description: Recurring appointment series (RRULE subset) with per-occurrence exceptions
+-- =================================================================================================
+
+-- Migration validation
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM flyway_schema_history WHERE version = '1.0.15' AND success = true) THEN
+        RAISE EXCEPTION 'Appointment indexes migration (V1.0.15) must complete successfully before running this migration';
+    END IF;
+END $$;
+
+-- Una serie es una sola fila: guarda la primera ocurrencia y la regla; el resto se calcula al leer
+ALTER TABLE appointments ADD COLUMN IF NOT EXISTS recurrence_rule varchar(255);
+ALTER TABLE appointments ADD COLUMN IF NOT EXISTS recurrence_end timestamp(6);
+
+ALTER TABLE appointments_log ADD COLUMN IF NOT EXISTS recurrence_rule varchar(255);
+ALTER TABLE appointments_log ADD COLUMN IF NOT EXISTS recurrence_rule_mod boolean;
+ALTER TABLE appointments_log ADD COLUMN IF NOT EXISTS recurrence_end timestamp(6);
+ALTER TABLE appointments_log ADD COLUMN IF NOT EXISTS recurrence_end_mod boolean;
+
+-- Ocurrencias canceladas o movidas, identificadas por el inicio que les da la regla
+CREATE TABLE IF NOT EXISTS appointment_recurrence_exceptions
+(
+    appointment_id         bigint       NOT NULL
+        CONSTRAINT fk_appointment_recurrence_exceptions_appointment
+            REFERENCES appointments ON DELETE CASCADE,
+    original_start         timestamp(6) NOT NULL,
+    cancelled              boolean      NOT NULL DEFAULT false,
+    start_appointment_date timestamp(6),
+    end_appointment_date   timestamp(6),
+    CONSTRAINT uk_appointment_recurrence_exceptions UNIQUE (appointment_id, original_start)
+);
+
+-- Cancelar o mover una ocurrencia solo cambia las excepciones: quedan auditadas como el resto de
+-- la cita, y la revisión marca recurrence_exceptions_mod en appointments_log
+ALTER TABLE appointments_log ADD COLUMN IF NOT EXISTS recurrence_exceptions_mod boolean;
+
+CREATE TABLE IF NOT EXISTS appointment_recurrence_exceptions_log
+(
+    rev                    integer      NOT NULL
+        CONSTRAINT fk_appointment_recurrence_exceptions_log_revision REFERENCES revision,
+    revtype                smallint     NOT NULL,
+    appointment_id         bigint       NOT NULL,
+    original_start         timestamp(6) NOT NULL,
+    cancelled              boolean,
+    start_appointment_date timestamp(6),
+    end_appointment_date   timestamp(6),
+    PRIMARY KEY (rev, revtype, appointment_id, original_start)
+);
+
+-- Las lecturas por rango buscan aparte las pocas series vivas en la ventana
+CREATE INDEX IF NOT EXISTS ix_appointments_series
+    ON appointments (start_appointment_date, recurrence_end)
+    WHERE recurrence_rule IS NOT NULL;
@@ -0,0 +1,50 @@
+--   ─────▀▄▀─────▄─────▄
+--   ──▄███████▄──▀██▄██▀
+--   ▄█████▀█████▄──▄█
+--   ███████▀████████▀
+--   ─▄▄▄▄▄▄███████▀
+
+-- =================================================================================================
+--  ZOOLAN VETMGMT - WAITING ROOM APPOINTMENT UNIQUENESS MIGRATION
+--  Version: V1.0.8__waiting_room_appointment_uniqueness.sql
+--  Dependencies: V1.0.7__sequence_resets.sql
+--  Description: Unique index backing the idempotent appointment to waiting room materializer
+-- =================================================================================================
+
+-- Migration validation
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM flyway_schema_history WHERE version = '1.0.7' AND success = true) THEN
+        RAISE EXCEPTION 'Sequence resets migration (V1.0.7) must complete successfully before running this migration';
+    END IF;
+END $$;
+
+-- =================================================================================================
+--  DUPLICATE CLEANUP
+--
+--  The previous check-then-insert sync could create the same entry twice when two screens opened
+--  at once. Duplicates still waiting are cancelled, and every duplicate's arrival time is nudged
+--  by a few microseconds so the unique index below can be built without losing history.
+-- =================================================================================================
+
+WITH duplicates AS (
+    SELECT id,
+           ROW_NUMBER() OVER (PARTITION BY pet, arrival_time, type ORDER BY id) - 1 AS rn
+    FROM waiting_room
+)
+UPDATE waiting_room wr
+SET status       = CASE WHEN wr.status = 'ESPERANDO' THEN 'CANCELADO' ELSE wr.status END,
+    arrival_time = wr.arrival_time + (d.rn * INTERVAL '1 microsecond')
+FROM duplicates d
+WHERE wr.id = d.id
+  AND d.rn > 0;
+
+-- =================================================================================================
+--  UNIQUE INDEX
+--
+--  One waiting room entry per pet, arrival time and visit type. The materializer relies on it
+--  through INSERT ... ON CONFLICT DO NOTHING.
+-- =================================================================================================
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_waiting_room_pet_arrival_type
+    ON waiting_room (pet, arrival_time, type);
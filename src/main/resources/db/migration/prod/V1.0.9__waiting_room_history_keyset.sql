@@ -0,0 +1,34 @@
+--   ─────▀▄▀─────▄─────▄
+--   ──▄███████▄──▀██▄██▀
+--   ▄█████▀█████▄──▄█
+--   ███████▀████████▀
+--   ─▄▄▄▄▄▄███████▀
+
+-- =================================================================================================
+--  ZOOLAN VETMGMT - WAITING ROOM HISTORY KEYSET MIGRATION
+--  Version: V1.0.9__waiting_room_history_keyset.sql
+--  Dependencies: V1.0.8__waiting_room_appointment_uniqueness.sql
+--  Description: Numeric priority column and index for keyset pagination of the waiting room history
+-- =================================================================================================
+
+-- Migration validation
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM flyway_schema_history WHERE version = '1.0.8' AND success = true) THEN
+        RAISE EXCEPTION 'Waiting room uniqueness migration (V1.0.8) must complete successfully before running this migration';
+    END IF;
+END $$;
+
+-- =================================================================================================
+--  PRIORITY RANK
+--
+--  Priority is stored by name, which sorts alphabetically. The rank mirrors Priority.numericValue
+--  so the history can be ordered and paged by (priority_rank, arrival_time, id).
+-- =================================================================================================
+
+ALTER TABLE waiting_room
+    ADD COLUMN IF NOT EXISTS priority_rank integer
+        GENERATED ALWAYS AS (CASE priority WHEN 'EMERGENCIA' THEN 3 WHEN 'URGENTE' THEN 2 ELSE 1 END) STORED;
+
+CREATE INDEX IF NOT EXISTS ix_waiting_room_history_keyset
+    ON waiting_room (priority_rank DESC, arrival_time DESC, id DESC);
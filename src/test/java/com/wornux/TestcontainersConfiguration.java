@@ -1,10 +1,24 @@
 package com.wornux;
 
 import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
 
+/**
+ * A PostgreSQL container as the application's datasource, for {@link TestApplication} and the tests
+ * that need the real database (row locks, native queries, statement counts). Those tests
+ * {@code @Import} this configuration and skip themselves without Docker with
+ * {@code @Testcontainers(disabledWithoutDocker = true)}.
+ */
 @TestConfiguration(proxyBeanMethods = false)
 public class TestcontainersConfiguration {
 
-  // TODO Configure your Testcontainers here.
-  //  See https://docs.spring.io/spring-boot/reference/testing/testcontainers.html for details.
+  @Bean
+  @ServiceConnection
+  PostgreSQLContainer<?> postgresContainer() {
+    return new PostgreSQLContainer<>(DockerImageName.parse("postgres:16-alpine"))
+        .withDatabaseName("petcare_db");
+  }
 }
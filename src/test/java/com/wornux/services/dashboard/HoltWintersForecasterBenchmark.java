@@ -0,0 +1,82 @@
+package com.wornux.services.dashboard;
+
+import com.wornux.services.dashboard.TimeSeriesForecaster.Forecast;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Refit and incremental update cost of {@link HoltWintersForecaster} over multi-year daily revenue.
+ *
+ * <p>Run with {@code main} from the IDE, or from the test classpath with {@code
+ * org.openjdk.jmh.Main HoltWintersForecasterBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HoltWintersForecasterBenchmark {
+
+  @Param({"365", "1095", "1825"})
+  int days;
+
+  private final HoltWintersForecaster forecaster = new HoltWintersForecaster();
+  private double[] series;
+  private HoltWintersForecaster.Model model;
+  private double nextDay;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    series = syntheticRevenue(days, 42L);
+    model = forecaster.fit(series);
+    nextDay = series[series.length - 7];
+  }
+
+  @Benchmark
+  public HoltWintersForecaster.Model refit() {
+    return forecaster.fit(series);
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public Forecast closeDayAndForecast() {
+    model.update(nextDay);
+    return model.forecast(14);
+  }
+
+  /** Daily revenue with a slow upward trend, a weekly cycle (quiet Sundays) and noise. */
+  static double[] syntheticRevenue(int days, long seed) {
+    Random random = new Random(seed);
+    double[] weekly = {1.10, 1.05, 1.00, 1.05, 1.20, 0.90, 0.30};
+    double[] series = new double[days];
+    for (int t = 0; t < days; t++) {
+      double base = 25_000 + 8.0 * t;
+      series[t] = Math.max(0, base * weekly[t % 7] + random.nextGaussian() * 2_500);
+    }
+    return series;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(
+            new OptionsBuilder()
+                .include(HoltWintersForecasterBenchmark.class.getSimpleName())
+                .build())
+        .run();
+  }
+}
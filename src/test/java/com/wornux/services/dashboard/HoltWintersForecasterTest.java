@@ -0,0 +1,82 @@
+package com.wornux.services.dashboard;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.wornux.services.dashboard.TimeSeriesForecaster.Forecast;
+import com.wornux.services.dashboard.TimeSeriesForecaster.ForecastModel;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class HoltWintersForecasterTest {
+
+  // lunes a domingo
+  private static final double[] WEEK = {10, 20, 15, 25, 40, -30, -80};
+
+  private final HoltWintersForecaster forecaster = new HoltWintersForecaster();
+
+  @Test
+  void followsTrendAndWeeklySeasonOfANoiselessSeries() {
+    double[] series = new double[26 * 7];
+    for (int t = 0; t < series.length; t++) {
+      series[t] = expected(t);
+    }
+
+    Forecast forecast = forecaster.fit(series).forecast(14);
+
+    for (int h = 1; h <= 14; h++) {
+      double expected = expected(series.length + h - 1);
+      assertEquals(expected, forecast.mean()[h - 1], 1.0, "h=" + h);
+      assertTrue(
+          forecast.lower()[h - 1] <= expected && expected <= forecast.upper()[h - 1], "h=" + h);
+    }
+  }
+
+  @Test
+  void oneStepIntervalsCoverAbout95PercentOfNoisyDays() {
+    Random random = new Random(11L);
+    double sigma = 5;
+    double[] history = new double[104 * 7];
+    for (int t = 0; t < history.length; t++) {
+      history[t] = expected(t) + sigma * random.nextGaussian();
+    }
+    ForecastModel model = forecaster.fit(history);
+
+    Forecast first = model.forecast(14);
+    // sigma ≈ 5: medio ancho ≈ 1.96 * 5
+    assertEquals(1.96 * sigma, (first.upper()[0] - first.lower()[0]) / 2, 2.0);
+    for (int h = 1; h < 14; h++) {
+      assertTrue(width(first, h) >= width(first, h - 1), "h=" + h);
+    }
+
+    int covered = 0;
+    int days = 2000;
+    for (int t = history.length; t < history.length + days; t++) {
+      double observed = expected(t) + sigma * random.nextGaussian();
+      Forecast next = model.forecast(1);
+      if (observed >= next.lower()[0] && observed <= next.upper()[0]) {
+        covered++;
+      }
+      model.update(observed);
+    }
+    double coverage = (double) covered / days;
+    assertTrue(coverage > 0.92 && coverage < 0.98, "coverage " + coverage);
+  }
+
+  @Test
+  void shortHistoriesForecastTheirMean() {
+    Forecast forecast = forecaster.fit(new double[] {10, 20, 30, 40}).forecast(3);
+
+    for (double mean : forecast.mean()) {
+      assertEquals(25, mean, 1e-9);
+    }
+  }
+
+  private static double expected(int t) {
+    return 500 + 2 * t + WEEK[t % 7];
+  }
+
+  private static double width(Forecast forecast, int index) {
+    return forecast.upper()[index] - forecast.lower()[index];
+  }
+}
@@ -0,0 +1,60 @@
+package com.wornux.services.dashboard;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.wornux.data.entity.DailyRevenueRollup;
+import com.wornux.data.repository.DailyRevenueRollupRepository;
+import com.wornux.services.dashboard.TimeSeriesForecaster.Forecast;
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class RevenueForecastServiceTest {
+
+  private static final LocalDate TODAY = LocalDate.of(2025, 9, 1);
+
+  @Test
+  void youngClinicsAreFittedFromTheirFirstDayOfRevenue() {
+    // ocho semanas de historia en una ventana de dos años: 100 entre semana, 40 el domingo
+    List<DailyRevenueRollup> rows = new ArrayList<>();
+    for (LocalDate day = TODAY.minusWeeks(8); day.isBefore(TODAY); day = day.plusDays(1)) {
+      rows.add(rollup(day, day.getDayOfWeek() == DayOfWeek.SUNDAY ? 40 : 100));
+    }
+    DailyRevenueRollupRepository repository = mock(DailyRevenueRollupRepository.class);
+    when(repository.findByDayBetweenOrderByDayAsc(any(), any()))
+        .thenAnswer(
+            inv -> {
+              LocalDate from = inv.getArgument(0);
+              LocalDate to = inv.getArgument(1);
+              return rows.stream()
+                  .filter(r -> !r.getDay().isBefore(from) && !r.getDay().isAfter(to))
+                  .toList();
+            });
+    RevenueForecastService service =
+        new RevenueForecastService(repository, new HoltWintersForecaster(), 14, 730, 7);
+
+    Forecast forecast = service.forecastAfter(TODAY);
+
+    for (int h = 0; h < 14; h++) {
+      LocalDate day = TODAY.plusDays(h + 1L);
+      double expected = day.getDayOfWeek() == DayOfWeek.SUNDAY ? 40 : 100;
+      assertEquals(expected, forecast.mean()[h], 1.0, day.toString());
+      // sin los ceros de antes de abrir no hay salto que ensanche el intervalo
+      assertTrue(forecast.upper()[h] - forecast.lower()[h] < 5, day.toString());
+    }
+  }
+
+  private static DailyRevenueRollup rollup(LocalDate day, double revenue) {
+    DailyRevenueRollup rollup = new DailyRevenueRollup();
+    rollup.setDay(day);
+    rollup.setRevenue(BigDecimal.valueOf(revenue));
+    return rollup;
+  }
+}
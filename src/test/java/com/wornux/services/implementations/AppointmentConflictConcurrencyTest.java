@@ -0,0 +1,144 @@
+package com.wornux.services.implementations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.wornux.TestcontainersConfiguration;
+import com.wornux.data.entity.Appointment;
+import com.wornux.data.entity.AppointmentClientInfo;
+import com.wornux.data.enums.OfferingType;
+import com.wornux.data.enums.PetType;
+import com.wornux.data.repository.AppointmentRepository;
+import com.wornux.data.repository.EmployeeRepository;
+import com.wornux.exception.ScheduleConflictException;
+import com.wornux.mapper.AppointmentMapper;
+import com.wornux.mapper.AppointmentMapperImpl;
+import com.wornux.services.scheduling.AppointmentBroadcaster;
+import com.wornux.services.scheduling.AppointmentIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Parallel saves that book the same employee at the same time against a real PostgreSQL: exactly
+ * one of them may commit, whatever the index has seen.
+ */
+@DataJpaTest(properties = "spring.datasource.hikari.maximum-pool-size=16")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TestcontainersConfiguration.class)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AppointmentConflictConcurrencyTest {
+
+  private static final int SAVES = 12;
+  private static final LocalDateTime START = LocalDate.of(2031, 5, 6).atTime(10, 0);
+
+  @Autowired private AppointmentRepository repository;
+  @Autowired private EmployeeRepository employeeRepository;
+  @Autowired private PlatformTransactionManager transactionManager;
+  @Autowired private JdbcTemplate jdbc;
+
+  @Test
+  void onlyOneOfManyParallelSavesBooksTheSameSlot() throws Exception {
+    long employeeId = employee();
+    AppointmentMapper mapper = new AppointmentMapperImpl();
+    AppointmentServiceImpl service =
+        new AppointmentServiceImpl(
+            repository,
+            mapper,
+            event -> {},
+            new AppointmentIndex(
+                repository,
+                mapper,
+                new AppointmentBroadcaster(Duration.ofMillis(200)),
+                new SimpleMeterRegistry(),
+                31,
+                186));
+    TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<Boolean>> saves = new ArrayList<>();
+    try (ExecutorService executor = Executors.newFixedThreadPool(SAVES)) {
+      for (int i = 0; i < SAVES; i++) {
+        // cada una empieza unos minutos después: todas se solapan con todas
+        LocalDateTime from = START.plusMinutes(i);
+        saves.add(
+            executor.submit(
+                () -> {
+                  start.await();
+                  try {
+                    transaction.executeWithoutResult(
+                        status ->
+                            service.createOrUpdateAppointment(
+                                appointment(employeeId, from, from.plusMinutes(30))));
+                    return true;
+                  } catch (ScheduleConflictException e) {
+                    return false;
+                  }
+                }));
+      }
+      start.countDown();
+    }
+
+    int booked = 0;
+    for (Future<Boolean> save : saves) {
+      booked += save.get() ? 1 : 0;
+    }
+    assertEquals(1, booked);
+    assertEquals(
+        1,
+        jdbc.queryForObject(
+            "SELECT count(*) FROM appointments WHERE employee_id = ?", Integer.class, employeeId));
+  }
+
+  private Appointment appointment(long employeeId, LocalDateTime from, LocalDateTime to) {
+    Appointment appointment = new Appointment();
+    appointment.setStartAppointmentDate(from);
+    appointment.setEndAppointmentDate(to);
+    appointment.setOfferingType(OfferingType.GROOMING);
+    appointment.setAssignedEmployee(employeeRepository.getReferenceById(employeeId));
+    appointment.setGuestClientInfo(
+        AppointmentClientInfo.builder()
+            .name("Ana Pérez")
+            .phone("8095551234")
+            .email("ana@example.com")
+            .petType(PetType.PERRO)
+            .breed("Poodle")
+            .build());
+    return appointment;
+  }
+
+  private long employee() {
+    long id =
+        jdbc.queryForObject(
+            """
+            INSERT INTO users (first_name, last_name, email, municipality, province, sector,
+                street_address, active)
+            VALUES ('Laura', 'Gómez', 'laura.gomez@example.com', 'Santo Domingo Este',
+                'Santo Domingo', 'Los Mina', 'Calle 1', true)
+            RETURNING user_id""",
+            Long.class);
+    jdbc.update(
+        "INSERT INTO employee (employee_id, hire_date, available, employee_role)"
+            + " VALUES (?, '2020-01-01', true, 'GROOMER')",
+        id);
+    return id;
+  }
+}
@@ -0,0 +1,192 @@
+package com.wornux.services.implementations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.wornux.TestcontainersConfiguration;
+import com.wornux.data.repository.AppointmentRepository;
+import com.wornux.dto.response.AppointmentResponseDto;
+import com.wornux.mapper.AppointmentMapper;
+import com.wornux.mapper.AppointmentMapperImpl;
+import com.wornux.services.scheduling.AppointmentBroadcaster;
+import com.wornux.services.scheduling.AppointmentIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Appointment reads against a real PostgreSQL, counting the statements Hibernate prepares: each
+ * read is a single projection query, whatever client, pet, employee or series exceptions the
+ * appointments carry. The index is never loaded here, so every range goes to the database.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TestcontainersConfiguration.class)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class AppointmentReadStatementsTest {
+
+  // lunes
+  private static final LocalDateTime SERIES_START = LocalDate.of(2030, 3, 4).atTime(9, 0);
+
+  @Autowired private AppointmentRepository repository;
+  @Autowired private JdbcTemplate jdbc;
+  @Autowired private EntityManagerFactory entityManagerFactory;
+
+  private AppointmentServiceImpl service;
+  private Statistics statistics;
+  private long clientId;
+  private long petId;
+  private long employeeId;
+
+  @BeforeAll
+  void createClientPetAndEmployee() {
+    clientId = user("Rosa", "Díaz", "rosa.diaz@example.com");
+    jdbc.update("INSERT INTO client (client_id, current_balance) VALUES (?, 0)", clientId);
+    petId =
+        jdbc.queryForObject(
+            "INSERT INTO pets (active, name, type, breed) VALUES (true, 'Toby', 'PERRO', 'Beagle')"
+                + " RETURNING id",
+            Long.class);
+    jdbc.update("INSERT INTO pet_owners (owners, pet_id) VALUES (?, ?)", clientId, petId);
+    employeeId = user("Carlos", "Méndez", "carlos.mendez@example.com");
+    jdbc.update(
+        "INSERT INTO employee (employee_id, hire_date, available, employee_role)"
+            + " VALUES (?, '2020-01-01', true, 'VETERINARIAN')",
+        employeeId);
+  }
+
+  @BeforeEach
+  void setUp() {
+    AppointmentMapper mapper = new AppointmentMapperImpl();
+    AppointmentIndex index =
+        new AppointmentIndex(
+            repository,
+            mapper,
+            new AppointmentBroadcaster(Duration.ofMillis(200)),
+            new SimpleMeterRegistry(),
+            31,
+            186);
+    service = new AppointmentServiceImpl(repository, mapper, event -> {}, index);
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+    jdbc.update("DELETE FROM appointments WHERE start_appointment_date >= '2030-01-01'");
+    long series =
+        jdbc.queryForObject(
+            """
+            INSERT INTO appointments (client_id, pet_id, employee_id, start_appointment_date,
+                end_appointment_date, offering_type, status, recurrence_rule, recurrence_end,
+                created_by, created_date, last_modified_by, last_modified_date)
+            VALUES (?, ?, ?, ?, ?, 'VACCINATION', 'PROGRAMADA', 'FREQ=WEEKLY;COUNT=4', ?,
+                'test', now(), 'test', now())
+            RETURNING id""",
+            Long.class,
+            clientId,
+            petId,
+            employeeId,
+            SERIES_START,
+            SERIES_START.plusMinutes(30),
+            SERIES_START.plusWeeks(3).plusMinutes(30));
+    jdbc.update(
+        "INSERT INTO appointment_recurrence_exceptions (appointment_id, original_start, cancelled)"
+            + " VALUES (?, ?, true)",
+        series,
+        SERIES_START.plusWeeks(1));
+    jdbc.update(
+        "INSERT INTO appointment_recurrence_exceptions (appointment_id, original_start,"
+            + " start_appointment_date, end_appointment_date) VALUES (?, ?, ?, ?)",
+        series,
+        SERIES_START.plusWeeks(2),
+        SERIES_START.plusWeeks(2).plusDays(1).plusHours(2),
+        SERIES_START.plusWeeks(2).plusDays(1).plusHours(2).plusMinutes(30));
+    jdbc.update(
+        """
+        INSERT INTO appointments (start_appointment_date, end_appointment_date, offering_type,
+            status, guest_client_name, guest_client_phone, guest_client_email,
+            guest_client_pet_type, guest_client_pet_breed, created_by, created_date,
+            last_modified_by, last_modified_date)
+        VALUES (?, ?, 'GROOMING', 'PROGRAMADA', 'Ana Pérez', '8095551234', 'ana@example.com',
+            'PERRO', 'Poodle', 'test', now(), 'test', now())""",
+        SERIES_START.plusDays(1).plusHours(1),
+        SERIES_START.plusDays(1).plusHours(2));
+  }
+
+  @Test
+  void monthViewIsOneStatementWithSeriesExpanded() {
+    LocalDateTime from = LocalDate.of(2030, 3, 1).atStartOfDay();
+
+    List<AppointmentResponseDto> month =
+        statements(1, () -> service.getAppointmentsByDateRange(from, from.plusMonths(1)));
+
+    // la segunda semana está cancelada y la tercera se movió al martes
+    assertEquals(
+        List.of(
+            SERIES_START,
+            SERIES_START.plusDays(1).plusHours(1),
+            SERIES_START.plusWeeks(2).plusDays(1).plusHours(2),
+            SERIES_START.plusWeeks(3)),
+        month.stream().map(AppointmentResponseDto::getStartAppointmentDate).toList());
+    AppointmentResponseDto first = month.getFirst();
+    assertEquals(SERIES_START, first.getOccurrenceStart());
+    assertEquals("Toby", first.getPetName());
+    assertEquals("Carlos Méndez", first.getAssignedEmployeeName());
+    assertEquals(SERIES_START.plusWeeks(2), month.get(2).getOccurrenceStart());
+
+    AppointmentResponseDto guest = month.get(1);
+    assertEquals("Ana Pérez - Estética", guest.getAppointmentTitle());
+    assertEquals("8095551234", guest.getClientContactPhone());
+    assertEquals("Poodle", guest.getGuestClientInfo().getBreed());
+    assertNull(guest.getOccurrenceStart());
+    assertFalse(guest.isHasRegisteredClient());
+  }
+
+  @Test
+  void clientHistoryAndTodayAreOneStatementEach() {
+    List<AppointmentResponseDto> history =
+        statements(1, () -> service.getAppointmentsByClient(clientId));
+
+    assertEquals(SERIES_START, history.getFirst().getStartAppointmentDate());
+    assertEquals("FREQ=WEEKLY;COUNT=4", history.getFirst().getRecurrenceRule());
+    statements(1, service::getTodayAppointments);
+  }
+
+  private long user(String firstName, String lastName, String email) {
+    return jdbc.queryForObject(
+        """
+        INSERT INTO users (first_name, last_name, email, municipality, province, sector,
+            street_address, active)
+        VALUES (?, ?, ?, 'Santo Domingo Este', 'Santo Domingo', 'Los Mina', 'Calle 1', true)
+        RETURNING user_id""",
+        Long.class,
+        firstName,
+        lastName,
+        email);
+  }
+
+  private <T> T statements(long expected, Supplier<T> read) {
+    statistics.clear();
+    T result = read.get();
+    assertEquals(expected, statistics.getPrepareStatementCount());
+    return result;
+  }
+}
@@ -0,0 +1,195 @@
+package com.wornux.services.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.wornux.TestcontainersConfiguration;
+import com.wornux.data.entity.Product;
+import com.wornux.data.entity.StockMovement;
+import com.wornux.data.enums.ProductCategory;
+import com.wornux.data.enums.StorageRecordType;
+import com.wornux.data.repository.ProductRepository;
+import com.wornux.data.repository.StockMovementRepository;
+import com.wornux.exception.InsufficientStockException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Hundreds of parallel consumers against a real PostgreSQL: stock must never go negative, no
+ * decrement may be lost, not even to a product saved in between, and every successful consumption
+ * must have exactly one ledger movement.
+ */
+@DataJpaTest(properties = "spring.datasource.hikari.maximum-pool-size=32")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({StockLedger.class, TestcontainersConfiguration.class})
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockLedgerConcurrencyTest {
+
+  private static final int CONSUMERS = 400;
+
+  @Autowired private StockLedger stockLedger;
+  @Autowired private ProductRepository productRepository;
+  @Autowired private StockMovementRepository stockMovementRepository;
+
+  @Test
+  void parallelConsumersNeverOversellNorLoseUpdates() throws Exception {
+    int initialStock = 250;
+    Product product = productRepository.save(product("Vacuna antirrábica", initialStock));
+
+    AtomicInteger rejected = new AtomicInteger();
+    List<Long> sources = new ArrayList<>();
+    for (long i = 1; i <= CONSUMERS; i++) {
+      sources.add(1_000_000L + i);
+    }
+    int consumed =
+        runConcurrently(
+            sources,
+            sourceId -> {
+              try {
+                stockLedger.consume(
+                    Map.of(product.getId(), 1), StorageRecordType.INVOICE, sourceId);
+                return true;
+              } catch (InsufficientStockException e) {
+                rejected.incrementAndGet();
+                return false;
+              }
+            });
+
+    assertEquals(initialStock, consumed);
+    assertEquals(CONSUMERS - initialStock, rejected.get());
+    assertEquals(0, availableStock(product));
+    assertEquals(-initialStock, netMovement(product));
+  }
+
+  @Test
+  void overlappingBatchesDoNotDeadlockAndReleaseRestoresStock() throws Exception {
+    int initialStock = CONSUMERS * 2;
+    Product first = productRepository.save(product("Jeringa 5ml", initialStock));
+    Product second = productRepository.save(product("Antipulgas", initialStock));
+
+    List<Long> sources = new ArrayList<>();
+    for (long i = 1; i <= CONSUMERS; i++) {
+      sources.add(2_000_000L + i);
+    }
+    int consumed =
+        runConcurrently(
+            sources,
+            sourceId -> {
+              // mitad de los lotes nombra los productos en orden inverso
+              Map<Long, Integer> batch =
+                  sourceId % 2 == 0
+                      ? Map.of(first.getId(), 2, second.getId(), 1)
+                      : Map.of(second.getId(), 1, first.getId(), 2);
+              stockLedger.consume(batch, StorageRecordType.INVOICE, sourceId);
+              return true;
+            });
+
+    assertEquals(CONSUMERS, consumed);
+    assertEquals(0, availableStock(first));
+    assertEquals(CONSUMERS, availableStock(second));
+
+    int released =
+        runConcurrently(
+            sources,
+            sourceId -> !stockLedger.release(StorageRecordType.INVOICE, sourceId).isEmpty());
+
+    assertEquals(CONSUMERS, released);
+    assertEquals(initialStock, availableStock(first));
+    assertEquals(initialStock, availableStock(second));
+    assertEquals(0, netMovement(first));
+  }
+
+  @Test
+  void savingAStaleProductDoesNotUndoConsumedStock() throws Exception {
+    Product product = productRepository.save(product("Desparasitante", CONSUMERS));
+
+    List<Long> sources = new ArrayList<>();
+    for (long i = 1; i <= CONSUMERS; i++) {
+      sources.add(3_000_000L + i);
+    }
+    int consumed =
+        runConcurrently(
+            sources,
+            sourceId -> {
+              if (sourceId % 4 == 0) {
+                // una edición del formulario con el stock que había cuando se abrió
+                Product stale = product("Desparasitante", CONSUMERS);
+                stale.setId(product.getId());
+                stale.setSalesPrice(BigDecimal.valueOf(sourceId % 100));
+                productRepository.save(stale);
+                return false;
+              }
+              stockLedger.consume(Map.of(product.getId(), 1), StorageRecordType.INVOICE, sourceId);
+              return true;
+            });
+
+    assertEquals(CONSUMERS * 3 / 4, consumed);
+    assertEquals(CONSUMERS - consumed, availableStock(product));
+    assertEquals(-consumed, netMovement(product));
+  }
+
+  private int runConcurrently(List<Long> sources, Consumer consumer) throws Exception {
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<Boolean>> results = new ArrayList<>();
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (Long sourceId : sources) {
+        results.add(
+            executor.submit(
+                () -> {
+                  start.await();
+                  return consumer.consume(sourceId);
+                }));
+      }
+      start.countDown();
+    }
+    int succeeded = 0;
+    for (Future<Boolean> result : results) {
+      if (result.get()) {
+        succeeded++;
+      }
+    }
+    return succeeded;
+  }
+
+  private int availableStock(Product product) {
+    return productRepository.findById(product.getId()).orElseThrow().getAvailableStock();
+  }
+
+  private long netMovement(Product product) {
+    return stockMovementRepository.findAll().stream()
+        .filter(m -> m.getProductId().equals(product.getId()))
+        .mapToLong(StockMovement::getQuantity)
+        .sum();
+  }
+
+  private static Product product(String name, int stock) {
+    return Product.builder()
+        .name(name)
+        .purchasePrice(BigDecimal.ONE)
+        .salesPrice(BigDecimal.TEN)
+        .accountingStock(stock)
+        .availableStock(stock)
+        .category(ProductCategory.MEDICINA)
+        .build();
+  }
+
+  @FunctionalInterface
+  private interface Consumer {
+    boolean consume(Long sourceId);
+  }
+}
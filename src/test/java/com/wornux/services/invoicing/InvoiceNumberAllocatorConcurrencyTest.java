@@ -0,0 +1,124 @@
+package com.wornux.services.invoicing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.wornux.TestcontainersConfiguration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Concurrent allocation against the counters of {@code invoice_number_series} in a real PostgreSQL:
+ * blocks must never overlap, and gapless series must hand out every committed number exactly once
+ * even when invoices roll back.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({InvoiceNumberAllocator.class, TestcontainersConfiguration.class})
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InvoiceNumberAllocatorConcurrencyTest {
+
+  private static final int THREADS = 16;
+  private static final int BLOCK_SIZE = 50;
+
+  @Autowired private InvoiceNumberAllocator allocator;
+  @Autowired private PlatformTransactionManager transactionManager;
+  @Autowired private JdbcTemplate jdbc;
+
+  @Test
+  void blocksNeverOverlapAcrossThreads() throws Exception {
+    int perThread = 4 * BLOCK_SIZE;
+    long first = nextValue("FACT");
+
+    List<String> numbers = runConcurrently(perThread, attempt -> allocator.next("FACT"));
+
+    assertEquals(THREADS * perThread, new HashSet<>(numbers).size());
+    // cada bloque reservado se usó entero
+    assertEquals(first + (long) THREADS * perThread, nextValue("FACT"));
+  }
+
+  @Test
+  void gaplessSeriesUsesEveryCommittedNumberOnce() throws Exception {
+    int perThread = 40;
+    long first = nextValue("B02");
+    TransactionTemplate invoice = new TransactionTemplate(transactionManager);
+
+    // una de cada cinco facturas se deshace y devuelve su número
+    List<String> committed =
+        runConcurrently(
+            perThread,
+            attempt ->
+                invoice.execute(
+                    status -> {
+                      String number = allocator.next("B02");
+                      if (attempt % 5 == 4) {
+                        status.setRollbackOnly();
+                        return null;
+                      }
+                      return number;
+                    }));
+
+    Set<String> expected = new HashSet<>();
+    for (long n = first; n < nextValue("B02"); n++) {
+      expected.add(String.format("B02%08d", n));
+    }
+    assertEquals(committed.size(), new HashSet<>(committed).size());
+    assertEquals(expected, Set.copyOf(committed));
+  }
+
+  private long nextValue(String series) {
+    return jdbc.queryForObject(
+        "SELECT next_value FROM invoice_number_series WHERE series = ?", Long.class, series);
+  }
+
+  /** Runs {@code allocation} {@code perThread} times on each thread; null results are dropped. */
+  private List<String> runConcurrently(int perThread, Allocation allocation) throws Exception {
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<List<String>>> results = new ArrayList<>();
+    try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+      for (int t = 0; t < THREADS; t++) {
+        results.add(
+            executor.submit(
+                () -> {
+                  start.await();
+                  List<String> mine = new ArrayList<>(perThread);
+                  for (int i = 0; i < perThread; i++) {
+                    String number = allocation.next(i);
+                    if (number != null) {
+                      mine.add(number);
+                    }
+                  }
+                  return mine;
+                }));
+      }
+      start.countDown();
+    }
+    List<String> all = new ArrayList<>();
+    for (Future<List<String>> result : results) {
+      all.addAll(result.get());
+    }
+    return all;
+  }
+
+  @FunctionalInterface
+  private interface Allocation {
+    String next(int attempt);
+  }
+}
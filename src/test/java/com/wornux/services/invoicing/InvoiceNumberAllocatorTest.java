@@ -0,0 +1,81 @@
+package com.wornux.services.invoicing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.wornux.data.entity.InvoiceNumberSeries;
+import com.wornux.data.repository.InvoiceNumberSeriesRepository;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+/**
+ * Allocation rules against a mocked counter. Concurrent allocation against the real row lock is in
+ * {@link InvoiceNumberAllocatorConcurrencyTest}.
+ */
+class InvoiceNumberAllocatorTest {
+
+  private static final int BLOCK_SIZE = 50;
+
+  private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+  private final AtomicInteger reservations = new AtomicInteger();
+  private InvoiceNumberAllocator allocator;
+
+  @BeforeEach
+  void setUp() {
+    InvoiceNumberSeriesRepository repository = mock(InvoiceNumberSeriesRepository.class);
+    Map<String, InvoiceNumberSeries> series =
+        Map.of(
+            "FACT", new InvoiceNumberSeries("FACT", "", 0, 1L, false, "Facturas"),
+            "B02", new InvoiceNumberSeries("B02", "B02", 8, 1L, true, "NCF Consumo"));
+    series.keySet().forEach(name -> counters.put(name, new AtomicLong(1)));
+
+    when(repository.findById(anyString()))
+        .thenAnswer(inv -> Optional.ofNullable(series.get(inv.<String>getArgument(0))));
+    // mismo efecto que el UPDATE ... RETURNING: avance atómico del contador de la serie
+    when(repository.reserve(anyString(), anyInt()))
+        .thenAnswer(
+            inv -> {
+              reservations.incrementAndGet();
+              AtomicLong counter = counters.get(inv.<String>getArgument(0));
+              return Optional.ofNullable(counter)
+                  .map(c -> c.getAndAdd(inv.<Integer>getArgument(1)));
+            });
+
+    PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+    allocator = new InvoiceNumberAllocator(repository, transactionManager, BLOCK_SIZE, "FACT");
+  }
+
+  @Test
+  void gaplessSeriesRequiresATransaction() {
+    assertThrows(IllegalStateException.class, () -> allocator.next("B02"));
+  }
+
+  @Test
+  void unknownSeriesIsRejected() {
+    assertThrows(IllegalArgumentException.class, () -> allocator.next("XYZ"));
+  }
+
+  @Test
+  void peekDoesNotReserve() {
+    String peeked = allocator.peek("FACT");
+    String next = allocator.next("FACT");
+
+    assertEquals(peeked, next);
+    assertTrue(reservations.get() <= 1);
+  }
+}
@@ -0,0 +1,200 @@
+package com.wornux.services.invoicing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.wornux.data.entity.Invoice;
+import com.wornux.data.entity.Payment;
+import com.wornux.data.enums.InvoiceStatus;
+import com.wornux.data.enums.PaymentMethod;
+import com.wornux.data.enums.PaymentStatus;
+import com.wornux.data.repository.ClientRepository;
+import com.wornux.data.repository.InvoiceRepository;
+import com.wornux.data.repository.PaymentRepository;
+import com.wornux.exception.PaymentAllocationException;
+import com.wornux.services.invoicing.PaymentAllocationService.PaymentAllocation;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+class PaymentAllocationServiceTest {
+
+  private static final Long CLIENT_ID = 7L;
+
+  private final Map<Long, Invoice> invoices = new LinkedHashMap<>();
+  private InvoiceRepository invoiceRepository;
+  private PaymentRepository paymentRepository;
+  private PaymentAllocationService service;
+
+  @BeforeEach
+  void setUp() {
+    invoiceRepository = mock(InvoiceRepository.class);
+    paymentRepository = mock(PaymentRepository.class);
+
+    // filas en el orden de la consulta: la que vence primero, primero
+    when(invoiceRepository.lockOpenBalances(any(), anyCollection()))
+        .thenAnswer(
+            inv ->
+                invoices.values().stream()
+                    .map(i -> new Object[] {i.getCode(), i.getOutstandingBalance()})
+                    .toList());
+    when(invoiceRepository.lockBalances(anyCollection()))
+        .thenAnswer(
+            inv ->
+                inv.<Collection<Long>>getArgument(0).stream()
+                    .map(invoices::get)
+                    .map(
+                        i ->
+                            new Object[] {
+                              i.getCode(), CLIENT_ID, i.getStatus(), i.getOutstandingBalance(), true
+                            })
+                    .toList());
+    when(invoiceRepository.findAllById(anyCollection()))
+        .thenAnswer(
+            inv -> inv.<Collection<Long>>getArgument(0).stream().map(invoices::get).toList());
+    when(invoiceRepository.getReferenceById(anyLong()))
+        .thenAnswer(inv -> invoices.get(inv.<Long>getArgument(0)));
+    when(paymentRepository.save(any()))
+        .thenAnswer(
+            inv -> {
+              Payment payment = inv.getArgument(0);
+              payment.setCode(99L);
+              return payment;
+            });
+
+    service =
+        new PaymentAllocationService(
+            invoiceRepository,
+            paymentRepository,
+            mock(ClientRepository.class),
+            mock(InvoiceMetricsService.class),
+            mock(ApplicationEventPublisher.class));
+  }
+
+  @Test
+  void paysTheInvoicesDueFirstBeforeTheOthers() {
+    invoice(1L, "100", "0", InvoiceStatus.PENDING);
+    invoice(2L, "80", "30", InvoiceStatus.PARTIAL);
+    invoice(3L, "60", "0", InvoiceStatus.SENT);
+
+    PaymentAllocation allocation = service.allocateOldestFirst(CLIENT_ID, payment("130"));
+
+    assertEquals(Map.of(1L, amount("100"), 2L, amount("30")), allocation.applied());
+    assertEquals(0, allocation.unapplied().signum());
+    assertInvoice(1L, "100", InvoiceStatus.PAID);
+    assertInvoice(2L, "60", InvoiceStatus.PARTIAL);
+    assertInvoice(3L, "0", InvoiceStatus.SENT);
+    assertEquals(2, allocation.payment().getDetails().size());
+  }
+
+  @Test
+  void partialPaymentLeavesTheInvoicePartial() {
+    invoice(1L, "100", "0", InvoiceStatus.PENDING);
+
+    PaymentAllocation allocation =
+        service.allocate(CLIENT_ID, payment("40"), Map.of(1L, amount("40")));
+
+    assertEquals(0, allocation.unapplied().signum());
+    assertInvoice(1L, "40", InvoiceStatus.PARTIAL);
+  }
+
+  @Test
+  void overpaymentStaysUnappliedOnThePayment() {
+    invoice(1L, "100", "20", InvoiceStatus.PARTIAL);
+    invoice(2L, "50", "0", InvoiceStatus.PENDING);
+
+    PaymentAllocation allocation = service.allocateOldestFirst(CLIENT_ID, payment("200"));
+
+    assertEquals(Map.of(1L, amount("80"), 2L, amount("50")), allocation.applied());
+    assertEquals(amount("70"), allocation.unapplied());
+    assertInvoice(1L, "100", InvoiceStatus.PAID);
+    assertInvoice(2L, "50", InvoiceStatus.PAID);
+  }
+
+  @Test
+  void overdueInvoicesStayOverdueUntilFullyPaid() {
+    invoice(1L, "100", "0", InvoiceStatus.OVERDUE);
+    invoice(2L, "100", "0", InvoiceStatus.OVERDUE);
+
+    service.allocateOldestFirst(CLIENT_ID, payment("150"));
+
+    assertInvoice(1L, "100", InvoiceStatus.PAID);
+    assertInvoice(2L, "50", InvoiceStatus.OVERDUE);
+  }
+
+  @Test
+  void rejectsAmountsAboveTheInvoiceBalance() {
+    invoice(1L, "100", "70", InvoiceStatus.PARTIAL);
+
+    assertThrows(
+        PaymentAllocationException.class,
+        () -> service.allocate(CLIENT_ID, payment("50"), Map.of(1L, amount("50"))));
+    assertInvoice(1L, "70", InvoiceStatus.PARTIAL);
+  }
+
+  @Test
+  void rejectsPaymentsThatDidNotSucceed() {
+    invoice(1L, "100", "0", InvoiceStatus.PENDING);
+
+    for (PaymentStatus status :
+        List.of(PaymentStatus.PENDING, PaymentStatus.FAILED, PaymentStatus.REFUNDED)) {
+      Payment payment = payment("100");
+      payment.setStatus(status);
+
+      assertThrows(
+          PaymentAllocationException.class,
+          () -> service.allocateOldestFirst(CLIENT_ID, payment),
+          status.name());
+      assertThrows(
+          PaymentAllocationException.class,
+          () -> service.allocate(CLIENT_ID, payment, Map.of(1L, amount("100"))),
+          status.name());
+    }
+    verify(paymentRepository, never()).save(any());
+    assertInvoice(1L, "0", InvoiceStatus.PENDING);
+  }
+
+  private void invoice(Long code, String total, String paid, InvoiceStatus status) {
+    invoices.put(
+        code,
+        Invoice.builder()
+            .code(code)
+            .total(amount(total))
+            .paidToDate(amount(paid))
+            .status(status)
+            .active(true)
+            .build());
+  }
+
+  private void assertInvoice(Long code, String paid, InvoiceStatus status) {
+    Invoice invoice = invoices.get(code);
+    assertEquals(amount(paid), invoice.getPaidToDate(), "paid of " + code);
+    assertEquals(status, invoice.getStatus(), "status of " + code);
+  }
+
+  private static Payment payment(String total) {
+    Payment payment = new Payment();
+    payment.setPaymentDate(LocalDate.of(2025, 9, 1));
+    payment.setTotalAmount(amount(total));
+    payment.setMethod(PaymentMethod.CASH);
+    payment.setStatus(PaymentStatus.SUCCESS);
+    return payment;
+  }
+
+  private static BigDecimal amount(String value) {
+    return new BigDecimal(value);
+  }
+}
@@ -0,0 +1,126 @@
+package com.wornux.services.report;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.wornux.TestcontainersConfiguration;
+import com.wornux.services.report.pdf.JasperReportFactory;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Statement entries against a real PostgreSQL: lines in date order with invoices before payments of
+ * the same day, a running balance from the opening balance, and only successful payments counted as
+ * credits, both in the period and before it.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({AccountStatementService.class, TestcontainersConfiguration.class})
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AccountStatementServiceTest {
+
+  private static final LocalDate FROM = LocalDate.of(2030, 3, 1);
+  private static final LocalDate TO = LocalDate.of(2030, 3, 31);
+
+  @MockitoBean private JasperReportFactory reportFactory;
+  @Autowired private AccountStatementService service;
+  @Autowired private JdbcTemplate jdbc;
+
+  @Test
+  void linesAreInDateOrderWithARunningBalanceOfSuccessfulPayments() throws Exception {
+    long client = client();
+
+    // antes del período: 200 facturados, 50 cobrados y un pago fallido que no cuenta
+    long previous = invoice(client, "F-A", LocalDate.of(2030, 2, 10), "200.00", "PARTIAL");
+    payment(previous, "R-0", LocalDate.of(2030, 2, 15), "50.00", "SUCCESS");
+    payment(previous, "R-X", LocalDate.of(2030, 2, 16), "70.00", "FAILED");
+
+    long current = invoice(client, "F-B", LocalDate.of(2030, 3, 5), "100.00", "PENDING");
+    payment(previous, "R-1", LocalDate.of(2030, 3, 5), "40.00", "SUCCESS");
+    payment(current, "R-2", LocalDate.of(2030, 3, 10), "30.00", "PENDING");
+    payment(current, "R-3", LocalDate.of(2030, 3, 12), "20.00", "REFUNDED");
+    invoice(client, "F-C", LocalDate.of(2030, 3, 20), "60.00", "SENT");
+    invoice(client, "F-D", LocalDate.of(2030, 3, 25), "999.00", "CANCELLED");
+
+    ByteArrayOutputStream csv = new ByteArrayOutputStream();
+    service.writeCsv(client, FROM, TO, csv);
+
+    assertEquals(
+        List.of(
+            "Fecha,Tipo,Referencia,Descripción,Débito,Crédito,Balance",
+            "01/03/2030,SALDO ANTERIOR,,,,,150.00",
+            "05/03/2030,FACTURA,F-B,,100.00,,250.00",
+            "05/03/2030,PAGO,R-1,Aplicado a factura F-A,,40.00,210.00",
+            "20/03/2030,FACTURA,F-C,,60.00,,270.00"),
+        csv.toString(StandardCharsets.UTF_8).lines().toList());
+  }
+
+  private long client() {
+    long id =
+        jdbc.queryForObject(
+            """
+            INSERT INTO users (first_name, last_name, email, municipality, province, sector,
+                street_address, active)
+            VALUES ('Estado', 'De Cuenta', 'estado.cuenta@example.com', 'Santo Domingo Este',
+                'Santo Domingo', 'Los Mina', 'Calle 1', true)
+            RETURNING user_id""",
+            Long.class);
+    jdbc.update("INSERT INTO client (client_id, current_balance) VALUES (?, 0)", id);
+    return id;
+  }
+
+  private long invoice(long client, String number, LocalDate issued, String total, String status) {
+    return jdbc.queryForObject(
+        """
+        INSERT INTO invoices (client, invoice_number, issued_date, payment_date, subtotal, tax,
+            total, paid_to_date, status, active, created_by, created_date, last_modified_by,
+            last_modified_date)
+        VALUES (?, ?, ?, ?, CAST(? AS numeric), 0, CAST(? AS numeric), 0, ?, true, 'test', now(),
+            'test', now())
+        RETURNING code""",
+        Long.class,
+        client,
+        number,
+        issued,
+        issued.plusDays(30),
+        total,
+        total,
+        status);
+  }
+
+  private void payment(
+      long invoice, String reference, LocalDate date, String amount, String status) {
+    long payment =
+        jdbc.queryForObject(
+            """
+            INSERT INTO payments (payment_date, total_amount, reference_number, method, status,
+                created_by, created_date, last_modified_by, last_modified_date)
+            VALUES (?, CAST(? AS numeric), ?, 'CASH', ?, 'test', now(), 'test', now())
+            RETURNING code""",
+            Long.class,
+            date,
+            amount,
+            reference,
+            status);
+    jdbc.update(
+        """
+        INSERT INTO payments_detail (payment, invoice, amount, created_by, created_date,
+            last_modified_by, last_modified_date)
+        VALUES (?, ?, CAST(? AS numeric), 'test', now(), 'test', now())""",
+        payment,
+        invoice,
+        amount);
+  }
+}
@@ -0,0 +1,133 @@
+package com.wornux.services.report.pdf;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.DefaultResourceLoader;
+
+/**
+ * Per-invoice PDF latency with the report loaded on every call (the old behaviour) against the
+ * factory's cached report and pooled fill, buffered into a byte array or streamed to the client.
+ *
+ * <p>Run with {@code main} from the IDE, or from the test classpath with {@code
+ * org.openjdk.jmh.Main InvoiceReportBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InvoiceReportBenchmark {
+
+  @Param({"5", "40"})
+  int lines;
+
+  private final DefaultResourceLoader resourceLoader = new DefaultResourceLoader();
+  private JasperReportFactory factory;
+  private List<Map<String, Object>> items;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    factory =
+        new JasperReportFactory(
+            resourceLoader, new ReportRegistry(resourceLoader, false), "bench", 2, 32);
+    items = invoiceLines(lines);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    factory.shutdown();
+  }
+
+  @Benchmark
+  public byte[] loadEveryTime() {
+    return withInvoice(ReportServiceDatabase.builder().resourceLoader(resourceLoader).build())
+        .execute();
+  }
+
+  @Benchmark
+  public byte[] cached() {
+    return withInvoice((ReportServiceDatabase) factory.getServiceFromDatabase()).execute();
+  }
+
+  @Benchmark
+  public void cachedStreamed(Blackhole blackhole) {
+    withInvoice((ReportServiceDatabase) factory.getServiceFromDatabase())
+        .execute(new BlackholeOutputStream(blackhole));
+  }
+
+  private ReportServiceDatabase withInvoice(ReportServiceDatabase report) {
+    return report
+        .withProductsData(items)
+        .put("invoiceId", "1042")
+        .put("invoiceDate", "15/03/2025")
+        .put("clientEmail", "cliente@example.com")
+        .put("clientName", "María Pérez")
+        .put("clientAddress", "Av. Winston Churchill 55, Santo Domingo")
+        .put("totalInvoice", "11,800.00")
+        .put("subtotal", "10,000.00")
+        .put("tax", "1,800.00")
+        .put("salesOrder", "");
+  }
+
+  static List<Map<String, Object>> invoiceLines(int count) {
+    List<Map<String, Object>> items = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      Map<String, Object> item = new HashMap<>();
+      item.put("productName", "Producto " + i);
+      item.put("description", "Descripción del producto " + i);
+      item.put("unitPrice", BigDecimal.valueOf(250 + i));
+      item.put("quantity", 1.0 + i % 3);
+      item.put("totalPrice", BigDecimal.valueOf((250 + i) * (1 + i % 3)));
+      items.add(item);
+    }
+    return items;
+  }
+
+  /** Consumes the PDF bytes without keeping them, as a client connection would. */
+  private static final class BlackholeOutputStream extends OutputStream {
+
+    private final Blackhole blackhole;
+
+    BlackholeOutputStream(Blackhole blackhole) {
+      this.blackhole = blackhole;
+    }
+
+    @Override
+    public void write(int b) {
+      blackhole.consume(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+      blackhole.consume(b);
+    }
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(InvoiceReportBenchmark.class.getSimpleName()).build())
+        .run();
+  }
+}
@@ -0,0 +1,87 @@
+package com.wornux.services.scheduling;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class IntervalTreeTest {
+
+  private record Interval(long id, long start, long end) {}
+
+  @Test
+  void overlapsAreHalfOpen() {
+    IntervalTree<Long> tree = new IntervalTree<>();
+    tree.insert(1, 10, 20, 1L);
+
+    assertTrue(tree.overlapping(0, 10).isEmpty());
+    assertTrue(tree.overlapping(20, 30).isEmpty());
+    assertEquals(List.of(1L), tree.overlapping(19, 30));
+    assertEquals(List.of(1L), tree.overlapping(0, 11));
+    assertEquals(List.of(1L), tree.overlapping(12, 13));
+  }
+
+  @Test
+  void longIntervalStartingBeforeTheRangeIsFound() {
+    IntervalTree<Long> tree = new IntervalTree<>();
+    tree.insert(1, 0, 1_000, 1L);
+    for (long id = 2; id < 200; id++) {
+      tree.insert(id, id * 10, id * 10 + 5, id);
+    }
+
+    List<Long> found = tree.overlapping(995, 1_001);
+
+    assertEquals(List.of(1L, 100L), found);
+  }
+
+  @Test
+  void matchesBruteForceUnderRandomInsertsAndRemovals() {
+    Random random = new Random(7L);
+    IntervalTree<Long> tree = new IntervalTree<>();
+    Map<Long, Interval> expected = new HashMap<>();
+
+    for (int step = 0; step < 20_000; step++) {
+      if (!expected.isEmpty() && random.nextInt(3) == 0) {
+        List<Long> ids = new ArrayList<>(expected.keySet());
+        Interval removed = expected.remove(ids.get(random.nextInt(ids.size())));
+        assertTrue(tree.remove(removed.id(), removed.start()));
+      } else {
+        long start = random.nextInt(10_000);
+        Interval added = new Interval(step, start, start + random.nextInt(300));
+        expected.put(added.id(), added);
+        tree.insert(added.id(), added.start(), added.end(), added.id());
+      }
+
+      if (step % 50 == 0) {
+        long from = random.nextInt(10_000);
+        long to = from + random.nextInt(500);
+        List<Long> bruteForce =
+            expected.values().stream()
+                .filter(i -> i.start() < to && i.end() > from)
+                .sorted(Comparator.comparingLong(Interval::start).thenComparingLong(Interval::id))
+                .map(Interval::id)
+                .toList();
+        assertEquals(bruteForce, tree.overlapping(from, to));
+        assertEquals(!bruteForce.isEmpty(), tree.anyOverlapping(from, to, id -> true));
+      }
+    }
+    assertEquals(expected.size(), tree.size());
+  }
+
+  @Test
+  void removingAnUnknownIntervalChangesNothing() {
+    IntervalTree<Long> tree = new IntervalTree<>();
+    tree.insert(1, 10, 20, 1L);
+
+    assertFalse(tree.remove(2, 10));
+    assertFalse(tree.remove(1, 11));
+    assertEquals(1, tree.size());
+  }
+}
@@ -0,0 +1,195 @@
+package com.wornux.services.scheduling;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.wornux.data.entity.Appointment;
+import com.wornux.data.entity.RecurrenceException;
+import com.wornux.exception.InvalidRecurrenceRuleException;
+import com.wornux.services.scheduling.AppointmentSeries.Occurrence;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class RecurrenceRuleTest {
+
+  // lunes
+  private static final LocalDateTime START = LocalDate.of(2025, 6, 2).atTime(9, 0);
+
+  @Test
+  void parsesTheSupportedSubsetAndFormatsItBack() {
+    RecurrenceRule rule = RecurrenceRule.parse("rrule:freq=weekly;byday=th,mo;interval=2;count=6");
+
+    assertEquals("FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,TH;COUNT=6", rule.toString());
+    assertEquals(
+        LocalDate.of(2025, 12, 31).atTime(23, 59, 59),
+        RecurrenceRule.parse("FREQ=DAILY;UNTIL=20251231").getUntil());
+    assertThrows(InvalidRecurrenceRuleException.class, () -> RecurrenceRule.parse("FREQ=YEARLY"));
+    assertThrows(
+        InvalidRecurrenceRuleException.class, () -> RecurrenceRule.parse("FREQ=DAILY;BYDAY=MO"));
+    assertThrows(
+        InvalidRecurrenceRuleException.class,
+        () -> RecurrenceRule.parse("FREQ=DAILY;COUNT=3;UNTIL=20251231"));
+    assertThrows(
+        InvalidRecurrenceRuleException.class, () -> RecurrenceRule.parse("FREQ=DAILY;BYSETPOS=1"));
+  }
+
+  @Test
+  void weeklyCountsFromTheStartAndStopsAtTheCount() {
+    RecurrenceRule rule = RecurrenceRule.parse("FREQ=WEEKLY;BYDAY=MO,WE;COUNT=3");
+    LocalDateTime wednesday = START.plusDays(2);
+
+    assertEquals(
+        List.of(wednesday, wednesday.plusDays(5), wednesday.plusDays(7)),
+        rule.startsBetween(wednesday, START, START.plusYears(1)));
+    assertEquals(wednesday.plusDays(7), rule.lastStart(wednesday));
+  }
+
+  @Test
+  void monthlySkipsMonthsWithoutTheDay() {
+    RecurrenceRule rule = RecurrenceRule.parse("FREQ=MONTHLY;COUNT=4");
+    LocalDateTime start = LocalDate.of(2025, 1, 31).atTime(10, 0);
+
+    assertEquals(
+        List.of(
+            start,
+            LocalDate.of(2025, 3, 31).atTime(10, 0),
+            LocalDate.of(2025, 5, 31).atTime(10, 0),
+            LocalDate.of(2025, 7, 31).atTime(10, 0)),
+        rule.startsBetween(start, start, start.plusYears(2)));
+  }
+
+  @Test
+  void openSeriesHaveNoEndAndExpandOnlyTheWindow() {
+    RecurrenceRule rule = RecurrenceRule.parse("FREQ=DAILY");
+    LocalDateTime from = START.plusYears(30);
+
+    assertNull(rule.lastStart(START));
+    assertEquals(
+        List.of(from, from.plusDays(1)), rule.startsBetween(START, from, from.plusDays(2)));
+  }
+
+  @Test
+  void matchesBruteForceOnRandomRules() {
+    Random random = new Random(7L);
+    for (int round = 0; round < 300; round++) {
+      RecurrenceRule.Frequency frequency =
+          RecurrenceRule.Frequency.values()[
+              random.nextInt(RecurrenceRule.Frequency.values().length)];
+      LocalDateTime start = START.plusDays(random.nextInt(60));
+      Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+      if (frequency == RecurrenceRule.Frequency.WEEKLY && random.nextBoolean()) {
+        days.add(start.getDayOfWeek());
+        days.add(DayOfWeek.of(1 + random.nextInt(7)));
+      }
+      Integer count = random.nextBoolean() ? 1 + random.nextInt(40) : null;
+      LocalDateTime until =
+          count == null && random.nextBoolean() ? start.plusDays(random.nextInt(400)) : null;
+      RecurrenceRule rule =
+          new RecurrenceRule(frequency, 1 + random.nextInt(3), days, count, until);
+      LocalDateTime from = start.plusDays(random.nextInt(500) - 30).plusHours(random.nextInt(24));
+      LocalDateTime to = from.plusDays(random.nextInt(90));
+
+      List<LocalDateTime> all = bruteForce(rule, frequency, days, start);
+      assertEquals(
+          all.stream().filter(s -> !s.isBefore(from) && s.isBefore(to)).toList(),
+          rule.startsBetween(start, from, to),
+          rule + " from " + start);
+      assertEquals(
+          count == null && until == null ? null : all.isEmpty() ? null : all.getLast(),
+          rule.lastStart(start),
+          rule + " from " + start);
+    }
+  }
+
+  @Test
+  void exceptionsCancelAndMoveSingleOccurrences() {
+    Appointment series =
+        Appointment.builder()
+            .startAppointmentDate(START)
+            .endAppointmentDate(START.plusMinutes(30))
+            .recurrenceRule("FREQ=WEEKLY;COUNT=4")
+            .build();
+    series.getRecurrenceExceptions().add(cancelled(START.plusWeeks(1)));
+    // la última se mueve a la primera semana
+    series
+        .getRecurrenceExceptions()
+        .add(moved(START.plusWeeks(3), START.plusDays(2), START.plusDays(2).plusHours(1)));
+
+    assertEquals(
+        List.of(
+            new Occurrence(START, START, START.plusMinutes(30)),
+            new Occurrence(START.plusWeeks(3), START.plusDays(2), START.plusDays(2).plusHours(1))),
+        AppointmentSeries.occurrences(series, START, START.plusDays(7)));
+    assertEquals(
+        List.of(START.plusWeeks(2)),
+        AppointmentSeries.occurrences(series, START.plusDays(7), START.plusYears(1)).stream()
+            .map(Occurrence::start)
+            .toList());
+    // una ocurrencia que empezó antes de la ventana y sigue en ella
+    assertEquals(
+        1, AppointmentSeries.occurrences(series, START.plusMinutes(10), START.plusHours(1)).size());
+    assertEquals(START.plusWeeks(3).plusMinutes(30), AppointmentSeries.seriesEnd(series));
+  }
+
+  private static List<LocalDateTime> bruteForce(
+      RecurrenceRule rule,
+      RecurrenceRule.Frequency frequency,
+      Set<DayOfWeek> days,
+      LocalDateTime start) {
+    List<LocalDateTime> starts = new ArrayList<>();
+    int interval = rule.getInterval();
+    LocalDate firstMonday = start.toLocalDate().minusDays(start.getDayOfWeek().ordinal());
+    for (int day = 0; day < 8000; day++) {
+      LocalDate date = start.toLocalDate().plusDays(day);
+      boolean matches =
+          switch (frequency) {
+            case DAILY -> day % interval == 0;
+            case WEEKLY ->
+                ((date.toEpochDay() - firstMonday.toEpochDay()) / 7) % interval == 0
+                    && (days.isEmpty()
+                        ? date.getDayOfWeek() == start.getDayOfWeek()
+                        : days.contains(date.getDayOfWeek()));
+            case MONTHLY ->
+                date.getDayOfMonth() == start.getDayOfMonth()
+                    && (YearMonth.from(date).getYear() * 12L
+                                + YearMonth.from(date).getMonthValue()
+                                - start.getYear() * 12L
+                                - start.getMonthValue())
+                            % interval
+                        == 0;
+          };
+      LocalDateTime occurrence = date.atTime(start.toLocalTime());
+      if (!matches) {
+        continue;
+      }
+      if ((rule.getCount() != null && starts.size() == rule.getCount())
+          || (rule.getUntil() != null && occurrence.isAfter(rule.getUntil()))) {
+        break;
+      }
+      starts.add(occurrence);
+    }
+    return starts;
+  }
+
+  private static RecurrenceException cancelled(LocalDateTime originalStart) {
+    return RecurrenceException.builder().originalStart(originalStart).cancelled(true).build();
+  }
+
+  private static RecurrenceException moved(
+      LocalDateTime originalStart, LocalDateTime start, LocalDateTime end) {
+    return RecurrenceException.builder()
+        .originalStart(originalStart)
+        .startAppointmentDate(start)
+        .endAppointmentDate(end)
+        .build();
+  }
+}
@@ -0,0 +1,113 @@
+package com.wornux.services.scheduling;
+
+import com.wornux.data.entity.WorkScheduleDay;
+import com.wornux.services.scheduling.SlotFinder.Slot;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Slot search over a month for a dozen employees: building their {@link SlotGrid}s from weekly
+ * schedules and appointments, and searching the built grids with {@link SlotFinder}. {@code
+ * occupancy} is the share of working time already booked; at 95% most days have no room left.
+ *
+ * <p>Run with {@code main} from the IDE, or from the test classpath with {@code
+ * org.openjdk.jmh.Main SlotFinderBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SlotFinderBenchmark {
+
+  private static final LocalDate FIRST_DAY = LocalDate.of(2025, 6, 2);
+  private static final int DAYS = 31;
+  private static final int EMPLOYEES = 12;
+
+  @Param({"0.5", "0.95"})
+  double occupancy;
+
+  private List<WorkScheduleDay> schedule;
+  private List<List<LocalDateTime[]>> appointments;
+  private List<SlotGrid> grids;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    schedule = SlotFinderTest.weekdays(LocalTime.of(8, 0), LocalTime.of(18, 0));
+    appointments = syntheticAppointments(occupancy, 42L);
+    grids = buildGrids();
+  }
+
+  @Benchmark
+  public List<SlotGrid> buildGrids() {
+    List<SlotGrid> built = new ArrayList<>(EMPLOYEES);
+    for (List<LocalDateTime[]> busy : appointments) {
+      SlotGrid grid = new SlotGrid(FIRST_DAY, DAYS);
+      grid.openSchedule(schedule);
+      busy.forEach(appointment -> grid.block(appointment[0], appointment[1]));
+      built.add(grid);
+    }
+    return built;
+  }
+
+  @Benchmark
+  public List<Slot> findNextTen() {
+    return SlotFinder.find(grids, FIRST_DAY.atTime(8, 0), 45, 10);
+  }
+
+  @Benchmark
+  public List<Slot> buildAndFindNextTen() {
+    return SlotFinder.find(buildGrids(), FIRST_DAY.atTime(8, 0), 45, 10);
+  }
+
+  /**
+   * 30-minute appointments over each employee's weekday hours until {@code occupancy} is booked.
+   */
+  static List<List<LocalDateTime[]>> syntheticAppointments(double occupancy, long seed) {
+    Random random = new Random(seed);
+    List<List<LocalDateTime[]>> appointments = new ArrayList<>();
+    for (int e = 0; e < EMPLOYEES; e++) {
+      List<LocalDateTime[]> busy = new ArrayList<>();
+      for (int day = 0; day < DAYS; day++) {
+        LocalDate date = FIRST_DAY.plusDays(day);
+        if (date.getDayOfWeek().getValue() > 5) {
+          continue;
+        }
+        for (int half = 0; half < 20; half++) {
+          if (random.nextDouble() < occupancy) {
+            LocalDateTime start = date.atTime(8, 0).plusMinutes(30L * half);
+            busy.add(new LocalDateTime[] {start, start.plusMinutes(30)});
+          }
+        }
+      }
+      appointments.add(busy);
+    }
+    return appointments;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(SlotFinderBenchmark.class.getSimpleName()).build())
+        .run();
+  }
+}
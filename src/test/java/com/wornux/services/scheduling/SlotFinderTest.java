@@ -0,0 +1,176 @@
+package com.wornux.services.scheduling;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.wornux.data.entity.WorkScheduleDay;
+import com.wornux.services.scheduling.SlotFinder.Slot;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class SlotFinderTest {
+
+  // lunes
+  private static final LocalDate MONDAY = LocalDate.of(2025, 6, 2);
+
+  @Test
+  void scheduleOpensOnlyItsWeekdaysAndRoundsInwards() {
+    SlotGrid grid = new SlotGrid(MONDAY.plusDays(2), 14);
+    grid.openSchedule(
+        List.of(
+            workDay(DayOfWeek.MONDAY, LocalTime.of(8, 2), LocalTime.of(12, 58)),
+            WorkScheduleDay.builder().dayOfWeek(DayOfWeek.TUESDAY).isOffDay(true).build()));
+
+    // el grid empieza un miércoles: los lunes son los días 5 y 12
+    assertFalse(grid.isFree(5, slot(8, 0)));
+    assertTrue(grid.isFree(5, slot(8, 5)));
+    assertTrue(grid.isFree(12, slot(12, 50)));
+    assertFalse(grid.isFree(12, slot(12, 55)));
+    assertFalse(grid.isFree(6, slot(10, 0)));
+  }
+
+  @Test
+  void appointmentsCloseEveryTouchedSlotAcrossMidnight() {
+    SlotGrid grid = new SlotGrid(MONDAY, 2);
+    grid.open(0, 0, SlotGrid.SLOTS_PER_DAY);
+    grid.open(1, 0, SlotGrid.SLOTS_PER_DAY);
+
+    grid.block(MONDAY.atTime(23, 52), MONDAY.plusDays(1).atTime(0, 11));
+
+    assertTrue(grid.isFree(0, slot(23, 45)));
+    assertFalse(grid.isFree(0, slot(23, 50)));
+    assertFalse(grid.isFree(1, slot(0, 10)));
+    assertTrue(grid.isFree(1, slot(0, 15)));
+    assertEquals(slot(0, 15), grid.findRun(1, 0, 3));
+  }
+
+  @Test
+  void mergesEmployeesByStartTime() {
+    SlotGrid early = new SlotGrid(MONDAY, 7);
+    early.openSchedule(weekdays(LocalTime.of(8, 0), LocalTime.of(10, 0)));
+    early.block(MONDAY.atTime(8, 0), MONDAY.atTime(9, 30));
+    SlotGrid late = new SlotGrid(MONDAY, 7);
+    late.openSchedule(weekdays(LocalTime.of(9, 0), LocalTime.of(11, 0)));
+
+    List<Slot> slots = SlotFinder.find(List.of(early, late), MONDAY.atTime(7, 0), 30, 4);
+
+    assertEquals(
+        List.of(
+            new Slot(1, MONDAY.atTime(9, 0), MONDAY.atTime(9, 30)),
+            new Slot(0, MONDAY.atTime(9, 30), MONDAY.atTime(10, 0)),
+            new Slot(1, MONDAY.atTime(9, 30), MONDAY.atTime(10, 0)),
+            new Slot(1, MONDAY.atTime(10, 0), MONDAY.atTime(10, 30))),
+        slots);
+  }
+
+  @Test
+  void startsAfterTheRequestedTimeAndMovesOnToLaterDays() {
+    SlotGrid grid = new SlotGrid(MONDAY, 7);
+    grid.openSchedule(weekdays(LocalTime.of(8, 0), LocalTime.of(9, 0)));
+
+    List<Slot> slots = SlotFinder.find(List.of(grid), MONDAY.atTime(8, 31), 45, 2);
+
+    assertEquals(
+        List.of(
+            new Slot(0, MONDAY.plusDays(1).atTime(8, 0), MONDAY.plusDays(1).atTime(8, 45)),
+            new Slot(0, MONDAY.plusDays(2).atTime(8, 0), MONDAY.plusDays(2).atTime(8, 45))),
+        slots);
+  }
+
+  @Test
+  void matchesBruteForceOnRandomGrids() {
+    Random random = new Random(11L);
+    for (int round = 0; round < 200; round++) {
+      List<SlotGrid> grids = new ArrayList<>();
+      List<boolean[][]> free = new ArrayList<>();
+      for (int g = 0; g < 3; g++) {
+        SlotGrid grid = new SlotGrid(MONDAY, 3);
+        boolean[][] cells = new boolean[3][SlotGrid.SLOTS_PER_DAY];
+        for (int day = 0; day < 3; day++) {
+          for (int i = 0; i < 6; i++) {
+            int from = random.nextInt(SlotGrid.SLOTS_PER_DAY);
+            int to = Math.min(SlotGrid.SLOTS_PER_DAY, from + random.nextInt(80));
+            boolean open = random.nextInt(3) > 0;
+            if (open) {
+              grid.open(day, from, to);
+            } else {
+              grid.close(day, from, to);
+            }
+            for (int s = from; s < to; s++) {
+              cells[day][s] = open;
+            }
+          }
+        }
+        grids.add(grid);
+        free.add(cells);
+      }
+      int length = 1 + random.nextInt(12);
+      LocalDateTime from = MONDAY.atStartOfDay().plusMinutes(5L * random.nextInt(600));
+
+      assertEquals(
+          bruteForce(free, from, length, 6),
+          SlotFinder.find(grids, from, length * SlotGrid.SLOT_MINUTES, 6));
+    }
+  }
+
+  private static List<Slot> bruteForce(
+      List<boolean[][]> free, LocalDateTime from, int length, int count) {
+    int first = (int) (Duration.between(MONDAY.atStartOfDay(), from).toMinutes() / 5);
+    List<Slot> slots = new ArrayList<>();
+    for (int day = first / SlotGrid.SLOTS_PER_DAY; day < 3; day++) {
+      List<long[]> candidates = new ArrayList<>();
+      for (int g = 0; g < free.size(); g++) {
+        boolean[] cells = free.get(g)[day];
+        int s = day == first / SlotGrid.SLOTS_PER_DAY ? first % SlotGrid.SLOTS_PER_DAY : 0;
+        while (s + length <= SlotGrid.SLOTS_PER_DAY) {
+          int run = 0;
+          while (run < length && cells[s + run]) {
+            run++;
+          }
+          if (run == length) {
+            candidates.add(new long[] {s, g});
+            s += length;
+          } else {
+            s += run + 1;
+          }
+        }
+      }
+      candidates.sort((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+      for (long[] candidate : candidates) {
+        if (slots.size() == count) {
+          return slots;
+        }
+        LocalDateTime start = MONDAY.plusDays(day).atStartOfDay().plusMinutes(candidate[0] * 5);
+        slots.add(new Slot((int) candidate[1], start, start.plusMinutes(length * 5L)));
+      }
+    }
+    return slots;
+  }
+
+  static List<WorkScheduleDay> weekdays(LocalTime start, LocalTime end) {
+    List<WorkScheduleDay> schedule = new ArrayList<>();
+    for (DayOfWeek day : DayOfWeek.values()) {
+      schedule.add(
+          day.getValue() <= 5
+              ? workDay(day, start, end)
+              : WorkScheduleDay.builder().dayOfWeek(day).isOffDay(true).build());
+    }
+    return schedule;
+  }
+
+  private static WorkScheduleDay workDay(DayOfWeek day, LocalTime start, LocalTime end) {
+    return WorkScheduleDay.builder().dayOfWeek(day).startTime(start).endTime(end).build();
+  }
+
+  private static int slot(int hour, int minute) {
+    return (hour * 60 + minute) / SlotGrid.SLOT_MINUTES;
+  }
+}
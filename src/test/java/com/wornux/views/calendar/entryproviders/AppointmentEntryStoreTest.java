@@ -0,0 +1,124 @@
+package com.wornux.views.calendar.entryproviders;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.wornux.dto.response.AppointmentResponseDto;
+import com.wornux.views.calendar.entryproviders.AppointmentEntryStore.ChangeType;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.vaadin.stefan.fullcalendar.Entry;
+
+class AppointmentEntryStoreTest {
+
+  private static final LocalDate DAY = LocalDate.of(2025, 6, 2);
+
+  private final Map<Long, AppointmentResponseDto> database = new TreeMap<>();
+  private final List<LocalDateTime[]> loads = new ArrayList<>();
+  private final AppointmentEntryStore store =
+      new AppointmentEntryStore(this::load, a -> new Entry(AppointmentEntryStore.entryId(a)));
+
+  @Test
+  void fetchesOverlappingEntriesIncludingThoseStartedBefore() {
+    save(1L, DAY.minusDays(1).atTime(22, 0), DAY.atTime(2, 0));
+    save(2L, DAY.atTime(9, 0), DAY.atTime(10, 0));
+    save(3L, DAY.atTime(23, 0), DAY.plusDays(1).atTime(1, 0));
+    save(4L, DAY.plusDays(1).atTime(0, 0), DAY.plusDays(1).atTime(1, 0));
+    save(5L, DAY.minusDays(1).atTime(9, 0), DAY.minusDays(1).atTime(10, 0));
+
+    assertEquals(
+        List.of("1", "2", "3"),
+        ids(store.fetch(DAY.atStartOfDay(), DAY.plusDays(1).atStartOfDay())));
+  }
+
+  @Test
+  void nearbyRangesAreAnsweredFromMemoryAndOnlyMissingPartsAreRead() {
+    save(1L, DAY.atTime(9, 0), DAY.atTime(10, 0));
+    save(2L, DAY.plusDays(20).atTime(9, 0), DAY.plusDays(20).atTime(10, 0));
+
+    assertEquals(
+        List.of("1"), ids(store.fetch(DAY.atStartOfDay(), DAY.plusDays(7).atStartOfDay())));
+    assertEquals(
+        List.of(),
+        ids(store.fetch(DAY.plusDays(1).atStartOfDay(), DAY.plusDays(2).atStartOfDay())));
+    assertEquals(1, loads.size());
+
+    assertEquals(
+        List.of("2"),
+        ids(store.fetch(DAY.plusDays(14).atStartOfDay(), DAY.plusDays(21).atStartOfDay())));
+    assertEquals(2, loads.size());
+    // sólo el tramo nuevo
+    assertEquals(DAY.plusDays(14).atStartOfDay(), loads.get(1)[0]);
+    assertEquals(2, store.size());
+  }
+
+  @Test
+  void appliedChangesMoveAndRemoveEntriesById() {
+    save(1L, DAY.atTime(9, 0), DAY.atTime(10, 0));
+    store.fetch(DAY.atStartOfDay(), DAY.plusDays(1).atStartOfDay());
+
+    assertEquals(
+        ChangeType.ADDED,
+        store.apply(2L, save(2L, DAY.atTime(11, 0), DAY.atTime(12, 0))).orElseThrow().type());
+    assertEquals(
+        ChangeType.UPDATED,
+        store.apply(1L, save(1L, DAY.atTime(15, 0), DAY.atTime(16, 0))).orElseThrow().type());
+    assertEquals(
+        List.of("2", "1"), ids(store.fetch(DAY.atStartOfDay(), DAY.plusDays(1).atStartOfDay())));
+
+    assertEquals(ChangeType.REMOVED, store.apply(2L, null).orElseThrow().type());
+    // fuera del rango cargado: sale del calendario
+    assertEquals(
+        ChangeType.REMOVED,
+        store
+            .apply(1L, save(1L, DAY.plusYears(1).atTime(9, 0), DAY.plusYears(1).atTime(10, 0)))
+            .orElseThrow()
+            .type());
+    assertTrue(store.apply(3L, null).isEmpty());
+    assertEquals(0, store.size());
+  }
+
+  @Test
+  void occurrencesGetTheirOwnEntriesAndSeriesChangesReload() {
+    AppointmentResponseDto first = save(1L, DAY.atTime(9, 0), DAY.atTime(10, 0));
+    first.setRecurrenceRule("FREQ=DAILY");
+    first.setOccurrenceStart(first.getStartAppointmentDate());
+    store.fetch(DAY.atStartOfDay(), DAY.plusDays(1).atStartOfDay());
+
+    String entryId = AppointmentEntryStore.entryId(first);
+    assertEquals(1L, AppointmentEntryStore.appointmentId(entryId));
+    assertEquals(DAY.atTime(9, 0), AppointmentEntryStore.occurrenceStart(entryId).orElseThrow());
+    assertTrue(store.get(entryId).isPresent());
+
+    assertEquals(ChangeType.RELOADED, store.apply(1L, null).orElseThrow().type());
+    assertEquals(0, store.size());
+  }
+
+  private AppointmentResponseDto save(Long id, LocalDateTime start, LocalDateTime end) {
+    AppointmentResponseDto appointment = new AppointmentResponseDto();
+    appointment.setEventId(id);
+    appointment.setStartAppointmentDate(start);
+    appointment.setEndAppointmentDate(end);
+    database.put(id, appointment);
+    return appointment;
+  }
+
+  private List<AppointmentResponseDto> load(LocalDateTime from, LocalDateTime to) {
+    loads.add(new LocalDateTime[] {from, to});
+    return database.values().stream()
+        .filter(
+            a ->
+                a.getStartAppointmentDate().isBefore(to) && a.getEndAppointmentDate().isAfter(from))
+        .toList();
+  }
+
+  private static List<String> ids(Stream<Entry> entries) {
+    return entries.map(Entry::getId).toList();
+  }
+}